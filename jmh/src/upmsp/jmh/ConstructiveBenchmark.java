@@ -0,0 +1,56 @@
+package upmsp.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import upmsp.algorithm.constructive.SimpleConstructive;
+import upmsp.model.Problem;
+import upmsp.model.solution.Solution;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the constructive procedures.
+ *
+ * @author Andre L. Maravilha
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ConstructiveBenchmark {
+
+    @Param({"50x10", "150x20", "250x30"})
+    public String size;
+
+    private Problem problem;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        problem = Instances.problem(size);
+        random = new Random(Instances.SEED);
+    }
+
+    @Benchmark
+    public Solution greedySolution() {
+        return SimpleConstructive.greedySolution(problem, random);
+    }
+
+    @Benchmark
+    public Solution naiveSolution() {
+        return SimpleConstructive.naiveSolution(problem);
+    }
+
+    @Benchmark
+    public Solution veryNaiveSolution() {
+        return SimpleConstructive.veryNaiveSolution(problem);
+    }
+
+    @Benchmark
+    public Solution randomSolution() {
+        return SimpleConstructive.randomSolution(problem, random);
+    }
+
+}
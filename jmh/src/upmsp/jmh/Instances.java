@@ -0,0 +1,87 @@
+package upmsp.jmh;
+
+import upmsp.model.Problem;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.Random;
+
+/**
+ * Instances of the problem used by the benchmarks. The instances are generated in the same format and with the same
+ * distributions of the instances of Vallada and Ruiz with setup times from 1 to 9 (processing times uniformly drawn
+ * from 1 to 99 and setup times uniformly drawn from 1 to 9), so no file needs to be bundled with the benchmarks.
+ *
+ * @author Andre L. Maravilha
+ */
+public class Instances {
+
+    /**
+     * Seed used to generate the instances, so all benchmarks of a given size run on the same instance.
+     */
+    public static final long SEED = 1L;
+
+    /**
+     * Generate the content of an instance file.
+     * @param nJobs Number of jobs.
+     * @param nMachines Number of machines.
+     * @param seed Seed of the random number generator.
+     * @return The content of the instance file.
+     */
+    public static String generate(int nJobs, int nMachines, long seed) {
+        Random random = new Random(seed);
+        StringBuilder sb = new StringBuilder();
+        sb.append(nJobs).append(' ').append(nMachines).append('\n');
+        sb.append(2).append('\n');
+
+        // Processing times
+        for (int job = 0; job < nJobs; ++job) {
+            for (int machine = 0; machine < nMachines; ++machine) {
+                sb.append(machine > 0 ? " " : "").append(machine).append(' ').append(1 + random.nextInt(99));
+            }
+            sb.append('\n');
+        }
+
+        // Setup times
+        sb.append("SSD\n");
+        for (int machine = 0; machine < nMachines; ++machine) {
+            sb.append('M').append(machine).append('\n');
+            for (int job = 0; job < nJobs; ++job) {
+                for (int nextJob = 0; nextJob < nJobs; ++nextJob) {
+                    sb.append(nextJob > 0 ? " " : "").append(1 + random.nextInt(9));
+                }
+                sb.append('\n');
+            }
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Generate the content of an instance file.
+     * @param size Size of the instance, written as "{number of jobs}x{number of machines}" (e.g., "50x10").
+     * @return The content of the instance file.
+     */
+    public static String generate(String size) {
+        String[] dimensions = size.split("x");
+        if (dimensions.length != 2) {
+            throw new IllegalArgumentException("Invalid size of instance: " + size);
+        }
+        return generate(Integer.parseInt(dimensions[0].trim()), Integer.parseInt(dimensions[1].trim()), SEED);
+    }
+
+    /**
+     * Generate an instance of the problem.
+     * @param size Size of the instance, written as "{number of jobs}x{number of machines}" (e.g., "50x10").
+     * @return The instance of the problem.
+     */
+    public static Problem problem(String size) {
+        try {
+            return new Problem(new BufferedReader(new StringReader(generate(size))));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,96 @@
+package upmsp.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import upmsp.algorithm.constructive.SimpleConstructive;
+import upmsp.model.Problem;
+import upmsp.model.solution.Machine;
+import upmsp.model.solution.Solution;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the evaluation (delta cost) and of the modification of the sequence of jobs of a machine. Each call
+ * takes the next of a fixed list of random operations (machine, position and job) on a greedy solution.
+ *
+ * @author Andre L. Maravilha
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MachineBenchmark {
+
+    /**
+     * Number of random operations (must be a power of 2).
+     */
+    private static final int OPERATIONS = 1024;
+
+    @Param({"50x10", "150x20", "250x30"})
+    public String size;
+
+    private Solution solution;
+
+    private Machine[] machines;
+    private int[] jobs;
+    private int[] addIndexes;
+    private int[] indexes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Problem problem = Instances.problem(size);
+        Random random = new Random(Instances.SEED);
+        solution = SimpleConstructive.greedySolution(problem, random);
+
+        machines = new Machine[OPERATIONS];
+        jobs = new int[OPERATIONS];
+        addIndexes = new int[OPERATIONS];
+        indexes = new int[OPERATIONS];
+        for (int i = 0; i < OPERATIONS; ++i) {
+            Machine machine;
+            do {
+                machine = solution.machines[random.nextInt(solution.machines.length)];
+            } while (machine.getNJobs() == 0);
+
+            machines[i] = machine;
+            jobs[i] = random.nextInt(problem.nJobs);
+            addIndexes[i] = random.nextInt(machine.getNJobs() + 1);
+            indexes[i] = random.nextInt(machine.getNJobs());
+        }
+        next = 0;
+    }
+
+    @Benchmark
+    public int deltaCostAddJob() {
+        int i = next++ & (OPERATIONS - 1);
+        return machines[i].getDeltaCostAddJob(jobs[i], addIndexes[i]);
+    }
+
+    @Benchmark
+    public int deltaCostDelJob() {
+        int i = next++ & (OPERATIONS - 1);
+        return machines[i].getDeltaCostDelJob(indexes[i]);
+    }
+
+    @Benchmark
+    public int deltaCostSetJob() {
+        int i = next++ & (OPERATIONS - 1);
+        return machines[i].getDeltaCostSetJob(jobs[i], indexes[i]);
+    }
+
+    /**
+     * Add a job to a machine and then remove it, so the machine is back to its original sequence.
+     */
+    @Benchmark
+    public int addDelJob() {
+        int i = next++ & (OPERATIONS - 1);
+        Machine machine = machines[i];
+        machine.addJob(jobs[i], addIndexes[i]);
+        machine.delJob(addIndexes[i]);
+        return machine.getMakespan();
+    }
+
+}
@@ -0,0 +1,92 @@
+package upmsp.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import upmsp.algorithm.constructive.SimpleConstructive;
+import upmsp.algorithm.neighborhood.*;
+import upmsp.model.Problem;
+import upmsp.model.solution.Solution;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of a cycle of each move: a neighbor of a greedy solution is generated (doMove) and then rejected, so the
+ * solution is back to its original state.
+ *
+ * @author Andre L. Maravilha
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoveBenchmark {
+
+    @Param({"50x10", "150x20", "250x30"})
+    public String size;
+
+    @Param({"shift", "direct-swap", "swap", "switch", "task-move", "two-shift", "or-opt"})
+    public String move;
+
+    @Param({"false", "true"})
+    public boolean intensification;
+
+    @Param({"false", "true"})
+    public boolean makespanMachine;
+
+    private Solution solution;
+    private Move neighborhood;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Problem problem = Instances.problem(size);
+        Random random = new Random(Instances.SEED);
+        solution = SimpleConstructive.greedySolution(problem, random);
+
+        switch (move) {
+
+            case "shift":
+                neighborhood = new Shift(problem, random);
+                break;
+
+            case "direct-swap":
+                neighborhood = new SimpleSwap(problem, random);
+                break;
+
+            case "swap":
+                neighborhood = new Swap(problem, random);
+                break;
+
+            case "switch":
+                neighborhood = new Switch(problem, random);
+                break;
+
+            case "task-move":
+                neighborhood = new TaskMove(problem, random);
+                break;
+
+            case "two-shift":
+                neighborhood = new TwoShift(problem, random);
+                break;
+
+            case "or-opt":
+                neighborhood = new OrOpt(problem, random);
+                break;
+
+            default:
+                throw new IllegalArgumentException("Invalid move: " + move);
+        }
+    }
+
+    @Benchmark
+    public int doMoveAndReject() {
+        if (!neighborhood.hasMove(solution, intensification, makespanMachine)) {
+            return 0;
+        }
+        int deltaCost = neighborhood.doMove(solution, intensification, makespanMachine);
+        neighborhood.reject();
+        return deltaCost;
+    }
+
+}
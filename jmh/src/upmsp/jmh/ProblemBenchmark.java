@@ -0,0 +1,55 @@
+package upmsp.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import upmsp.model.Problem;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the loading of an instance of the problem, from a file and from its content already in memory (i.e.,
+ * without the cost of reading the file).
+ *
+ * @author Andre L. Maravilha
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProblemBenchmark {
+
+    @Param({"50x10", "150x20", "250x30"})
+    public String size;
+
+    private String content;
+    private Path path;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        content = Instances.generate(size);
+        path = Files.createTempFile("upmsp-" + size + "-", ".txt");
+        Files.write(path, content.getBytes());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Benchmark
+    public Problem loadFromFile() throws IOException {
+        return new Problem(path.toString());
+    }
+
+    @Benchmark
+    public Problem loadFromMemory() throws IOException {
+        return new Problem(new BufferedReader(new StringReader(content)));
+    }
+
+}
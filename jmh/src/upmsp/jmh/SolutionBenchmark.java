@@ -0,0 +1,43 @@
+package upmsp.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import upmsp.algorithm.constructive.SimpleConstructive;
+import upmsp.model.solution.Solution;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the update of the cost of a solution and of the copy of a solution.
+ *
+ * @author Andre L. Maravilha
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SolutionBenchmark {
+
+    @Param({"50x10", "150x20", "250x30"})
+    public String size;
+
+    private Solution solution;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        solution = SimpleConstructive.greedySolution(Instances.problem(size), new Random(Instances.SEED));
+    }
+
+    @Benchmark
+    public int updateCost() {
+        return solution.updateCost();
+    }
+
+    @Benchmark
+    public Solution cloneSolution() {
+        return solution.clone();
+    }
+
+}
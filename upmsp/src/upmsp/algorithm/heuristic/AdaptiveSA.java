@@ -82,6 +82,9 @@ public class AdaptiveSA extends Heuristic {
         if (callback != null) {
             callback.onNewIncumbent(bestSolution, null, 0L, timeLimitNano, 0L, maxIters);
             callback.onIteration(bestSolution, 0L, timeLimitNano, 0L, maxIters);
+            long pausedNano = takePausedTime();
+            startTimeNano += pausedNano;
+            finalTimeNano += pausedNano;
         }
 
         // Initialize probabilities assinged to each move
@@ -106,7 +109,7 @@ public class AdaptiveSA extends Heuristic {
             } while (!move.hasMove(solution, useIntensificationPolicy, useMakespanMachine));
 
             // Do move
-            int delta = move.doMove(solution, useIntensificationPolicy, useMakespanMachine);
+            int delta = doMove(move, solution, useIntensificationPolicy, useMakespanMachine);
 
             // if solution is improved...
             if (delta < 0) {
@@ -117,9 +120,13 @@ public class AdaptiveSA extends Heuristic {
                     bestSolution = solution.clone();
                     Util.safePrintStatus(output, previousBestSolution, bestSolution, solution, nIters, System.nanoTime() - startTimeNano, "*");
 
-                    // Callback for new incumbent solution
+                    // Event and callback for new incumbent solution
+                    events.incumbent(bestSolution, move.getClass(), nIters + 1, System.nanoTime() - startTimeNano);
                     if (callback != null) {
                         callback.onNewIncumbent(bestSolution, move.getClass(),System.nanoTime() - startTimeNano, timeLimitNano, nIters + 1, maxIters);
+                        long pausedNano = takePausedTime();
+                        startTimeNano += pausedNano;
+                        finalTimeNano += pausedNano;
                     }
                 }
             }
@@ -143,17 +150,25 @@ public class AdaptiveSA extends Heuristic {
             }
 
             // if necessary, updates temperature
+            boolean temperatureStep = false;
             if (++itersInTemperature >= saMax) {
                 itersInTemperature = 0;
+                temperatureStep = true;
                 temperature = alpha * temperature;
                 if (temperature < EPS) {
                     temperature = t0;
                     Util.safePrintText(output, "Re-heating Simulated Annealing");
+                    events.temperature(nIters, temperature, true);
+                } else {
+                    events.temperature(nIters, temperature, false);
                 }
             }
 
-            // Update iteration counter
+            // Update iteration counter (and windowed stats of the moves)
             nIters++;
+            updateWindows(startTimeNano, temperature, temperatureStep);
+            events.iteration(nIters, temperature, bestSolution, solution);
+            publishMetrics(startTimeNano, temperature, solution, false);
 
             // if necessary, update probabilities values
             if (++itersInUtility >= updateFrequency) {
@@ -164,10 +179,18 @@ public class AdaptiveSA extends Heuristic {
             // Callback for iteration
             if (callback != null) {
                 callback.onIteration(bestSolution, System.nanoTime() - startTimeNano, timeLimitNano, nIters, maxIters);
+                long pausedNano = takePausedTime();
+                startTimeNano += pausedNano;
+                finalTimeNano += pausedNano;
             }
 
         }
 
+        // Close the last (incomplete) window of the windowed stats of the moves
+        closeWindows(startTimeNano, temperature);
+        publishMetrics(startTimeNano, temperature, solution, true);
+        endTrace(solution);
+
         return bestSolution;
     }
 
@@ -198,6 +221,9 @@ public class AdaptiveSA extends Heuristic {
         for (int i = 0; i < probabilities.length; ++i) {
             probabilities[i] = (1.0 - maxProbability + (moves.size() * maxProbability - 1.0) * (probabilities[i] / sum)) / (moves.size() - 1.0);
         }
+
+        // Event (sampled) of the update of probabilities
+        events.probabilities(nIters, runtime, moves, probabilities);
     }
 
     /**
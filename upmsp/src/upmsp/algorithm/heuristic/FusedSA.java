@@ -0,0 +1,134 @@
+package upmsp.algorithm.heuristic;
+
+import org.apache.commons.math3.util.*;
+import upmsp.algorithm.neighborhood.*;
+import upmsp.model.*;
+import upmsp.model.solution.*;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * This class is a Simulated Annealing with a specialized engine for the built-in moves. The moves are done by a
+ * {@link MoveKernel}, which dispatches them with a switch instead of virtual calls and keeps the data to undo them in
+ * a primitive array. The random numbers drawn and the changes in the solution are the same of {@link SA}, so the
+ * results are identical for a fixed seed and number of iterations (only the number of iterations per second
+ * changes). Only the move of each iteration is done by the kernel: the rest of the search is the loop of {@link SA}.
+ * If a move is not a built-in move, or if the moves are timed or traced (which need the generic calls), it runs as
+ * {@link SA}.
+ *
+ * @author Andre L. Maravilha
+ */
+public class FusedSA extends SA {
+
+    /**
+     * Kernel of the moves of the current run (null if the specialized engine is not used).
+     */
+    private MoveKernel kernel = null;
+
+    /**
+     * Instantiates a new FusedSA.
+     *
+     * @param problem problem reference
+     * @param random  random number generator.
+     * @param alpha   cooling rate for the simulated annealing
+     * @param t0      initial temperature, T0
+     * @param saMax   number of iterations before update the temperature
+     */
+    public FusedSA(Problem problem, Random random, double alpha, double t0, int saMax) {
+        super(problem, random, alpha, t0, saMax);
+    }
+
+    /**
+     * Returns whether the specialized engine is used with the current moves and settings.
+     *
+     * @return true if the specialized engine is used, false if it runs as {@link SA}.
+     */
+    public boolean isFused() {
+        return MoveKernel.supports(moves) && !isTiming() && getTrace() == null;
+    }
+
+    /**
+     * Executes the Simulated Annealing.
+     *
+     * @param initialSolution the initial (input) solution.
+     * @param timeLimitNano   the time limit (in nanoseconds).
+     * @param maxIters        the maximum number of iterations without improvements to execute.
+     * @param callback        callback object.
+     * @param output          output PrintStream for logging purposes.
+     * @return the best solution encountered by the SA.
+     */
+    @Override
+    public Solution run(Solution initialSolution, long timeLimitNano, long maxIters, Callback callback, PrintStream output) {
+        kernel = (isFused() ? new MoveKernel(moves) : null);
+        try {
+            return search(initialSolution, timeLimitNano, maxIters, callback, output);
+        } finally {
+            kernel = null;
+        }
+    }
+
+    /**
+     * Does the move of an iteration with the kernel (or as {@link SA}, if the specialized engine is not used).
+     *
+     * @param solution    the current solution (modified by the move, if it is accepted).
+     * @param temperature the current temperature.
+     * @return the class of the move if it improved the solution, null otherwise.
+     */
+    @Override
+    protected Class<? extends Move> iterate(Solution solution, double temperature) {
+        if (kernel == null) {
+            return super.iterate(solution, temperature);
+        }
+
+        // Select a move and a strategy (the same random numbers of selectMove())
+        int move;
+        boolean useIntensificationPolicy;
+        boolean useMakespanMachine;
+
+        do {
+            useIntensificationPolicy = random.nextBoolean();
+            useMakespanMachine = random.nextBoolean();
+            move = random.nextInt(kernel.getNMoves());
+        } while (!kernel.hasMove(move, solution, useIntensificationPolicy, useMakespanMachine));
+
+        // Do move
+        int delta = kernel.doMove(move, solution, useIntensificationPolicy, useMakespanMachine);
+
+        // if solution is improved...
+        if (delta < 0) {
+            kernel.accept();
+            return kernel.getMove(move).getClass();
+        }
+
+        // if solution is not improved, but is accepted...
+        else if (delta == 0) {
+            kernel.accept();
+        }
+
+        // solution is not improved, but may be accepted with a probability...
+        else {
+            double x = random.nextDouble();
+            if (x < 1 / FastMath.exp(delta / temperature)) {
+                kernel.accept();
+            }
+
+            // if solution is rejected..
+            else {
+                kernel.reject();
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the string representation of this heuristic.
+     *
+     * @return the string representation of this heuristic (with parameters values).
+     */
+    public String toString() {
+        return super.toString() + " [fused engine]";
+    }
+
+}
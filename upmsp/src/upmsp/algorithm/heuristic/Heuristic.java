@@ -1,8 +1,11 @@
 package upmsp.algorithm.heuristic;
 
 import upmsp.algorithm.neighborhood.*;
+import upmsp.jfr.*;
+import upmsp.metrics.*;
 import upmsp.model.*;
 import upmsp.model.solution.*;
+import upmsp.trace.*;
 
 import java.io.*;
 import java.util.*;
@@ -20,11 +23,42 @@ public abstract class Heuristic {
     public final Random random;
     public final String name;
 
+    /**
+     * Default number of iterations of a window of the windowed stats of the moves.
+     */
+    public static final long DEFAULT_WINDOW_ITERATIONS = 100000L;
+
     protected final List<Move> moves = new ArrayList<>();
 
     protected Solution bestSolution;
     protected long nIters = 0;
 
+    /**
+     * Events of the Java Flight Recorder (only emitted while a recording is running).
+     */
+    protected final SearchEvents events;
+
+    /**
+     * Live state of the heuristic published for other threads (e.g., through JMX); null if not published.
+     */
+    private SearchMetrics metrics = null;
+
+    /**
+     * Trace in which the iterations are recorded; null if they are not recorded.
+     */
+    private TraceWriter trace = null;
+
+    // Strategy of the last call to doMove (recorded in the trace)
+    private boolean lastIntensificationPolicy = false;
+    private boolean lastMakespanMachine = false;
+
+    private boolean timing = false;
+
+    private long windowIterations = DEFAULT_WINDOW_ITERATIONS;
+    private long itersInWindow = 0L;
+
+    private long pausedNano = 0L;
+
 
     /**
      * Instantiates a new Heuristic.
@@ -36,6 +70,7 @@ public abstract class Heuristic {
         this.problem = problem;
         this.random = random;
         this.name = name;
+        this.events = new SearchEvents(name);
     }
 
     /**
@@ -71,11 +106,155 @@ public abstract class Heuristic {
         return moves.get(random.nextInt(moves.size()));
     }
 
+    /**
+     * Enables (or disables) the timing of the calls to doMove and reject of the moves. The times are recorded in the
+     * stats of the moves (see {@link Move.Stats#getDoMoveTime()} and {@link Move.Stats#getRejectTime()}).
+     * @param timing true to enable the timing, false to disable it.
+     */
+    public void setTiming(boolean timing) {
+        this.timing = timing;
+    }
+
+    /**
+     * Returns whether the calls to doMove and reject of the moves are timed.
+     * @return true if the timing is enabled, false otherwise.
+     */
+    public boolean isTiming() {
+        return timing;
+    }
+
+    /**
+     * Sets the metrics the heuristic publishes its live state to (see {@link SearchMetrics}).
+     * @param metrics the metrics (null to not publish the state).
+     */
+    public void setMetrics(SearchMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Gets the metrics the heuristic publishes its live state to.
+     * @return the metrics (or null if the state is not published).
+     */
+    public SearchMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets the trace in which the iterations of the heuristic are recorded (see {@link TraceWriter}).
+     * @param trace the trace (null to not record the iterations).
+     */
+    public void setTrace(TraceWriter trace) {
+        this.trace = trace;
+    }
+
+    /**
+     * Gets the trace in which the iterations of the heuristic are recorded.
+     * @return the trace (or null if the iterations are not recorded).
+     */
+    public TraceWriter getTrace() {
+        return trace;
+    }
+
+    /**
+     * Records the end of the heuristic in the trace (if any).
+     * @param solution the current solution.
+     */
+    protected void endTrace(Solution solution) {
+        if (trace != null) {
+            trace.end(nIters, solution.getCost(), bestSolution.getCost());
+        }
+    }
+
+    /**
+     * Publishes the live state of the heuristic to the metrics (if any), every
+     * {@value SearchMetrics#PUBLISH_ITERATIONS} iterations or whenever forced (e.g., at the end of the heuristic).
+     * @param startTimeNano the time (System.nanoTime()) at which the heuristic started.
+     * @param temperature the current temperature.
+     * @param solution the current solution.
+     * @param force true to publish the state regardless of the iteration, false otherwise.
+     */
+    protected void publishMetrics(long startTimeNano, double temperature, Solution solution, boolean force) {
+        if (metrics != null && (force || SearchMetrics.isPublishIteration(nIters))) {
+            metrics.publish(nIters, System.nanoTime() - startTimeNano, temperature, bestSolution, solution, moves);
+        }
+    }
+
+    /**
+     * Sets the number of iterations of a window of the windowed stats of the moves (see
+     * {@link Move#getWindowedStats()}).
+     * @param windowIterations the number of iterations of a window; if not positive, a window is closed at each
+     *                         temperature step.
+     */
+    public void setWindowIterations(long windowIterations) {
+        this.windowIterations = windowIterations;
+    }
+
+    /**
+     * Gets the number of iterations of a window of the windowed stats of the moves.
+     * @return the number of iterations of a window (not positive if a window is closed at each temperature step).
+     */
+    public long getWindowIterations() {
+        return windowIterations;
+    }
+
+    /**
+     * Updates the windowed stats of the moves at the end of an iteration, closing the current window if it is
+     * complete.
+     * @param startTimeNano the time (System.nanoTime()) at which the heuristic started.
+     * @param temperature the current temperature.
+     * @param temperatureStep true if the temperature was updated in this iteration, false otherwise.
+     */
+    protected void updateWindows(long startTimeNano, double temperature, boolean temperatureStep) {
+        ++itersInWindow;
+        if (windowIterations > 0L ? itersInWindow >= windowIterations : temperatureStep) {
+            closeWindows(startTimeNano, temperature);
+        }
+    }
+
+    /**
+     * Closes the current window of the windowed stats of the moves, if it has any iteration (e.g., at the end of the
+     * heuristic).
+     * @param startTimeNano the time (System.nanoTime()) at which the heuristic started.
+     * @param temperature the current temperature.
+     */
+    protected void closeWindows(long startTimeNano, double temperature) {
+        if (itersInWindow > 0L) {
+            itersInWindow = 0L;
+            long runtimeNano = System.nanoTime() - startTimeNano;
+            for (Move move : moves) {
+                move.getWindowedStats().close(nIters, runtimeNano, temperature);
+            }
+        }
+    }
+
+    /**
+     * Does a move (timing it, if enabled).
+     * @param move the move.
+     * @param solution the solution to be modified.
+     * @param useIntensificationPolicy if true, a small subset of neighbor solutions is evaluated.
+     * @param useMakespanMachine if true, the main machine involved is the makespan machine.
+     * @return the impact (delta cost) of the move in the solution.
+     */
+    protected int doMove(Move move, Solution solution, boolean useIntensificationPolicy, boolean useMakespanMachine) {
+        lastIntensificationPolicy = useIntensificationPolicy;
+        lastMakespanMachine = useMakespanMachine;
+        if (!timing) {
+            return move.doMove(solution, useIntensificationPolicy, useMakespanMachine);
+        }
+        long start = System.nanoTime();
+        int delta = move.doMove(solution, useIntensificationPolicy, useMakespanMachine);
+        move.recordDoMoveTime(System.nanoTime() - start);
+        return delta;
+    }
+
     /**
      * Accepts move.
      * @param move the move to be accepted.
      */
     protected void acceptMove(Move move) {
+        if (trace != null) {
+            trace.record(move, lastIntensificationPolicy, lastMakespanMachine, true);
+        }
         move.accept();
     }
 
@@ -85,7 +264,16 @@ public abstract class Heuristic {
      * @param move the move to be rejected.
      */
     protected void rejectMove(Move move) {
+        if (trace != null) {
+            trace.record(move, lastIntensificationPolicy, lastMakespanMachine, false);
+        }
+        if (!timing) {
+            move.reject();
+            return;
+        }
+        long start = System.nanoTime();
         move.reject();
+        move.recordRejectTime(System.nanoTime() - start);
     }
 
     /**
@@ -99,6 +287,27 @@ public abstract class Heuristic {
      */
     public abstract Solution run(Solution solution, long timeLimitNano, long maxIters, Callback callback, PrintStream output);
 
+    /**
+     * Pauses the clock of the run for a given time, which is then counted neither in the runtime nor in the time
+     * limit (e.g., the time a callback was blocked, so the heuristic keeps its full time budget). It must be called by
+     * the thread of the run, i.e., from a callback.
+     * @param nanos the time (in nanoseconds).
+     */
+    public void pauseClock(long nanos) {
+        pausedNano += nanos;
+    }
+
+    /**
+     * Returns the time the clock of the run was paused since the last call (see {@link #pauseClock(long)}). It is
+     * called by the heuristics after each callback, to shift their start time and time limit.
+     * @return the time (in nanoseconds).
+     */
+    protected long takePausedTime() {
+        long nanos = pausedNano;
+        pausedNano = 0L;
+        return nanos;
+    }
+
     /**
      * Gets best solution.
      * @return the best solution obtained so far.
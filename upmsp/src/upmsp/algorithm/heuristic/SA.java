@@ -19,11 +19,11 @@ public class SA extends Heuristic {
     /**
      * SA parameters.
      */
-    private double alpha;
-    private double t0;
-    private int saMax;
+    protected double alpha;
+    protected double t0;
+    protected int saMax;
 
-    private final static double EPS = 1e-6;
+    protected final static double EPS = 1e-6;
 
     /**
      * Instantiates a new SA.
@@ -54,6 +54,22 @@ public class SA extends Heuristic {
      * @return the best solution encountered by the SA.
      */
     public Solution run(Solution initialSolution, long timeLimitNano, long maxIters, Callback callback, PrintStream output) {
+        return search(initialSolution, timeLimitNano, maxIters, callback, output);
+    }
+
+    /**
+     * Runs the loop of the Simulated Annealing: the cooling schedule, the incumbent solution and the bookkeeping of
+     * each iteration (clock, windows, events, metrics and callbacks). The moves are done by {@link #iterate(Solution,
+     * double)}, so the subclasses that do them in another way share the rest of the search.
+     *
+     * @param initialSolution the initial (input) solution.
+     * @param timeLimitNano   the time limit (in nanoseconds).
+     * @param maxIters        the maximum number of iterations without improvements to execute.
+     * @param callback        callback object.
+     * @param output          output PrintStream for logging purposes.
+     * @return the best solution encountered by the SA.
+     */
+    protected final Solution search(Solution initialSolution, long timeLimitNano, long maxIters, Callback callback, PrintStream output) {
 
         long startTimeNano = System.nanoTime();
         long finalTimeNano = startTimeNano + timeLimitNano;
@@ -66,6 +82,9 @@ public class SA extends Heuristic {
         if (callback != null) {
             callback.onNewIncumbent(bestSolution, null, 0L, timeLimitNano, 0L, maxIters);
             callback.onIteration(bestSolution, 0L, timeLimitNano, 0L, maxIters);
+            long pausedNano = takePausedTime();
+            startTimeNano += pausedNano;
+            finalTimeNano += pausedNano;
         }
 
         double temperature = this.t0;
@@ -73,76 +92,113 @@ public class SA extends Heuristic {
 
         while (System.nanoTime() < finalTimeNano && nIters < maxIters) {
 
-            // Select a move and a strategy
-            Move move = null;
-            boolean useIntensificationPolicy = false;
-            boolean useMakespanMachine = false;
-
-            do {
-                useIntensificationPolicy = random.nextBoolean();
-                useMakespanMachine = random.nextBoolean();
-                move = selectMove();
-            } while (!move.hasMove(solution, useIntensificationPolicy, useMakespanMachine));
-
-            // Do move
-            int delta = move.doMove(solution, useIntensificationPolicy, useMakespanMachine);
+            // Do a move (and accept or reject it)
+            Class<? extends Move> improvingMove = iterate(solution, temperature);
 
             // if solution is improved...
-            if (delta < 0) {
-                acceptMove(move);
-
-                if (solution.getCost() < bestSolution.getCost()) {
-                    previousBestSolution = bestSolution;
-                    bestSolution = solution.clone();
-                    Util.safePrintStatus(output, previousBestSolution, bestSolution, solution, nIters, System.nanoTime() - startTimeNano, "*");
-
-                    // Callback for new incumbent solution
-                    if (callback != null) {
-                        callback.onNewIncumbent(bestSolution, move.getClass(), System.nanoTime() - startTimeNano, timeLimitNano, nIters + 1, maxIters);
-                    }
-
-                }
-            }
-
-            // if solution is not improved, but is accepted...
-            else if (delta == 0) {
-                acceptMove(move);
-            }
-
-            // solution is not improved, but may be accepted with a probability...
-            else {
-                double x = random.nextDouble();
-                if (x < 1 / FastMath.exp(delta / temperature)) {
-                    acceptMove(move);
-                }
-
-                // if solution is rejected..
-                else {
-                    rejectMove(move);
+            if (improvingMove != null && solution.getCost() < bestSolution.getCost()) {
+                previousBestSolution = bestSolution;
+                bestSolution = solution.clone();
+                Util.safePrintStatus(output, previousBestSolution, bestSolution, solution, nIters, System.nanoTime() - startTimeNano, "*");
+
+                // Event and callback for new incumbent solution
+                events.incumbent(bestSolution, improvingMove, nIters + 1, System.nanoTime() - startTimeNano);
+                if (callback != null) {
+                    callback.onNewIncumbent(bestSolution, improvingMove, System.nanoTime() - startTimeNano, timeLimitNano, nIters + 1, maxIters);
+                    long pausedNano = takePausedTime();
+                    startTimeNano += pausedNano;
+                    finalTimeNano += pausedNano;
                 }
             }
 
             // if necessary, updates temperature
+            boolean temperatureStep = false;
             if (++itersInTemperature >= saMax) {
                 itersInTemperature = 0;
+                temperatureStep = true;
                 temperature = alpha * temperature;
                 if (temperature < EPS) {
                     temperature = t0;
                     Util.safePrintText(output, "Re-heating Simulated Annealing");
+                    events.temperature(nIters, temperature, true);
+                } else {
+                    events.temperature(nIters, temperature, false);
                 }
             }
 
             nIters++;
+            updateWindows(startTimeNano, temperature, temperatureStep);
+            events.iteration(nIters, temperature, bestSolution, solution);
+            publishMetrics(startTimeNano, temperature, solution, false);
 
             // Callback for iteration
             if (callback != null) {
                 callback.onIteration(bestSolution, System.nanoTime() - startTimeNano, timeLimitNano, nIters, maxIters);
+                long pausedNano = takePausedTime();
+                startTimeNano += pausedNano;
+                finalTimeNano += pausedNano;
             }
         }
 
+        // Close the last (incomplete) window of the windowed stats of the moves
+        closeWindows(startTimeNano, temperature);
+        publishMetrics(startTimeNano, temperature, solution, true);
+        endTrace(solution);
+
         return bestSolution;
     }
 
+    /**
+     * Does the move of an iteration: selects a move and a strategy, does the move and accepts or rejects it according
+     * to the temperature.
+     *
+     * @param solution    the current solution (modified by the move, if it is accepted).
+     * @param temperature the current temperature.
+     * @return the class of the move if it improved the solution, null otherwise.
+     */
+    protected Class<? extends Move> iterate(Solution solution, double temperature) {
+
+        // Select a move and a strategy
+        Move move = null;
+        boolean useIntensificationPolicy = false;
+        boolean useMakespanMachine = false;
+
+        do {
+            useIntensificationPolicy = random.nextBoolean();
+            useMakespanMachine = random.nextBoolean();
+            move = selectMove();
+        } while (!move.hasMove(solution, useIntensificationPolicy, useMakespanMachine));
+
+        // Do move
+        int delta = doMove(move, solution, useIntensificationPolicy, useMakespanMachine);
+
+        // if solution is improved...
+        if (delta < 0) {
+            acceptMove(move);
+            return move.getClass();
+        }
+
+        // if solution is not improved, but is accepted...
+        else if (delta == 0) {
+            acceptMove(move);
+        }
+
+        // solution is not improved, but may be accepted with a probability...
+        else {
+            double x = random.nextDouble();
+            if (x < 1 / FastMath.exp(delta / temperature)) {
+                acceptMove(move);
+            }
+
+            // if solution is rejected..
+            else {
+                rejectMove(move);
+            }
+        }
+
+        return null;
+    }
+
     /**
      * Returns the string representation of this heuristic.
      *
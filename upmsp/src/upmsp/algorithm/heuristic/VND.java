@@ -0,0 +1,127 @@
+package upmsp.algorithm.heuristic;
+
+import upmsp.algorithm.localsearch.*;
+import upmsp.model.*;
+import upmsp.model.solution.*;
+import upmsp.util.*;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * This class is a Variable Neighborhood Descent (VND). It runs a {@link LocalSearch} over the neighborhoods of the
+ * moves of the heuristic (in the order they were added; the moves without a neighborhood, swap and two-shift, are
+ * skipped) until no neighborhood improves the solution. An iteration is a step of the local search (the scan of a
+ * neighborhood). The search is deterministic: the random number generator is not used.
+ *
+ * @author Andre L. Maravilha
+ */
+public class VND extends Heuristic {
+
+    private final LocalSearch.Improvement improvement;
+    private ParallelEvaluator evaluator = null;
+
+    /**
+     * Instantiates a new VND.
+     *
+     * @param problem     problem reference
+     * @param random      random number generator (not used by the search).
+     * @param improvement strategy of a step of the local search.
+     */
+    public VND(Problem problem, Random random, LocalSearch.Improvement improvement) {
+        super(problem, random, "VND");
+        this.improvement = improvement;
+    }
+
+    /**
+     * Executes the VND.
+     *
+     * @param initialSolution the initial (input) solution.
+     * @param timeLimitNano   the time limit (in nanoseconds).
+     * @param maxIters        the maximum number of iterations (steps) to execute.
+     * @param callback        callback object.
+     * @param output          output PrintStream for logging purposes.
+     * @return the local optimum found.
+     */
+    @Override
+    public Solution run(Solution initialSolution, long timeLimitNano, long maxIters, Callback callback, PrintStream output) {
+
+        long startTimeNano = System.nanoTime();
+
+        LocalSearch localSearch = new LocalSearch(LocalSearch.createNeighborhoods(moves), improvement);
+        localSearch.setEvaluator(evaluator);
+        Solution solution = initialSolution.clone();
+        bestSolution = initialSolution;
+
+        // Callback for iteration zero and first incumbent
+        if (callback != null) {
+            callback.onNewIncumbent(bestSolution, null, 0L, timeLimitNano, 0L, maxIters);
+            callback.onIteration(bestSolution, 0L, timeLimitNano, 0L, maxIters);
+            long pausedNano = takePausedTime();
+            startTimeNano += pausedNano;
+        }
+
+        localSearch.reset(solution);
+        int k = 0;
+        while (k < localSearch.getNeighborhoods().size() && System.nanoTime() - startTimeNano < timeLimitNano && nIters < maxIters) {
+
+            if (localSearch.step(solution, k)) {
+                k = 0;
+
+                if (solution.getCost() < bestSolution.getCost()) {
+                    Solution previousBestSolution = bestSolution;
+                    bestSolution = solution.clone();
+                    Util.safePrintStatus(output, previousBestSolution, bestSolution, solution, nIters, System.nanoTime() - startTimeNano, "*");
+
+                    // Event and callback for new incumbent solution
+                    events.incumbent(bestSolution, null, nIters + 1, System.nanoTime() - startTimeNano);
+                    if (callback != null) {
+                        callback.onNewIncumbent(bestSolution, null, System.nanoTime() - startTimeNano, timeLimitNano, nIters + 1, maxIters);
+                        long pausedNano = takePausedTime();
+                        startTimeNano += pausedNano;
+                    }
+                }
+            } else {
+                k++;
+            }
+
+            nIters++;
+            events.iteration(nIters, 0.0, bestSolution, solution);
+            publishMetrics(startTimeNano, 0.0, solution, false);
+
+            // Callback for iteration
+            if (callback != null) {
+                callback.onIteration(bestSolution, System.nanoTime() - startTimeNano, timeLimitNano, nIters, maxIters);
+                long pausedNano = takePausedTime();
+                startTimeNano += pausedNano;
+            }
+        }
+
+        publishMetrics(startTimeNano, 0.0, solution, true);
+
+        // The local optimum may have the same makespan of the best solution with a smaller sum of completion times
+        if (solution.getCost() <= bestSolution.getCost()) {
+            bestSolution = solution;
+        }
+        return bestSolution;
+    }
+
+    /**
+     * Sets the evaluator that scans the neighborhoods concurrently in the best-improvement steps.
+     *
+     * @param evaluator the evaluator (or null, to scan them sequentially).
+     */
+    public void setEvaluator(ParallelEvaluator evaluator) {
+        this.evaluator = evaluator;
+    }
+
+    /**
+     * Returns the string representation of this heuristic.
+     *
+     * @return the string representation of this heuristic (with parameters values).
+     */
+    public String toString() {
+        return String.format("Variable Neighborhood Descent (improvement=%s)", improvement.name().toLowerCase());
+    }
+
+}
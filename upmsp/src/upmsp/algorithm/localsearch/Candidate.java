@@ -0,0 +1,80 @@
+package upmsp.algorithm.localsearch;
+
+import upmsp.model.solution.Reference;
+
+/**
+ * This class is a candidate (neighbor) found by the scan of a {@link Neighborhood}: the makespan and the sum of
+ * machine completion times of the neighbor, the (one or two) machines it modifies and the parameters of the move that
+ * generates it. A neighbor is better than another one if its makespan is smaller or, for the same makespan, if its sum
+ * of machine completion times is smaller (so the search can progress on the plateaus of the makespan).
+ *
+ * @author Andre L. Maravilha
+ */
+public class Candidate {
+
+    /**
+     * Maximum number of parameters of a move.
+     */
+    public static final int MAX_PARAMETERS = 6;
+
+    public long makespan;
+    public long sumMachineTimes;
+    public int machine1, machine2;
+    public final int[] parameters = new int[MAX_PARAMETERS];
+
+    private boolean found;
+
+    /**
+     * Resets the candidate to the reference solution, so that only neighbors better than it are offered.
+     * @param ref the reference solution.
+     */
+    public void reset(Reference ref) {
+        makespan = ref.makespan;
+        sumMachineTimes = ref.sumMachineTimes;
+        machine1 = machine2 = -1;
+        found = false;
+    }
+
+    /**
+     * Offers a neighbor. If it is better than the current candidate, it becomes the candidate (and the caller must
+     * then write the parameters of its move); otherwise, the candidate is kept, so the first of the best neighbors in
+     * the order of the scan is kept.
+     * @param makespan the makespan of the neighbor.
+     * @param sumMachineTimes the sum of machine completion times of the neighbor.
+     * @param machine1 the first machine modified.
+     * @param machine2 the second machine modified (the first one, if a single machine is modified).
+     * @return true if the neighbor became the candidate, false otherwise.
+     */
+    public boolean offer(long makespan, long sumMachineTimes, int machine1, int machine2) {
+        if (makespan < this.makespan || (makespan == this.makespan && sumMachineTimes < this.sumMachineTimes)) {
+            this.makespan = makespan;
+            this.sumMachineTimes = sumMachineTimes;
+            this.machine1 = machine1;
+            this.machine2 = machine2;
+            found = true;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Copies another candidate to this one, if it is better than this one.
+     * @param other the other candidate.
+     * @return true if the other candidate was copied, false otherwise.
+     */
+    public boolean merge(Candidate other) {
+        if (other.found && offer(other.makespan, other.sumMachineTimes, other.machine1, other.machine2)) {
+            System.arraycopy(other.parameters, 0, parameters, 0, MAX_PARAMETERS);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether a neighbor better than the reference solution was found.
+     * @return true if a neighbor was found, false otherwise.
+     */
+    public boolean isFound() {
+        return found;
+    }
+}
@@ -0,0 +1,61 @@
+package upmsp.algorithm.localsearch;
+
+import upmsp.model.solution.Machine;
+import upmsp.model.solution.Reference;
+import upmsp.model.solution.Solution;
+
+/**
+ * Neighborhood of the direct-swap move: a job of a machine, M1, and a job of another machine, M2, swap their
+ * positions. Parameters: machine M1, machine M2, position in M1 and position in M2.
+ *
+ * @author Andre L. Maravilha
+ */
+public class DirectSwapNeighborhood implements Neighborhood {
+
+    @Override
+    public String name() {
+        return "direct-swap";
+    }
+
+    @Override
+    public boolean scan(Reference ref, int m1, int m2, Candidate candidate, boolean firstImprovement) {
+        if (m2 == m1) {
+            return false;
+        }
+
+        boolean found = false;
+        Machine machine1 = ref.solution.machines[m1];
+        Machine machine2 = ref.solution.machines[m2];
+        for (int idx1 = 0; idx1 < machine1.getNJobs(); ++idx1) {
+            int job1 = machine1.getJob(idx1);
+
+            for (int idx2 = 0; idx2 < machine2.getNJobs(); ++idx2) {
+                int job2 = machine2.getJob(idx2);
+                long makespan1 = ref.getMakespan(m1) + machine1.getDeltaCostSetJob(job2, idx1);
+                long makespan2 = ref.getMakespan(m2) + machine2.getDeltaCostSetJob(job1, idx2);
+                if (candidate.offer(ref.makespan(m1, makespan1, m2, makespan2),
+                        ref.sumMachineTimes(m1, makespan1, m2, makespan2), m1, m2)) {
+                    candidate.parameters[0] = m1;
+                    candidate.parameters[1] = m2;
+                    candidate.parameters[2] = idx1;
+                    candidate.parameters[3] = idx2;
+                    found = true;
+                    if (firstImprovement) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public void apply(Solution solution, Candidate candidate) {
+        Machine machine1 = solution.machines[candidate.parameters[0]];
+        Machine machine2 = solution.machines[candidate.parameters[1]];
+        int job1 = machine1.getJob(candidate.parameters[2]);
+        int job2 = machine2.getJob(candidate.parameters[3]);
+        machine1.setJob(job2, candidate.parameters[2]);
+        machine2.setJob(job1, candidate.parameters[3]);
+    }
+}
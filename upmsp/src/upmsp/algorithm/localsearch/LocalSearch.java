@@ -0,0 +1,246 @@
+package upmsp.algorithm.localsearch;
+
+import upmsp.algorithm.neighborhood.*;
+import upmsp.model.solution.*;
+
+import java.util.*;
+
+/**
+ * This class is a deterministic local search over a list of neighborhoods (see {@link Neighborhood}), which are
+ * scanned in order as in a Variable Neighborhood Descent (VND): after a step that improves the solution, the search goes
+ * back to the first neighborhood, and after a step that does not, it goes on to the next one; it stops when no
+ * neighborhood improves the solution. In a step, the best neighbor (best improvement) or the first improving neighbor
+ * (first improvement) is applied. A solution is better than another one if its makespan is smaller or, for the same
+ * makespan, if its sum of machine completion times is smaller.
+ *
+ * Each neighborhood keeps a don't-look bit per machine: when no improving neighbor is found with a machine as the
+ * first machine modified, it is not scanned again (in that neighborhood) until a step modifies it. The makespan
+ * machine is scanned first, and then the others in the order of their ids.
+ *
+ * The best-improvement steps may scan the neighborhood concurrently with a {@link ParallelEvaluator} (for solutions
+ * with the array representation of the sequences), which finds the same neighbor of the sequential scan.
+ *
+ * @author Andre L. Maravilha
+ */
+public class LocalSearch {
+
+    /**
+     * Strategy of a step of the local search.
+     */
+    public enum Improvement {
+
+        /**
+         * Apply the best neighbor of the neighborhood.
+         */
+        BEST,
+
+        /**
+         * Apply the first improving neighbor found.
+         */
+        FIRST
+    }
+
+    private final List<Neighborhood> neighborhoods;
+    private final Improvement improvement;
+
+    private final Candidate best = new Candidate();
+    private final Candidate current = new Candidate();
+    private boolean dontLook[][] = new boolean[0][0];
+    private ParallelEvaluator evaluator = null;
+
+    private long nSteps = 0L;
+    private long nImprovements = 0L;
+
+    /**
+     * Instantiates a new LocalSearch.
+     * @param neighborhoods the neighborhoods, in the order they are scanned.
+     * @param improvement   the strategy of a step.
+     */
+    public LocalSearch(List<Neighborhood> neighborhoods, Improvement improvement) {
+        this.neighborhoods = new ArrayList<>(neighborhoods);
+        this.improvement = improvement;
+    }
+
+    /**
+     * Creates the neighborhoods of the moves that have one (shift, switch, task-move, direct-swap and or-opt), in the
+     * order of the moves. The other moves (swap and two-shift) are composed of two moves of other neighborhoods and
+     * are skipped.
+     * @param moves the moves.
+     * @return the neighborhoods.
+     */
+    public static List<Neighborhood> createNeighborhoods(List<Move> moves) {
+        List<Neighborhood> neighborhoods = new ArrayList<>();
+        for (Move move : moves) {
+            if (move.getClass() == Shift.class) {
+                neighborhoods.add(new ShiftNeighborhood());
+            } else if (move.getClass() == Switch.class) {
+                neighborhoods.add(new SwitchNeighborhood());
+            } else if (move.getClass() == TaskMove.class) {
+                neighborhoods.add(new TaskMoveNeighborhood());
+            } else if (move.getClass() == SimpleSwap.class) {
+                neighborhoods.add(new DirectSwapNeighborhood());
+            } else if (move.getClass() == OrOpt.class) {
+                neighborhoods.add(new OrOptNeighborhood(((OrOpt) move).maxLength));
+            }
+        }
+        return neighborhoods;
+    }
+
+    /**
+     * Runs the local search on a solution (which is modified) until no neighborhood improves it or the time limit is
+     * reached.
+     * @param solution      the solution.
+     * @param timeLimitNano the time limit (in nanoseconds).
+     * @return the number of steps that improved the solution.
+     */
+    public long run(Solution solution, long timeLimitNano) {
+        long startTimeNano = System.nanoTime();
+        long improvements = nImprovements;
+
+        reset(solution);
+        int k = 0;
+        while (k < neighborhoods.size() && System.nanoTime() - startTimeNano < timeLimitNano) {
+            k = (step(solution, k) ? 0 : k + 1);
+        }
+
+        return nImprovements - improvements;
+    }
+
+    /**
+     * Clears the don't-look bits (e.g., before searching from another solution).
+     * @param solution the solution.
+     */
+    public void reset(Solution solution) {
+        if (dontLook.length != neighborhoods.size() || dontLook.length > 0 && dontLook[0].length != solution.machines.length) {
+            dontLook = new boolean[neighborhoods.size()][solution.machines.length];
+        }
+        for (boolean bits[] : dontLook) {
+            Arrays.fill(bits, false);
+        }
+    }
+
+    /**
+     * Does a step of the local search in a neighborhood: the neighborhood is scanned (skipping the machines whose
+     * don't-look bit is set) and the best (or first) improving neighbor is applied to the solution. The don't-look bits
+     * must have been cleared for the solution (see {@link #reset(Solution)}) before its first step.
+     * @param solution the solution (it is modified if an improving neighbor is found).
+     * @param k        the index of the neighborhood.
+     * @return true if the solution was improved, false otherwise.
+     */
+    public boolean step(Solution solution, int k) {
+        Neighborhood neighborhood = neighborhoods.get(k);
+        boolean bits[] = dontLook[k];
+        boolean first = (improvement == Improvement.FIRST);
+        nSteps++;
+
+        Reference ref = new Reference(solution);
+        best.reset(ref);
+        int makespanMachine = solution.makespanMachine.id;
+        if (evaluator != null && !first && ParallelEvaluator.isSupported(solution)) {
+            scanConcurrently(neighborhood, ref, bits, makespanMachine);
+        } else {
+            for (int i = -1; i < solution.machines.length; i++) {
+                int m = (i < 0 ? makespanMachine : i);
+                if (bits[m] || (i >= 0 && m == makespanMachine)) continue;
+
+                current.reset(ref);
+                if (!neighborhood.scan(ref, m, current, first)) {
+                    bits[m] = true;
+                    continue;
+                }
+                best.merge(current);
+                if (first) break;
+            }
+        }
+
+        if (!best.isFound()) {
+            return false;
+        }
+
+        neighborhood.apply(solution, best);
+        solution.updateCost();
+        nImprovements++;
+
+        // The machines modified are scanned again in all neighborhoods
+        for (boolean machineBits[] : dontLook) {
+            machineBits[best.machine1] = false;
+            machineBits[best.machine2] = false;
+        }
+
+        assert solution.getCost() == best.makespan && solution.getSumMachineTimes() == best.sumMachineTimes :
+                "Error: neighbor of " + neighborhood.name() + " with unexpected cost.";
+        return true;
+    }
+
+    /**
+     * Scans a neighborhood with the evaluator, in the order of the sequential scan, and sets the don't-look bits of the
+     * machines without an improving neighbor.
+     */
+    private void scanConcurrently(Neighborhood neighborhood, Reference ref, boolean bits[], int makespanMachine) {
+        int nMachines = 0;
+        int machines[] = new int[bits.length];
+        if (!bits[makespanMachine]) {
+            machines[nMachines++] = makespanMachine;
+        }
+        for (int m = 0; m < bits.length; m++) {
+            if (!bits[m] && m != makespanMachine) {
+                machines[nMachines++] = m;
+            }
+        }
+        machines = Arrays.copyOf(machines, nMachines);
+
+        boolean improved[] = new boolean[nMachines];
+        best.merge(evaluator.scan(neighborhood, ref, machines, improved));
+        for (int i = 0; i < nMachines; i++) {
+            bits[machines[i]] = !improved[i];
+        }
+    }
+
+    /**
+     * Sets the evaluator used to scan the neighborhoods concurrently in the best-improvement steps.
+     * @param evaluator the evaluator (or null, to scan them sequentially).
+     */
+    public void setEvaluator(ParallelEvaluator evaluator) {
+        this.evaluator = evaluator;
+    }
+
+    /**
+     * Returns the evaluator used to scan the neighborhoods concurrently in the best-improvement steps.
+     * @return the evaluator (or null, if they are scanned sequentially).
+     */
+    public ParallelEvaluator getEvaluator() {
+        return evaluator;
+    }
+
+    /**
+     * Returns the neighborhoods, in the order they are scanned.
+     * @return an unmodifiable list with the neighborhoods.
+     */
+    public List<Neighborhood> getNeighborhoods() {
+        return Collections.unmodifiableList(neighborhoods);
+    }
+
+    /**
+     * Returns the strategy of a step.
+     * @return the strategy of a step.
+     */
+    public Improvement getImprovement() {
+        return improvement;
+    }
+
+    /**
+     * Returns the number of steps done (with or without improvement).
+     * @return the number of steps.
+     */
+    public long getNSteps() {
+        return nSteps;
+    }
+
+    /**
+     * Returns the number of steps that improved the solution.
+     * @return the number of improvements.
+     */
+    public long getNImprovements() {
+        return nImprovements;
+    }
+}
@@ -0,0 +1,81 @@
+package upmsp.algorithm.localsearch;
+
+import upmsp.model.solution.Reference;
+import upmsp.model.solution.Solution;
+
+/**
+ * Interface implemented by the neighborhoods scanned by the {@link LocalSearch}. Unlike a
+ * {@link upmsp.algorithm.neighborhood.Move}, which draws a neighbor at random, a neighborhood scans all neighbors (in a
+ * fixed order) with the delta evaluation of the machines, without modifying the solution, and then applies the chosen
+ * one. The neighborhood is partitioned by the first and the second machines modified (the same machine, for the
+ * neighbors that modify a single machine), so the parts can be scanned independently (and concurrently, see
+ * {@link ParallelEvaluator}). The parts are scanned in the order of the second machine.
+ *
+ * @author Andre L. Maravilha
+ */
+public interface Neighborhood {
+
+    /**
+     * Return the name of the neighborhood (the same of the corresponding move).
+     * @return The name of the neighborhood.
+     */
+    String name();
+
+    /**
+     * Return whether the neighborhood has neighbors that modify two machines (otherwise, only the parts in which the
+     * second machine is the first one are scanned).
+     * @return True if the neighbors may modify two machines, false otherwise.
+     */
+    default boolean isInterMachine() {
+        return true;
+    }
+
+    /**
+     * Scan the neighbors in which the first and the second machines modified are given ones, offering them to a
+     * candidate (see {@link Candidate#offer(long, long, int, int)}). The reference solution is not modified, and its
+     * segment costs must be up to date (as they are when the reference is created), so the scan only reads it.
+     * @param ref Reference solution.
+     * @param machine1 Index of the first machine modified.
+     * @param machine2 Index of the second machine modified (the first one, for the neighbors that modify a single
+     *                 machine).
+     * @param candidate Candidate to which the neighbors are offered.
+     * @param firstImprovement If true, the scan stops at the first neighbor accepted by the candidate.
+     * @return True if any neighbor was accepted by the candidate, false otherwise.
+     */
+    boolean scan(Reference ref, int machine1, int machine2, Candidate candidate, boolean firstImprovement);
+
+    /**
+     * Scan the neighbors in which the first machine modified is a given one (i.e., the parts of this machine, in the
+     * order of the second machine), offering them to a candidate. The reference solution is not modified.
+     * @param ref Reference solution.
+     * @param machine Index of the first machine modified.
+     * @param candidate Candidate to which the neighbors are offered.
+     * @param firstImprovement If true, the scan stops at the first neighbor accepted by the candidate.
+     * @return True if any neighbor was accepted by the candidate, false otherwise.
+     */
+    default boolean scan(Reference ref, int machine, Candidate candidate, boolean firstImprovement) {
+        if (!isInterMachine()) {
+            return scan(ref, machine, machine, candidate, firstImprovement);
+        }
+
+        boolean found = false;
+        for (int m2 = 0; m2 < ref.solution.machines.length; ++m2) {
+            if (scan(ref, machine, m2, candidate, firstImprovement)) {
+                found = true;
+                if (firstImprovement) {
+                    return true;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Apply the move of a candidate (found by this neighborhood) to a solution. The cost of the solution is not
+     * updated.
+     * @param solution Solution to modify (the reference solution of the scan).
+     * @param candidate Candidate.
+     */
+    void apply(Solution solution, Candidate candidate);
+
+}
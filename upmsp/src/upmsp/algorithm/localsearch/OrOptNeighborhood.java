@@ -0,0 +1,117 @@
+package upmsp.algorithm.localsearch;
+
+import upmsp.algorithm.neighborhood.OrOpt;
+import upmsp.model.solution.Machine;
+import upmsp.model.solution.Reference;
+import upmsp.model.solution.Solution;
+
+/**
+ * Neighborhood of the or-opt move: a block of 2 to {@link #maxLength} consecutive jobs of a machine, M1, is relocated
+ * (in the same order or reversed) to another position of M1 or to a position of another machine, M2. Parameters (the
+ * same of {@link OrOpt}): machine M1, machine M2, first position of the block, number of jobs of the block,
+ * destination position and whether the block is reversed.
+ *
+ * @author Andre L. Maravilha
+ */
+public class OrOptNeighborhood implements Neighborhood {
+
+    private final int maxLength;
+
+    public OrOptNeighborhood() {
+        this(OrOpt.DEFAULT_MAX_LENGTH);
+    }
+
+    public OrOptNeighborhood(int maxLength) {
+        this.maxLength = maxLength;
+    }
+
+    @Override
+    public String name() {
+        return "or-opt";
+    }
+
+    @Override
+    public boolean scan(Reference ref, int m1, int m2, Candidate candidate, boolean firstImprovement) {
+        boolean found = false;
+        Machine machine1 = ref.solution.machines[m1];
+        Machine machine2 = ref.solution.machines[m2];
+        int n1 = machine1.getNJobs();
+        for (int length = 2; length <= Math.min(maxLength, n1); ++length) {
+            for (int from = 0; from + length <= n1; ++from) {
+                int to = from + length;
+
+                // Relocate the block within machine M1
+                if (m2 == m1) {
+                    for (int r = 0; r < 2; ++r) {
+                        boolean reversed = (r == 1);
+                        for (int target = 0; target <= n1 - length; ++target) {
+                            if (target != from || reversed) {
+                                long makespan = ref.getMakespan(m1) + machine1.getDeltaCostMoveSegment(from, to, target, reversed);
+                                if (candidate.offer(ref.makespan(m1, makespan), ref.sumMachineTimes(m1, makespan), m1, m1)) {
+                                    set(candidate, m1, m1, from, length, target, reversed);
+                                    found = true;
+                                    if (firstImprovement) {
+                                        return true;
+                                    }
+                                }
+                            }
+                        }
+                    }
+                    continue;
+                }
+
+                // Remove the block from machine M1 and insert it in machine M2
+                int first = machine1.getJob(from), last = machine1.getJob(to - 1);
+                long makespan1 = ref.getMakespan(m1) + machine1.getDeltaCostDelSegment(from, to);
+                for (int r = 0; r < 2; ++r) {
+                    boolean reversed = (r == 1);
+                    int segmentCost = machine2.getSegmentCost(machine1, from, to, reversed);
+                    for (int target = 0; target <= machine2.getNJobs(); ++target) {
+                        long makespan2 = ref.getMakespan(m2) + machine2.getDeltaCostAddSegment(
+                                reversed ? last : first, reversed ? first : last, segmentCost, target);
+                        if (candidate.offer(ref.makespan(m1, makespan1, m2, makespan2),
+                                ref.sumMachineTimes(m1, makespan1, m2, makespan2), m1, m2)) {
+                            set(candidate, m1, m2, from, length, target, reversed);
+                            found = true;
+                            if (firstImprovement) {
+                                return true;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public void apply(Solution solution, Candidate candidate) {
+        Machine machine1 = solution.machines[candidate.parameters[0]];
+        Machine machine2 = solution.machines[candidate.parameters[1]];
+        int from = candidate.parameters[2];
+        int length = candidate.parameters[3];
+        int target = candidate.parameters[4];
+        boolean reversed = (candidate.parameters[5] != 0);
+
+        int block[] = new int[length];
+        for (int k = 0; k < length; k++) {
+            block[k] = machine1.getJob(from);
+            machine1.delJob(from);
+        }
+        for (int k = 0; k < length; k++) {
+            machine2.addJob(block[reversed ? length - 1 - k : k], target + k);
+        }
+    }
+
+    /**
+     * Write the parameters of a move in a candidate.
+     */
+    private static void set(Candidate candidate, int m1, int m2, int from, int length, int target, boolean reversed) {
+        candidate.parameters[0] = m1;
+        candidate.parameters[1] = m2;
+        candidate.parameters[2] = from;
+        candidate.parameters[3] = length;
+        candidate.parameters[4] = target;
+        candidate.parameters[5] = (reversed ? 1 : 0);
+    }
+}
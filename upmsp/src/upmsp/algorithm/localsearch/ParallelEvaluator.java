@@ -0,0 +1,179 @@
+package upmsp.algorithm.localsearch;
+
+import upmsp.model.solution.*;
+
+import java.util.concurrent.*;
+
+/**
+ * This class scans the whole neighborhood of a best-improvement step concurrently. The parts of the neighborhood (the
+ * pairs of first and second machines modified, see {@link Neighborhood}) are listed in the order of a sequential scan,
+ * and the list is recursively split into ranges with about the same number of neighbors, which are scanned by the
+ * tasks of a fork-join pool. Each task only reads the reference solution (delta evaluation) and keeps its own best
+ * candidate, and the candidates of two ranges are merged keeping the one of the first range on ties. So the candidate
+ * found is exactly the one of the sequential scan (the first of the best neighbors in the order of the scan), whatever
+ * the number of threads.
+ *
+ * The machines are read concurrently, so the evaluator requires the array (or compact) representation of the
+ * sequences: reading a job of the balanced-tree representation moves the finger of the tree (see
+ * {@link #isSupported(Solution)}).
+ *
+ * @author Andre L. Maravilha
+ */
+public class ParallelEvaluator {
+
+    /**
+     * Minimum (estimated) number of neighbors of a range that is split into two tasks.
+     */
+    public static final long GRANULARITY = 1L << 14;
+
+    /**
+     * Evaluators shared by the process, by number of threads (see {@link #shared(int)}).
+     */
+    private static final ConcurrentMap<Integer, ParallelEvaluator> SHARED = new ConcurrentHashMap<>();
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Instantiates a new ParallelEvaluator.
+     * @param pool the fork-join pool that runs the tasks.
+     */
+    public ParallelEvaluator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Returns the evaluator shared by the process with a given number of threads, so that the runs that scan their
+     * neighborhoods concurrently (e.g., the jobs of a batch or of a server) reuse the same pool instead of creating
+     * their own. The evaluator keeps no state between scans, so it may be used by several runs at the same time.
+     * @param nThreads the number of threads of the pool.
+     * @return the shared evaluator.
+     */
+    public static ParallelEvaluator shared(int nThreads) {
+        return SHARED.computeIfAbsent(nThreads, n -> new ParallelEvaluator(new ForkJoinPool(n)));
+    }
+
+    /**
+     * Returns whether the neighborhoods of a solution can be scanned concurrently (i.e., if its sequences use the
+     * array or the compact representation).
+     * @param solution the solution.
+     * @return true if the solution is supported, false otherwise.
+     */
+    public static boolean isSupported(Solution solution) {
+        return solution.getSequenceType() != SequenceType.TREE;
+    }
+
+    /**
+     * Scans the parts of a neighborhood in which the first machine modified is one of the given machines (in their
+     * order and, for each one, in the order of the second machine) and returns the best neighbor.
+     * @param neighborhood the neighborhood.
+     * @param ref          the reference solution (not modified).
+     * @param machines     the first machines modified, in the order they are scanned.
+     * @param improved     output: improved[i] is set to true if an improving neighbor was found with machines[i] as
+     *                     the first machine modified (the other entries are not modified).
+     * @return the best neighbor found (see {@link Candidate#isFound()}), reset to the reference solution.
+     */
+    public Candidate scan(Neighborhood neighborhood, Reference ref, int machines[], boolean improved[]) {
+
+        // List the parts in the order of the scan and the cumulative (estimated) number of neighbors
+        int nMachines = ref.solution.machines.length;
+        int nParts = 0;
+        int parts[] = new int[machines.length * (neighborhood.isInterMachine() ? nMachines : 1)];
+        for (int i = 0; i < machines.length; i++) {
+            if (neighborhood.isInterMachine()) {
+                for (int m2 = 0; m2 < nMachines; m2++) {
+                    parts[nParts++] = i * nMachines + m2;
+                }
+            } else {
+                parts[nParts++] = i * nMachines + machines[i];
+            }
+        }
+
+        long work[] = new long[nParts + 1];
+        for (int p = 0; p < nParts; p++) {
+            Machine machine1 = ref.solution.machines[machines[parts[p] / nMachines]];
+            Machine machine2 = ref.solution.machines[parts[p] % nMachines];
+            work[p + 1] = work[p] + (long) (machine1.getNJobs() + 1) * (machine2.getNJobs() + 1);
+        }
+
+        ScanTask task = new ScanTask(neighborhood, ref, machines, improved, parts, work, 0, nParts);
+        return pool.invoke(task);
+    }
+
+    /**
+     * Returns the fork-join pool that runs the tasks.
+     * @return the pool.
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Returns the number of threads of the pool.
+     * @return the number of threads.
+     */
+    public int getNThreads() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Task that scans a range of parts of the neighborhood.
+     */
+    private static class ScanTask extends RecursiveTask<Candidate> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Neighborhood neighborhood;
+        private final Reference ref;
+        private final int machines[];
+        private final boolean improved[];
+        private final int parts[];
+        private final long work[];
+        private final int from, to;
+
+        ScanTask(Neighborhood neighborhood, Reference ref, int machines[], boolean improved[], int parts[],
+                 long work[], int from, int to) {
+            this.neighborhood = neighborhood;
+            this.ref = ref;
+            this.machines = machines;
+            this.improved = improved;
+            this.parts = parts;
+            this.work = work;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Candidate compute() {
+
+            // Split the range in two halves of about the same number of neighbors
+            if (to - from > 1 && work[to] - work[from] >= GRANULARITY) {
+                long half = (work[from] + work[to]) / 2;
+                int middle = from + 1;
+                while (middle < to - 1 && work[middle] < half) {
+                    middle++;
+                }
+
+                ScanTask second = new ScanTask(neighborhood, ref, machines, improved, parts, work, middle, to);
+                second.fork();
+                Candidate candidate = new ScanTask(neighborhood, ref, machines, improved, parts, work, from, middle).compute();
+                candidate.merge(second.join());
+                return candidate;
+            }
+
+            // Scan each part on its own, so the machines with an improving neighbor are known
+            int nMachines = ref.solution.machines.length;
+            Candidate candidate = new Candidate();
+            Candidate current = new Candidate();
+            candidate.reset(ref);
+            for (int p = from; p < to; p++) {
+                int i = parts[p] / nMachines;
+                current.reset(ref);
+                if (neighborhood.scan(ref, machines[i], parts[p] % nMachines, current, false)) {
+                    improved[i] = true;
+                    candidate.merge(current);
+                }
+            }
+            return candidate;
+        }
+    }
+}
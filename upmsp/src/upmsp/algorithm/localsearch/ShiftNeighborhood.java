@@ -0,0 +1,60 @@
+package upmsp.algorithm.localsearch;
+
+import upmsp.model.solution.Machine;
+import upmsp.model.solution.Reference;
+import upmsp.model.solution.Solution;
+
+/**
+ * Neighborhood of the shift move: a job is moved to another position of its machine. Parameters: machine, source
+ * position and destination position.
+ *
+ * @author Andre L. Maravilha
+ */
+public class ShiftNeighborhood implements Neighborhood {
+
+    @Override
+    public String name() {
+        return "shift";
+    }
+
+    @Override
+    public boolean isInterMachine() {
+        return false;
+    }
+
+    @Override
+    public boolean scan(Reference ref, int m, int m2, Candidate candidate, boolean firstImprovement) {
+        if (m2 != m) {
+            return false;
+        }
+
+        boolean found = false;
+        Machine machine = ref.solution.machines[m];
+        for (int idx1 = 0; idx1 < machine.getNJobs(); ++idx1) {
+            int job = machine.getJob(idx1);
+            for (int idx2 = 0; idx2 < machine.getNJobs(); ++idx2) {
+                if (idx2 != idx1) {
+                    long makespan = ref.getMakespan(m) + machine.getDeltaCostDelAddJob(idx1, job, idx2);
+                    if (candidate.offer(ref.makespan(m, makespan), ref.sumMachineTimes(m, makespan), m, m)) {
+                        candidate.parameters[0] = m;
+                        candidate.parameters[1] = idx1;
+                        candidate.parameters[2] = idx2;
+                        found = true;
+                        if (firstImprovement) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public void apply(Solution solution, Candidate candidate) {
+        Machine machine = solution.machines[candidate.parameters[0]];
+        int job = machine.getJob(candidate.parameters[1]);
+        machine.delJob(candidate.parameters[1]);
+        machine.addJob(job, candidate.parameters[2]);
+    }
+}
@@ -0,0 +1,58 @@
+package upmsp.algorithm.localsearch;
+
+import upmsp.model.solution.Machine;
+import upmsp.model.solution.Reference;
+import upmsp.model.solution.Solution;
+
+/**
+ * Neighborhood of the switch move: two jobs of a machine switch their positions. Parameters: machine and the two
+ * positions.
+ *
+ * @author Andre L. Maravilha
+ */
+public class SwitchNeighborhood implements Neighborhood {
+
+    @Override
+    public String name() {
+        return "switch";
+    }
+
+    @Override
+    public boolean isInterMachine() {
+        return false;
+    }
+
+    @Override
+    public boolean scan(Reference ref, int m, int m2, Candidate candidate, boolean firstImprovement) {
+        if (m2 != m) {
+            return false;
+        }
+
+        boolean found = false;
+        Machine machine = ref.solution.machines[m];
+        for (int idx1 = 0; idx1 < machine.getNJobs(); ++idx1) {
+            for (int idx2 = idx1 + 1; idx2 < machine.getNJobs(); ++idx2) {
+                long makespan = ref.getMakespan(m) + machine.getDeltaCostSwitchJobs(idx1, idx2);
+                if (candidate.offer(ref.makespan(m, makespan), ref.sumMachineTimes(m, makespan), m, m)) {
+                    candidate.parameters[0] = m;
+                    candidate.parameters[1] = idx1;
+                    candidate.parameters[2] = idx2;
+                    found = true;
+                    if (firstImprovement) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public void apply(Solution solution, Candidate candidate) {
+        Machine machine = solution.machines[candidate.parameters[0]];
+        int job1 = machine.getJob(candidate.parameters[1]);
+        int job2 = machine.getJob(candidate.parameters[2]);
+        machine.setJob(job2, candidate.parameters[1]);
+        machine.setJob(job1, candidate.parameters[2]);
+    }
+}
@@ -2,6 +2,7 @@ package upmsp.algorithm.neighborhood;
 
 import upmsp.model.*;
 import upmsp.model.solution.*;
+import upmsp.util.*;
 
 import java.util.*;
 
@@ -25,6 +26,8 @@ public abstract class Move {
         private long improvements = 0;
         private long sideways = 0;
         private long worsens = 0;
+        private final Histogram doMoveTime = new Histogram();
+        private final Histogram rejectTime = new Histogram();
 
         /**
          * Number of calls.
@@ -74,6 +77,22 @@ public abstract class Move {
             return worsens;
         }
 
+        /**
+         * Time (in nanoseconds) of the calls to doMove. Only recorded if timing is enabled in the heuristic.
+         * @return histogram of the time of the calls to doMove.
+         */
+        public Histogram getDoMoveTime() {
+            return doMoveTime;
+        }
+
+        /**
+         * Time (in nanoseconds) of the calls to reject. Only recorded if timing is enabled in the heuristic.
+         * @return histogram of the time of the calls to reject.
+         */
+        public Histogram getRejectTime() {
+            return rejectTime;
+        }
+
         /**
          * Reset counts.
          */
@@ -84,6 +103,8 @@ public abstract class Move {
             improvements = 0;
             sideways = 0;
             worsens = 0;
+            doMoveTime.reset();
+            rejectTime.reset();
         }
     }
 
@@ -99,6 +120,7 @@ public abstract class Move {
     private Stats statsRegularMakespanMachine;
     private Stats statsIntensificationRandomMachine;
     private Stats statsIntensificationMakespanMachine;
+    private final WindowedStats windowedStats = new WindowedStats(WindowedStats.DEFAULT_CAPACITY);
 
     // State of the current call to doMove
     protected Solution currentSolution;
@@ -156,17 +178,39 @@ public abstract class Move {
      */
     public int doMove(Solution solution, boolean useIntensificationPolicy, boolean useMakespanMachine) {
         assert hasMove(solution, useIntensificationPolicy, useMakespanMachine) : "Error: move " + name + " being executed with hasMove() = false.";
-        assert !intermediateState : "Error: calling doMove before mandatory call to accept() or reject().";
+        begin(solution, useIntensificationPolicy, useMakespanMachine);
+        return deltaCost = Integer.MAX_VALUE;
+    }
 
-        intermediateState = true;
+    /**
+     * This method does the move with the parameters (machines and positions) of a previous call to doMove() (see
+     * {@link #getParameters(int[])}) instead of choosing them, and returns the impact (delta cost) in the solution. No
+     * random number is drawn, so a search can be replayed from a trace. As after doMove(), accept() or reject() must be
+     * called.
+     * @param solution the solution to be modified (in the same state as in the call to doMove()).
+     * @param parameters the parameters of the move.
+     * @param useIntensificationPolicy the strategy used in the call to doMove() (only used for the stats).
+     * @param useMakespanMachine the strategy used in the call to doMove() (only used for the stats).
+     * @return the impact (delta cost) of this move in the solution.
+     */
+    public int replayMove(Solution solution, int[] parameters, boolean useIntensificationPolicy, boolean useMakespanMachine) {
+        begin(solution, useIntensificationPolicy, useMakespanMachine);
+        return deltaCost = Integer.MAX_VALUE;
+    }
 
-        stats = getStats(useIntensificationPolicy, useMakespanMachine);
-        stats.calls++;
-        statsOverall.calls++;
+    /**
+     * Return the number of parameters (machines and positions) of the move.
+     * @return the number of parameters.
+     */
+    public int getNParameters() {
+        return 0;
+    }
 
-        currentSolution = solution;
-        initialCost = solution.getCost();
-        return deltaCost = Integer.MAX_VALUE;
+    /**
+     * Write the parameters (machines and positions) chosen in the last call to doMove().
+     * @param parameters array in which the parameters are written (with at least {@link #getNParameters()} elements).
+     */
+    public void getParameters(int[] parameters) {
     }
 
     /**
@@ -184,7 +228,7 @@ public abstract class Move {
     public void accept() {
         assert intermediateState : "Error: calling accept() before calling doMove().";
         intermediateState = false;
-        updateStats(true);
+        countOutcome(true, deltaCost);
     }
 
     /**
@@ -194,7 +238,25 @@ public abstract class Move {
     public void reject() {
         assert intermediateState : "Error: calling reject() before calling doMove().";
         intermediateState = false;
-        updateStats(false);
+        countOutcome(false, deltaCost);
+    }
+
+    /**
+     * Record the time of the last call to doMove() in the stats of the move (overall and of the strategy used).
+     * @param timeNano the time (in nanoseconds).
+     */
+    public void recordDoMoveTime(long timeNano) {
+        statsOverall.doMoveTime.record(timeNano);
+        stats.doMoveTime.record(timeNano);
+    }
+
+    /**
+     * Record the time of the last call to reject() in the stats of the move (overall and of the strategy used).
+     * @param timeNano the time (in nanoseconds).
+     */
+    public void recordRejectTime(long timeNano) {
+        statsOverall.rejectTime.record(timeNano);
+        stats.rejectTime.record(timeNano);
     }
 
     /**
@@ -207,6 +269,7 @@ public abstract class Move {
         statsRegularMakespanMachine.reset();
         statsIntensificationRandomMachine.reset();
         statsIntensificationMakespanMachine.reset();
+        windowedStats.reset();
     }
 
     /**
@@ -241,16 +304,55 @@ public abstract class Move {
         }
     }
 
+    /**
+     * Return the stats of the move in the most recent windows of the search (the windows are closed by the heuristic).
+     * @return the windowed stats.
+     */
+    public WindowedStats getWindowedStats() {
+        return windowedStats;
+    }
+
     @Override
     public String toString() {
         return name;
     }
 
     /**
-     * Update stats.
+     * Start a call to doMove() or replayMove().
+     * @param solution the solution to be modified.
+     * @param useIntensificationPolicy the strategy (intensification policy or not).
+     * @param useMakespanMachine the strategy (makespan machine or random machine).
+     */
+    private void begin(Solution solution, boolean useIntensificationPolicy, boolean useMakespanMachine) {
+        assert !intermediateState : "Error: calling doMove before mandatory call to accept() or reject().";
+
+        intermediateState = true;
+        countCall(useIntensificationPolicy, useMakespanMachine);
+
+        currentSolution = solution;
+        initialCost = solution.getCost();
+    }
+
+    /**
+     * Count a call to the move in the stats (overall, of the strategy used and of the current window).
+     * @param useIntensificationPolicy the strategy (intensification policy or not).
+     * @param useMakespanMachine the strategy (makespan machine or random machine).
+     */
+    void countCall(boolean useIntensificationPolicy, boolean useMakespanMachine) {
+        stats = getStats(useIntensificationPolicy, useMakespanMachine);
+        stats.calls++;
+        statsOverall.calls++;
+        windowedStats.onCall();
+    }
+
+    /**
+     * Count the outcome of the last call to the move in the stats (overall, of the strategy used and of the current
+     * window).
      * @param accepted true if move was accepted, false otherwise.
+     * @param deltaCost impact (delta cost) of the move.
      */
-    private void updateStats(boolean accepted) {
+    void countOutcome(boolean accepted, int deltaCost) {
+        windowedStats.onOutcome(accepted, deltaCost);
 
         if (accepted) {
             statsOverall.accepts++;
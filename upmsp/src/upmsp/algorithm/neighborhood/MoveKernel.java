@@ -0,0 +1,585 @@
+package upmsp.algorithm.neighborhood;
+
+import upmsp.model.solution.*;
+
+import java.util.*;
+
+/**
+ * This class is a fused implementation of the built-in moves (Shift, SimpleSwap, Swap, Switch, TaskMove, TwoShift and
+ * OrOpt).
+ * A move is dispatched by a switch on a small int code instead of a virtual call, so the JIT compiler can inline the
+ * moves in the loop of the heuristic, and the data to undo the last move is kept in a primitive array instead of the
+ * fields of the moves. Each move draws the same random numbers (from the random number generator of the move) and
+ * makes the same changes in the solution as its class, so a search gives identical results with either
+ * implementation. The stats of the moves (see {@link Move#getStats()}) are updated as well. The OrOpt move is done by
+ * its own (package-private) methods, called directly, since it keeps its block of jobs to undo it.
+ *
+ * @author Andre L. Maravilha
+ */
+public final class MoveKernel {
+
+    /**
+     * Codes of the moves.
+     */
+    public static final int SHIFT = 0;
+    public static final int DIRECT_SWAP = 1;
+    public static final int SWAP = 2;
+    public static final int SWITCH = 3;
+    public static final int TASK_MOVE = 4;
+    public static final int TWO_SHIFT = 5;
+    public static final int OR_OPT = 6;
+
+    private final Move[] moves;
+    private final int[] codes;
+
+    // State of the last call to doMove (machines, positions and jobs needed to undo it)
+    private final int[] undo = new int[8];
+    private Solution solution;
+    private int current = -1;
+    private int deltaCost = 0;
+
+    /**
+     * Instantiates a new MoveKernel.
+     * @param moves the moves (the index of a move in this list identifies it in the kernel).
+     * @throws IllegalArgumentException if a move is not a built-in move (see {@link #supports(List)}).
+     */
+    public MoveKernel(List<Move> moves) {
+        this.moves = moves.toArray(new Move[0]);
+        this.codes = new int[this.moves.length];
+        for (int i = 0; i < codes.length; ++i) {
+            codes[i] = getCode(this.moves[i]);
+            if (codes[i] < 0) {
+                throw new IllegalArgumentException("Move not supported by the kernel: " + this.moves[i].name);
+            }
+        }
+    }
+
+    /**
+     * Return the code of a move.
+     * @param move the move.
+     * @return the code of the move, or -1 if it is not a built-in move (subclasses of the built-in moves are not
+     *         supported, since they may change their behavior).
+     */
+    public static int getCode(Move move) {
+        Class<?> type = move.getClass();
+        if (type == Shift.class) return SHIFT;
+        if (type == SimpleSwap.class) return DIRECT_SWAP;
+        if (type == Swap.class) return SWAP;
+        if (type == Switch.class) return SWITCH;
+        if (type == TaskMove.class) return TASK_MOVE;
+        if (type == TwoShift.class) return TWO_SHIFT;
+        if (type == OrOpt.class) return OR_OPT;
+        return -1;
+    }
+
+    /**
+     * Return whether all moves are supported by the kernel.
+     * @param moves the moves.
+     * @return true if all moves are built-in moves, false otherwise.
+     */
+    public static boolean supports(List<Move> moves) {
+        for (Move move : moves) {
+            if (getCode(move) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Return a move.
+     * @param index the index of the move.
+     * @return the move.
+     */
+    public Move getMove(int index) {
+        return moves[index];
+    }
+
+    /**
+     * Return the number of moves.
+     * @return the number of moves.
+     */
+    public int getNMoves() {
+        return moves.length;
+    }
+
+    /**
+     * Same as {@link Move#hasMove(Solution, boolean, boolean)}.
+     * @param index the index of the move.
+     * @param solution the solution.
+     * @param useIntensificationPolicy the strategy (intensification policy or not).
+     * @param useMakespanMachine the strategy (makespan machine or random machine).
+     * @return true if the move can be applied to the solution and false otherwise.
+     */
+    public boolean hasMove(int index, Solution solution, boolean useIntensificationPolicy, boolean useMakespanMachine) {
+        switch (codes[index]) {
+            case SHIFT:
+            case SWITCH:
+            case TWO_SHIFT:
+            case OR_OPT:
+                return !useMakespanMachine || solution.makespanMachine.getNJobs() > 1;
+            default:
+                return solution.getNMachines() > 1 && (!useMakespanMachine || solution.makespanMachine.getNJobs() > 0);
+        }
+    }
+
+    /**
+     * Same as {@link Move#doMove(Solution, boolean, boolean)}. It must be followed by a call to {@link #accept()} or
+     * {@link #reject()}.
+     * @param index the index of the move.
+     * @param solution the solution to be modified.
+     * @param useIntensificationPolicy the strategy (intensification policy or not).
+     * @param useMakespanMachine the strategy (makespan machine or random machine).
+     * @return the impact (delta cost) of the move in the solution.
+     */
+    public int doMove(int index, Solution solution, boolean useIntensificationPolicy, boolean useMakespanMachine) {
+        Move move = moves[index];
+        move.countCall(useIntensificationPolicy, useMakespanMachine);
+
+        this.solution = solution;
+        this.current = index;
+        int initialCost = solution.getCost();
+
+        switch (codes[index]) {
+            case SHIFT:
+                shift(solution, move.random, useIntensificationPolicy, useMakespanMachine);
+                break;
+            case DIRECT_SWAP:
+                simpleSwap(solution, move.random, useIntensificationPolicy, useMakespanMachine);
+                break;
+            case SWAP:
+                swap(solution, move.random, useIntensificationPolicy, useMakespanMachine);
+                break;
+            case SWITCH:
+                doSwitch(solution, move.random, useIntensificationPolicy, useMakespanMachine);
+                break;
+            case TASK_MOVE:
+                taskMove(solution, move.random, useIntensificationPolicy, useMakespanMachine);
+                break;
+            case TWO_SHIFT:
+                twoShift(solution, move.random, useIntensificationPolicy, useMakespanMachine);
+                break;
+            default:
+                ((OrOpt) move).apply(solution, useIntensificationPolicy, useMakespanMachine);
+                break;
+        }
+
+        solution.updateCost();
+        return deltaCost = solution.getCost() - initialCost;
+    }
+
+    /**
+     * Accepts the last move.
+     */
+    public void accept() {
+        moves[current].countOutcome(true, deltaCost);
+    }
+
+    /**
+     * Rejects the last move, undoing it.
+     */
+    public void reject() {
+        moves[current].countOutcome(false, deltaCost);
+
+        Machine[] machines = solution.machines;
+        switch (codes[current]) {
+            case SHIFT: {
+                Machine machine = machines[undo[0]];
+                machine.delJob(undo[2]);
+                machine.addJob(undo[3], undo[1]);
+                break;
+            }
+            case DIRECT_SWAP: {
+                machines[undo[0]].setJob(undo[4], undo[2]);
+                machines[undo[1]].setJob(undo[5], undo[3]);
+                break;
+            }
+            case SWAP: {
+                Machine machine1 = machines[undo[0]];
+                Machine machine2 = machines[undo[1]];
+                machine1.delJob(undo[4]);
+                machine2.delJob(undo[5]);
+                machine1.addJob(undo[6], undo[2]);
+                machine2.addJob(undo[7], undo[3]);
+                break;
+            }
+            case SWITCH: {
+                Machine machine = machines[undo[0]];
+                machine.setJob(undo[3], undo[1]);
+                machine.setJob(undo[4], undo[2]);
+                break;
+            }
+            case TASK_MOVE: {
+                machines[undo[0]].addJob(undo[4], undo[2]);
+                machines[undo[1]].delJob(undo[3]);
+                break;
+            }
+            case TWO_SHIFT: {
+                Machine machine = machines[undo[0]];
+                machine.delJob(undo[4]);
+                machine.addJob(undo[6], undo[3]);
+                machine.delJob(undo[2]);
+                machine.addJob(undo[5], undo[1]);
+                break;
+            }
+            default: {
+                ((OrOpt) moves[current]).undo();
+                break;
+            }
+        }
+
+        solution.updateCost();
+    }
+
+    /**
+     * Shift (see {@link Shift}). Undo data: machine, source and destination positions, and job.
+     */
+    private void shift(Solution solution, Random random, boolean useIntensificationPolicy, boolean useMakespanMachine) {
+        Machine machine = singleMachine(solution, random, useMakespanMachine);
+        int pos1, pos2, job;
+
+        if (useIntensificationPolicy) {
+            pos1 = random.nextInt(machine.getNJobs());
+            job = machine.getJob(pos1);
+            machine.delJob(pos1);
+
+            pos2 = random.nextInt(machine.getNJobs() + 1);
+            int cost = Integer.MAX_VALUE;
+            for (int p = 0; p <= machine.getNJobs(); p++) {
+                if (p == pos1) continue;
+                int simulatedCost = machine.getDeltaCostAddJob(job, p);
+                if (simulatedCost < cost) {
+                    cost = simulatedCost;
+                    pos2 = p;
+                }
+            }
+            machine.addJob(job, pos2);
+
+        } else {
+            do {
+                pos1 = random.nextInt(machine.getNJobs());
+                pos2 = random.nextInt(machine.getNJobs());
+            } while (pos1 == pos2);
+            job = machine.getJob(pos1);
+
+            machine.delJob(pos1);
+            machine.addJob(job, pos2);
+        }
+
+        undo[0] = machine.id;
+        undo[1] = pos1;
+        undo[2] = pos2;
+        undo[3] = job;
+    }
+
+    /**
+     * Direct swap (see {@link SimpleSwap}). Undo data: machines, positions and jobs.
+     */
+    private void simpleSwap(Solution solution, Random random, boolean useIntensificationPolicy, boolean useMakespanMachine) {
+        pairOfMachines(solution, random, useMakespanMachine);
+        Machine machine1 = solution.machines[undo[0]];
+        Machine machine2 = solution.machines[undo[1]];
+        int posM1, posM2, job1, job2;
+
+        if (useIntensificationPolicy) {
+            posM1 = random.nextInt(machine1.getNJobs());
+            job1 = machine1.getJob(posM1);
+
+            posM2 = 0;
+            job2 = machine2.getJob(0);
+            int cost = Integer.MAX_VALUE;
+            for (int p = 0; p < machine2.getNJobs(); p++) {
+                int candidateJob = machine2.getJob(p);
+                int simulatedCost = machine1.getDeltaCostSetJob(candidateJob, posM1) + machine2.getDeltaCostSetJob(job1, p);
+                if (simulatedCost < cost) {
+                    cost = simulatedCost;
+                    posM2 = p;
+                    job2 = candidateJob;
+                }
+            }
+
+        } else {
+            posM1 = random.nextInt(machine1.getNJobs());
+            posM2 = random.nextInt(machine2.getNJobs());
+            job1 = machine1.getJob(posM1);
+            job2 = machine2.getJob(posM2);
+        }
+
+        machine1.setJob(job2, posM1);
+        machine2.setJob(job1, posM2);
+
+        undo[2] = posM1;
+        undo[3] = posM2;
+        undo[4] = job1;
+        undo[5] = job2;
+    }
+
+    /**
+     * Swap (see {@link Swap}). Undo data: machines, source positions, destination positions and jobs.
+     */
+    private void swap(Solution solution, Random random, boolean useIntensificationPolicy, boolean useMakespanMachine) {
+        pairOfMachines(solution, random, useMakespanMachine);
+        Machine machine1 = solution.machines[undo[0]];
+        Machine machine2 = solution.machines[undo[1]];
+        int pos1M1, pos1M2, pos2M1, pos2M2, job1, job2;
+
+        if (useIntensificationPolicy) {
+            pos1M1 = random.nextInt(machine1.getNJobs());
+            pos1M2 = random.nextInt(machine2.getNJobs());
+            job1 = machine1.getJob(pos1M1);
+            job2 = machine2.getJob(pos1M2);
+
+            machine1.delJob(pos1M1);
+            machine2.delJob(pos1M2);
+
+            pos2M1 = 0;
+            int cost = Integer.MAX_VALUE;
+            for (int p = 0; p <= machine1.getNJobs(); p++) {
+                int simulatedCost = machine1.getDeltaCostAddJob(job2, p);
+                if (simulatedCost < cost) {
+                    cost = simulatedCost;
+                    pos2M1 = p;
+                }
+            }
+
+            pos2M2 = 0;
+            cost = Integer.MAX_VALUE;
+            for (int p = 0; p <= machine2.getNJobs(); p++) {
+                int simulatedCost = machine2.getDeltaCostAddJob(job1, p);
+                if (simulatedCost < cost) {
+                    cost = simulatedCost;
+                    pos2M2 = p;
+                }
+            }
+
+            machine1.addJob(job2, pos2M1);
+            machine2.addJob(job1, pos2M2);
+
+        } else {
+            pos1M1 = random.nextInt(machine1.getNJobs());
+            pos1M2 = random.nextInt(machine2.getNJobs());
+            pos2M1 = random.nextInt(machine1.getNJobs());
+            pos2M2 = random.nextInt(machine2.getNJobs());
+            job1 = machine1.getJob(pos1M1);
+            job2 = machine2.getJob(pos1M2);
+
+            machine1.delJob(pos1M1);
+            machine2.delJob(pos1M2);
+            machine1.addJob(job2, pos2M1);
+            machine2.addJob(job1, pos2M2);
+        }
+
+        undo[2] = pos1M1;
+        undo[3] = pos1M2;
+        undo[4] = pos2M1;
+        undo[5] = pos2M2;
+        undo[6] = job1;
+        undo[7] = job2;
+    }
+
+    /**
+     * Switch (see {@link Switch}). Undo data: machine, positions and jobs.
+     */
+    private void doSwitch(Solution solution, Random random, boolean useIntensificationPolicy, boolean useMakespanMachine) {
+        Machine machine = singleMachine(solution, random, useMakespanMachine);
+        int pos1, pos2, job1, job2;
+
+        if (useIntensificationPolicy) {
+            pos1 = random.nextInt(machine.getNJobs());
+            job1 = machine.getJob(pos1);
+
+            pos2 = 0;
+            job2 = machine.getJob(0);
+            int cost = Integer.MAX_VALUE;
+            for (int p = 0; p < machine.getNJobs(); p++) {
+                if (p == pos1) continue;
+                int candidateJob = machine.getJob(p);
+                int simulatedCost = machine.getDeltaCostSetJob(candidateJob, pos1) + machine.getDeltaCostSetJob(job1, p);
+                if (simulatedCost < cost) {
+                    cost = simulatedCost;
+                    pos2 = p;
+                    job2 = candidateJob;
+                }
+            }
+
+        } else {
+            pos1 = random.nextInt(machine.getNJobs());
+            pos2 = random.nextInt(machine.getNJobs());
+            job1 = machine.getJob(pos1);
+            job2 = machine.getJob(pos2);
+        }
+
+        machine.setJob(job2, pos1);
+        machine.setJob(job1, pos2);
+
+        undo[0] = machine.id;
+        undo[1] = pos1;
+        undo[2] = pos2;
+        undo[3] = job1;
+        undo[4] = job2;
+    }
+
+    /**
+     * Task move (see {@link TaskMove}). Undo data: machines, source and destination positions, and job.
+     */
+    private void taskMove(Solution solution, Random random, boolean useIntensificationPolicy, boolean useMakespanMachine) {
+        Machine machine1, machine2;
+        if (useMakespanMachine && solution.makespanMachine.getNJobs() > 0) {
+            int m;
+            do {
+                m = random.nextInt(solution.machines.length);
+            } while (m == solution.makespanMachine.id);
+
+            machine1 = solution.makespanMachine;
+            machine2 = solution.machines[m];
+        } else {
+            int m1, m2;
+            do {
+                m1 = random.nextInt(solution.machines.length);
+                m2 = random.nextInt(solution.machines.length);
+            } while (m1 == m2 || solution.machines[m1].getNJobs() == 0);
+            machine1 = solution.machines[m1];
+            machine2 = solution.machines[m2];
+        }
+
+        int posM1, posM2, job;
+        if (useIntensificationPolicy) {
+            posM1 = random.nextInt(machine1.getNJobs());
+            job = machine1.getJob(posM1);
+            machine1.delJob(posM1);
+
+            posM2 = random.nextInt(machine2.getNJobs() + 1);
+            int cost = Integer.MAX_VALUE;
+            for (int p = 0; p <= machine2.getNJobs(); p++) {
+                int simulatedCost = machine2.getDeltaCostAddJob(job, p);
+                if (simulatedCost < cost) {
+                    cost = simulatedCost;
+                    posM2 = p;
+                }
+            }
+            machine2.addJob(job, posM2);
+
+        } else {
+            posM1 = random.nextInt(machine1.getNJobs());
+            posM2 = random.nextInt(machine2.getNJobs() + 1);
+            job = machine1.getJob(posM1);
+
+            machine1.delJob(posM1);
+            machine2.addJob(job, posM2);
+        }
+
+        undo[0] = machine1.id;
+        undo[1] = machine2.id;
+        undo[2] = posM1;
+        undo[3] = posM2;
+        undo[4] = job;
+    }
+
+    /**
+     * Two shifts (see {@link TwoShift}). Undo data: machine, source and destination positions of each job, and jobs.
+     */
+    private void twoShift(Solution solution, Random random, boolean useIntensificationPolicy, boolean useMakespanMachine) {
+        Machine machine = singleMachine(solution, random, useMakespanMachine);
+        int pos1_1, pos1_2, pos2_1, pos2_2, job1, job2;
+
+        if (useIntensificationPolicy) {
+            pos1_1 = random.nextInt(machine.getNJobs());
+            job1 = machine.getJob(pos1_1);
+            machine.delJob(pos1_1);
+
+            pos1_2 = 0;
+            int cost = Integer.MAX_VALUE;
+            for (int p = 0; p <= machine.getNJobs(); p++) {
+                if (p == pos1_1) continue;
+                int simulatedCost = machine.getDeltaCostAddJob(job1, p);
+                if (simulatedCost < cost) {
+                    cost = simulatedCost;
+                    pos1_2 = p;
+                }
+            }
+            machine.addJob(job1, pos1_2);
+
+            do {
+                pos2_1 = random.nextInt(machine.getNJobs());
+            } while (pos2_1 == pos1_2);
+            job2 = machine.getJob(pos2_1);
+            machine.delJob(pos2_1);
+
+            pos2_2 = 0;
+            cost = Integer.MAX_VALUE;
+            for (int p = 0; p <= machine.getNJobs(); p++) {
+                if (p == pos2_1) continue;
+                int simulatedCost = machine.getDeltaCostAddJob(job2, p);
+                if (simulatedCost < cost) {
+                    cost = simulatedCost;
+                    pos2_2 = p;
+                }
+            }
+            machine.addJob(job2, pos2_2);
+
+        } else {
+            pos1_1 = random.nextInt(machine.getNJobs());
+            job1 = machine.getJob(pos1_1);
+            machine.delJob(pos1_1);
+
+            pos1_2 = random.nextInt(machine.getNJobs() + 1);
+            machine.addJob(job1, pos1_2);
+
+            pos2_1 = random.nextInt(machine.getNJobs());
+            job2 = machine.getJob(pos2_1);
+            machine.delJob(pos2_1);
+
+            pos2_2 = random.nextInt(machine.getNJobs() + 1);
+            machine.addJob(job2, pos2_2);
+        }
+
+        undo[0] = machine.id;
+        undo[1] = pos1_1;
+        undo[2] = pos1_2;
+        undo[3] = pos2_1;
+        undo[4] = pos2_2;
+        undo[5] = job1;
+        undo[6] = job2;
+    }
+
+    /**
+     * Select the machine of the moves within a machine (Shift, Switch and TwoShift): the makespan machine or a random
+     * machine with more than one job.
+     */
+    private static Machine singleMachine(Solution solution, Random random, boolean useMakespanMachine) {
+        if (useMakespanMachine && solution.makespanMachine.getNJobs() > 1) {
+            return solution.makespanMachine;
+        }
+        int m;
+        do {
+            m = random.nextInt(solution.machines.length);
+        } while (solution.machines[m].getNJobs() <= 1);
+        return solution.machines[m];
+    }
+
+    /**
+     * Select the machines of the swaps between machines (SimpleSwap and Swap): the makespan machine (or a random
+     * machine) and another random machine, both with at least one job. Their ids are written in undo[0] and undo[1].
+     */
+    private void pairOfMachines(Solution solution, Random random, boolean useMakespanMachine) {
+        if (useMakespanMachine && solution.makespanMachine.getNJobs() > 0) {
+            int m;
+            do {
+                m = random.nextInt(solution.machines.length);
+            } while (m == solution.makespanMachine.id || solution.machines[m].getNJobs() == 0);
+
+            undo[0] = solution.makespanMachine.id;
+            undo[1] = m;
+        } else {
+            int m1, m2;
+            do {
+                m1 = random.nextInt(solution.machines.length);
+                m2 = random.nextInt(solution.machines.length);
+            } while (m1 == m2 || solution.machines[m1].getNJobs() == 0 || solution.machines[m2].getNJobs() == 0);
+
+            undo[0] = m1;
+            undo[1] = m2;
+        }
+    }
+
+}
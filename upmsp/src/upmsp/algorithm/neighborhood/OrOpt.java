@@ -0,0 +1,217 @@
+package upmsp.algorithm.neighborhood;
+
+import upmsp.model.*;
+import upmsp.model.solution.*;
+
+import java.util.*;
+
+/**
+ * This class represents an Or-opt Move. A neighbor in the Or-opt Move is generated by relocating a block of 2 to
+ * {@link #maxLength} consecutive jobs from the machine with the largest total execution time (or a random machine) to
+ * another position in the same machine or in another (random) machine, in the same order or reversed. The parameter
+ * "useMakespanMachine" determines whether the machine with the largest total execution time is always used. With the
+ * intensification policy, the best position (and order) for the block in the destination machine is chosen; the
+ * candidates are evaluated in constant time from the segment costs of the machines (see
+ * {@link Machine#getSegmentCost(int, int)}).
+ *
+ * @author Andre L. Maravilha
+ */
+public class OrOpt extends Move {
+
+    /**
+     * Default maximum number of jobs of a block.
+     */
+    public static final int DEFAULT_MAX_LENGTH = 3;
+
+    /**
+     * Maximum number of jobs of a block.
+     */
+    public final int maxLength;
+
+    private Machine machine1, machine2;
+    private int from, length, target;
+    private boolean reversed;
+    private final int block[];
+
+    /**
+     * Instantiates a new Or-opt Move (with blocks of at most {@link #DEFAULT_MAX_LENGTH} jobs).
+     * @param problem problem.
+     * @param random  random number generator.
+     */
+    public OrOpt(Problem problem, Random random) {
+        this(problem, random, DEFAULT_MAX_LENGTH);
+    }
+
+    /**
+     * Instantiates a new Or-opt Move.
+     * @param problem   problem.
+     * @param random    random number generator.
+     * @param maxLength maximum number of jobs of a block (at least 2).
+     * @throws IllegalArgumentException if the maximum number of jobs of a block is less than 2.
+     */
+    public OrOpt(Problem problem, Random random, int maxLength) {
+        super(problem, random, "or-opt");
+        if (maxLength < 2) {
+            throw new IllegalArgumentException("Invalid maximum length of the blocks: " + maxLength);
+        }
+        this.maxLength = maxLength;
+        this.block = new int[maxLength];
+    }
+
+    @Override
+    public int doMove(Solution solution, boolean useIntensificationPolicy, boolean useMakespanMachine) {
+        super.doMove(solution, useIntensificationPolicy, useMakespanMachine);
+        apply(solution, useIntensificationPolicy, useMakespanMachine);
+
+        solution.updateCost();
+        return deltaCost = solution.getCost() - initialCost;
+    }
+
+    @Override
+    public int replayMove(Solution solution, int[] parameters, boolean useIntensificationPolicy, boolean useMakespanMachine) {
+        super.replayMove(solution, parameters, useIntensificationPolicy, useMakespanMachine);
+
+        machine1 = solution.machines[parameters[0]];
+        machine2 = solution.machines[parameters[1]];
+        from = parameters[2];
+        length = parameters[3];
+        target = parameters[4];
+        reversed = (parameters[5] != 0);
+        relocate();
+
+        solution.updateCost();
+        return deltaCost = solution.getCost() - initialCost;
+    }
+
+    @Override
+    public int getNParameters() {
+        return 6;
+    }
+
+    @Override
+    public void getParameters(int[] parameters) {
+        parameters[0] = machine1.id;
+        parameters[1] = machine2.id;
+        parameters[2] = from;
+        parameters[3] = length;
+        parameters[4] = target;
+        parameters[5] = (reversed ? 1 : 0);
+    }
+
+    @Override
+    public boolean hasMove(Solution solution, boolean useIntensificationPolicy, boolean useMakespanMachine) {
+        return !useMakespanMachine || solution.makespanMachine.getNJobs() > 1;
+    }
+
+    @Override
+    public void accept() {
+        super.accept();
+    }
+
+    @Override
+    public void reject() {
+        super.reject();
+        undo();
+        currentSolution.updateCost();
+    }
+
+    /**
+     * Chooses the block and its destination and relocates it (without updating the cost of the solution or the
+     * stats of the move). It is also used by {@link MoveKernel}.
+     * @param solution the solution to be modified.
+     * @param useIntensificationPolicy if true, the best destination in the destination machine is chosen.
+     * @param useMakespanMachine if true, the block is taken from the makespan machine.
+     */
+    void apply(Solution solution, boolean useIntensificationPolicy, boolean useMakespanMachine) {
+
+        // selecting machines to involve in operation
+        if (useMakespanMachine && solution.makespanMachine.getNJobs() > 1) {
+            machine1 = solution.makespanMachine;
+        } else {
+            int m;
+            do {
+                m = random.nextInt(solution.machines.length);
+            } while (solution.machines[m].getNJobs() <= 1);
+            machine1 = solution.machines[m];
+        }
+        machine2 = solution.machines[random.nextInt(solution.machines.length)];
+
+        // selecting block to relocate
+        int nJobs = machine1.getNJobs();
+        length = 2 + random.nextInt(Math.min(maxLength, nJobs) - 1);
+        from = random.nextInt(nJobs - length + 1);
+        int to = from + length;
+
+        // selecting destination of the block
+        if (useIntensificationPolicy) {
+            int cost = Integer.MAX_VALUE;
+            if (machine2 == machine1) {
+                for (int r = 0; r < 2; r++) {
+                    boolean rev = (r == 1);
+                    for (int p = 0; p <= nJobs - length; p++) {
+                        if (p == from && !rev) continue;
+                        int simulatedCost = machine1.getDeltaCostMoveSegment(from, to, p, rev);
+                        if (simulatedCost < cost) {
+                            cost = simulatedCost;
+                            target = p;
+                            reversed = rev;
+                        }
+                    }
+                }
+            } else {
+                int first = machine1.getJob(from), last = machine1.getJob(to - 1);
+                for (int r = 0; r < 2; r++) {
+                    boolean rev = (r == 1);
+                    int segmentCost = machine2.getSegmentCost(machine1, from, to, rev);
+                    for (int p = 0; p <= machine2.getNJobs(); p++) {
+                        int simulatedCost = machine2.getDeltaCostAddSegment(rev ? last : first, rev ? first : last, segmentCost, p);
+                        if (simulatedCost < cost) {
+                            cost = simulatedCost;
+                            target = p;
+                            reversed = rev;
+                        }
+                    }
+                }
+            }
+        } else if (machine2 == machine1) {
+            // the block is not put back where it was (unless it is reversed)
+            reversed = (nJobs == length || random.nextBoolean());
+            target = random.nextInt(nJobs - length + (reversed ? 1 : 0));
+            if (!reversed && target >= from) {
+                target++;
+            }
+        } else {
+            reversed = random.nextBoolean();
+            target = random.nextInt(machine2.getNJobs() + 1);
+        }
+
+        relocate();
+    }
+
+    /**
+     * Undoes the last relocation (without updating the cost of the solution or the stats of the move). It is also
+     * used by {@link MoveKernel}.
+     */
+    void undo() {
+        for (int k = 0; k < length; k++) {
+            machine2.delJob(target);
+        }
+        for (int k = 0; k < length; k++) {
+            machine1.addJob(block[k], from + k);
+        }
+    }
+
+    /**
+     * Relocates the block of the current move (the jobs of the block are kept, in their original order, for undoing
+     * it).
+     */
+    private void relocate() {
+        for (int k = 0; k < length; k++) {
+            block[k] = machine1.getJob(from);
+            machine1.delJob(from);
+        }
+        for (int k = 0; k < length; k++) {
+            machine2.addJob(block[reversed ? length - 1 - k : k], target + k);
+        }
+    }
+}
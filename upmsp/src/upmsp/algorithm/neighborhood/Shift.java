@@ -49,7 +49,7 @@ public class Shift extends Move {
 
             // selecting job (and source position) to perform operation
             pos1 = random.nextInt(machine.getNJobs());
-            job = machine.jobs[pos1];
+            job = machine.getJob(pos1);
             machine.delJob(pos1);
 
             // selecting destination position
@@ -73,7 +73,7 @@ public class Shift extends Move {
                 pos1 = random.nextInt(machine.getNJobs());
                 pos2 = random.nextInt(machine.getNJobs());
             } while (pos1 == pos2);
-            job = machine.jobs[pos1];
+            job = machine.getJob(pos1);
 
             // moving jobs
             machine.delJob(pos1);
@@ -84,6 +84,35 @@ public class Shift extends Move {
         return deltaCost = solution.getCost() - initialCost;
     }
 
+    @Override
+    public int replayMove(Solution solution, int[] parameters, boolean useIntensificationPolicy, boolean useMakespanMachine) {
+        super.replayMove(solution, parameters, useIntensificationPolicy, useMakespanMachine);
+
+        machine = solution.machines[parameters[0]];
+        pos1 = parameters[1];
+        pos2 = parameters[2];
+        job = machine.getJob(pos1);
+
+        // moving jobs
+        machine.delJob(pos1);
+        machine.addJob(job, pos2);
+
+        solution.updateCost();
+        return deltaCost = solution.getCost() - initialCost;
+    }
+
+    @Override
+    public int getNParameters() {
+        return 3;
+    }
+
+    @Override
+    public void getParameters(int[] parameters) {
+        parameters[0] = machine.id;
+        parameters[1] = pos1;
+        parameters[2] = pos2;
+    }
+
     @Override
     public boolean hasMove(Solution solution, boolean useIntensificationPolicy, boolean useMakespanMachine) {
         return !useMakespanMachine || solution.makespanMachine.getNJobs() > 1;
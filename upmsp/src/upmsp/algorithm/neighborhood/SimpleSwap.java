@@ -54,12 +54,12 @@ public class SimpleSwap extends Move {
         if (useIntensificationPolicy) {
 
             posM1 = random.nextInt(machine1.getNJobs());
-            job1 = machine1.jobs[posM1];
+            job1 = machine1.getJob(posM1);
 
             // selecting job in machine2
             int cost = Integer.MAX_VALUE;
             for (int p = 0; p < machine2.getNJobs(); p++) {
-                int candidateJob = machine2.jobs[p];
+                int candidateJob = machine2.getJob(p);
                 int simulatedCost = machine1.getDeltaCostSetJob(candidateJob, posM1) + machine2.getDeltaCostSetJob(job1, p);
                 if (simulatedCost < cost) {
                     cost = simulatedCost;
@@ -76,8 +76,8 @@ public class SimpleSwap extends Move {
 
             posM1 = random.nextInt(machine1.getNJobs());
             posM2 = random.nextInt(machine2.getNJobs());
-            job1 = machine1.jobs[posM1];
-            job2 = machine2.jobs[posM2];
+            job1 = machine1.getJob(posM1);
+            job2 = machine2.getJob(posM2);
 
             // swapping jobs
             machine1.setJob(job2, posM1);
@@ -88,6 +88,38 @@ public class SimpleSwap extends Move {
         return deltaCost = solution.getCost() - initialCost;
     }
 
+    @Override
+    public int replayMove(Solution solution, int[] parameters, boolean useIntensificationPolicy, boolean useMakespanMachine) {
+        super.replayMove(solution, parameters, useIntensificationPolicy, useMakespanMachine);
+
+        machine1 = solution.machines[parameters[0]];
+        machine2 = solution.machines[parameters[1]];
+        posM1 = parameters[2];
+        posM2 = parameters[3];
+        job1 = machine1.getJob(posM1);
+        job2 = machine2.getJob(posM2);
+
+        // swapping jobs
+        machine1.setJob(job2, posM1);
+        machine2.setJob(job1, posM2);
+
+        solution.updateCost();
+        return deltaCost = solution.getCost() - initialCost;
+    }
+
+    @Override
+    public int getNParameters() {
+        return 4;
+    }
+
+    @Override
+    public void getParameters(int[] parameters) {
+        parameters[0] = machine1.id;
+        parameters[1] = machine2.id;
+        parameters[2] = posM1;
+        parameters[3] = posM2;
+    }
+
     @Override
     public boolean hasMove(Solution solution, boolean useIntensificationPolicy, boolean useMakespanMachine) {
         return solution.getNMachines() > 1 && (!useMakespanMachine || solution.makespanMachine.getNJobs() > 0);
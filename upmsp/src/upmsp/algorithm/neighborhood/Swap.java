@@ -59,8 +59,8 @@ public class Swap extends Move {
 
             pos1M1 = random.nextInt(machine1.getNJobs());
             pos1M2 = random.nextInt(machine2.getNJobs());
-            job1 = machine1.jobs[pos1M1];
-            job2 = machine2.jobs[pos1M2];
+            job1 = machine1.getJob(pos1M1);
+            job2 = machine2.getJob(pos1M2);
 
             // removing jobs
             machine1.delJob(pos1M1);
@@ -97,8 +97,8 @@ public class Swap extends Move {
             pos1M2 = random.nextInt(machine2.getNJobs());
             pos2M1 = random.nextInt(machine1.getNJobs());
             pos2M2 = random.nextInt(machine2.getNJobs());
-            job1 = machine1.jobs[pos1M1];
-            job2 = machine2.jobs[pos1M2];
+            job1 = machine1.getJob(pos1M1);
+            job2 = machine2.getJob(pos1M2);
 
             // swapping jobs
             machine1.delJob(pos1M1);
@@ -111,6 +111,44 @@ public class Swap extends Move {
         return deltaCost = solution.getCost() - initialCost;
     }
 
+    @Override
+    public int replayMove(Solution solution, int[] parameters, boolean useIntensificationPolicy, boolean useMakespanMachine) {
+        super.replayMove(solution, parameters, useIntensificationPolicy, useMakespanMachine);
+
+        machine1 = solution.machines[parameters[0]];
+        machine2 = solution.machines[parameters[1]];
+        pos1M1 = parameters[2];
+        pos1M2 = parameters[3];
+        pos2M1 = parameters[4];
+        pos2M2 = parameters[5];
+        job1 = machine1.getJob(pos1M1);
+        job2 = machine2.getJob(pos1M2);
+
+        // swapping jobs
+        machine1.delJob(pos1M1);
+        machine2.delJob(pos1M2);
+        machine1.addJob(job2, pos2M1);
+        machine2.addJob(job1, pos2M2);
+
+        solution.updateCost();
+        return deltaCost = solution.getCost() - initialCost;
+    }
+
+    @Override
+    public int getNParameters() {
+        return 6;
+    }
+
+    @Override
+    public void getParameters(int[] parameters) {
+        parameters[0] = machine1.id;
+        parameters[1] = machine2.id;
+        parameters[2] = pos1M1;
+        parameters[3] = pos1M2;
+        parameters[4] = pos2M1;
+        parameters[5] = pos2M2;
+    }
+
     @Override
     public boolean hasMove(Solution solution, boolean useIntensificationPolicy, boolean useMakespanMachine) {
         return solution.getNMachines() > 1 && (!useMakespanMachine || solution.makespanMachine.getNJobs() > 0);
@@ -48,13 +48,13 @@ public class Switch extends Move {
         if (useIntensificationPolicy) {
 
             pos1 = random.nextInt(machine.getNJobs());
-            job1 = machine.jobs[pos1];
+            job1 = machine.getJob(pos1);
 
             // selecting job in machine2
             int cost = Integer.MAX_VALUE;
             for (int p = 0; p < machine.getNJobs(); p++) {
                 if (p == pos1) continue;
-                int candidateJob = machine.jobs[p];
+                int candidateJob = machine.getJob(p);
                 int simulatedCost = machine.getDeltaCostSetJob(candidateJob, pos1) + machine.getDeltaCostSetJob(job1, p);
                 if (simulatedCost < cost) {
                     cost = simulatedCost;
@@ -70,8 +70,8 @@ public class Switch extends Move {
         } else {
             pos1 = random.nextInt(machine.getNJobs());
             pos2 = random.nextInt(machine.getNJobs());
-            job1 = machine.jobs[pos1];
-            job2 = machine.jobs[pos2];
+            job1 = machine.getJob(pos1);
+            job2 = machine.getJob(pos2);
 
             // swapping jobs
             machine.setJob(job2, pos1);
@@ -82,6 +82,36 @@ public class Switch extends Move {
         return deltaCost = solution.getCost() - initialCost;
     }
 
+    @Override
+    public int replayMove(Solution solution, int[] parameters, boolean useIntensificationPolicy, boolean useMakespanMachine) {
+        super.replayMove(solution, parameters, useIntensificationPolicy, useMakespanMachine);
+
+        machine = solution.machines[parameters[0]];
+        pos1 = parameters[1];
+        pos2 = parameters[2];
+        job1 = machine.getJob(pos1);
+        job2 = machine.getJob(pos2);
+
+        // swapping jobs
+        machine.setJob(job2, pos1);
+        machine.setJob(job1, pos2);
+
+        solution.updateCost();
+        return deltaCost = solution.getCost() - initialCost;
+    }
+
+    @Override
+    public int getNParameters() {
+        return 3;
+    }
+
+    @Override
+    public void getParameters(int[] parameters) {
+        parameters[0] = machine.id;
+        parameters[1] = pos1;
+        parameters[2] = pos2;
+    }
+
     @Override
     public boolean hasMove(Solution solution, boolean useIntensificationPolicy, boolean useMakespanMachine) {
         return !useMakespanMachine || solution.makespanMachine.getNJobs() > 1;
@@ -56,7 +56,7 @@ public class TaskMove extends Move {
         if (useIntensificationPolicy) {
 
             posM1 = random.nextInt(machine1.getNJobs());
-            job = machine1.jobs[posM1];
+            job = machine1.getJob(posM1);
             machine1.delJob(posM1);
 
             // adding job to destination machine
@@ -74,7 +74,7 @@ public class TaskMove extends Move {
         } else {
             posM1 = random.nextInt(machine1.getNJobs());
             posM2 = random.nextInt(machine2.getNJobs() + 1);
-            job = machine1.jobs[posM1];
+            job = machine1.getJob(posM1);
 
             // moving job
             machine1.delJob(posM1);
@@ -85,6 +85,37 @@ public class TaskMove extends Move {
         return deltaCost = solution.getCost() - initialCost;
     }
 
+    @Override
+    public int replayMove(Solution solution, int[] parameters, boolean useIntensificationPolicy, boolean useMakespanMachine) {
+        super.replayMove(solution, parameters, useIntensificationPolicy, useMakespanMachine);
+
+        machine1 = solution.machines[parameters[0]];
+        machine2 = solution.machines[parameters[1]];
+        posM1 = parameters[2];
+        posM2 = parameters[3];
+        job = machine1.getJob(posM1);
+
+        // moving job
+        machine1.delJob(posM1);
+        machine2.addJob(job, posM2);
+
+        solution.updateCost();
+        return deltaCost = solution.getCost() - initialCost;
+    }
+
+    @Override
+    public int getNParameters() {
+        return 4;
+    }
+
+    @Override
+    public void getParameters(int[] parameters) {
+        parameters[0] = machine1.id;
+        parameters[1] = machine2.id;
+        parameters[2] = posM1;
+        parameters[3] = posM2;
+    }
+
     @Override
     public boolean hasMove(Solution solution, boolean useIntensificationPolicy, boolean useMakespanMachine) {
         return solution.getNMachines() > 1 && (!useMakespanMachine || solution.makespanMachine.getNJobs() > 0);
@@ -47,7 +47,7 @@ public class TwoShift extends Move {
 
             // selecting job1 to perform operation
             pos1_1 = random.nextInt(machine.getNJobs());
-            job1 = machine.jobs[pos1_1];
+            job1 = machine.getJob(pos1_1);
             machine.delJob(pos1_1);
 
             // selecting destination position for job1
@@ -66,7 +66,7 @@ public class TwoShift extends Move {
             do {
                 pos2_1 = random.nextInt(machine.getNJobs());
             } while (pos2_1 == pos1_2);
-            job2 = machine.jobs[pos2_1];
+            job2 = machine.getJob(pos2_1);
             machine.delJob(pos2_1);
 
             // selecting destination position
@@ -85,7 +85,7 @@ public class TwoShift extends Move {
 
             // removing first job
             pos1_1 = random.nextInt(machine.getNJobs());
-            job1 = machine.jobs[pos1_1];
+            job1 = machine.getJob(pos1_1);
             machine.delJob(pos1_1);
 
             // adding first job
@@ -94,7 +94,7 @@ public class TwoShift extends Move {
 
             // removing second job
             pos2_1 = random.nextInt(machine.getNJobs());
-            job2 = machine.jobs[pos2_1];
+            job2 = machine.getJob(pos2_1);
             machine.delJob(pos2_1);
 
             // adding second job
@@ -106,6 +106,44 @@ public class TwoShift extends Move {
         return deltaCost = solution.getCost() - initialCost;
     }
 
+    @Override
+    public int replayMove(Solution solution, int[] parameters, boolean useIntensificationPolicy, boolean useMakespanMachine) {
+        super.replayMove(solution, parameters, useIntensificationPolicy, useMakespanMachine);
+
+        machine = solution.machines[parameters[0]];
+        pos1_1 = parameters[1];
+        pos1_2 = parameters[2];
+        pos2_1 = parameters[3];
+        pos2_2 = parameters[4];
+
+        // moving first job
+        job1 = machine.getJob(pos1_1);
+        machine.delJob(pos1_1);
+        machine.addJob(job1, pos1_2);
+
+        // moving second job
+        job2 = machine.getJob(pos2_1);
+        machine.delJob(pos2_1);
+        machine.addJob(job2, pos2_2);
+
+        solution.updateCost();
+        return deltaCost = solution.getCost() - initialCost;
+    }
+
+    @Override
+    public int getNParameters() {
+        return 5;
+    }
+
+    @Override
+    public void getParameters(int[] parameters) {
+        parameters[0] = machine.id;
+        parameters[1] = pos1_1;
+        parameters[2] = pos1_2;
+        parameters[3] = pos2_1;
+        parameters[4] = pos2_2;
+    }
+
     @Override
     public boolean hasMove(Solution solution, boolean useIntensificationPolicy, boolean useMakespanMachine) {
         return !useMakespanMachine || solution.makespanMachine.getNJobs() > 1;
@@ -0,0 +1,241 @@
+package upmsp.algorithm.neighborhood;
+
+/**
+ * Statistics of a move in windows of the search (e.g., every N iterations or every temperature step of the Simulated
+ * Annealing). The most recent windows are kept in a ring preallocated with a fixed capacity, so older windows are
+ * overwritten. The window being filled is the current one; it is closed by the heuristic (see
+ * {@link #close(long, long, double)}).
+ *
+ * @author Andre L. Maravilha
+ */
+public class WindowedStats {
+
+    /**
+     * Default number of windows kept.
+     */
+    public static final int DEFAULT_CAPACITY = 128;
+
+    private final int capacity;
+
+    private final long[] calls;
+    private final long[] accepts;
+    private final long[] improvements;
+    private final long[] sideways;
+    private final long[] worsens;
+
+    private final long[] iterations;
+    private final long[] runtimes;
+    private final double[] temperatures;
+
+    private int current = 0;
+    private long closed = 0L;
+
+    /**
+     * Constructor.
+     * @param capacity number of windows kept.
+     */
+    public WindowedStats(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity must be positive.");
+        }
+
+        this.capacity = capacity;
+        this.calls = new long[capacity];
+        this.accepts = new long[capacity];
+        this.improvements = new long[capacity];
+        this.sideways = new long[capacity];
+        this.worsens = new long[capacity];
+        this.iterations = new long[capacity];
+        this.runtimes = new long[capacity];
+        this.temperatures = new double[capacity];
+    }
+
+    /**
+     * Count a call to the move in the current window.
+     */
+    void onCall() {
+        calls[current]++;
+    }
+
+    /**
+     * Count the outcome of a call to the move in the current window.
+     * @param accepted true if the move was accepted, false otherwise.
+     * @param deltaCost impact (delta cost) of the move.
+     */
+    void onOutcome(boolean accepted, int deltaCost) {
+        if (accepted) {
+            accepts[current]++;
+        }
+        if (deltaCost < 0) {
+            improvements[current]++;
+        } else if (deltaCost == 0) {
+            sideways[current]++;
+        } else {
+            worsens[current]++;
+        }
+    }
+
+    /**
+     * Close the current window and start a new one (which overwrites the oldest window if the ring is full).
+     * @param iteration iteration at which the window is closed.
+     * @param runtimeNano runtime (in nanoseconds) at which the window is closed.
+     * @param temperature temperature at which the window is closed.
+     */
+    public void close(long iteration, long runtimeNano, double temperature) {
+        iterations[current] = iteration;
+        runtimes[current] = runtimeNano;
+        temperatures[current] = temperature;
+
+        closed++;
+        current = (current + 1) % capacity;
+        calls[current] = 0L;
+        accepts[current] = 0L;
+        improvements[current] = 0L;
+        sideways[current] = 0L;
+        worsens[current] = 0L;
+    }
+
+    /**
+     * Remove all windows.
+     */
+    public void reset() {
+        for (int i = 0; i < capacity; ++i) {
+            calls[i] = 0L;
+            accepts[i] = 0L;
+            improvements[i] = 0L;
+            sideways[i] = 0L;
+            worsens[i] = 0L;
+        }
+        current = 0;
+        closed = 0L;
+    }
+
+    /**
+     * Number of windows kept.
+     * @return number of windows kept.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Number of windows closed since the beginning (or the last reset), including the ones already overwritten.
+     * @return number of windows closed.
+     */
+    public long getNClosed() {
+        return closed;
+    }
+
+    /**
+     * Number of closed windows available, i.e., the number of windows closed limited to the capacity.
+     * @return number of closed windows available.
+     */
+    public int getSize() {
+        return (int) Math.min(closed, capacity);
+    }
+
+    /**
+     * Number of calls in a closed window.
+     * @param age age of the window (0 for the most recent closed window, 1 for the previous one, and so on).
+     * @return number of calls.
+     */
+    public long getCalls(int age) {
+        return calls[index(age)];
+    }
+
+    /**
+     * Number of accepts in a closed window.
+     * @param age age of the window (0 for the most recent closed window).
+     * @return number of accepts.
+     */
+    public long getAccepts(int age) {
+        return accepts[index(age)];
+    }
+
+    /**
+     * Number of improvements in a closed window.
+     * @param age age of the window (0 for the most recent closed window).
+     * @return number of improvements.
+     */
+    public long getImprovements(int age) {
+        return improvements[index(age)];
+    }
+
+    /**
+     * Number of sideways in a closed window.
+     * @param age age of the window (0 for the most recent closed window).
+     * @return number of sideways.
+     */
+    public long getSideways(int age) {
+        return sideways[index(age)];
+    }
+
+    /**
+     * Number of worsens in a closed window.
+     * @param age age of the window (0 for the most recent closed window).
+     * @return number of worsens.
+     */
+    public long getWorsens(int age) {
+        return worsens[index(age)];
+    }
+
+    /**
+     * Iteration at which a window was closed.
+     * @param age age of the window (0 for the most recent closed window).
+     * @return the iteration.
+     */
+    public long getIteration(int age) {
+        return iterations[index(age)];
+    }
+
+    /**
+     * Runtime (in nanoseconds) at which a window was closed.
+     * @param age age of the window (0 for the most recent closed window).
+     * @return the runtime.
+     */
+    public long getRuntime(int age) {
+        return runtimes[index(age)];
+    }
+
+    /**
+     * Temperature at which a window was closed.
+     * @param age age of the window (0 for the most recent closed window).
+     * @return the temperature.
+     */
+    public double getTemperature(int age) {
+        return temperatures[index(age)];
+    }
+
+    /**
+     * Proportion of the calls in a closed window that were accepted.
+     * @param age age of the window (0 for the most recent closed window).
+     * @return the acceptance rate (or zero if there was no call).
+     */
+    public double getAcceptanceRate(int age) {
+        int i = index(age);
+        return (calls[i] > 0L ? accepts[i] / (double) calls[i] : 0.0);
+    }
+
+    /**
+     * Proportion of the calls in a closed window that improved the current solution.
+     * @param age age of the window (0 for the most recent closed window).
+     * @return the improvement rate (or zero if there was no call).
+     */
+    public double getImprovementRate(int age) {
+        int i = index(age);
+        return (calls[i] > 0L ? improvements[i] / (double) calls[i] : 0.0);
+    }
+
+    /**
+     * Return the position in the ring of a closed window.
+     * @param age age of the window (0 for the most recent closed window).
+     * @return the position in the ring.
+     */
+    private int index(int age) {
+        if (age < 0 || age >= getSize()) {
+            throw new IndexOutOfBoundsException("No closed window with age " + age);
+        }
+        return (current - 1 - age + capacity) % capacity;
+    }
+
+}
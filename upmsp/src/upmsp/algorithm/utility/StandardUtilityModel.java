@@ -41,6 +41,7 @@ public class StandardUtilityModel implements UtilityModel {
     private Coefficients cSwitch = new Coefficients();
     private Coefficients cTaskMove = new Coefficients();
     private Coefficients cTwoShift = new Coefficients();
+    private Coefficients cOrOpt = null;
 
     public StandardUtilityModel(Path path) throws IOException {
 
@@ -56,30 +57,53 @@ public class StandardUtilityModel implements UtilityModel {
 
             // Read coefficients for each move
             for (int i = 0; i < moves.length; ++i) {
+                read(properties, moves[i], coefficients[i]);
+            }
 
-                String move = moves[i];
-                Coefficients c = coefficients[i];
-
-                c.INTERCEPT = Double.parseDouble(properties.getProperty(move + ".INTERCEPT"));
-                c.J = Double.parseDouble(properties.getProperty(move + ".J"));
-                c.M = Double.parseDouble(properties.getProperty(move + ".M"));
-                c.S = Double.parseDouble(properties.getProperty(move + ".S"));
-                c.SX = Double.parseDouble(properties.getProperty(move + ".SX"));
-                c.T = Double.parseDouble(properties.getProperty(move + ".T"));
-                c.J2 = Double.parseDouble(properties.getProperty(move + ".J_J"));
-                c.M2 = Double.parseDouble(properties.getProperty(move + ".M_M"));
-                c.S2 = Double.parseDouble(properties.getProperty(move + ".S_S"));
-                c.SX2 = Double.parseDouble(properties.getProperty(move + ".SX_SX"));
-                c.T2 = Double.parseDouble(properties.getProperty(move + ".T_T"));
-                c.J_M = Double.parseDouble(properties.getProperty(move + ".J_M"));
-                c.J_S = Double.parseDouble(properties.getProperty(move + ".J_S"));
-                c.J_T = Double.parseDouble(properties.getProperty(move + ".J_T"));
-                c.M_S = Double.parseDouble(properties.getProperty(move + ".M_S"));
-                c.M_SX = Double.parseDouble(properties.getProperty(move + ".M_SX"));
+            // The coefficients of the or-opt move are optional (it is not in the original model), but they are required
+            // to use the move (see hasCoefficients)
+            if (properties.getProperty("OR_OPT.INTERCEPT") != null) {
+                cOrOpt = new Coefficients();
+                read(properties, "OR_OPT", cOrOpt);
             }
         }
     }
 
+    /**
+     * Return whether the file has the coefficients of a move (the ones of the moves of the original model are
+     * always there).
+     * @param neighborhood Class of the neighborhood.
+     * @return True if the utility of the move can be predicted, false otherwise.
+     */
+    public boolean hasCoefficients(Class<? extends Move> neighborhood) {
+        return !OrOpt.class.equals(neighborhood) || cOrOpt != null;
+    }
+
+    /**
+     * Read the coefficients of a move.
+     * @param properties Properties with the coefficients.
+     * @param move Name of the move in the file.
+     * @param c Coefficients to set.
+     */
+    private static void read(Properties properties, String move, Coefficients c) {
+        c.INTERCEPT = Double.parseDouble(properties.getProperty(move + ".INTERCEPT"));
+        c.J = Double.parseDouble(properties.getProperty(move + ".J"));
+        c.M = Double.parseDouble(properties.getProperty(move + ".M"));
+        c.S = Double.parseDouble(properties.getProperty(move + ".S"));
+        c.SX = Double.parseDouble(properties.getProperty(move + ".SX"));
+        c.T = Double.parseDouble(properties.getProperty(move + ".T"));
+        c.J2 = Double.parseDouble(properties.getProperty(move + ".J_J"));
+        c.M2 = Double.parseDouble(properties.getProperty(move + ".M_M"));
+        c.S2 = Double.parseDouble(properties.getProperty(move + ".S_S"));
+        c.SX2 = Double.parseDouble(properties.getProperty(move + ".SX_SX"));
+        c.T2 = Double.parseDouble(properties.getProperty(move + ".T_T"));
+        c.J_M = Double.parseDouble(properties.getProperty(move + ".J_M"));
+        c.J_S = Double.parseDouble(properties.getProperty(move + ".J_S"));
+        c.J_T = Double.parseDouble(properties.getProperty(move + ".J_T"));
+        c.M_S = Double.parseDouble(properties.getProperty(move + ".M_S"));
+        c.M_SX = Double.parseDouble(properties.getProperty(move + ".M_SX"));
+    }
+
     @Override
     public double evaluate(Problem problem, Class<? extends Move> neighborhood, Solution incumbent, double runtime) {
 
@@ -103,6 +127,8 @@ public class StandardUtilityModel implements UtilityModel {
             c = cTaskMove;
         } else if (TwoShift.class.equals(neighborhood)) {
             c = cTwoShift;
+        } else if (OrOpt.class.equals(neighborhood)) {
+            c = cOrOpt;
         }
 
         double aux = c.INTERCEPT +
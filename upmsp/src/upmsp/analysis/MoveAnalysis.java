@@ -1,11 +1,11 @@
 package upmsp.analysis;
 
 import upmsp.model.Problem;
+import upmsp.model.solution.Reference;
 import upmsp.model.solution.Solution;
 
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Random;
 
 /**
  * Interface implemented by classes that analyze a move.
@@ -24,31 +24,8 @@ public interface MoveAnalysis {
     }
 
     /**
-     * Keep (best, worst and sum) changes on a given value.
-     */
-    class Delta {
-        public Long best = null;
-        public Long worst = null;
-        public Long sum = null;
-    }
-
-    /**
-     * Keep stats of a kind of entry.
-     */
-    class Stats {
-        public long count;
-        public Delta makespan;
-        public Delta sumMachineTimes;
-
-        public Stats() {
-            count = 0L;
-            makespan = new Delta();
-            sumMachineTimes = new Delta();
-        }
-    }
-
-    /**
-     * Stats returned by move analysis.
+     * Stats returned by move analysis. The stats of each category are kept in arrays indexed by the ordinal of the
+     * category, so registering a neighbor does not allocate any object.
      */
     class Result {
 
@@ -56,44 +33,86 @@ public interface MoveAnalysis {
         public long cardinality;
         public long refMakespan;
         public long refSumMachineTimes;
-        public Map<Category, Stats> stats;
 
-        public Result(String move, Solution ref) {
+        public final long[] count;
+        public final long[] makespanBest;
+        public final long[] makespanWorst;
+        public final long[] makespanSum;
+        public final long[] sumMachineTimesBest;
+        public final long[] sumMachineTimesWorst;
+        public final long[] sumMachineTimesSum;
+
+        public Result(String move, Reference ref) {
 
             this.move = move;
             this.cardinality = 0L;
-            this.refMakespan = ref.getCost();
-            this.refSumMachineTimes = Arrays.asList(ref.machines).stream().mapToLong(x -> x.getMakespan()).sum();
-
-            stats = new HashMap<>();
-            for (Category category : Category.values()) {
-                stats.put(category, new Stats());
-            }
+            this.refMakespan = ref.makespan;
+            this.refSumMachineTimes = ref.sumMachineTimes;
+
+            int nCategories = Category.values().length;
+            count = new long[nCategories];
+            makespanBest = new long[nCategories];
+            makespanWorst = new long[nCategories];
+            makespanSum = new long[nCategories];
+            sumMachineTimesBest = new long[nCategories];
+            sumMachineTimesWorst = new long[nCategories];
+            sumMachineTimesSum = new long[nCategories];
+
+            Arrays.fill(makespanBest, Long.MAX_VALUE);
+            Arrays.fill(makespanWorst, Long.MIN_VALUE);
+            Arrays.fill(sumMachineTimesBest, Long.MAX_VALUE);
+            Arrays.fill(sumMachineTimesWorst, Long.MIN_VALUE);
         }
 
-        public void register(Solution solution) {
-
-            long makespan = solution.getCost();
-            long sumMachineTimes = Arrays.asList(solution.machines).stream().mapToLong(x -> x.getMakespan()).sum();
+        /**
+         * Register a neighbor solution.
+         * @param makespan Makespan of the neighbor.
+         * @param sumMachineTimes Sum of machine completion times of the neighbor.
+         */
+        public void register(long makespan, long sumMachineTimes) {
             ++cardinality;
 
-            String flag1 = (makespan < refMakespan ? "BETTER" : (makespan > refMakespan ? "WORSE" : "EQUAL"));
-            String flag2 = (sumMachineTimes < refSumMachineTimes ? "BETTER" : (sumMachineTimes > refSumMachineTimes ? "WORSE" : "EQUAL"));
-            String flag = flag1 + "_" + flag2;
+            int c = category(makespan, sumMachineTimes);
 
-            Category category = Category.valueOf(flag);
-            Stats s = stats.get(category);
+            count[c] += 1;
 
-            s.count +=1;
+            makespanBest[c] = Math.min(makespanBest[c], makespan);
+            makespanWorst[c] = Math.max(makespanWorst[c], makespan);
+            makespanSum[c] += makespan;
 
-            s.makespan.best = Math.min(makespan, (s.makespan.best == null ? Long.MAX_VALUE : s.makespan.best));
-            s.makespan.worst = Math.max(makespan, (s.makespan.worst == null ? Long.MIN_VALUE : s.makespan.worst));
-            s.makespan.sum = (s.makespan.sum == null ? 0L : s.makespan.sum) + makespan;
+            sumMachineTimesBest[c] = Math.min(sumMachineTimesBest[c], sumMachineTimes);
+            sumMachineTimesWorst[c] = Math.max(sumMachineTimesWorst[c], sumMachineTimes);
+            sumMachineTimesSum[c] += sumMachineTimes;
+        }
 
-            s.sumMachineTimes.best = Math.min(sumMachineTimes, (s.sumMachineTimes.best == null ? Long.MAX_VALUE : s.sumMachineTimes.best));
-            s.sumMachineTimes.worst = Math.max(sumMachineTimes, (s.sumMachineTimes.worst == null ? Long.MIN_VALUE : s.sumMachineTimes.worst));
-            s.sumMachineTimes.sum = (s.sumMachineTimes.sum == null ? 0L : s.sumMachineTimes.sum) + sumMachineTimes;
+        /**
+         * Return the ordinal of the category of a neighbor solution (see the declaration order of Category).
+         * @param makespan Makespan of the neighbor.
+         * @param sumMachineTimes Sum of machine completion times of the neighbor.
+         * @return The ordinal of the category.
+         */
+        public int category(long makespan, long sumMachineTimes) {
+            return (makespan < refMakespan ? 0 : (makespan > refMakespan ? 6 : 3))
+                    + (sumMachineTimes < refSumMachineTimes ? 0 : (sumMachineTimes > refSumMachineTimes ? 2 : 1));
+        }
 
+        /**
+         * Add the stats of another result (of the same move and reference solution) to this one.
+         * @param other The other result.
+         */
+        public void merge(Result other) {
+            cardinality += other.cardinality;
+            for (int c = 0; c < count.length; ++c) {
+                count[c] += other.count[c];
+
+                makespanBest[c] = Math.min(makespanBest[c], other.makespanBest[c]);
+                makespanWorst[c] = Math.max(makespanWorst[c], other.makespanWorst[c]);
+                makespanSum[c] += other.makespanSum[c];
+
+                sumMachineTimesBest[c] = Math.min(sumMachineTimesBest[c], other.sumMachineTimesBest[c]);
+                sumMachineTimesWorst[c] = Math.max(sumMachineTimesWorst[c], other.sumMachineTimesWorst[c]);
+                sumMachineTimesSum[c] += other.sumMachineTimesSum[c];
+            }
         }
     }
 
@@ -104,11 +123,50 @@ public interface MoveAnalysis {
     String name();
 
     /**
-     * Evaluate neighbors obtained from this move.
+     * Evaluate the neighbors obtained from this move in which the first machine modified is a given one. The
+     * neighborhood is partitioned by the first machine modified, so the parts can be evaluated independently (and
+     * concurrently) and their results merged. The reference solution is not modified.
+     * @param problem Instance of the problem.
+     * @param ref Reference solution to generate a neighborhood.
+     * @param machine Index of the first machine modified.
+     * @return The result of the analysis of this part of the neighborhood.
+     */
+    Result analyze(Problem problem, Reference ref, int machine);
+
+    /**
+     * Return the number of neighbors obtained from this move in which the first machine modified is a given one.
+     * @param problem Instance of the problem.
+     * @param ref Reference solution to generate a neighborhood.
+     * @param machine Index of the first machine modified.
+     * @return The number of neighbors in this part of the neighborhood.
+     */
+    long cardinality(Problem problem, Reference ref, int machine);
+
+    /**
+     * Draw a neighbor, uniformly at random, among the neighbors obtained from this move in which the first machine
+     * modified is a given one, and register it in a result. This part of the neighborhood must not be empty. The
+     * reference solution is not modified.
+     * @param problem Instance of the problem.
+     * @param ref Reference solution to generate a neighborhood.
+     * @param machine Index of the first machine modified.
+     * @param random Random number generator.
+     * @param result Result in which the neighbor is registered.
+     */
+    void sample(Problem problem, Reference ref, int machine, Random random, Result result);
+
+    /**
+     * Evaluate neighbors obtained from this move. The solution is not modified.
      * @param problem Instance of the problem.
      * @param start Solution to generate a neighborhood.
      * @return The result of the neighborhood analysis.
      */
-    Result analyze(Problem problem, Solution start);
+    default Result analyze(Problem problem, Solution start) {
+        Reference ref = new Reference(start);
+        Result result = new Result(name(), ref);
+        for (int m = 0; m < problem.nMachines; ++m) {
+            result.merge(analyze(problem, ref, m));
+        }
+        return result;
+    }
 
 }
@@ -0,0 +1,167 @@
+package upmsp.analysis;
+
+import upmsp.algorithm.neighborhood.OrOpt;
+import upmsp.model.Problem;
+import upmsp.model.solution.Machine;
+import upmsp.model.solution.Reference;
+
+import java.util.Random;
+
+/**
+ * Perform the analysis of the or-opt move: a block of 2 to {@link OrOpt#DEFAULT_MAX_LENGTH} consecutive jobs of machine
+ * M1 is relocated (in the same order or reversed) to another position of M1 or to a position of another machine M2.
+ *
+ * @author Andre L. Maravilha
+ */
+public class OrOptAnalysis implements MoveAnalysis {
+
+    private final int maxLength;
+
+    public OrOptAnalysis() {
+        this(OrOpt.DEFAULT_MAX_LENGTH);
+    }
+
+    public OrOptAnalysis(int maxLength) {
+        this.maxLength = maxLength;
+    }
+
+    @Override
+    public String name() {
+        return "or-opt";
+    }
+
+    @Override
+    public Result analyze(Problem problem, Reference ref, int m1) {
+
+        Result result = new Result(name(), ref);
+
+        Machine machine1 = ref.solution.machines[m1];
+        int n1 = machine1.getNJobs();
+        for (int length = 2; length <= Math.min(maxLength, n1); ++length) {
+            for (int from = 0; from + length <= n1; ++from) {
+                int to = from + length;
+
+                // Relocate the block within machine M1
+                for (int r = 0; r < 2; ++r) {
+                    boolean reversed = (r == 1);
+                    for (int target = 0; target <= n1 - length; ++target) {
+                        if (target != from || reversed) {
+
+                            // Evaluate move
+                            long makespan = ref.getMakespan(m1) + machine1.getDeltaCostMoveSegment(from, to, target, reversed);
+                            result.register(ref.makespan(m1, makespan), ref.sumMachineTimes(m1, makespan));
+                        }
+                    }
+                }
+
+                // Remove the block from machine M1 and insert it in machine M2
+                int first = machine1.getJob(from), last = machine1.getJob(to - 1);
+                long makespan1 = ref.getMakespan(m1) + machine1.getDeltaCostDelSegment(from, to);
+                for (int m2 = 0; m2 < problem.nMachines; ++m2) {
+                    if (m2 != m1) {
+                        Machine machine2 = ref.solution.machines[m2];
+                        for (int r = 0; r < 2; ++r) {
+                            boolean reversed = (r == 1);
+                            int segmentCost = machine2.getSegmentCost(machine1, from, to, reversed);
+                            for (int target = 0; target <= machine2.getNJobs(); ++target) {
+
+                                // Evaluate move
+                                long makespan2 = ref.getMakespan(m2) + machine2.getDeltaCostAddSegment(
+                                        reversed ? last : first, reversed ? first : last, segmentCost, target);
+                                result.register(ref.makespan(m1, makespan1, m2, makespan2),
+                                        ref.sumMachineTimes(m1, makespan1, m2, makespan2));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public long cardinality(Problem problem, Reference ref, int m1) {
+        long n1 = ref.solution.machines[m1].getNJobs();
+        long nPositions = 0L;
+        for (int m2 = 0; m2 < problem.nMachines; ++m2) {
+            if (m2 != m1) {
+                nPositions += ref.solution.machines[m2].getNJobs() + 1;
+            }
+        }
+
+        long cardinality = 0L;
+        for (int length = 2; length <= Math.min(maxLength, n1); ++length) {
+            cardinality += (n1 - length + 1) * blockCardinality(n1, length, nPositions);
+        }
+        return cardinality;
+    }
+
+    @Override
+    public void sample(Problem problem, Reference ref, int m1, Random random, Result result) {
+        Machine machine1 = ref.solution.machines[m1];
+        int n1 = machine1.getNJobs();
+        long nPositions = 0L;
+        for (int m = 0; m < problem.nMachines; ++m) {
+            if (m != m1) {
+                nPositions += ref.solution.machines[m].getNJobs() + 1;
+            }
+        }
+
+        // Draw a neighbor (the neighbors of each block are in the order of analyze)
+        long idx = (long) (random.nextDouble() * cardinality(problem, ref, m1));
+        int length = 2;
+        while (idx >= (n1 - length + 1) * blockCardinality(n1, length, nPositions)) {
+            idx -= (n1 - length + 1) * blockCardinality(n1, length, nPositions);
+            ++length;
+        }
+        long nNeighbors = blockCardinality(n1, length, nPositions);
+        int from = (int) (idx / nNeighbors);
+        int to = from + length;
+        idx %= nNeighbors;
+
+        // Relocate the block within machine M1
+        if (idx < 2L * (n1 - length) + 1) {
+            boolean reversed = (idx >= n1 - length);
+            int target = (int) (reversed ? idx - (n1 - length) : idx);
+            if (!reversed && target >= from) {
+                ++target;
+            }
+
+            // Evaluate move
+            long makespan = ref.getMakespan(m1) + machine1.getDeltaCostMoveSegment(from, to, target, reversed);
+            result.register(ref.makespan(m1, makespan), ref.sumMachineTimes(m1, makespan));
+            return;
+        }
+
+        // Remove the block from machine M1 and insert it in machine M2
+        idx -= 2L * (n1 - length) + 1;
+        boolean reversed = (idx >= nPositions);
+        int idx2 = (int) (reversed ? idx - nPositions : idx);
+        int m2 = (m1 == 0 ? 1 : 0);
+        while (idx2 > ref.solution.machines[m2].getNJobs()) {
+            idx2 -= ref.solution.machines[m2].getNJobs() + 1;
+            m2 = (m2 + 1 == m1 ? m2 + 2 : m2 + 1);
+        }
+        Machine machine2 = ref.solution.machines[m2];
+
+        // Evaluate move
+        int first = machine1.getJob(from), last = machine1.getJob(to - 1);
+        long makespan1 = ref.getMakespan(m1) + machine1.getDeltaCostDelSegment(from, to);
+        long makespan2 = ref.getMakespan(m2) + machine2.getDeltaCostAddSegment(reversed ? last : first,
+                reversed ? first : last, machine2.getSegmentCost(machine1, from, to, reversed), idx2);
+        result.register(ref.makespan(m1, makespan1, m2, makespan2),
+                ref.sumMachineTimes(m1, makespan1, m2, makespan2));
+    }
+
+    /**
+     * Return the number of neighbors in which a given block of machine M1 is relocated.
+     * @param n1 Number of jobs of machine M1.
+     * @param length Number of jobs of the block.
+     * @param nPositions Number of positions in the other machines.
+     * @return The number of neighbors.
+     */
+    private static long blockCardinality(long n1, int length, long nPositions) {
+        return 2L * (n1 - length) + 1 + 2L * nPositions;
+    }
+}
@@ -0,0 +1,120 @@
+package upmsp.analysis;
+
+import upmsp.model.solution.Reference;
+
+/**
+ * Stats of a move analysis estimated from a sample of neighbors drawn uniformly at random (with replacement). Besides
+ * the stats kept by {@link MoveAnalysis.Result}, it keeps the variance of the makespan and of the sum of machine
+ * completion times of each category (Welford's method), which are used to compute confidence intervals. If the
+ * neighborhood is small enough to be fully enumerated, the result is marked as exact and the stats are merged from
+ * the results of the enumeration (in this case, the variances are not kept, as the intervals have no width).
+ *
+ * @author Andre L. Maravilha
+ */
+public class SampleResult extends MoveAnalysis.Result {
+
+    /**
+     * Quantile of the standard normal distribution used by the confidence intervals (95% of confidence).
+     */
+    public static final double Z = 1.959963984540054;
+
+    public long neighborhoodSize;
+    public boolean exact;
+
+    public final double[] makespanM2;
+    public final double[] sumMachineTimesM2;
+
+    /**
+     * Constructor.
+     * @param move Name of the move.
+     * @param ref Reference solution.
+     * @param neighborhoodSize Number of neighbors of the reference solution.
+     */
+    public SampleResult(String move, Reference ref, long neighborhoodSize) {
+        super(move, ref);
+        this.neighborhoodSize = neighborhoodSize;
+        this.exact = false;
+        this.makespanM2 = new double[count.length];
+        this.sumMachineTimesM2 = new double[count.length];
+    }
+
+    @Override
+    public void register(long makespan, long sumMachineTimes) {
+        int c = category(makespan, sumMachineTimes);
+
+        // Mean before the new value is registered
+        double makespanMean = (count[c] > 0 ? makespanSum[c] / (double) count[c] : 0.0);
+        double sumMachineTimesMean = (count[c] > 0 ? sumMachineTimesSum[c] / (double) count[c] : 0.0);
+
+        super.register(makespan, sumMachineTimes);
+
+        makespanM2[c] += (makespan - makespanMean) * (makespan - makespanSum[c] / (double) count[c]);
+        sumMachineTimesM2[c] += (sumMachineTimes - sumMachineTimesMean) * (sumMachineTimes - sumMachineTimesSum[c] / (double) count[c]);
+    }
+
+    /**
+     * Return the number of neighbors sampled.
+     * @return The number of neighbors sampled.
+     */
+    public long getSampleSize() {
+        return cardinality;
+    }
+
+    /**
+     * Return the (estimated) proportion of neighbors in a category.
+     * @param c Ordinal of the category.
+     * @return The proportion of neighbors in the category.
+     */
+    public double getProportion(int c) {
+        return (cardinality > 0 ? count[c] / (double) cardinality : 0.0);
+    }
+
+    /**
+     * Return the half-width of the (Wilson score) confidence interval on the proportion of neighbors in a category.
+     * @param c Ordinal of the category.
+     * @return The half-width of the confidence interval, or 0 if the proportion is exact.
+     */
+    public double getProportionHalfWidth(int c) {
+        if (exact) {
+            return 0.0;
+        }
+        if (cardinality == 0) {
+            return 0.5;
+        }
+        double n = cardinality;
+        double p = getProportion(c);
+        return Z / (1.0 + Z * Z / n) * Math.sqrt(p * (1.0 - p) / n + Z * Z / (4.0 * n * n));
+    }
+
+    /**
+     * Return the half-width of the confidence interval on the mean makespan of the neighbors in a category.
+     * @param c Ordinal of the category.
+     * @return The half-width of the confidence interval, 0 if the mean is exact or infinity if the category has less
+     * than two neighbors sampled.
+     */
+    public double getMakespanMeanHalfWidth(int c) {
+        return getMeanHalfWidth(count[c], makespanM2[c]);
+    }
+
+    /**
+     * Return the half-width of the confidence interval on the mean sum of machine completion times of the neighbors
+     * in a category.
+     * @param c Ordinal of the category.
+     * @return The half-width of the confidence interval, 0 if the mean is exact or infinity if the category has less
+     * than two neighbors sampled.
+     */
+    public double getSumMachineTimesMeanHalfWidth(int c) {
+        return getMeanHalfWidth(count[c], sumMachineTimesM2[c]);
+    }
+
+    private double getMeanHalfWidth(long n, double m2) {
+        if (exact) {
+            return 0.0;
+        }
+        if (n < 2) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return Z * Math.sqrt(m2 / (n - 1) / n);
+    }
+
+}
@@ -0,0 +1,125 @@
+package upmsp.analysis;
+
+import upmsp.model.Problem;
+import upmsp.model.solution.Reference;
+
+import java.util.Random;
+
+/**
+ * Estimate the stats of a move analysis from neighbors drawn uniformly at random, until the confidence intervals on
+ * the proportion of neighbors in each category and on the mean makespan and mean sum of machine completion times of
+ * each category are narrow enough.
+ *
+ * @author Andre L. Maravilha
+ */
+public class Sampler {
+
+    /**
+     * Number of neighbors drawn between two checks of the width of the confidence intervals.
+     */
+    public static final int BATCH_SIZE = 1000;
+
+    private final double width;
+    private final long maxSamples;
+
+    /**
+     * Constructor.
+     * @param width Target half-width of the confidence intervals. It is an absolute value for proportions and a value
+     *              relative to the reference solution for the means (e.g., 0.01 stands for 1% of the makespan of the
+     *              reference solution).
+     * @param maxSamples Maximum number of neighbors drawn. Neighborhoods with at most this number of neighbors are
+     *                   fully enumerated instead.
+     */
+    public Sampler(double width, long maxSamples) {
+        this.width = width;
+        this.maxSamples = maxSamples;
+    }
+
+    /**
+     * Estimate the stats of a move analysis.
+     * @param move Move to analyze.
+     * @param problem Instance of the problem.
+     * @param ref Reference solution to generate a neighborhood.
+     * @param random Random number generator.
+     * @return The result of the analysis.
+     */
+    public SampleResult sample(MoveAnalysis move, Problem problem, Reference ref, Random random) {
+
+        // Size of each part of the neighborhood (by the first machine modified)
+        long[] cumulative = new long[problem.nMachines];
+        long size = 0L;
+        for (int m = 0; m < problem.nMachines; ++m) {
+            size += move.cardinality(problem, ref, m);
+            cumulative[m] = size;
+        }
+
+        SampleResult result = new SampleResult(move.name(), ref, size);
+
+        // Small neighborhoods are fully enumerated
+        if (size <= maxSamples) {
+            for (int m = 0; m < problem.nMachines; ++m) {
+                result.merge(move.analyze(problem, ref, m));
+            }
+            result.exact = true;
+            return result;
+        }
+
+        // Draw neighbors until the intervals are narrow enough
+        do {
+            for (int i = 0; i < BATCH_SIZE; ++i) {
+                int machine = findMachine(cumulative, nextLong(random, size));
+                move.sample(problem, ref, machine, random, result);
+            }
+        } while (result.getSampleSize() < maxSamples && !isNarrowEnough(result));
+
+        return result;
+    }
+
+    private boolean isNarrowEnough(SampleResult result) {
+        for (int c = 0; c < result.count.length; ++c) {
+            if (result.getProportionHalfWidth(c) > width) {
+                return false;
+            }
+
+            // Means are checked only for categories with enough neighbors to estimate the variance
+            if (result.count[c] >= 2) {
+                if (result.getMakespanMeanHalfWidth(c) > width * result.refMakespan ||
+                        result.getSumMachineTimesMeanHalfWidth(c) > width * result.refSumMachineTimes) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Return the index of the first machine whose cumulative size is greater than a value.
+     */
+    private static int findMachine(long[] cumulative, long value) {
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] > value) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Return a long value drawn uniformly at random from [0, bound).
+     */
+    private static long nextLong(Random random, long bound) {
+        long bits;
+        long value;
+        do {
+            bits = random.nextLong() >>> 1;
+            value = bits % bound;
+        } while (bits - value + (bound - 1) < 0L);
+        return value;
+    }
+
+}
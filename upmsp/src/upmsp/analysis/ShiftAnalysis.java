@@ -1,7 +1,10 @@
 package upmsp.analysis;
 
 import upmsp.model.Problem;
-import upmsp.model.solution.Solution;
+import upmsp.model.solution.Machine;
+import upmsp.model.solution.Reference;
+
+import java.util.Random;
 
 /**
  * Perform the analysis of the shift move.
@@ -16,38 +19,48 @@ public class ShiftAnalysis implements MoveAnalysis {
     }
 
     @Override
-    public Result analyze(Problem problem, Solution start) {
+    public Result analyze(Problem problem, Reference ref, int m) {
 
-        Result result = new Result(name(), start);
-        Solution solution = start.clone();
+        Result result = new Result(name(), ref);
 
-        for (int m = 0; m < problem.nMachines; ++m) {
-            for (int idx1 = 0; idx1 < solution.machines[m].getNJobs(); ++idx1) {
+        Machine machine = ref.solution.machines[m];
+        for (int idx1 = 0; idx1 < machine.getNJobs(); ++idx1) {
 
-                // Get and remove a job from its position
-                int job = solution.machines[m].jobs[idx1];
-                solution.machines[m].delJob(idx1);
+            // Remove a job from its position and insert it at another position
+            int job = machine.getJob(idx1);
+            for (int idx2 = 0; idx2 < machine.getNJobs(); ++idx2) {
+                if (idx2 != idx1) {
 
-                for (int idx2 = 0; idx2 <= solution.machines[m].getNJobs(); ++idx2) {
-                    if (idx2 != idx1) {
+                    // Evaluate move
+                    long makespan = ref.getMakespan(m) + machine.getDeltaCostDelAddJob(idx1, job, idx2);
+                    result.register(ref.makespan(m, makespan), ref.sumMachineTimes(m, makespan));
+                }
+            }
+        }
 
-                        // Insert the job removed at another position
-                        solution.machines[m].addJob(job, idx2);
+        return result;
+    }
 
-                        // Evaluate move
-                        solution.updateCost();
-                        result.register(solution);
+    @Override
+    public long cardinality(Problem problem, Reference ref, int m) {
+        long n = ref.solution.machines[m].getNJobs();
+        return n * (n - 1);
+    }
 
-                        // Undo insertion
-                        solution.machines[m].delJob(idx2);
-                    }
-                }
+    @Override
+    public void sample(Problem problem, Reference ref, int m, Random random, Result result) {
+        Machine machine = ref.solution.machines[m];
 
-                // Undo deletion
-                solution.machines[m].addJob(job, idx1);
-            }
+        // Draw two different positions
+        int idx1 = random.nextInt(machine.getNJobs());
+        int idx2 = random.nextInt(machine.getNJobs() - 1);
+        if (idx2 >= idx1) {
+            ++idx2;
         }
 
-        return result;
+        // Evaluate move
+        int job = machine.getJob(idx1);
+        long makespan = ref.getMakespan(m) + machine.getDeltaCostDelAddJob(idx1, job, idx2);
+        result.register(ref.makespan(m, makespan), ref.sumMachineTimes(m, makespan));
     }
 }
@@ -1,7 +1,10 @@
 package upmsp.analysis;
 
 import upmsp.model.Problem;
-import upmsp.model.solution.Solution;
+import upmsp.model.solution.Machine;
+import upmsp.model.solution.Reference;
+
+import java.util.Random;
 
 /**
  * Perform the analysis of the simple-swap move.
@@ -16,34 +19,69 @@ public class SimpleSwapAnalysis implements MoveAnalysis {
     }
 
     @Override
-    public Result analyze(Problem problem, Solution start) {
-
-        Result result = new Result(name(), start);
-        Solution solution = start.clone();
-
-        for (int m1 = 0; m1 < problem.nMachines; ++m1) {
-            for (int idx1 = 0; idx1 < solution.machines[m1].getNJobs(); ++idx1) {
-                for (int m2 = m1 + 1; m2 < problem.nMachines; ++m2) {
-                    for (int idx2 = 0; idx2 < solution.machines[m2].getNJobs(); ++idx2) {
-
-                        // Swap jobs keeping their original position
-                        int job1 = solution.machines[m1].jobs[idx1];
-                        int job2 = solution.machines[m2].jobs[idx2];
-                        solution.machines[m2].setJob(job1, idx2);
-                        solution.machines[m1].setJob(job2, idx1);
-
-                        // Evaluate move
-                        solution.updateCost();
-                        result.register(solution);
-
-                        // Undo swap move
-                        solution.machines[m1].setJob(job1, idx1);
-                        solution.machines[m2].setJob(job2, idx2);
-                    }
+    public Result analyze(Problem problem, Reference ref, int m1) {
+
+        Result result = new Result(name(), ref);
+
+        Machine machine1 = ref.solution.machines[m1];
+        for (int idx1 = 0; idx1 < machine1.getNJobs(); ++idx1) {
+            for (int m2 = m1 + 1; m2 < problem.nMachines; ++m2) {
+                Machine machine2 = ref.solution.machines[m2];
+                for (int idx2 = 0; idx2 < machine2.getNJobs(); ++idx2) {
+
+                    // Swap jobs keeping their original position
+                    int job1 = machine1.getJob(idx1);
+                    int job2 = machine2.getJob(idx2);
+                    long makespan1 = ref.getMakespan(m1) + machine1.getDeltaCostSetJob(job2, idx1);
+                    long makespan2 = ref.getMakespan(m2) + machine2.getDeltaCostSetJob(job1, idx2);
+
+                    // Evaluate move
+                    result.register(ref.makespan(m1, makespan1, m2, makespan2),
+                            ref.sumMachineTimes(m1, makespan1, m2, makespan2));
                 }
             }
         }
 
         return result;
     }
+
+    @Override
+    public long cardinality(Problem problem, Reference ref, int m1) {
+        long nJobs = 0L;
+        for (int m2 = m1 + 1; m2 < problem.nMachines; ++m2) {
+            nJobs += ref.solution.machines[m2].getNJobs();
+        }
+        return ref.solution.machines[m1].getNJobs() * nJobs;
+    }
+
+    @Override
+    public void sample(Problem problem, Reference ref, int m1, Random random, Result result) {
+        Machine machine1 = ref.solution.machines[m1];
+
+        // Draw a job from machine M1
+        int idx1 = random.nextInt(machine1.getNJobs());
+
+        // Draw a job from the machines after M1
+        int nJobs = 0;
+        for (int m = m1 + 1; m < problem.nMachines; ++m) {
+            nJobs += ref.solution.machines[m].getNJobs();
+        }
+        int idx2 = random.nextInt(nJobs);
+        int m2 = m1 + 1;
+        while (idx2 >= ref.solution.machines[m2].getNJobs()) {
+            idx2 -= ref.solution.machines[m2].getNJobs();
+            ++m2;
+        }
+        Machine machine2 = ref.solution.machines[m2];
+
+        // Swap jobs keeping their original position
+        int job1 = machine1.getJob(idx1);
+        int job2 = machine2.getJob(idx2);
+        long makespan1 = ref.getMakespan(m1) + machine1.getDeltaCostSetJob(job2, idx1);
+        long makespan2 = ref.getMakespan(m2) + machine2.getDeltaCostSetJob(job1, idx2);
+
+        // Evaluate move
+        result.register(ref.makespan(m1, makespan1, m2, makespan2),
+                ref.sumMachineTimes(m1, makespan1, m2, makespan2));
+    }
 }
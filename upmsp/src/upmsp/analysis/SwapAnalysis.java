@@ -1,7 +1,10 @@
 package upmsp.analysis;
 
 import upmsp.model.Problem;
-import upmsp.model.solution.Solution;
+import upmsp.model.solution.Machine;
+import upmsp.model.solution.Reference;
+
+import java.util.Random;
 
 /**
  * Perform the analysis of the swap move.
@@ -16,57 +19,87 @@ public class SwapAnalysis implements MoveAnalysis {
     }
 
     @Override
-    public Result analyze(Problem problem, Solution start) {
-
-        Result result = new Result(name(), start);
-        Solution solution = start.clone();
+    public Result analyze(Problem problem, Reference ref, int m1) {
 
-        for (int m1 = 0; m1 < problem.nMachines; ++m1) {
-            for (int idx1_from = 0; idx1_from  < solution.machines[m1].getNJobs(); ++idx1_from) {
+        Result result = new Result(name(), ref);
 
-                // Get a job from machine M1 and remove it from there
-                int job1 = solution.machines[m1].jobs[idx1_from];
-                solution.machines[m1].delJob(idx1_from);
+        Machine machine1 = ref.solution.machines[m1];
+        for (int idx1_from = 0; idx1_from  < machine1.getNJobs(); ++idx1_from) {
 
-                for (int m2 = m1 + 1; m2 < problem.nMachines; ++m2) {
-                    for (int idx2_from = 0; idx2_from  < solution.machines[m2].getNJobs(); ++idx2_from) {
+            // Get a job from machine M1
+            int job1 = machine1.getJob(idx1_from);
 
-                        // Get a job from machine M2 and remove it from there
-                        int job2 = solution.machines[m2].jobs[idx2_from];
-                        solution.machines[m2].delJob(idx2_from);
+            for (int m2 = m1 + 1; m2 < problem.nMachines; ++m2) {
+                Machine machine2 = ref.solution.machines[m2];
+                for (int idx2_from = 0; idx2_from  < machine2.getNJobs(); ++idx2_from) {
 
-                        for (int idx1_target = 0; idx1_target <= solution.machines[m1].getNJobs(); ++idx1_target) {
+                    // Get a job from machine M2
+                    int job2 = machine2.getJob(idx2_from);
 
-                            // Insert job removed from machine M2 in machine M1
-                            solution.machines[m1].addJob(job2, idx1_target);
+                    for (int idx1_target = 0; idx1_target < machine1.getNJobs(); ++idx1_target) {
 
-                            for (int idx2_target = 0; idx2_target <= solution.machines[m2].getNJobs(); ++idx2_target) {
+                        // Move job from machine M2 to machine M1
+                        long makespan1 = ref.getMakespan(m1) + machine1.getDeltaCostDelAddJob(idx1_from, job2, idx1_target);
 
-                                // Insert job removed from machine M1 in machine M2
-                                solution.machines[m2].addJob(job1, idx2_target);
+                        for (int idx2_target = 0; idx2_target < machine2.getNJobs(); ++idx2_target) {
 
-                                // Evaluate move
-                                solution.updateCost();
-                                result.register(solution);
+                            // Move job from machine M1 to machine M2
+                            long makespan2 = ref.getMakespan(m2) + machine2.getDeltaCostDelAddJob(idx2_from, job1, idx2_target);
 
-                                // Undo insertion at machine M2
-                                solution.machines[m2].delJob(idx2_target);
-                            }
-
-                            // Undo insertion at machine M1
-                            solution.machines[m1].delJob(idx1_target);
+                            // Evaluate move
+                            result.register(ref.makespan(m1, makespan1, m2, makespan2),
+                                    ref.sumMachineTimes(m1, makespan1, m2, makespan2));
                         }
-
-                        // Undo deletion from machine M2
-                        solution.machines[m2].addJob(job2, idx2_from);
                     }
                 }
-
-                // Undo deletion from machine M1
-                solution.machines[m1].addJob(job1, idx1_from);
             }
         }
 
         return result;
     }
+
+    @Override
+    public long cardinality(Problem problem, Reference ref, int m1) {
+        long n1 = ref.solution.machines[m1].getNJobs();
+        long sum = 0L;
+        for (int m2 = m1 + 1; m2 < problem.nMachines; ++m2) {
+            long n2 = ref.solution.machines[m2].getNJobs();
+            sum += n2 * n2;
+        }
+        return n1 * n1 * sum;
+    }
+
+    @Override
+    public void sample(Problem problem, Reference ref, int m1, Random random, Result result) {
+        Machine machine1 = ref.solution.machines[m1];
+
+        // Draw machine M2 (with probability proportional to the number of neighbors it takes part in)
+        int sum = 0;
+        for (int m = m1 + 1; m < problem.nMachines; ++m) {
+            sum += ref.solution.machines[m].getNJobs() * ref.solution.machines[m].getNJobs();
+        }
+        int value = random.nextInt(sum);
+        int m2 = m1 + 1;
+        while (value >= ref.solution.machines[m2].getNJobs() * ref.solution.machines[m2].getNJobs()) {
+            value -= ref.solution.machines[m2].getNJobs() * ref.solution.machines[m2].getNJobs();
+            ++m2;
+        }
+        Machine machine2 = ref.solution.machines[m2];
+
+        // Draw the jobs and their target positions
+        int idx1_from = random.nextInt(machine1.getNJobs());
+        int idx2_from = random.nextInt(machine2.getNJobs());
+        int idx1_target = random.nextInt(machine1.getNJobs());
+        int idx2_target = random.nextInt(machine2.getNJobs());
+
+        // Move the jobs between machines M1 and M2
+        int job1 = machine1.getJob(idx1_from);
+        int job2 = machine2.getJob(idx2_from);
+        long makespan1 = ref.getMakespan(m1) + machine1.getDeltaCostDelAddJob(idx1_from, job2, idx1_target);
+        long makespan2 = ref.getMakespan(m2) + machine2.getDeltaCostDelAddJob(idx2_from, job1, idx2_target);
+
+        // Evaluate move
+        result.register(ref.makespan(m1, makespan1, m2, makespan2),
+                ref.sumMachineTimes(m1, makespan1, m2, makespan2));
+    }
 }
@@ -1,7 +1,10 @@
 package upmsp.analysis;
 
 import upmsp.model.Problem;
-import upmsp.model.solution.Solution;
+import upmsp.model.solution.Machine;
+import upmsp.model.solution.Reference;
+
+import java.util.Random;
 
 /**
  * Perform the analysis of the switch move.
@@ -16,32 +19,44 @@ public class SwitchAnalysis implements MoveAnalysis {
     }
 
     @Override
-    public Result analyze(Problem problem, Solution start) {
-
-        Result result = new Result(name(), start);
-        Solution solution = start.clone();
+    public Result analyze(Problem problem, Reference ref, int m) {
 
-        for (int m = 0; m < problem.nMachines; ++m) {
-            for (int idx1 = 0; idx1 < solution.machines[m].getNJobs(); ++idx1) {
-                for (int idx2 = idx1 + 1; idx2 < solution.machines[m].getNJobs(); ++idx2) {
+        Result result = new Result(name(), ref);
 
-                    // Switch jobs keeping their original position
-                    int job1 = solution.machines[m].jobs[idx1];
-                    int job2 = solution.machines[m].jobs[idx2];
-                    solution.machines[m].setJob(job1, idx2);
-                    solution.machines[m].setJob(job2, idx1);
+        Machine machine = ref.solution.machines[m];
+        for (int idx1 = 0; idx1 < machine.getNJobs(); ++idx1) {
+            for (int idx2 = idx1 + 1; idx2 < machine.getNJobs(); ++idx2) {
 
-                    // Evaluate move
-                    solution.updateCost();
-                    result.register(solution);
+                // Switch jobs keeping their original position
+                long makespan = ref.getMakespan(m) + machine.getDeltaCostSwitchJobs(idx1, idx2);
 
-                    // Undo swap move
-                    solution.machines[m].setJob(job1, idx1);
-                    solution.machines[m].setJob(job2, idx2);
-                }
+                // Evaluate move
+                result.register(ref.makespan(m, makespan), ref.sumMachineTimes(m, makespan));
             }
         }
 
         return result;
     }
+
+    @Override
+    public long cardinality(Problem problem, Reference ref, int m) {
+        long n = ref.solution.machines[m].getNJobs();
+        return n * (n - 1) / 2;
+    }
+
+    @Override
+    public void sample(Problem problem, Reference ref, int m, Random random, Result result) {
+        Machine machine = ref.solution.machines[m];
+
+        // Draw two different positions
+        int idx1 = random.nextInt(machine.getNJobs());
+        int idx2 = random.nextInt(machine.getNJobs() - 1);
+        if (idx2 >= idx1) {
+            ++idx2;
+        }
+
+        // Evaluate move
+        long makespan = ref.getMakespan(m) + machine.getDeltaCostSwitchJobs(idx1, idx2);
+        result.register(ref.makespan(m, makespan), ref.sumMachineTimes(m, makespan));
+    }
 }
@@ -1,7 +1,10 @@
 package upmsp.analysis;
 
 import upmsp.model.Problem;
-import upmsp.model.solution.Solution;
+import upmsp.model.solution.Machine;
+import upmsp.model.solution.Reference;
+
+import java.util.Random;
 
 /**
  * Perform the analysis of the task-move move.
@@ -16,40 +19,76 @@ public class TaskMoveAnalysis implements MoveAnalysis {
     }
 
     @Override
-    public Result analyze(Problem problem, Solution start) {
-
-        Result result = new Result(name(), start);
-        Solution solution = start.clone();
+    public Result analyze(Problem problem, Reference ref, int m1) {
 
-        for (int m1 = 0; m1 < problem.nMachines; ++m1) {
-            for (int idx1 = 0; idx1  < solution.machines[m1].getNJobs(); ++idx1) {
+        Result result = new Result(name(), ref);
 
-                // Get a job from machine M1 and remove it from there
-                int job1 = solution.machines[m1].jobs[idx1];
-                solution.machines[m1].delJob(idx1);
+        Machine machine1 = ref.solution.machines[m1];
+        for (int idx1 = 0; idx1  < machine1.getNJobs(); ++idx1) {
 
-                for (int m2 = 0; m2 < problem.nMachines; ++m2) {
-                    if (m2 != m1) {
-                        for (int idx2 = 0; idx2 <= solution.machines[m2].getNJobs(); ++idx2) {
+            // Get a job from machine M1 and remove it from there
+            int job1 = machine1.getJob(idx1);
+            long makespan1 = ref.getMakespan(m1) + machine1.getDeltaCostDelJob(idx1);
 
-                            // Insert job removed from machine M1 in machine M2
-                            solution.machines[m2].addJob(job1, idx2);
+            for (int m2 = 0; m2 < problem.nMachines; ++m2) {
+                if (m2 != m1) {
+                    Machine machine2 = ref.solution.machines[m2];
+                    for (int idx2 = 0; idx2 <= machine2.getNJobs(); ++idx2) {
 
-                            // Evaluate move
-                            solution.updateCost();
-                            result.register(solution);
+                        // Insert job removed from machine M1 in machine M2
+                        long makespan2 = ref.getMakespan(m2) + machine2.getDeltaCostAddJob(job1, idx2);
 
-                            // Undo insertion at machine M2
-                            solution.machines[m2].delJob(idx2);
-                        }
+                        // Evaluate move
+                        result.register(ref.makespan(m1, makespan1, m2, makespan2),
+                                ref.sumMachineTimes(m1, makespan1, m2, makespan2));
                     }
                 }
-
-                // Undo deletion from machine M1
-                solution.machines[m1].addJob(job1, idx1);
             }
         }
 
         return result;
     }
+
+    @Override
+    public long cardinality(Problem problem, Reference ref, int m1) {
+        long nPositions = 0L;
+        for (int m2 = 0; m2 < problem.nMachines; ++m2) {
+            if (m2 != m1) {
+                nPositions += ref.solution.machines[m2].getNJobs() + 1;
+            }
+        }
+        return ref.solution.machines[m1].getNJobs() * nPositions;
+    }
+
+    @Override
+    public void sample(Problem problem, Reference ref, int m1, Random random, Result result) {
+        Machine machine1 = ref.solution.machines[m1];
+
+        // Draw a job from machine M1
+        int idx1 = random.nextInt(machine1.getNJobs());
+
+        // Draw a position in another machine
+        int nPositions = 0;
+        for (int m = 0; m < problem.nMachines; ++m) {
+            if (m != m1) {
+                nPositions += ref.solution.machines[m].getNJobs() + 1;
+            }
+        }
+        int idx2 = random.nextInt(nPositions);
+        int m2 = (m1 == 0 ? 1 : 0);
+        while (idx2 > ref.solution.machines[m2].getNJobs()) {
+            idx2 -= ref.solution.machines[m2].getNJobs() + 1;
+            m2 = (m2 + 1 == m1 ? m2 + 2 : m2 + 1);
+        }
+        Machine machine2 = ref.solution.machines[m2];
+
+        // Move the job from machine M1 to machine M2
+        int job1 = machine1.getJob(idx1);
+        long makespan1 = ref.getMakespan(m1) + machine1.getDeltaCostDelJob(idx1);
+        long makespan2 = ref.getMakespan(m2) + machine2.getDeltaCostAddJob(job1, idx2);
+
+        // Evaluate move
+        result.register(ref.makespan(m1, makespan1, m2, makespan2),
+                ref.sumMachineTimes(m1, makespan1, m2, makespan2));
+    }
 }
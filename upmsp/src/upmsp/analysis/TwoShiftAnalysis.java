@@ -1,7 +1,10 @@
 package upmsp.analysis;
 
 import upmsp.model.Problem;
-import upmsp.model.solution.Solution;
+import upmsp.model.solution.Machine;
+import upmsp.model.solution.Reference;
+
+import java.util.Random;
 
 /**
  * Perform the analysis of the two-shift move.
@@ -16,57 +19,143 @@ public class TwoShiftAnalysis implements MoveAnalysis {
     }
 
     @Override
-    public Result analyze(Problem problem, Solution start) {
+    public Result analyze(Problem problem, Reference ref, int m) {
 
-        Result result = new Result(name(), start);
-        Solution solution = start.clone();
+        Result result = new Result(name(), ref);
 
-        for (int m = 0; m < problem.nMachines; ++m) {
-            for (int idx1_from = 0; idx1_from  < solution.machines[m].getNJobs(); ++idx1_from) {
+        // Sequence of machine M without the two jobs removed
+        int[] sequence = new int[problem.nJobs];
 
-                // Get a first job from machine M and remove it from there
-                int job1 = solution.machines[m].jobs[idx1_from];
-                solution.machines[m].delJob(idx1_from);
+        Machine machine = ref.solution.machines[m];
+        int nJobs = machine.getNJobs();
 
-                for (int idx2_from = idx1_from + 1; idx2_from  < solution.machines[m].getNJobs(); ++idx2_from) {
+        for (int idx1_from = 0; idx1_from  < nJobs; ++idx1_from) {
 
-                    // Get a second job from machine M and remove it from there
-                    int job2 = solution.machines[m].jobs[idx2_from];
-                    solution.machines[m].delJob(idx2_from);
+            // Get a first job from machine M
+            int job1 = machine.getJob(idx1_from);
 
-                    for (int idx2_target = 0; idx2_target <= solution.machines[m].getNJobs(); ++idx2_target) {
+            for (int idx2_from = idx1_from + 1; idx2_from  < nJobs - 1; ++idx2_from) {
 
-                        // Re-insert the second job removed from machine M
-                        solution.machines[m].addJob(job2, idx2_target);
+                // Get a second job from machine M (the index refers to the sequence without the first job)
+                int job2 = machine.getJob(idx2_from + 1);
 
-                        for (int idx1_target = 0; idx1_target <= solution.machines[m].getNJobs(); ++idx1_target) {
-                            if (idx1_target != idx1_from && idx2_target != idx2_from) {
+                // Sequence without both jobs and its makespan
+                int length = nJobs - 2;
+                long baseMakespan = removeJobs(machine, idx1_from, idx2_from + 1, sequence);
 
-                                // Re-insert the first job removed from machine M
-                                solution.machines[m].addJob(job1, idx1_target);
+                for (int idx2_target = 0; idx2_target <= length; ++idx2_target) {
+                    if (idx2_target == idx2_from) {
+                        continue;
+                    }
 
-                                // Evaluate move
-                                solution.updateCost();
-                                result.register(solution);
+                    // Re-insert the second job removed from machine M
+                    long makespan2 = baseMakespan + machine.getDeltaCostLinkJob(
+                            jobAt(sequence, length, idx2_target - 1),
+                            job2,
+                            jobAt(sequence, length, idx2_target));
 
-                                // Undo insertion of job 1
-                                solution.machines[m].delJob(idx1_target);
-                            }
-                        }
+                    for (int idx1_target = 0; idx1_target <= length + 1; ++idx1_target) {
+                        if (idx1_target != idx1_from) {
 
-                        // Undo insertion of job 2
-                        solution.machines[m].delJob(idx2_target);
-                    }
+                            // Re-insert the first job removed from machine M
+                            int prev = jobAt(sequence, length, job2, idx2_target, idx1_target - 1);
+                            int next = jobAt(sequence, length, job2, idx2_target, idx1_target);
+                            long makespan = makespan2 + machine.getDeltaCostLinkJob(prev, job1, next);
 
-                    // Undo deletion of job 2
-                    solution.machines[m].addJob(job2, idx2_from);
+                            // Evaluate move
+                            result.register(ref.makespan(m, makespan), ref.sumMachineTimes(m, makespan));
+                        }
+                    }
                 }
-
-                // Undo deletion of job 1
-                solution.machines[m].addJob(job1, idx1_from);
             }
         }
 
         return result;
     }
+
+    @Override
+    public long cardinality(Problem problem, Reference ref, int m) {
+        long n = ref.solution.machines[m].getNJobs();
+        return (n < 3 ? 0L : ((n - 1) * (n - 2) / 2) * (n - 2) * (n - 1));
+    }
+
+    @Override
+    public void sample(Problem problem, Reference ref, int m, Random random, Result result) {
+        Machine machine = ref.solution.machines[m];
+        int nJobs = machine.getNJobs();
+        int length = nJobs - 2;
+
+        // Draw the positions of both jobs (the second one refers to the sequence without the first job)
+        int idx1_from = random.nextInt(nJobs - 1);
+        int idx2_from = random.nextInt(nJobs - 2);
+        if (idx2_from >= idx1_from) {
+            ++idx2_from;
+        } else {
+            int idx = idx1_from;
+            idx1_from = idx2_from;
+            idx2_from = idx;
+        }
+
+        // Draw the target positions of both jobs
+        int idx2_target = random.nextInt(length);
+        if (idx2_target >= idx2_from) {
+            ++idx2_target;
+        }
+        int idx1_target = random.nextInt(length + 1);
+        if (idx1_target >= idx1_from) {
+            ++idx1_target;
+        }
+
+        // Remove both jobs from machine M
+        int job1 = machine.getJob(idx1_from);
+        int job2 = machine.getJob(idx2_from + 1);
+        int[] sequence = new int[length];
+        long makespan = removeJobs(machine, idx1_from, idx2_from + 1, sequence);
+
+        // Re-insert the second and then the first job
+        makespan += machine.getDeltaCostLinkJob(
+                jobAt(sequence, length, idx2_target - 1),
+                job2,
+                jobAt(sequence, length, idx2_target));
+        makespan += machine.getDeltaCostLinkJob(
+                jobAt(sequence, length, job2, idx2_target, idx1_target - 1),
+                job1,
+                jobAt(sequence, length, job2, idx2_target, idx1_target));
+
+        // Evaluate move
+        result.register(ref.makespan(m, makespan), ref.sumMachineTimes(m, makespan));
+    }
+
+    /**
+     * Copy the sequence of a machine without the jobs at two positions and return the makespan of this sequence.
+     */
+    private static long removeJobs(Machine machine, int idx1, int idx2, int[] sequence) {
+        int length = 0;
+        long makespan = 0L;
+        for (int idx = 0; idx < machine.getNJobs(); ++idx) {
+            if (idx != idx1 && idx != idx2) {
+                int prev = (length > 0 ? sequence[length - 1] : -1);
+                sequence[length++] = machine.getJob(idx);
+                makespan += machine.getDeltaCostLinkJob(prev, machine.getJob(idx), -1);
+            }
+        }
+        return makespan;
+    }
+
+    /**
+     * Return the job at a position of a sequence, or -1 if the position is out of the sequence.
+     */
+    private static int jobAt(int[] sequence, int length, int index) {
+        return (index >= 0 && index < length ? sequence[index] : -1);
+    }
+
+    /**
+     * Return the job at a position of a sequence in which a job was inserted, or -1 if the position is out of it.
+     */
+    private static int jobAt(int[] sequence, int length, int job, int jobIndex, int index) {
+        if (index == jobIndex) {
+            return job;
+        }
+        return jobAt(sequence, length, (index < jobIndex ? index : index - 1));
+    }
 }
@@ -0,0 +1,153 @@
+package upmsp.analysis.output;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Journal of the progress of an analysis, kept next to its output file. Each time the results of a unit of work (an
+ * instance solved with a repetition) are written to the output file, the unit and the size of the output file are
+ * appended to the journal and forced to the storage device. An interrupted analysis can then be resumed: the output
+ * file is truncated to the size recorded for the last unit completed and the units completed are skipped.
+ *
+ * The first line of the journal has the options that determine the layout of the output file, the second one has the
+ * size of the output file with its header only and each of the other lines has the size of the output file, the
+ * repetition and the name of the instance of a unit completed.
+ *
+ * @author Andre L. Maravilha
+ */
+public class AnalysisJournal implements Closeable {
+
+    private final FileOutputStream output;
+    private final Set<String> completed;
+    private long offset;
+
+    private AnalysisJournal(FileOutputStream output, Set<String> completed, long offset) {
+        this.output = output;
+        this.completed = completed;
+        this.offset = offset;
+    }
+
+    /**
+     * Create a new journal (an existing one is replaced).
+     * @param path Path of the journal.
+     * @param options Options that determine the layout of the output file.
+     * @param offset Size of the output file with its header only.
+     * @return The journal.
+     * @throws IOException If the journal could not be written.
+     */
+    public static AnalysisJournal create(Path path, String options, long offset) throws IOException {
+        write(path, options, offset, Collections.emptyList());
+        return new AnalysisJournal(new FileOutputStream(path.toFile(), true), new HashSet<>(), offset);
+    }
+
+    /**
+     * Open an existing journal to resume an analysis. Units recorded beyond the current size of the output file (e.g.,
+     * if the output was not stored before a crash) and malformed lines at the end of the journal are discarded.
+     * @param path Path of the journal.
+     * @param options Options that determine the layout of the output file (they must be the same of the journal).
+     * @param outputSize Current size of the output file.
+     * @return The journal.
+     * @throws IOException If the journal could not be read or if it was written with other options.
+     */
+    public static AnalysisJournal resume(Path path, String options, long outputSize) throws IOException {
+        List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        if (lines.size() < 2 || !lines.get(0).equals("# " + options)) {
+            throw new IOException(String.format("The journal %s does not match the options of the analysis (%s).", path, options));
+        }
+
+        long start;
+        try {
+            start = Long.parseLong(lines.get(1).trim());
+        } catch (NumberFormatException e) {
+            throw new IOException(String.format("The journal %s is malformed.", path));
+        }
+        if (start > outputSize) {
+            throw new IOException(String.format("The journal %s does not match the output file.", path));
+        }
+
+        // Units completed (while their results are in the output file)
+        long offset = start;
+        Set<String> completed = new HashSet<>();
+        List<String> entries = new ArrayList<>();
+        for (String line : lines.subList(2, lines.size())) {
+            String[] fields = line.split(" ", 3);
+            long entryOffset;
+            long repetition;
+            try {
+                entryOffset = Long.parseLong(fields[0]);
+                repetition = Long.parseLong(fields[1]);
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                break;
+            }
+            if (fields.length < 3 || entryOffset < offset || entryOffset > outputSize) {
+                break;
+            }
+
+            offset = entryOffset;
+            completed.add(key(fields[2], repetition));
+            entries.add(line);
+        }
+
+        // Keep only the valid part of the journal
+        write(path, options, start, entries);
+        return new AnalysisJournal(new FileOutputStream(path.toFile(), true), completed, offset);
+    }
+
+    /**
+     * Return whether a unit was completed.
+     * @param instance Name of the instance.
+     * @param repetition Repetition.
+     * @return True if the unit was completed.
+     */
+    public boolean isCompleted(String instance, long repetition) {
+        return completed.contains(key(instance, repetition));
+    }
+
+    /**
+     * Return the size of the output file after the last unit completed.
+     * @return The size of the output file after the last unit completed.
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Record a unit as completed. It must be called after the results of the unit are written to the output file.
+     * @param instance Name of the instance.
+     * @param repetition Repetition.
+     * @param offset Size of the output file after the results of the unit were written.
+     * @throws IOException If the journal could not be written.
+     */
+    public void record(String instance, long repetition, long offset) throws IOException {
+        output.write(String.format("%d %d %s\n", offset, repetition, instance).getBytes(StandardCharsets.UTF_8));
+        output.flush();
+        output.getFD().sync();
+
+        this.completed.add(key(instance, repetition));
+        this.offset = offset;
+    }
+
+    @Override
+    public void close() throws IOException {
+        output.close();
+    }
+
+    private static String key(String instance, long repetition) {
+        return repetition + " " + instance;
+    }
+
+    private static void write(Path path, String options, long offset, List<String> entries) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        List<String> lines = new ArrayList<>();
+        lines.add("# " + options);
+        lines.add(String.valueOf(offset));
+        lines.addAll(entries);
+        Files.write(temporary, lines, StandardCharsets.UTF_8);
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+}
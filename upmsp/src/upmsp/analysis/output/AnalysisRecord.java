@@ -0,0 +1,102 @@
+package upmsp.analysis.output;
+
+import upmsp.analysis.MoveAnalysis;
+import upmsp.analysis.SampleResult;
+
+/**
+ * Result of the analysis of a move on an incumbent solution, as written to the output of the analysis. Each record
+ * has the stats of every category (in the order of the ordinals of the categories), which are written as one row per
+ * category in CSV files.
+ *
+ * @author Andre L. Maravilha
+ */
+public class AnalysisRecord {
+
+    public static final int N_CATEGORIES = MoveAnalysis.Category.values().length;
+
+    public String instance;
+    public int nJobs;
+    public int nMachines;
+    public long seed;
+    public long timeLimitNano;
+    public long time;
+    public long iteration;
+    public String incumbentMove;
+    public long incumbentMakespan;
+    public long incumbentSumMachineTimes;
+    public String move;
+    public long cardinality;
+
+    public final long[] count = new long[N_CATEGORIES];
+    public final long[] makespanBest = new long[N_CATEGORIES];
+    public final long[] makespanWorst = new long[N_CATEGORIES];
+    public final double[] makespanMean = new double[N_CATEGORIES];
+    public final long[] sumMachineTimesBest = new long[N_CATEGORIES];
+    public final long[] sumMachineTimesWorst = new long[N_CATEGORIES];
+    public final double[] sumMachineTimesMean = new double[N_CATEGORIES];
+
+    // Only set if the neighborhood was sampled
+    public boolean sampled;
+    public long samples;
+    public final double[] proportion = new double[N_CATEGORIES];
+    public final double[] proportionHalfWidth = new double[N_CATEGORIES];
+    public final double[] makespanMeanHalfWidth = new double[N_CATEGORIES];
+    public final double[] sumMachineTimesMeanHalfWidth = new double[N_CATEGORIES];
+
+    /**
+     * Create the record of the result of a move analysis. Sampled neighborhoods have their size and their counts
+     * estimated from the sample.
+     * @param instance Name of the instance.
+     * @param nJobs Number of jobs.
+     * @param nMachines Number of machines.
+     * @param seed Seed of the run.
+     * @param timeLimitNano Time limit of the run.
+     * @param time Time the incumbent solution was found.
+     * @param iteration Iteration the incumbent solution was found.
+     * @param incumbentMove Move that found the incumbent solution.
+     * @param result Result of the move analysis.
+     * @return The record.
+     */
+    public static AnalysisRecord of(String instance, int nJobs, int nMachines, long seed, long timeLimitNano,
+                                    long time, long iteration, String incumbentMove, MoveAnalysis.Result result) {
+
+        AnalysisRecord record = new AnalysisRecord();
+        record.instance = instance;
+        record.nJobs = nJobs;
+        record.nMachines = nMachines;
+        record.seed = seed;
+        record.timeLimitNano = timeLimitNano;
+        record.time = time;
+        record.iteration = iteration;
+        record.incumbentMove = incumbentMove;
+        record.incumbentMakespan = result.refMakespan;
+        record.incumbentSumMachineTimes = result.refSumMachineTimes;
+        record.move = result.move;
+
+        SampleResult sampled = (result instanceof SampleResult ? (SampleResult) result : null);
+        record.sampled = (sampled != null);
+        record.cardinality = (sampled != null ? sampled.neighborhoodSize : result.cardinality);
+        record.samples = (sampled != null ? sampled.getSampleSize() : 0L);
+
+        for (int c = 0; c < N_CATEGORIES; ++c) {
+            long n = result.count[c];
+            record.count[c] = (sampled != null ? Math.round(sampled.getProportion(c) * record.cardinality) : n);
+            record.makespanBest[c] = (n > 0 ? result.makespanBest[c] : 0);
+            record.makespanWorst[c] = (n > 0 ? result.makespanWorst[c] : 0);
+            record.makespanMean[c] = (n > 0 ? result.makespanSum[c] / (double) n : 0.0);
+            record.sumMachineTimesBest[c] = (n > 0 ? result.sumMachineTimesBest[c] : 0);
+            record.sumMachineTimesWorst[c] = (n > 0 ? result.sumMachineTimesWorst[c] : 0);
+            record.sumMachineTimesMean[c] = (n > 0 ? result.sumMachineTimesSum[c] / (double) n : 0.0);
+
+            if (sampled != null) {
+                record.proportion[c] = sampled.getProportion(c);
+                record.proportionHalfWidth[c] = sampled.getProportionHalfWidth(c);
+                record.makespanMeanHalfWidth[c] = (n > 1 || sampled.exact ? sampled.getMakespanMeanHalfWidth(c) : Double.NaN);
+                record.sumMachineTimesMeanHalfWidth[c] = (n > 1 || sampled.exact ? sampled.getSumMachineTimesMeanHalfWidth(c) : Double.NaN);
+            }
+        }
+
+        return record;
+    }
+
+}
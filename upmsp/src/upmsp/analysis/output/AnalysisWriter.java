@@ -0,0 +1,26 @@
+package upmsp.analysis.output;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Interface implemented by classes that write the output of the analysis.
+ *
+ * @author Andre L. Maravilha
+ */
+public interface AnalysisWriter extends Closeable {
+
+    /**
+     * Write a record.
+     * @param record The record.
+     * @throws IOException If an error occurs while writing.
+     */
+    void write(AnalysisRecord record) throws IOException;
+
+    /**
+     * Write all records buffered so far to the underlying file.
+     * @throws IOException If an error occurs while writing.
+     */
+    void flush() throws IOException;
+
+}
@@ -0,0 +1,132 @@
+package upmsp.analysis.output;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Write the output of the analysis on a dedicated thread, so that formatting and writing records does not hold back
+ * the threads that produce them. The records are handed to the thread through a bounded queue: when it is full, the
+ * producers wait for the thread to catch up.
+ *
+ * @author Andre L. Maravilha
+ */
+public class AsyncAnalysisWriter implements AnalysisWriter {
+
+    private static final Object CLOSE = new Object();
+
+    private final AnalysisWriter writer;
+    private final BlockingQueue<Object> queue;
+    private final Thread thread;
+
+    private volatile IOException error;
+
+    /**
+     * Constructor.
+     * @param writer Writer used by the dedicated thread.
+     * @param capacity Maximum number of records waiting to be written.
+     */
+    public AsyncAnalysisWriter(AnalysisWriter writer, int capacity) {
+        this.writer = writer;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.error = null;
+        this.thread = new Thread(this::run, "analysis-writer");
+        this.thread.start();
+    }
+
+    @Override
+    public void write(AnalysisRecord record) throws IOException {
+        checkError();
+        put(record);
+    }
+
+    /**
+     * Wait until all records handed to the writer so far are written to the underlying file.
+     * @throws IOException If an error occurred while writing.
+     */
+    @Override
+    public void flush() throws IOException {
+        checkError();
+        CountDownLatch flushed = new CountDownLatch(1);
+        put(flushed);
+        try {
+            flushed.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the output to be written.");
+        }
+        checkError();
+    }
+
+    @Override
+    public void close() throws IOException {
+        put(CLOSE);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the output to be written.");
+        }
+        checkError();
+    }
+
+    private void put(Object item) throws IOException {
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the writer.");
+        }
+    }
+
+    private void checkError() throws IOException {
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    private void run() {
+        while (true) {
+            Object item;
+            try {
+                item = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            if (item == CLOSE) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    if (error == null) {
+                        error = e;
+                    }
+                }
+                return;
+            }
+
+            try {
+                if (item instanceof CountDownLatch) {
+                    if (error == null) {
+                        writer.flush();
+                    }
+                } else if (error == null) {
+                    writer.write((AnalysisRecord) item);
+                }
+            } catch (IOException e) {
+
+                // Records handed afterwards are discarded (the error is reported to the producers)
+                if (error == null) {
+                    error = e;
+                }
+            } finally {
+                if (item instanceof CountDownLatch) {
+                    ((CountDownLatch) item).countDown();
+                }
+            }
+        }
+    }
+
+}
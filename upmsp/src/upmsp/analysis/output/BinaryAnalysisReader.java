@@ -0,0 +1,179 @@
+package upmsp.analysis.output;
+
+import java.io.*;
+import java.util.*;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Read the output of the analysis written in binary format by {@link BinaryAnalysisWriter}.
+ *
+ * @author Andre L. Maravilha
+ */
+public class BinaryAnalysisReader implements Closeable {
+
+    private final DataInputStream in;
+    private final boolean sampled;
+
+    private final List<String> dictionary;
+    private final Deque<AnalysisRecord> block;
+
+    /**
+     * Constructor. The header of the file is read.
+     * @param input Stream from the binary file.
+     * @throws IOException If an error occurs while reading or if the file is not in binary format.
+     */
+    public BinaryAnalysisReader(InputStream input) throws IOException {
+        this.in = new DataInputStream(input);
+        this.dictionary = new ArrayList<>();
+        this.block = new ArrayDeque<>();
+
+        byte[] magic = new byte[BinaryFormat.MAGIC.length];
+        try {
+            in.readFully(magic);
+        } catch (EOFException e) {
+            throw new IOException("File is not in the binary format of the analysis.");
+        }
+        if (!Arrays.equals(magic, BinaryFormat.MAGIC)) {
+            throw new IOException("File is not in the binary format of the analysis.");
+        }
+        this.sampled = (in.readByte() & BinaryFormat.FLAG_SAMPLED) != 0;
+    }
+
+    /**
+     * Return whether the records are of sampled neighborhoods.
+     * @return True if the records are of sampled neighborhoods.
+     */
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    /**
+     * Return the strings read so far (in the order they were added to the dictionary of the file).
+     * @return The strings read so far.
+     */
+    public List<String> getDictionary() {
+        return Collections.unmodifiableList(dictionary);
+    }
+
+    /**
+     * Read the next record.
+     * @return The next record or null if the end of the file was reached.
+     * @throws IOException If an error occurs while reading.
+     */
+    public AnalysisRecord read() throws IOException {
+        if (block.isEmpty() && !readBlock()) {
+            return null;
+        }
+        return block.poll();
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private boolean readBlock() throws IOException {
+
+        // Number of records (the end of the file may be reached)
+        int size = in.read();
+        if (size < 0) {
+            return false;
+        }
+        size = (int) readVarLong(size);
+
+        long nNewStrings = BinaryFormat.readVarLong(in);
+        for (long i = 0; i < nNewStrings; ++i) {
+            dictionary.add(in.readUTF());
+        }
+
+        List<AnalysisRecord> records = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            records.add(new AnalysisRecord());
+        }
+
+        // Fields of the records
+        for (AnalysisRecord record : records) {
+            record.instance = string(BinaryFormat.readVarLong(in));
+        }
+        readLongs(records, (r, v) -> r.nJobs = (int) v);
+        readLongs(records, (r, v) -> r.nMachines = (int) v);
+        readLongs(records, (r, v) -> r.seed = v);
+        readLongs(records, (r, v) -> r.timeLimitNano = v);
+        readLongs(records, (r, v) -> r.time = v);
+        readLongs(records, (r, v) -> r.iteration = v);
+        for (AnalysisRecord record : records) {
+            record.incumbentMove = string(BinaryFormat.readVarLong(in));
+        }
+        readLongs(records, (r, v) -> r.incumbentMakespan = v);
+        readLongs(records, (r, v) -> r.incumbentSumMachineTimes = v);
+        for (AnalysisRecord record : records) {
+            record.move = string(BinaryFormat.readVarLong(in));
+        }
+        readLongs(records, (r, v) -> r.cardinality = v);
+
+        // Stats of each category
+        for (int c = 0; c < AnalysisRecord.N_CATEGORIES; ++c) {
+            final int k = c;
+            readLongs(records, (r, v) -> r.count[k] = v);
+            readLongs(records, (r, v) -> r.makespanBest[k] = v);
+            readLongs(records, (r, v) -> r.makespanWorst[k] = v);
+            readDoubles(records, (r, v) -> r.makespanMean[k] = v);
+            readLongs(records, (r, v) -> r.sumMachineTimesBest[k] = v);
+            readLongs(records, (r, v) -> r.sumMachineTimesWorst[k] = v);
+            readDoubles(records, (r, v) -> r.sumMachineTimesMean[k] = v);
+        }
+
+        // Sample stats of each category
+        if (sampled) {
+            readLongs(records, (r, v) -> { r.sampled = true; r.samples = v; });
+            for (int c = 0; c < AnalysisRecord.N_CATEGORIES; ++c) {
+                final int k = c;
+                readDoubles(records, (r, v) -> r.proportion[k] = v);
+                readDoubles(records, (r, v) -> r.proportionHalfWidth[k] = v);
+                readDoubles(records, (r, v) -> r.makespanMeanHalfWidth[k] = v);
+                readDoubles(records, (r, v) -> r.sumMachineTimesMeanHalfWidth[k] = v);
+            }
+        }
+
+        block.addAll(records);
+        return true;
+    }
+
+    private long readVarLong(int firstByte) throws IOException {
+        if ((firstByte & 0x80) == 0) {
+            return firstByte;
+        }
+        long value = firstByte & 0x7F;
+        for (int shift = 7; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length integer.");
+    }
+
+    private String string(long id) throws IOException {
+        if (id < 0 || id >= dictionary.size()) {
+            throw new IOException("Invalid string reference: " + id);
+        }
+        return dictionary.get((int) id);
+    }
+
+    private void readLongs(List<AnalysisRecord> records, ObjLongConsumer<AnalysisRecord> column) throws IOException {
+        long previous = 0L;
+        for (AnalysisRecord record : records) {
+            previous += BinaryFormat.decodeZigzag(BinaryFormat.readVarLong(in));
+            column.accept(record, previous);
+        }
+    }
+
+    private void readDoubles(List<AnalysisRecord> records, ObjDoubleConsumer<AnalysisRecord> column) throws IOException {
+        for (AnalysisRecord record : records) {
+            column.accept(record, in.readDouble());
+        }
+    }
+
+}
@@ -0,0 +1,182 @@
+package upmsp.analysis.output;
+
+import java.io.*;
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Write the output of the analysis in a compact binary (columnar) format. See {@link BinaryFormat} for the layout of
+ * the file and {@link BinaryAnalysisReader} to read it.
+ *
+ * @author Andre L. Maravilha
+ */
+public class BinaryAnalysisWriter implements AnalysisWriter {
+
+    /**
+     * Maximum number of records in a block.
+     */
+    public static final int BLOCK_SIZE = 4096;
+
+    private final OutputStream output;
+    private final boolean sampled;
+
+    private final Map<String, Integer> dictionary;
+    private final List<String> newStrings;
+    private final List<AnalysisRecord> block;
+
+    /**
+     * Constructor. The header of the file is written.
+     * @param output Stream to the binary file.
+     * @param sampled Whether the records are of sampled neighborhoods.
+     * @throws IOException If an error occurs while writing.
+     */
+    public BinaryAnalysisWriter(OutputStream output, boolean sampled) throws IOException {
+        this(output, sampled, null);
+        output.write(BinaryFormat.MAGIC);
+        output.write(sampled ? BinaryFormat.FLAG_SAMPLED : 0);
+    }
+
+    /**
+     * Constructor used to append records to an existing file. The header is not written.
+     * @param output Stream to the end of the binary file.
+     * @param sampled Whether the records are of sampled neighborhoods.
+     * @param dictionary Strings of the file (see {@link BinaryAnalysisReader#getDictionary()}).
+     */
+    public BinaryAnalysisWriter(OutputStream output, boolean sampled, List<String> dictionary) {
+        this.output = output;
+        this.sampled = sampled;
+        this.dictionary = new HashMap<>();
+        this.newStrings = new ArrayList<>();
+        this.block = new ArrayList<>();
+
+        if (dictionary != null) {
+            for (String string : dictionary) {
+                this.dictionary.put(string, this.dictionary.size());
+            }
+        }
+    }
+
+    @Override
+    public void write(AnalysisRecord record) throws IOException {
+        block.add(record);
+        if (block.size() >= BLOCK_SIZE) {
+            writeBlock();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writeBlock();
+        output.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            output.close();
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        if (block.isEmpty()) {
+            return;
+        }
+
+        // Strings used for the first time
+        int[] instanceIds = new int[block.size()];
+        int[] incumbentMoveIds = new int[block.size()];
+        int[] moveIds = new int[block.size()];
+        for (int i = 0; i < block.size(); ++i) {
+            instanceIds[i] = stringId(block.get(i).instance);
+            incumbentMoveIds[i] = stringId(block.get(i).incumbentMove);
+            moveIds[i] = stringId(block.get(i).move);
+        }
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+
+        BinaryFormat.writeVarLong(out, block.size());
+        BinaryFormat.writeVarLong(out, newStrings.size());
+        for (String string : newStrings) {
+            out.writeUTF(string);
+        }
+        newStrings.clear();
+
+        // Fields of the records
+        writeIds(out, instanceIds);
+        writeLongs(out, r -> r.nJobs);
+        writeLongs(out, r -> r.nMachines);
+        writeLongs(out, r -> r.seed);
+        writeLongs(out, r -> r.timeLimitNano);
+        writeLongs(out, r -> r.time);
+        writeLongs(out, r -> r.iteration);
+        writeIds(out, incumbentMoveIds);
+        writeLongs(out, r -> r.incumbentMakespan);
+        writeLongs(out, r -> r.incumbentSumMachineTimes);
+        writeIds(out, moveIds);
+        writeLongs(out, r -> r.cardinality);
+
+        // Stats of each category
+        for (int c = 0; c < AnalysisRecord.N_CATEGORIES; ++c) {
+            final int k = c;
+            writeLongs(out, r -> r.count[k]);
+            writeLongs(out, r -> r.makespanBest[k]);
+            writeLongs(out, r -> r.makespanWorst[k]);
+            writeDoubles(out, r -> r.makespanMean[k]);
+            writeLongs(out, r -> r.sumMachineTimesBest[k]);
+            writeLongs(out, r -> r.sumMachineTimesWorst[k]);
+            writeDoubles(out, r -> r.sumMachineTimesMean[k]);
+        }
+
+        // Sample stats of each category
+        if (sampled) {
+            writeLongs(out, r -> r.samples);
+            for (int c = 0; c < AnalysisRecord.N_CATEGORIES; ++c) {
+                final int k = c;
+                writeDoubles(out, r -> r.proportion[k]);
+                writeDoubles(out, r -> r.proportionHalfWidth[k]);
+                writeDoubles(out, r -> r.makespanMeanHalfWidth[k]);
+                writeDoubles(out, r -> r.sumMachineTimesMeanHalfWidth[k]);
+            }
+        }
+
+        out.flush();
+        buffer.writeTo(output);
+        block.clear();
+    }
+
+    private int stringId(String string) {
+        Integer id = dictionary.get(string);
+        if (id == null) {
+            id = dictionary.size();
+            dictionary.put(string, id);
+            newStrings.add(string);
+        }
+        return id;
+    }
+
+    private void writeIds(DataOutputStream out, int[] ids) throws IOException {
+        for (int id : ids) {
+            BinaryFormat.writeVarLong(out, id);
+        }
+    }
+
+    private void writeLongs(DataOutputStream out, ToLongFunction<AnalysisRecord> column) throws IOException {
+        long previous = 0L;
+        for (AnalysisRecord record : block) {
+            long value = column.applyAsLong(record);
+            BinaryFormat.writeVarLong(out, BinaryFormat.encodeZigzag(value - previous));
+            previous = value;
+        }
+    }
+
+    private void writeDoubles(DataOutputStream out, ToDoubleFunction<AnalysisRecord> column) throws IOException {
+        for (AnalysisRecord record : block) {
+            out.writeDouble(column.applyAsDouble(record));
+        }
+    }
+
+}
@@ -0,0 +1,59 @@
+package upmsp.analysis.output;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Constants and encoding helpers of the binary output of the analysis.
+ *
+ * The file starts with the magic bytes "UPMSPAN1" and a byte of flags (bit 0 is set if the records are of sampled
+ * neighborhoods), followed by blocks of records until the end of the file. Each block has:
+ * <ul>
+ * <li>the number of records in the block;</li>
+ * <li>the strings (instance names and move names) used for the first time in the block, which are appended to a
+ * dictionary shared by all blocks of the file;</li>
+ * <li>the values of the records, stored column by column: first the fields of the records, then the stats of each
+ * category and then (if sampled) the sample stats of each category.</li>
+ * </ul>
+ * Strings are stored as indices of the dictionary. Integer values are stored as the difference to the previous value
+ * of the same column (zigzag encoded as variable-length integers), and real values as 8-byte doubles. Blocks are
+ * written as a whole, so a file can be truncated at the end of any block.
+ *
+ * @author Andre L. Maravilha
+ */
+class BinaryFormat {
+
+    static final byte[] MAGIC = "UPMSPAN1".getBytes(StandardCharsets.US_ASCII);
+    static final int FLAG_SAMPLED = 1;
+
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0L) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        long value = 0L;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length integer.");
+    }
+
+    static long encodeZigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long decodeZigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+}
@@ -0,0 +1,98 @@
+package upmsp.analysis.output;
+
+import upmsp.analysis.MoveAnalysis;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+
+/**
+ * Write the output of the analysis as a CSV file, with one row per category of each record.
+ *
+ * @author Andre L. Maravilha
+ */
+public class CsvAnalysisWriter implements AnalysisWriter {
+
+    private final PrintWriter writer;
+    private final boolean sampled;
+
+    /**
+     * Constructor. The header of the file is written.
+     * @param writer Writer to the CSV file.
+     * @param sampled Whether the records are of sampled neighborhoods (they have more columns).
+     */
+    public CsvAnalysisWriter(Writer writer, boolean sampled) {
+        this(writer, sampled, true);
+    }
+
+    /**
+     * Constructor.
+     * @param writer Writer to the CSV file.
+     * @param sampled Whether the records are of sampled neighborhoods (they have more columns).
+     * @param header Whether the header of the file is written (it is not when records are appended to a file).
+     */
+    public CsvAnalysisWriter(Writer writer, boolean sampled, boolean header) {
+        this.writer = new PrintWriter(writer);
+        this.sampled = sampled;
+        if (header) {
+            this.writer.printf("INSTANCE,N,M,SEED,TIME.LIMIT.NANO,TIME.NANO,ITERATION,INCUMBENT.MOVE,INCUMBENT.MS,INCUMBENT.SMT," +
+                    "MOVE,CARDINALITY,CATEGORY.MS,CATEGORY.SMT,COUNT,MS.BEST,MS.WORST,MS.MEAN,SMT.BEST,SMT.WORST,SMT.MEAN" +
+                    (sampled ? ",SAMPLES,PROPORTION,PROPORTION.CI,MS.MEAN.CI,SMT.MEAN.CI\n" : "\n"));
+        }
+    }
+
+    @Override
+    public void write(AnalysisRecord record) throws IOException {
+        for (MoveAnalysis.Category category : MoveAnalysis.Category.values()) {
+            int c = category.ordinal();
+            writer.printf("%s,%d,%d,%d,%d,%d,%d,%s,%d,%d,%s,%d,%s,%s,%d,%d,%d,%.6f,%d,%d,%.6f",
+                    record.instance,
+                    record.nJobs,
+                    record.nMachines,
+                    record.seed,
+                    record.timeLimitNano,
+                    record.time,
+                    record.iteration,
+                    record.incumbentMove,
+                    record.incumbentMakespan,
+                    record.incumbentSumMachineTimes,
+                    record.move,
+                    record.cardinality,
+                    category.name().toLowerCase().split("_")[0],
+                    category.name().toLowerCase().split("_")[1],
+                    record.count[c],
+                    record.makespanBest[c],
+                    record.makespanWorst[c],
+                    record.makespanMean[c],
+                    record.sumMachineTimesBest[c],
+                    record.sumMachineTimesWorst[c],
+                    record.sumMachineTimesMean[c]);
+            if (sampled) {
+                writer.printf(",%d,%.6f,%.6f,%.6f,%.6f",
+                        record.samples,
+                        record.proportion[c],
+                        record.proportionHalfWidth[c],
+                        record.makespanMeanHalfWidth[c],
+                        record.sumMachineTimesMeanHalfWidth[c]);
+            }
+            writer.printf("\n");
+        }
+        if (writer.checkError()) {
+            throw new IOException("Could not write to the CSV file.");
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+        if (writer.checkError()) {
+            throw new IOException("Could not write to the CSV file.");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+}
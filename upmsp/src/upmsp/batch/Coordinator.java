@@ -0,0 +1,296 @@
+package upmsp.batch;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Coordinator of a batch of jobs executed by (possibly remote) workers. Workers connect to the coordinator through
+ * TCP and ask for jobs one at a time. The results are written by the coordinator as soon as they are received.
+ *
+ * The protocol is line based. A worker sends "NEXT" to ask for a job, and the coordinator answers with
+ * "JOB &lt;id&gt; &lt;spec&gt;", with "WAIT" (all remaining jobs are assigned to other workers, ask again later) or with
+ * "DONE" (all jobs are completed). When the job is finished, the worker sends either
+ * "RESULT &lt;id&gt; &lt;n&gt; &lt;m&gt; &lt;makespan&gt; &lt;iterations&gt; &lt;runtime&gt; &lt;feasible&gt;", which is answered
+ * with "OK", or "FAIL &lt;id&gt; &lt;message&gt;". Malformed lines (or lines of unknown jobs) are answered with
+ * "ERROR &lt;message&gt;", and the session goes on (a job whose result was rejected is given back when the worker asks
+ * for the next one). While running a job, the worker sends "PING" periodically. If a worker
+ * disconnects or is silent for longer than {@link #LEASE_TIMEOUT} milliseconds, its job is handed to another worker.
+ *
+ * @author Andre L. Maravilha
+ */
+public class Coordinator implements Closeable {
+
+    /**
+     * Time (in milliseconds) without hearing from a worker after which its job is reassigned.
+     */
+    public static final int LEASE_TIMEOUT = 60000;
+
+    private final ServerSocket server;
+    private final ResultWriter writer;
+    private final Map<Integer, Job> jobs;
+    private final Deque<Job> pending;
+    private final Set<Integer> failed;
+    private final ExecutorService sessions;
+
+    private int totalJobs;
+    private int finishedJobs;
+    private PrintStream output;
+
+    /**
+     * Constructor.
+     * @param jobs List of jobs.
+     * @param writer Writer of the results. Jobs already completed in the writer are not handed out.
+     * @param address Address the coordinator is bound to.
+     * @param port Port the coordinator listens to (0 for any free port).
+     * @throws IOException If the server socket could not be opened.
+     */
+    public Coordinator(List<Job> jobs, ResultWriter writer, InetAddress address, int port) throws IOException {
+        this.writer = writer;
+        this.jobs = new HashMap<>();
+        this.pending = new ArrayDeque<>();
+        this.failed = new HashSet<>();
+        for (Job job : jobs) {
+            this.jobs.put(job.id, job);
+            if (!writer.isCompleted(job.id)) {
+                this.pending.addLast(job);
+            }
+        }
+
+        this.totalJobs = pending.size();
+        this.finishedJobs = 0;
+        this.server = new ServerSocket(port, 50, address);
+        this.sessions = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "coordinator-session");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Return the port the coordinator listens to.
+     * @return The port.
+     */
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * Return the number of jobs to run (jobs completed before the coordinator was created are not included).
+     * @return The number of jobs to run.
+     */
+    public int getNJobs() {
+        return totalJobs;
+    }
+
+    /**
+     * Return the number of jobs that failed.
+     * @return The number of jobs that failed.
+     */
+    public synchronized int getNFailedJobs() {
+        return failed.size();
+    }
+
+    /**
+     * Accept workers until all jobs are finished.
+     * @param output Output stream to log the progress (or null to disable it).
+     * @throws InterruptedException If interrupted while waiting the jobs.
+     */
+    public void run(PrintStream output) throws InterruptedException {
+        this.output = output;
+        logProgress();
+
+        Thread acceptor = new Thread(() -> {
+            while (!server.isClosed()) {
+                try {
+                    Socket socket = server.accept();
+                    sessions.submit(new Session(socket));
+                } catch (IOException e) {
+                    // Server socket closed
+                }
+            }
+        }, "coordinator");
+        acceptor.setDaemon(true);
+        acceptor.start();
+
+        synchronized (this) {
+            while (finishedJobs < totalJobs) {
+                wait();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        sessions.shutdownNow();
+    }
+
+    private synchronized Job assign() {
+        return pending.pollFirst();
+    }
+
+    private synchronized void release(Job job) {
+        if (!writer.isCompleted(job.id) && !failed.contains(job.id)) {
+            pending.addFirst(job);
+        }
+    }
+
+    private synchronized boolean isFinished() {
+        return finishedJobs >= totalJobs;
+    }
+
+    private synchronized void complete(Job job, Job.Result result) {
+        if (writer.write(job, result) && !failed.remove(job.id)) {
+            ++finishedJobs;
+            logProgress();
+            notifyAll();
+        }
+    }
+
+    private synchronized void fail(Job job, String message) {
+        if (!writer.isCompleted(job.id) && failed.add(job.id)) {
+            if (output != null) {
+                output.printf("\nJob %d failed: %s\n", job.id, message);
+            }
+            ++finishedJobs;
+            logProgress();
+            notifyAll();
+        }
+    }
+
+    /**
+     * Return the job of an id sent by a worker.
+     * @param id Id of the job (as sent by the worker).
+     * @return The job, or null if the id is not valid.
+     */
+    private Job findJob(String id) {
+        try {
+            return jobs.get(Integer.parseInt(id));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private synchronized void logProgress() {
+        if (output != null) {
+            output.printf("\rProgress: %d of %d (%.2f%%)",
+                    finishedJobs,
+                    totalJobs,
+                    (totalJobs > 0 ? 100.0 * (finishedJobs / (double) totalJobs) : 100.0));
+        }
+    }
+
+
+    /**
+     * Conversation with a worker.
+     */
+    private class Session implements Runnable {
+
+        private Socket socket;
+        private Job current;
+
+        public Session(Socket socket) {
+            this.socket = socket;
+        }
+
+        @Override
+        public void run() {
+            try (Socket socket = this.socket;
+                 BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                 PrintWriter writer = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true)) {
+
+                socket.setSoTimeout(LEASE_TIMEOUT);
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] tokens = line.trim().split("\\s+", 3);
+                    switch (tokens[0]) {
+
+                        case "PING":
+                            break;
+
+                        case "NEXT":
+                            // A lease still held (e.g., its result was rejected) is given back before the next one
+                            if (current != null) {
+                                release(current);
+                            }
+                            current = assign();
+                            if (current != null) {
+                                writer.println("JOB " + current.id + " " + current.spec);
+                            } else if (isFinished()) {
+                                writer.println("DONE");
+                                return;
+                            } else {
+                                writer.println("WAIT");
+                            }
+                            break;
+
+                        case "RESULT": {
+                            String[] values = line.trim().split("\\s+");
+                            Job job = (values.length == 8 ? findJob(values[1]) : null);
+                            if (job == null) {
+                                writer.println(values.length == 8 ? "ERROR Unknown job" : "ERROR Malformed result");
+                                break;
+                            }
+
+                            Job.Result result;
+                            try {
+                                result = new Job.Result(
+                                        Integer.parseInt(values[2]),
+                                        Integer.parseInt(values[3]),
+                                        Long.parseLong(values[4]),
+                                        Long.parseLong(values[5]),
+                                        Long.parseLong(values[6]),
+                                        Boolean.parseBoolean(values[7]),
+                                        null);
+                            } catch (NumberFormatException e) {
+                                writer.println("ERROR Malformed result");
+                                break;
+                            }
+                            complete(job, result);
+                            if (job == current) {
+                                current = null;
+                            }
+                            writer.println("OK");
+                            break;
+                        }
+
+                        case "FAIL": {
+                            Job job = (tokens.length > 1 ? findJob(tokens[1]) : null);
+                            if (job == null) {
+                                writer.println(tokens.length > 1 ? "ERROR Unknown job" : "ERROR Malformed failure");
+                                break;
+                            }
+                            fail(job, (tokens.length > 2 ? tokens[2] : ""));
+                            if (job == current) {
+                                current = null;
+                            }
+                            writer.println("OK");
+                            break;
+                        }
+
+                        default:
+                            writer.println("ERROR Unknown command");
+                    }
+                }
+
+            } catch (SocketTimeoutException | SocketException e) {
+                // Worker is gone
+            } catch (IOException | RuntimeException e) {
+                System.err.printf("ERROR: Session with worker aborted: %s\n", e.getMessage());
+            } finally {
+                if (current != null) {
+                    release(current);
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,207 @@
+package upmsp.batch;
+
+import picocli.CommandLine;
+import picocli.CommandLine.Mixin;
+import picocli.CommandLine.Parameters;
+import upmsp.algorithm.constructive.SimpleConstructive;
+import upmsp.algorithm.heuristic.Heuristic;
+import upmsp.cli.SolverOptions;
+import upmsp.model.Problem;
+import upmsp.model.solution.Solution;
+import upmsp.util.SimpleTokenizer;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+/**
+ * A unit of work of a batch of optimization runs. A job is described by a specification with the same syntax of the
+ * arguments of the "optimize" command, i.e., the path of the problem input file followed by the options of the solver
+ * (e.g., "instances/I_50_10_S_1-9_1.txt --seed 3 --algorithm sa").
+ *
+ * @author Andre L. Maravilha
+ */
+public class Job {
+
+    /**
+     * Result of a job.
+     */
+    public static class Result {
+
+        public final int nJobs;
+        public final int nMachines;
+        public final long makespan;
+        public final long iterations;
+        public final long runtime;
+        public final boolean feasible;
+
+        /**
+         * Best solution found. It is null if the result was not obtained in this process.
+         */
+        public final Solution solution;
+
+        public Result(int nJobs, int nMachines, long makespan, long iterations, long runtime, boolean feasible, Solution solution) {
+            this.nJobs = nJobs;
+            this.nMachines = nMachines;
+            this.makespan = makespan;
+            this.iterations = iterations;
+            this.runtime = runtime;
+            this.feasible = feasible;
+            this.solution = solution;
+        }
+    }
+
+    public final int id;
+    public final String spec;
+
+    @Mixin
+    private SolverOptions solver = new SolverOptions();
+
+    @Parameters(index = "0", description = "Path of the problem input file.", arity = "0..1")
+    private File instance;
+
+    /**
+     * Constructor.
+     * @param id Identifier of the job.
+     * @param spec Specification of the job.
+     */
+    private Job(int id, String spec) {
+        this.id = id;
+        this.spec = spec;
+    }
+
+    /**
+     * Parse the specification of a job.
+     * @param id Identifier of the job.
+     * @param spec Specification of the job (path of the problem input file followed by the options of the solver).
+     * @return The job.
+     * @throws IllegalArgumentException If the specification is not valid.
+     */
+    public static Job parse(int id, String spec) {
+        Job job = of(id, spec.trim().split("\\s+"));
+        if (job.instance == null) {
+            throw new IllegalArgumentException("Missing path of the problem input file.");
+        }
+        return job;
+    }
+
+    /**
+     * Create a job from the arguments of the solver. The path of the problem input file is optional, in which case
+     * the job can only be run on a problem already loaded (see {@link #run(Problem)}).
+     * @param id Identifier of the job.
+     * @param args Path of the problem input file (optional) followed by the options of the solver.
+     * @return The job.
+     * @throws IllegalArgumentException If the arguments are not valid.
+     */
+    public static Job of(int id, String... args) {
+        Job job = new Job(id, String.join(" ", args));
+        try {
+            CommandLine.populateCommand(job, args);
+        } catch (CommandLine.ParameterException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+        return job;
+    }
+
+    /**
+     * Return the path of the problem input file.
+     * @return The path of the problem input file (or null if it was not set).
+     */
+    public File getInstance() {
+        return instance;
+    }
+
+    /**
+     * Return the name of the instance (file name without the ".txt" extension).
+     * @return The name of the instance.
+     */
+    public String getInstanceName() {
+        return instance.getName().replace(".txt", "");
+    }
+
+    /**
+     * Return the options of the solver.
+     * @return The options of the solver.
+     */
+    public SolverOptions getSolver() {
+        return solver;
+    }
+
+    /**
+     * Return the expected runtime of the job (in nanoseconds), i.e., its time limit. Only the first line of the
+     * problem input file is read to calculate it.
+     * @return The expected runtime (in nanoseconds).
+     * @throws IOException If the problem file could not be read.
+     */
+    public long getExpectedRuntimeNano() throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(instance.toPath())) {
+            SimpleTokenizer token = new SimpleTokenizer(reader.readLine());
+            int nJobs = token.nextInt();
+            int nMachines = token.nextInt();
+            return solver.getTimeLimitNano(nJobs, nMachines);
+        }
+    }
+
+    /**
+     * Load the problem and run the job.
+     * @return The result of the job.
+     * @throws IOException If the problem file (or the coefficients of the utility model) could not be read.
+     */
+    public Result run() throws IOException {
+        if (instance == null) {
+            throw new IOException("Path of the problem input file was not set.");
+        }
+        return run(new Problem(instance.getAbsolutePath()));
+    }
+
+    /**
+     * Run the job on a problem already loaded. The random number generator is consumed in the same order as in the
+     * "optimize" command, so a job gives the same result as the equivalent command line.
+     * @param problem Instance of the problem.
+     * @return The result of the job.
+     * @throws IOException If the coefficients of the utility model could not be read.
+     */
+    public Result run(Problem problem) throws IOException {
+        return run(problem, null);
+    }
+
+    /**
+     * Run the job on a problem already loaded, tracking its progress with a callback.
+     * @param problem Instance of the problem.
+     * @param callback Callback of the heuristic (it may be null).
+     * @return The result of the job.
+     * @throws IOException If the coefficients of the utility model could not be read.
+     */
+    public Result run(Problem problem, Heuristic.Callback callback) throws IOException {
+
+        // Instantiate a random number generator
+        Random random = new Random(solver.getSeed());
+
+        // Instantiate the chosen heuristic (and its moves)
+        Heuristic heuristic = solver.createHeuristic(problem, random);
+        long timeLimit = solver.getTimeLimitNano(problem);
+
+        // Create initial solution
+        long runtime = System.nanoTime();
+        Solution solution = solver.prepareSolution(SimpleConstructive.randomSolution(problem, random));
+        long initialSolutionRuntime = System.nanoTime() - runtime;
+
+        // Run heuristic
+        if (heuristic.getMoves().size() > 0) {
+            solution = heuristic.run(solution, timeLimit - initialSolutionRuntime, solver.getIterationsLimit(), callback, null);
+            solution = solver.polish(solution, heuristic.getMoves());
+        }
+        runtime = System.nanoTime() - runtime;
+
+        return new Result(problem.nJobs, problem.nMachines, solution.getCost(), heuristic.getNIters(), runtime,
+                solution.validate(null), solution);
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+
+}
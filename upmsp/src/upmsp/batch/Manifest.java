@@ -0,0 +1,99 @@
+package upmsp.batch;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A manifest is a text file with the specification of one job per line. Empty lines and lines starting with '#' are
+ * ignored. The identifier of each job is the number of the line in which it is specified.
+ *
+ * @author Andre L. Maravilha
+ */
+public class Manifest {
+
+    /**
+     * Read the jobs specified in a manifest file.
+     * @param path Path to the manifest file.
+     * @return The list of jobs.
+     * @throws IOException If the file could not be read or if it has an invalid entry.
+     */
+    public static List<Job> read(Path path) throws IOException {
+        List<Job> jobs = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                ++lineNumber;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                try {
+                    jobs.add(Job.parse(lineNumber, line));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(String.format("Invalid job at line %d of %s: %s", lineNumber, path, e.getMessage()), e);
+                }
+            }
+        }
+        return jobs;
+    }
+
+    /**
+     * Create the jobs that run each instance of a directory with each seed (from 1 to the number of repetitions) and
+     * each set of parameters. The identifiers of the jobs follow the order of the instances (by file name), then the
+     * order of the seeds and then the order of the sets of parameters.
+     * @param directory Directory with the problem input files (files with extension ".txt").
+     * @param repetitions Number of seeds each instance is run with.
+     * @param parameterSets Sets of parameters (options of the solver, except the seed) each instance is run with.
+     * @return The list of jobs.
+     * @throws IOException If the directory could not be read or if a set of parameters is invalid.
+     */
+    public static List<Job> expand(File directory, int repetitions, List<String> parameterSets) throws IOException {
+        File[] instances = directory.listFiles((dir, filename) -> filename.endsWith(".txt"));
+        if (instances == null) {
+            throw new IOException("Could not read directory " + directory);
+        }
+        Arrays.sort(instances, Comparator.comparing(File::getName));
+
+        List<Job> jobs = new ArrayList<>();
+        for (File instance : instances) {
+            for (int seed = 1; seed <= repetitions; ++seed) {
+                for (String parameters : parameterSets) {
+                    String spec = String.format("%s --seed %d %s", instance.getPath(), seed, parameters);
+                    try {
+                        jobs.add(Job.parse(jobs.size() + 1, spec));
+                    } catch (IllegalArgumentException e) {
+                        throw new IOException(String.format("Invalid set of parameters \"%s\": %s", parameters, e.getMessage()), e);
+                    }
+                }
+            }
+        }
+        return jobs;
+    }
+
+    /**
+     * Read sets of parameters from a file with one set per line. Empty lines and lines starting with '#' are ignored.
+     * @param path Path to the file.
+     * @return The list of sets of parameters.
+     * @throws IOException If the file could not be read.
+     */
+    public static List<String> readParameterSets(Path path) throws IOException {
+        List<String> parameterSets = new ArrayList<>();
+        for (String line : Files.readAllLines(path)) {
+            line = line.trim();
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                parameterSets.add(line);
+            }
+        }
+        return parameterSets;
+    }
+
+}
@@ -0,0 +1,136 @@
+package upmsp.batch;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Write the results of jobs to a CSV file. Each row is flushed as soon as it is written, so the file is always a
+ * record of the jobs already completed. A job is written at most once, and an existing file can be resumed: rows of
+ * completed jobs are kept and new rows are appended.
+ *
+ * @author Andre L. Maravilha
+ */
+public class ResultWriter implements Closeable {
+
+    private static final String HEADER = "ID,INSTANCE,N,M,SEED,ALGORITHM,MAKESPAN,ITERATIONS,TIME.NANO,FEASIBLE";
+
+    private PrintWriter writer;
+    private Set<Integer> completed;
+
+    /**
+     * Constructor.
+     * @param output Path to the CSV file.
+     * @param resume If true and the file exists, the jobs already written are kept (and not written again);
+     *               otherwise the file is overwritten.
+     * @throws IOException If the file could not be opened.
+     */
+    public ResultWriter(Path output, boolean resume) throws IOException {
+
+        // Creates the directory hierarchy, if necessary
+        output = output.toAbsolutePath();
+        Files.createDirectories(output.getParent());
+
+        completed = new HashSet<>();
+        if (resume && Files.exists(output) && Files.size(output) > 0) {
+            truncatePartialRow(output);
+            try (BufferedReader reader = Files.newBufferedReader(output)) {
+                reader.readLine();
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isEmpty()) {
+                        completed.add(Integer.parseInt(line.substring(0, line.indexOf(','))));
+                    }
+                }
+            }
+            writer = new PrintWriter(Files.newBufferedWriter(output, StandardOpenOption.APPEND));
+        } else {
+            writer = new PrintWriter(Files.newBufferedWriter(output));
+            writer.printf("%s\n", HEADER);
+            writer.flush();
+        }
+    }
+
+    /**
+     * Return true if the result of a job has already been written.
+     * @param id Identifier of the job.
+     * @return True if the result of the job has already been written, false otherwise.
+     */
+    public synchronized boolean isCompleted(int id) {
+        return completed.contains(id);
+    }
+
+    /**
+     * Return the number of jobs whose results have been written.
+     * @return The number of jobs whose results have been written.
+     */
+    public synchronized int getNCompleted() {
+        return completed.size();
+    }
+
+    /**
+     * Write the result of a job, unless it has already been written.
+     * @param job The job.
+     * @param result The result of the job.
+     * @return True if the result was written, false if the job had already been written.
+     */
+    public synchronized boolean write(Job job, Job.Result result) {
+        if (!completed.add(job.id)) {
+            return false;
+        }
+
+        writer.printf("%d,%s,%d,%d,%d,%s,%d,%d,%d,%s\n",
+                job.id,
+                job.getInstanceName(),
+                result.nJobs,
+                result.nMachines,
+                job.getSolver().getSeed(),
+                job.getSolver().getAlgorithm(),
+                result.makespan,
+                result.iterations,
+                result.runtime,
+                (result.feasible ? "TRUE" : "FALSE"));
+        writer.flush();
+        return true;
+    }
+
+    @Override
+    public synchronized void close() {
+        writer.close();
+    }
+
+    /**
+     * Remove the last row of the file if it was not completely written (e.g., if the process died while writing it).
+     * @param output Path to the CSV file.
+     * @throws IOException If the file could not be modified.
+     */
+    private static void truncatePartialRow(Path output) throws IOException {
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            byte[] tail = new byte[(int) Math.min(size, 4096L)];
+            long position = size;
+            while (position > 0) {
+                int length = (int) Math.min(position, tail.length);
+                position -= length;
+                channel.read(ByteBuffer.wrap(tail, 0, length), position);
+                for (int i = length - 1; i >= 0; --i) {
+                    if (tail[i] == '\n') {
+                        channel.truncate(position + i + 1);
+                        return;
+                    }
+                }
+            }
+
+            // Not even the header is complete
+            channel.truncate(0L);
+            channel.write(ByteBuffer.wrap((HEADER + "\n").getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+}
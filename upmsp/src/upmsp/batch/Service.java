@@ -0,0 +1,220 @@
+package upmsp.batch;
+
+import upmsp.model.Problem;
+import upmsp.model.solution.Machine;
+import upmsp.util.SimpleJson;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resident solver that answers requests written as JSON objects, one per line. The requests are solved concurrently
+ * by a bounded pool of threads, and the responses are written (one per line) as soon as they are ready, so they may
+ * come in an order different from the requests. The "id" field of a request is copied to its response.
+ *
+ * A request has either an "instance" field (path of the problem input file) or a "data" field (content of a problem
+ * input file). Any other field is an option of the solver, with the same name and meaning of the options of the
+ * "optimize" command (e.g., {"id": 1, "instance": "I_50_10_S_1-9_1.txt", "seed": 3, "time-limit": 500}). Arrays are
+ * used for options that may be repeated (e.g., "disable": ["swap", "two-shift"]).
+ *
+ * The response has the fields "id", "makespan", "iterations", "runtime" (in nanoseconds), "feasible" and "solution"
+ * (the sequence of jobs of each machine), or the fields "id" and "error" if the request could not be solved.
+ *
+ * @author Andre L. Maravilha
+ */
+public class Service implements Closeable {
+
+    /**
+     * Maximum number of problems kept in memory to answer requests on the same instance file.
+     */
+    public static final int CACHE_SIZE = 32;
+
+    private final ExecutorService executor;
+    private final Semaphore slots;
+    private final AtomicInteger counter;
+    private final Map<Path, CachedProblem> cache;
+
+    /**
+     * Constructor.
+     * @param threads Number of requests solved simultaneously.
+     * @param queueCapacity Maximum number of requests waiting for a thread. When it is reached, the reading of
+     *                      requests blocks until a thread is available.
+     */
+    public Service(int threads, int queueCapacity) {
+        this.executor = Executors.newFixedThreadPool(threads);
+        this.slots = new Semaphore(threads + queueCapacity);
+        this.counter = new AtomicInteger(0);
+        this.cache = new LinkedHashMap<Path, CachedProblem>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, CachedProblem> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        };
+    }
+
+    /**
+     * Answer the requests read from an input until its end. This method returns after all responses are written.
+     * @param input Input from which requests are read.
+     * @param output Output to which responses are written.
+     * @throws IOException If an error occurs while reading the requests.
+     * @throws InterruptedException If interrupted while waiting for a thread.
+     */
+    public void serve(BufferedReader input, PrintWriter output) throws IOException, InterruptedException {
+        Phaser pending = new Phaser(1);
+        try {
+            String line;
+            while ((line = input.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+
+                String request = line;
+                slots.acquire();
+                pending.register();
+                executor.execute(() -> {
+                    try {
+                        String response = answer(request);
+                        synchronized (output) {
+                            output.println(response);
+                            output.flush();
+                        }
+                    } finally {
+                        slots.release();
+                        pending.arriveAndDeregister();
+                    }
+                });
+            }
+        } finally {
+            pending.arriveAndAwaitAdvance();
+        }
+    }
+
+    /**
+     * Solve a request.
+     * @param request Request (JSON object).
+     * @return The response (JSON object).
+     */
+    public String answer(String request) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        try {
+
+            // Read the request
+            Map<String, Object> fields = SimpleJson.parseObject(request);
+            response.put("id", fields.get("id"));
+
+            String instance = null;
+            String data = null;
+            List<String> args = new ArrayList<>();
+            for (Map.Entry<String, Object> field : fields.entrySet()) {
+                switch (field.getKey()) {
+
+                    case "id":
+                        break;
+
+                    case "instance":
+                        instance = String.valueOf(field.getValue());
+                        break;
+
+                    case "data":
+                        data = String.valueOf(field.getValue());
+                        break;
+
+                    default:
+                        Collection<?> values = (field.getValue() instanceof Collection ?
+                                (Collection<?>) field.getValue() : Collections.singletonList(field.getValue()));
+                        for (Object value : values) {
+                            if (Boolean.TRUE.equals(value)) {
+                                args.add("--" + field.getKey());
+                            } else if (value != null && !Boolean.FALSE.equals(value)) {
+                                args.add("--" + field.getKey());
+                                args.add(String.valueOf(value));
+                            }
+                        }
+                }
+            }
+
+            // Load the problem
+            Problem problem;
+            if (data != null) {
+                problem = new Problem(new BufferedReader(new StringReader(data)));
+            } else if (instance != null) {
+                problem = load(Paths.get(instance));
+            } else {
+                throw new IllegalArgumentException("Either \"instance\" or \"data\" must be set.");
+            }
+
+            // Solve the problem
+            Job job = Job.of(counter.incrementAndGet(), args.toArray(new String[0]));
+            Job.Result result = job.run(problem);
+
+            response.put("makespan", result.makespan);
+            response.put("iterations", result.iterations);
+            response.put("runtime", result.runtime);
+            response.put("feasible", result.feasible);
+
+            List<int[]> sequences = new ArrayList<>();
+            for (Machine machine : result.solution.machines) {
+                sequences.add(machine.getJobs());
+            }
+            response.put("solution", sequences);
+
+        } catch (Exception e) {
+            response.put("error", (e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName()));
+        }
+
+        return SimpleJson.toString(response);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * Load a problem, reusing the one in the cache if the file has not changed since it was loaded.
+     * @param path Path of the problem input file.
+     * @return The problem.
+     * @throws IOException If the file could not be read.
+     */
+    private Problem load(Path path) throws IOException {
+        path = path.toAbsolutePath().normalize();
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+
+        synchronized (cache) {
+            CachedProblem cached = cache.get(path);
+            if (cached != null && cached.lastModified == lastModified) {
+                return cached.problem;
+            }
+        }
+
+        Problem problem = new Problem(path.toString());
+        synchronized (cache) {
+            cache.put(path, new CachedProblem(problem, lastModified));
+        }
+        return problem;
+    }
+
+
+    /**
+     * Problem kept in the cache.
+     */
+    private static class CachedProblem {
+
+        public final Problem problem;
+        public final long lastModified;
+
+        public CachedProblem(Problem problem, long lastModified) {
+            this.problem = problem;
+            this.lastModified = lastModified;
+        }
+    }
+
+}
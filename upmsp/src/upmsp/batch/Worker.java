@@ -0,0 +1,160 @@
+package upmsp.batch;
+
+import java.io.*;
+import java.net.ConnectException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Worker that runs jobs handed out by a {@link Coordinator}. The worker asks for jobs until the coordinator reports
+ * that all jobs are completed (or until the connection is lost).
+ *
+ * @author Andre L. Maravilha
+ */
+public class Worker implements Runnable {
+
+    /**
+     * Interval (in milliseconds) between two heartbeats sent to the coordinator while a job is running.
+     */
+    public static final int HEARTBEAT_INTERVAL = 10000;
+
+    /**
+     * Time (in milliseconds) to wait before asking for a job again when the coordinator has no job available.
+     */
+    public static final int WAIT_INTERVAL = 1000;
+
+    /**
+     * Number of attempts to connect to the coordinator before giving up.
+     */
+    public static final int CONNECTION_ATTEMPTS = 30;
+
+    private String host;
+    private int port;
+    private long completedJobs;
+
+    /**
+     * Constructor.
+     * @param host Host name of the coordinator.
+     * @param port Port of the coordinator.
+     */
+    public Worker(String host, int port) {
+        this.host = host;
+        this.port = port;
+        this.completedJobs = 0L;
+    }
+
+    /**
+     * Return the number of jobs completed by this worker.
+     * @return The number of jobs completed by this worker.
+     */
+    public long getNCompletedJobs() {
+        return completedJobs;
+    }
+
+    @Override
+    public void run() {
+
+        // Connect to the coordinator
+        Socket connection;
+        try {
+            connection = connect();
+        } catch (IOException e) {
+            System.err.printf("ERROR: Could not connect to the coordinator at %s:%d.\n", host, port);
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "worker-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try (Socket socket = connection;
+             BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter writer = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true)) {
+
+            while (true) {
+                writer.println("NEXT");
+                String line = reader.readLine();
+                if (line == null || line.equals("DONE")) {
+                    break;
+                }
+
+                if (line.equals("WAIT")) {
+                    Thread.sleep(WAIT_INTERVAL);
+                    continue;
+                }
+
+                // Parse the job (JOB <id> <spec>)
+                String[] tokens = line.split(" ", 3);
+                if (tokens.length < 3 || !tokens[0].equals("JOB") || !tokens[1].matches("\\d{1,9}")) {
+                    System.err.printf("ERROR: Unexpected reply from the coordinator: %s\n", line);
+                    break;
+                }
+                int id = Integer.parseInt(tokens[1]);
+
+                // Run the job while keeping the lease alive
+                ScheduledFuture<?> ping = heartbeat.scheduleAtFixedRate(() -> writer.println("PING"),
+                        HEARTBEAT_INTERVAL, HEARTBEAT_INTERVAL, TimeUnit.MILLISECONDS);
+                try {
+                    Job job = Job.parse(id, tokens[2]);
+                    Job.Result result = job.run();
+                    writer.printf("RESULT %d %d %d %d %d %d %s\n", id, result.nJobs, result.nMachines,
+                            result.makespan, result.iterations, result.runtime, result.feasible);
+                    writer.flush();
+                    ++completedJobs;
+                } catch (Exception e) {
+                    writer.printf("FAIL %d %s\n", id, String.valueOf(e.getMessage()).replace('\n', ' '));
+                    writer.flush();
+                } finally {
+                    ping.cancel(false);
+                }
+
+                // Acknowledgement (if the result is rejected, the connection is closed, so the job is handed to another
+                // worker)
+                String ack = reader.readLine();
+                if (ack == null) {
+                    break;
+                }
+                if (!ack.equals("OK")) {
+                    System.err.printf("ERROR: Result of job %d rejected by the coordinator: %s\n", id, ack);
+                    break;
+                }
+            }
+
+        } catch (IOException e) {
+            // Connection with the coordinator is lost
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            heartbeat.shutdownNow();
+        }
+    }
+
+    /**
+     * Connect to the coordinator, retrying while it is not accepting connections.
+     * @return The socket connected to the coordinator.
+     * @throws IOException If the connection could not be established.
+     * @throws InterruptedException If interrupted while waiting to retry.
+     */
+    private Socket connect() throws IOException, InterruptedException {
+        for (int attempt = 1; ; ++attempt) {
+            try {
+                return new Socket(host, port);
+            } catch (ConnectException e) {
+                if (attempt >= CONNECTION_ATTEMPTS) {
+                    throw e;
+                }
+                Thread.sleep(WAIT_INTERVAL);
+            }
+        }
+    }
+
+}
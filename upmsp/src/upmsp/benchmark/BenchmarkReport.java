@@ -0,0 +1,364 @@
+package upmsp.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Report of a benchmark: one entry per run (instance and seed) with the final makespan, its gap to a reference
+ * makespan, the number of iterations per second and the time to reach each target. A target is a gap to the reference
+ * makespan (e.g., 0.05 stands for a makespan at most 5% larger than the reference). The report is written as a CSV
+ * file, which can be read back to be compared with the report of another build (see
+ * {@link #compare(BenchmarkReport, double)}).
+ *
+ * @author Andre L. Maravilha
+ */
+public class BenchmarkReport {
+
+    /**
+     * Result of a run.
+     */
+    public static class Entry {
+
+        public final String instance;
+        public final int nJobs;
+        public final int nMachines;
+        public final long seed;
+        public final long reference;
+        public final long makespan;
+        public final long iterations;
+        public final long runtime;
+
+        /**
+         * Time (in nanoseconds) to reach each target or -1 if the target was not reached.
+         */
+        public final long[] timesToTarget;
+
+        public Entry(String instance, int nJobs, int nMachines, long seed, long reference, long makespan,
+                     long iterations, long runtime, long[] timesToTarget) {
+            this.instance = instance;
+            this.nJobs = nJobs;
+            this.nMachines = nMachines;
+            this.seed = seed;
+            this.reference = reference;
+            this.makespan = makespan;
+            this.iterations = iterations;
+            this.runtime = runtime;
+            this.timesToTarget = timesToTarget;
+        }
+
+        /**
+         * Return the gap of the final makespan to the reference makespan.
+         * @return The gap (e.g., 0.05 stands for a makespan 5% larger than the reference).
+         */
+        public double getGap() {
+            return (makespan - reference) / (double) reference;
+        }
+
+        /**
+         * Return the number of iterations per second.
+         * @return The number of iterations per second.
+         */
+        public double getIterationsPerSecond() {
+            return iterations / (runtime / 1e9);
+        }
+    }
+
+    /**
+     * Mean results of the runs of an instance.
+     */
+    public static class Summary {
+
+        public final String instance;
+        public int runs;
+        public double iterationsPerSecond;
+        public double makespan;
+        public double gap;
+
+        /**
+         * Mean time (in nanoseconds) to reach each target. The runtime is taken as the time of the runs that did not
+         * reach the target.
+         */
+        public final double[] timeToTarget;
+
+        /**
+         * Proportion of runs that reached each target.
+         */
+        public final double[] reached;
+
+        public Summary(String instance, int nTargets) {
+            this.instance = instance;
+            this.timeToTarget = new double[nTargets];
+            this.reached = new double[nTargets];
+        }
+    }
+
+    /**
+     * Comparison of a metric of an instance between a baseline and a current report.
+     */
+    public static class Comparison {
+
+        public final String instance;
+        public final String metric;
+        public final double baseline;
+        public final double current;
+        public final boolean regression;
+
+        public Comparison(String instance, String metric, double baseline, double current, boolean regression) {
+            this.instance = instance;
+            this.metric = metric;
+            this.baseline = baseline;
+            this.current = current;
+            this.regression = regression;
+        }
+
+        /**
+         * Return the relative change of the metric.
+         * @return The relative change (e.g., -0.05 stands for a value 5% smaller than the baseline).
+         */
+        public double getChange() {
+            return (current - baseline) / baseline;
+        }
+    }
+
+    private final double[] targets;
+    private final List<Entry> entries;
+
+    /**
+     * Constructor.
+     * @param targets The targets (gaps to the reference makespan).
+     */
+    public BenchmarkReport(double[] targets) {
+        this.targets = targets.clone();
+        this.entries = new ArrayList<>();
+    }
+
+    /**
+     * Add the result of a run.
+     * @param entry The result of the run.
+     */
+    public void add(Entry entry) {
+        if (entry.timesToTarget.length != targets.length) {
+            throw new IllegalArgumentException("Number of times to target does not match the number of targets.");
+        }
+        entries.add(entry);
+    }
+
+    /**
+     * Return the targets (gaps to the reference makespan).
+     * @return The targets.
+     */
+    public double[] getTargets() {
+        return targets.clone();
+    }
+
+    /**
+     * Return the results of the runs.
+     * @return The results of the runs.
+     */
+    public List<Entry> getEntries() {
+        return Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Return the reference makespan of each instance.
+     * @return The reference makespan of each instance.
+     */
+    public Map<String, Long> getReferences() {
+        Map<String, Long> references = new HashMap<>();
+        for (Entry entry : entries) {
+            references.put(entry.instance, entry.reference);
+        }
+        return references;
+    }
+
+    /**
+     * Return the mean results of the runs of each instance, in the order the instances appear in the report.
+     * @return The summary of each instance.
+     */
+    public Map<String, Summary> summarize() {
+        Map<String, Summary> summaries = new LinkedHashMap<>();
+        for (Entry entry : entries) {
+            Summary summary = summaries.computeIfAbsent(entry.instance, instance -> new Summary(instance, targets.length));
+            summary.runs++;
+            summary.iterationsPerSecond += entry.getIterationsPerSecond();
+            summary.makespan += entry.makespan;
+            summary.gap += entry.getGap();
+            for (int t = 0; t < targets.length; ++t) {
+                if (entry.timesToTarget[t] >= 0L) {
+                    summary.timeToTarget[t] += entry.timesToTarget[t];
+                    summary.reached[t] += 1.0;
+                } else {
+                    summary.timeToTarget[t] += entry.runtime;
+                }
+            }
+        }
+
+        for (Summary summary : summaries.values()) {
+            summary.iterationsPerSecond /= summary.runs;
+            summary.makespan /= summary.runs;
+            summary.gap /= summary.runs;
+            for (int t = 0; t < targets.length; ++t) {
+                summary.timeToTarget[t] /= summary.runs;
+                summary.reached[t] /= summary.runs;
+            }
+        }
+
+        return summaries;
+    }
+
+    /**
+     * Compare this report with a baseline. For each instance in both reports, the mean number of iterations per
+     * second, the mean makespan and the mean time to reach each target (in both reports) are compared. A metric
+     * regresses if it is worse than the baseline by more than the threshold (relative to the baseline).
+     * @param baseline The baseline report.
+     * @param threshold The threshold (e.g., 0.05 stands for 5% worse than the baseline).
+     * @return The comparisons, in the order the instances appear in this report.
+     */
+    public List<Comparison> compare(BenchmarkReport baseline, double threshold) {
+        Map<String, Summary> baselineSummaries = baseline.summarize();
+        List<Comparison> comparisons = new ArrayList<>();
+        for (Summary current : summarize().values()) {
+            Summary previous = baselineSummaries.get(current.instance);
+            if (previous == null) {
+                continue;
+            }
+
+            comparisons.add(new Comparison(current.instance, "ITERATIONS.PER.SEC",
+                    previous.iterationsPerSecond, current.iterationsPerSecond,
+                    current.iterationsPerSecond < previous.iterationsPerSecond * (1.0 - threshold)));
+
+            comparisons.add(new Comparison(current.instance, "MAKESPAN",
+                    previous.makespan, current.makespan,
+                    current.makespan > previous.makespan * (1.0 + threshold)));
+
+            for (int t = 0; t < targets.length; ++t) {
+                for (int b = 0; b < baseline.targets.length; ++b) {
+                    if (targets[t] == baseline.targets[b]) {
+                        comparisons.add(new Comparison(current.instance, "TTT." + formatTarget(targets[t]),
+                                previous.timeToTarget[b], current.timeToTarget[t],
+                                current.timeToTarget[t] > previous.timeToTarget[b] * (1.0 + threshold)));
+                    }
+                }
+            }
+        }
+        return comparisons;
+    }
+
+    /**
+     * Write the report to a CSV file.
+     * @param output Path to the CSV file.
+     * @throws IOException If the file could not be written.
+     */
+    public void write(Path output) throws IOException {
+
+        // Creates the directory hierarchy, if necessary
+        output = output.toAbsolutePath();
+        Files.createDirectories(output.getParent());
+
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(output))) {
+            writer.printf("INSTANCE,N,M,SEED,REFERENCE,MAKESPAN,GAP,ITERATIONS,TIME.NANO,ITERATIONS.PER.SEC");
+            for (double target : targets) {
+                writer.printf(",TTT.%s", formatTarget(target));
+            }
+            writer.printf("\n");
+
+            for (Entry entry : entries) {
+                writer.printf("%s,%d,%d,%d,%d,%d,%.6f,%d,%d,%.2f",
+                        entry.instance,
+                        entry.nJobs,
+                        entry.nMachines,
+                        entry.seed,
+                        entry.reference,
+                        entry.makespan,
+                        entry.getGap(),
+                        entry.iterations,
+                        entry.runtime,
+                        entry.getIterationsPerSecond());
+                for (long timeToTarget : entry.timesToTarget) {
+                    writer.printf(",%s", (timeToTarget >= 0L ? Long.toString(timeToTarget) : "NA"));
+                }
+                writer.printf("\n");
+            }
+        }
+    }
+
+    /**
+     * Read a report from a CSV file (written by {@link #write(Path)}).
+     * @param input Path to the CSV file.
+     * @return The report.
+     * @throws IOException If the file could not be read or if it is not a valid report.
+     */
+    public static BenchmarkReport read(Path input) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(input)) {
+
+            // Columns
+            String line = reader.readLine();
+            if (line == null) {
+                throw new IOException(String.format("The report %s is empty.", input));
+            }
+            String[] header = line.split(",");
+            Map<String, Integer> columns = new HashMap<>();
+            List<Integer> targetColumns = new ArrayList<>();
+            List<Double> targets = new ArrayList<>();
+            for (int i = 0; i < header.length; ++i) {
+                columns.put(header[i], i);
+                if (header[i].startsWith("TTT.")) {
+                    targetColumns.add(i);
+                    targets.add(Double.parseDouble(header[i].substring(4)));
+                }
+            }
+            for (String column : new String[] { "INSTANCE", "N", "M", "SEED", "REFERENCE", "MAKESPAN", "ITERATIONS", "TIME.NANO" }) {
+                if (!columns.containsKey(column)) {
+                    throw new IOException(String.format("The report %s has no column %s.", input, column));
+                }
+            }
+
+            // Entries
+            BenchmarkReport report = new BenchmarkReport(targets.stream().mapToDouble(Double::doubleValue).toArray());
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                ++lineNumber;
+                if (line.isEmpty()) {
+                    continue;
+                }
+
+                try {
+                    String[] values = line.split(",");
+                    long[] timesToTarget = new long[targetColumns.size()];
+                    for (int t = 0; t < timesToTarget.length; ++t) {
+                        String value = values[targetColumns.get(t)];
+                        timesToTarget[t] = (value.equals("NA") ? -1L : Long.parseLong(value));
+                    }
+                    report.add(new Entry(
+                            values[columns.get("INSTANCE")],
+                            Integer.parseInt(values[columns.get("N")]),
+                            Integer.parseInt(values[columns.get("M")]),
+                            Long.parseLong(values[columns.get("SEED")]),
+                            Long.parseLong(values[columns.get("REFERENCE")]),
+                            Long.parseLong(values[columns.get("MAKESPAN")]),
+                            Long.parseLong(values[columns.get("ITERATIONS")]),
+                            Long.parseLong(values[columns.get("TIME.NANO")]),
+                            timesToTarget));
+                } catch (RuntimeException e) {
+                    throw new IOException(String.format("Invalid entry at line %d of %s.", lineNumber, input), e);
+                }
+            }
+            return report;
+        }
+    }
+
+    /**
+     * Format a target as it is written in the name of its column.
+     * @param target The target.
+     * @return The target as a string (e.g., "0.05").
+     */
+    private static String formatTarget(double target) {
+        return BigDecimal.valueOf(target).stripTrailingZeros().toPlainString();
+    }
+
+}
@@ -0,0 +1,51 @@
+package upmsp.benchmark;
+
+import upmsp.algorithm.heuristic.Heuristic;
+import upmsp.algorithm.neighborhood.Move;
+import upmsp.model.solution.Solution;
+
+import java.util.Arrays;
+
+/**
+ * Callback that records the makespan of the incumbent solutions of a run and the time at which they were found, from
+ * which the time to reach a given makespan (target) is calculated.
+ *
+ * @author Andre L. Maravilha
+ */
+public class Trace implements Heuristic.Callback {
+
+    private long[] runtimes = new long[64];
+    private long[] makespans = new long[64];
+    private int size = 0;
+
+    @Override
+    public void onNewIncumbent(Solution incumbent, Class<? extends Move> move, long runtimeNano, long timeLimitNano, long iteration, long iterationLimit) {
+        if (size == runtimes.length) {
+            runtimes = Arrays.copyOf(runtimes, 2 * size);
+            makespans = Arrays.copyOf(makespans, 2 * size);
+        }
+        runtimes[size] = runtimeNano;
+        makespans[size] = incumbent.getCost();
+        ++size;
+    }
+
+    @Override
+    public void onIteration(Solution incumbent, long runtimeNano, long timeLimitNano, long iteration, long iterationLimit) {
+        // Do nothing.
+    }
+
+    /**
+     * Return the time at which the first solution with makespan less than or equal to a target was found.
+     * @param target The target makespan.
+     * @return The time (in nanoseconds since the beginning of the heuristic) or -1 if the target was not reached.
+     */
+    public long getTimeToTarget(long target) {
+        for (int i = 0; i < size; ++i) {
+            if (makespans[i] <= target) {
+                return runtimes[i];
+            }
+        }
+        return -1L;
+    }
+
+}
@@ -8,18 +8,27 @@ import upmsp.algorithm.heuristic.Heuristic;
 import upmsp.algorithm.heuristic.SA;
 import upmsp.algorithm.neighborhood.*;
 import upmsp.analysis.*;
+import upmsp.analysis.output.*;
+import upmsp.metrics.AnalysisMetrics;
+import upmsp.metrics.Metrics;
 import upmsp.model.Problem;
+import upmsp.model.solution.Reference;
+import upmsp.model.solution.SequenceType;
 import upmsp.model.solution.Solution;
 
+import javax.management.JMException;
+import javax.management.ObjectName;
 import java.io.*;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Random;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Command to perform neighborhood analysis.
@@ -30,6 +39,11 @@ import java.util.concurrent.TimeUnit;
         name = "analyze", mixinStandardHelpOptions = true)
 public class Analyze implements Callable<Void> {
 
+    /**
+     * Maximum number of records waiting to be written to the output file.
+     */
+    public static final int WRITER_CAPACITY = 4096;
+
     @Option(names = {"--verbose"}, description = "Show progress.")
     private boolean verbose = false;
 
@@ -39,16 +53,40 @@ public class Analyze implements Callable<Void> {
     @Option(names = {"--repetitions"}, description = "Number of times this analysis should be repeated.")
     private int repetitions = 1;
 
+    @Option(names = {"--max-pending"}, description = "Maximum number of incumbent solutions of a run waiting for analysis. When it is reached, the run helps with the analysis of the oldest one before going on (the clock of the run is paused meanwhile).")
+    private int maxPending = 16;
+
+    @Option(names = {"--sample"}, description = "Estimate the stats of each neighborhood from neighbors drawn uniformly at random instead of evaluating all of them.")
+    private boolean sample = false;
+
+    @Option(names = {"--sample-width"}, description = "Target half-width of the (95%%) confidence intervals when sampling. It is absolute for proportions and relative to the incumbent solution for means.")
+    private double sampleWidth = 0.01;
+
+    @Option(names = {"--sample-max"}, description = "Maximum number of neighbors drawn from a neighborhood when sampling. Neighborhoods up to this size are fully evaluated.")
+    private long sampleMax = 1000000L;
+
+    @Option(names = {"--resume"}, description = "Keep the results already in the output file and analyze only the remaining instances and repetitions (as recorded in the journal <output>.journal).")
+    private boolean resume = false;
+
+    @Option(names = {"--jmx"}, description = "Publish the progress of the analysis as the MBean upmsp:type=Analysis,name=analyze (e.g., to be read with JConsole).")
+    private boolean jmx = false;
+
+    @Option(names = {"--format"}, description = "Format of the output file: csv or binary (see command dump-csv).")
+    private String format = "csv";
+
+    @Option(names = {"--sequence"}, description = "Representation of the sequences of jobs of the machines of the solutions analyzed: array, or compact (a single array shared by the machines). The results are the same for both.")
+    private String sequence = "array";
+
     @Parameters(index = "0", description = "Path of the directory with input problem files.", arity = "1..1")
     private File input;
 
     @Parameters(index = "1", description = "Path of the (output) CSV file.", arity = "1..1")
     private File output;
 
-    private PrintWriter writer;
-    private long totalEntries;
-    private long completedEntries;
+    private final AnalysisMetrics metrics = new AnalysisMetrics();
     private MoveAnalysis[] moves;
+    private Sampler sampler;
+    private SequenceType sequenceType;
 
 
     @Override
@@ -56,50 +94,155 @@ public class Analyze implements Callable<Void> {
 
         // Array of input problems
         File[] instances = input.listFiles((directory, filename) -> filename.endsWith(".txt"));
+        Arrays.sort(instances, Comparator.comparing(File::getName));
 
         // List of neighborhoods to analyze
         moves = new MoveAnalysis[] {
                 new ShiftAnalysis() , new SimpleSwapAnalysis(), new SwapAnalysis(), new SwitchAnalysis(),
-                new TaskMoveAnalysis(), new TwoShiftAnalysis()
+                new TaskMoveAnalysis(), new TwoShiftAnalysis(), new OrOptAnalysis()
         };
 
-        // Number of entries to run
-        totalEntries = instances.length * moves.length * repetitions;
-        completedEntries = 0L;
+        // Check the format of the output
+        if (!format.equals("csv") && !format.equals("binary")) {
+            System.err.println("ERROR: Invalid format: " + format);
+            System.exit(-1);
+            return null;
+        }
 
-        // Log
-        if (verbose) {
-            System.out.printf("Progress: %d of %d (%.2f%%)",
-                    completedEntries,
-                    totalEntries,
-                    100.0 * (completedEntries / (double) totalEntries));
+        // Check the representation of the sequences (they are read by several threads at once, so the balanced tree,
+        // in which reading moves a finger, is not supported)
+        switch (sequence.toLowerCase()) {
+
+            case "array":
+                sequenceType = SequenceType.ARRAY;
+                break;
+
+            case "compact":
+                sequenceType = SequenceType.COMPACT;
+                break;
+
+            default:
+                System.err.println("ERROR: Invalid sequence: " + sequence);
+                System.exit(-1);
+                return null;
+        }
+
+        // Progress of the analysis, if published
+        ObjectName metricsName = null;
+        if (jmx) {
+            try {
+                metricsName = Metrics.register("Analysis", "analyze", metrics);
+            } catch (JMException e) {
+                System.err.printf("ERROR: Could not register the metrics: %s\n", e.getMessage());
+                System.exit(-1);
+                return null;
+            }
         }
 
-        // Open output file and write its header
+        // Sampling of neighbors
+        sampler = (sample ? new Sampler(sampleWidth, sampleMax) : null);
+
+        // Output file and journal of progress
         output = output.getAbsoluteFile();
         Files.createDirectories(output.toPath().getParent());
-        try (BufferedWriter bw = Files.newBufferedWriter(output.toPath())) {
+        Path journalPath = Paths.get(output.getPath() + ".journal");
+        StringBuilder options = new StringBuilder(String.format("format=%s sample=%b", format, sample));
+        if (sample) {
+            options.append(String.format(" sample-width=%s sample-max=%d", sampleWidth, sampleMax));
+        }
+        options.append(" moves=");
+        for (int i = 0; i < moves.length; ++i) {
+            options.append(i > 0 ? "," : "").append(moves[i].name());
+        }
 
-            writer = new PrintWriter(bw);
-            writer.printf("INSTANCE,N,M,SEED,TIME.LIMIT.NANO,TIME.NANO,ITERATION,INCUMBENT.MOVE,INCUMBENT.MS,INCUMBENT.SMT," +
-                    "MOVE,CARDINALITY,CATEGORY.MS,CATEGORY.SMT,COUNT,MS.BEST,MS.WORST,MS.MEAN,SMT.BEST,SMT.WORST,SMT.MEAN\n");
+        // An output without journal can't be resumed (and it must not be overwritten)
+        if (resume && Files.exists(output.toPath()) && !Files.exists(journalPath)) {
+            System.err.printf("ERROR: Could not resume the analysis: the journal %s does not exist.\n", journalPath);
+            System.exit(-1);
+            return null;
+        }
+        boolean resuming = (resume && Files.exists(journalPath) && Files.exists(output.toPath()));
 
-            // Run entries
-            Files.createDirectories(output.toPath().toAbsolutePath().getParent());
-            try (BufferedWriter writer = Files.newBufferedWriter(output.toPath().toAbsolutePath())) {
+        AnalysisJournal journal = null;
+        if (resuming) {
+            try {
+                journal = AnalysisJournal.resume(journalPath, options.toString(), Files.size(output.toPath()));
+            } catch (IOException e) {
+                System.err.printf("ERROR: Could not resume the analysis: %s\n", e.getMessage());
+                System.exit(-1);
+                return null;
+            }
+        }
 
-                ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+
+            // Discard the results written after the last entry recorded in the journal
+            if (resuming) {
+                try (FileChannel channel = FileChannel.open(output.toPath(), StandardOpenOption.WRITE)) {
+                    channel.truncate(journal.getOffset());
+                }
+            }
+
+            // Open output file (records are written by a dedicated thread)
+            try (AnalysisWriter writer = new AsyncAnalysisWriter(resuming ? appendWriter() : openWriter(), WRITER_CAPACITY)) {
+                if (!resuming) {
+                    writer.flush();
+                    journal = AnalysisJournal.create(journalPath, options.toString(), Files.size(output.toPath()));
+                }
+
+                // Run entries not completed yet (each one is split into smaller tasks when its incumbent solutions
+                // are analyzed)
+                List<Runner> runners = new ArrayList<>();
                 for (int repetition = 1; repetition <= repetitions; ++repetition) {
                     for (File instance : instances) {
-                        executor.submit(new Runner(instance, repetition));
+                        if (!journal.isCompleted(instance.getName(), repetition)) {
+                            runners.add(new Runner(instance, repetition));
+                        }
                     }
                 }
 
-                // Wait all threads to finish
-                executor.shutdown();
-                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+                // Number of entries to run
+                metrics.start(runners.size() * moves.length);
+
+                // Log
+                if (verbose) {
+                    System.out.printf("Progress: %d of %d (%.2f%%)",
+                            metrics.getCompletedEntries(),
+                            metrics.getTotalEntries(),
+                            metrics.getProgress());
+                }
+
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                for (Runner runner : runners) {
+                    pool.execute(runner);
+                }
+
+                // Write the results of the entries in the order they were submitted, so the output is
+                // deterministic, and record them in the journal as soon as they are in the output file
+                for (Runner runner : runners) {
+                    try {
+                        runner.join();
+                        runner.writeResults(writer);
+                        writer.flush();
+                        journal.record(runner.instance.getName(), runner.seed, Files.size(output.toPath()));
+                    } catch (RuntimeException e) {
+                        System.err.printf("\nERROR: Analysis of %s (repetition %d) failed: %s\n",
+                                runner.instance.getName(), runner.seed, e.getMessage());
+                    }
+                }
+
+                pool.shutdown();
             }
 
+        } catch (IOException e) {
+            System.err.printf("\nERROR: Could not write to %s: %s\n", output, e.getMessage());
+            System.exit(-1);
+            return null;
+        } finally {
+            if (journal != null) {
+                journal.close();
+            }
+            Metrics.unregister(metricsName);
         }
 
         // Log
@@ -110,37 +253,36 @@ public class Analyze implements Callable<Void> {
         return null;
     }
 
-    private synchronized void writeEntryResult(File instance, Problem problem, Incumbent incumbent, long seed, long timeLimitNano, MoveAnalysis.Result result) {
-        for (MoveAnalysis.Category category : MoveAnalysis.Category.values()) {
-            MoveAnalysis.Stats stats = result.stats.get(category);
-            writer.printf("%s,%d,%d,%d,%d,%d,%d,%s,%d,%d,%s,%d,%s,%s,%d,%d,%d,%.6f,%d,%d,%.6f\n",
-                    instance.getName().replaceAll(".txt", ""),
-                    problem.nJobs,
-                    problem.nMachines,
-                    seed,
-                    timeLimitNano,
-                    incumbent.time,
-                    incumbent.iteration,
-                    incumbent.move,
-                    result.refMakespan,
-                    result.refSumMachineTimes,
-                    result.move,
-                    result.cardinality,
-                    category.name().toLowerCase().split("_")[0],
-                    category.name().toLowerCase().split("_")[1],
-                    stats.count,
-                    (stats.count > 0 ? stats.makespan.best : 0),
-                    (stats.count > 0 ? stats.makespan.worst : 0),
-                    (stats.count > 0 ? stats.makespan.sum / (double) stats.count : 0.0),
-                    (stats.count > 0 ? stats.sumMachineTimes.best : 0),
-                    (stats.count > 0 ? stats.sumMachineTimes.worst : 0),
-                    (stats.count > 0 ? stats.sumMachineTimes.sum / (double) stats.count : 0.0));
+    private AnalysisWriter appendWriter() throws IOException {
+        if (format.equals("binary")) {
+
+            // Strings already in the file
+            List<String> dictionary;
+            try (BinaryAnalysisReader reader = new BinaryAnalysisReader(new BufferedInputStream(Files.newInputStream(output.toPath())))) {
+                while (reader.read() != null) {
+                    // Skip records
+                }
+                dictionary = new ArrayList<>(reader.getDictionary());
+            }
+
+            return new BinaryAnalysisWriter(new BufferedOutputStream(Files.newOutputStream(output.toPath(), StandardOpenOption.APPEND)), sample, dictionary);
+        } else {
+            return new CsvAnalysisWriter(Files.newBufferedWriter(output.toPath(), StandardOpenOption.APPEND), sample, false);
         }
     }
 
-    private synchronized void onEntryFinished() {
-        ++completedEntries;
+    private AnalysisWriter openWriter() throws IOException {
+        if (format.equals("binary")) {
+            return new BinaryAnalysisWriter(new BufferedOutputStream(Files.newOutputStream(output.toPath())), sample);
+        } else {
+            return new CsvAnalysisWriter(Files.newBufferedWriter(output.toPath()), sample);
+        }
+    }
+
+    private void onEntryFinished() {
+        long completedEntries = metrics.complete();
         if (verbose) {
+            long totalEntries = metrics.getTotalEntries();
             System.out.printf("\rProgress: %d of %d (%.2f%%)",
                     completedEntries,
                     totalEntries,
@@ -150,7 +292,8 @@ public class Analyze implements Callable<Void> {
 
 
     /**
-     * Class used by runner to keep data about incumbent solutions.
+     * Class used by runner to keep data about incumbent solutions. The solution (and the tasks analyzing it) is
+     * released as soon as the results of its analysis are merged.
      */
     private static class Incumbent {
 
@@ -159,6 +302,10 @@ public class Analyze implements Callable<Void> {
         public long iteration;
         public long time;
 
+        public Reference ref;
+        public List<RecursiveTask<MoveAnalysis.Result>> tasks;
+        public MoveAnalysis.Result[] results;
+
         public Incumbent(Solution solution, String move, long iteration, long time) {
             this.solution = solution;
             this.move = move;
@@ -170,14 +317,24 @@ public class Analyze implements Callable<Void> {
 
     /**
      * Inner class used to launch an entry in which an instance is solved and moves are evaluated each time the
-     * incumbent solution changes.
+     * incumbent solution changes. The analysis of each incumbent solution starts as soon as it is found, while the
+     * heuristic is still running: it is split into tasks (one per move and first machine modified) that are run by
+     * the idle threads of the pool. At most a given number of incumbent solutions is kept waiting for analysis.
      */
-    private class Runner implements Runnable, Heuristic.Callback {
+    private class Runner extends RecursiveAction implements Heuristic.Callback {
+
+        private static final long serialVersionUID = 1L;
 
         private File instance;
         private long seed;
         private long initialSolutionRuntime;
         private List<Incumbent> track;
+        private Deque<Incumbent> pending;
+        private Random sampleRandom;
+
+        private Problem problem;
+        private Heuristic heuristic;
+        private long timeLimit;
 
         /**
          * Constructor.
@@ -185,7 +342,9 @@ public class Analyze implements Callable<Void> {
         public Runner(File instance, long seed) {
             this.instance = instance;
             this.seed = seed;
-            this.track = new LinkedList<>();
+            this.track = new ArrayList<>();
+            this.pending = new ArrayDeque<>();
+            this.sampleRandom = new Random(~seed);  // Different from the stream of the heuristic
         }
 
         @Override
@@ -198,7 +357,7 @@ public class Analyze implements Callable<Void> {
                         .replace("task", "task-")
                         .replace("two", "two-");
 
-                track.add(new Incumbent(incumbent, moveName, iteration, runtimeNano + initialSolutionRuntime));
+                submit(new Incumbent(incumbent, moveName, iteration, runtimeNano + initialSolutionRuntime));
             }
         }
 
@@ -208,17 +367,17 @@ public class Analyze implements Callable<Void> {
         }
 
         @Override
-        public void run() {
+        protected void compute() {
             try {
 
                 // Instantiate a random number generator
                 Random random = new Random(seed);
 
                 // Load problem data from file
-                Problem problem = new Problem(instance.getAbsolutePath());
+                problem = new Problem(instance.getAbsolutePath());
 
                 // Instantiate the chosen heuristic
-                Heuristic heuristic = new SA(problem, random, 0.96, 1.0, 1176628);
+                heuristic = new SA(problem, random, 0.96, 1.0, 1176628);
 
                 // Add neighborhoods
                 heuristic.addMove(new Shift(problem, random));
@@ -229,33 +388,170 @@ public class Analyze implements Callable<Void> {
                 heuristic.addMove(new TwoShift(problem, random));
 
                 // Calculate time limit
-                long timeLimit = (long) ((problem.nJobs * (problem.nMachines / 2.0) * 30) * 1000000L);
+                timeLimit = (long) ((problem.nJobs * (problem.nMachines / 2.0) * 30) * 1000000L);
 
                 // Create initial solution
                 initialSolutionRuntime = System.nanoTime();
-                Solution solution = SimpleConstructive.randomSolution(problem, random);
+                Solution solution = SimpleConstructive.randomSolution(problem, random).clone(sequenceType);
                 initialSolutionRuntime = System.nanoTime() - initialSolutionRuntime;
 
-                track.add(new Incumbent(solution, "", 0L, 0L));
+                submit(new Incumbent(solution, "", 0L, 0L));
 
                 // Run heuristic
                 heuristic.run(solution, timeLimit - initialSolutionRuntime, Long.MAX_VALUE, this, null);
 
-                // Write data
-                for (MoveAnalysis move : Analyze.this.moves) {
+            } catch (Exception e) {
+                throw new RuntimeException(e.getMessage(), e);
+            }
+
+            // Wait for the analysis of the remaining incumbent solutions
+            while (!pending.isEmpty()) {
+                complete(pending.poll());
+            }
 
-                    for (Incumbent incumbent : track) {
-                        MoveAnalysis.Result result = move.analyze(problem, incumbent.solution);
-                        writeEntryResult(instance, problem, incumbent, seed, timeLimit, result);
+            // Update progress
+            for (MoveAnalysis move : Analyze.this.moves) {
+                Analyze.this.onEntryFinished();
+            }
+        }
+
+        /**
+         * Start the analysis of an incumbent solution.
+         * @param incumbent The incumbent solution.
+         */
+        private void submit(Incumbent incumbent) {
+
+            // Backpressure: the oldest incumbent solution must be analyzed before going on (the time it takes is not
+            // counted in the runtime of the heuristic, so it keeps its full time budget)
+            if (pending.size() >= maxPending) {
+                long startTimeNano = System.nanoTime();
+                while (pending.size() >= maxPending) {
+                    complete(pending.poll());
+                }
+                if (heuristic != null) {
+                    heuristic.pauseClock(System.nanoTime() - startTimeNano);
+                }
+            }
+
+            incumbent.ref = new Reference(incumbent.solution);
+            incumbent.tasks = new ArrayList<>();
+            for (MoveAnalysis move : Analyze.this.moves) {
+                if (sampler != null) {
+                    incumbent.tasks.add(new SampleTask(sampler, move, problem, incumbent.ref, sampleRandom.nextLong()));
+                } else {
+                    for (int m = 0; m < problem.nMachines; ++m) {
+                        incumbent.tasks.add(new AnalysisTask(move, problem, incumbent.ref, m));
                     }
+                }
+            }
+            for (RecursiveTask<MoveAnalysis.Result> task : incumbent.tasks) {
+                task.fork();
+            }
 
-                    // Update progress
-                    Analyze.this.onEntryFinished();
+            track.add(incumbent);
+            pending.add(incumbent);
+        }
+
+        /**
+         * Wait for (or help with) the analysis of an incumbent solution, merge its results and release the solution.
+         * @param incumbent The incumbent solution.
+         */
+        private void complete(Incumbent incumbent) {
+            Iterator<RecursiveTask<MoveAnalysis.Result>> iterator = incumbent.tasks.iterator();
+            incumbent.results = new MoveAnalysis.Result[Analyze.this.moves.length];
+            for (int i = 0; i < Analyze.this.moves.length; ++i) {
+                if (sampler != null) {
+                    incumbent.results[i] = iterator.next().join();
+                } else {
+                    incumbent.results[i] = new MoveAnalysis.Result(Analyze.this.moves[i].name(), incumbent.ref);
+                    for (int m = 0; m < problem.nMachines; ++m) {
+                        incumbent.results[i].merge(iterator.next().join());
+                    }
                 }
+            }
 
-            } catch (Exception e) {
-                throw new RuntimeException(e.getMessage(), e);
+            incumbent.solution = null;
+            incumbent.ref = null;
+            incumbent.tasks = null;
+        }
+
+        /**
+         * Write the results of this entry (in the order of the moves and then of the incumbent solutions).
+         * @param writer Writer to the output file.
+         * @throws IOException If an error occurs while writing.
+         */
+        public void writeResults(AnalysisWriter writer) throws IOException {
+            for (int i = 0; i < Analyze.this.moves.length; ++i) {
+                for (Incumbent incumbent : track) {
+                    writer.write(AnalysisRecord.of(instance.getName().replaceAll(".txt", ""), problem.nJobs,
+                            problem.nMachines, seed, timeLimit, incumbent.time, incumbent.iteration, incumbent.move,
+                            incumbent.results[i]));
+                }
             }
+
+            // Release the memory of the entry
+            track = null;
+        }
+    }
+
+
+    /**
+     * Task that analyzes the part of the neighborhood of a solution in which the first machine modified is a given
+     * one.
+     */
+    private static class AnalysisTask extends RecursiveTask<MoveAnalysis.Result> {
+
+        private static final long serialVersionUID = 1L;
+
+        private MoveAnalysis move;
+        private Problem problem;
+        private Reference ref;
+        private int machine;
+
+        /**
+         * Constructor.
+         */
+        public AnalysisTask(MoveAnalysis move, Problem problem, Reference ref, int machine) {
+            this.move = move;
+            this.problem = problem;
+            this.ref = ref;
+            this.machine = machine;
+        }
+
+        @Override
+        protected MoveAnalysis.Result compute() {
+            return move.analyze(problem, ref, machine);
+        }
+    }
+
+
+    /**
+     * Task that estimates the stats of the neighborhood of a solution from a sample of neighbors.
+     */
+    private static class SampleTask extends RecursiveTask<MoveAnalysis.Result> {
+
+        private static final long serialVersionUID = 1L;
+
+        private Sampler sampler;
+        private MoveAnalysis move;
+        private Problem problem;
+        private Reference ref;
+        private long seed;
+
+        /**
+         * Constructor.
+         */
+        public SampleTask(Sampler sampler, MoveAnalysis move, Problem problem, Reference ref, long seed) {
+            this.sampler = sampler;
+            this.move = move;
+            this.problem = problem;
+            this.ref = ref;
+            this.seed = seed;
+        }
+
+        @Override
+        protected MoveAnalysis.Result compute() {
+            return sampler.sample(move, problem, ref, new Random(seed));
         }
     }
 
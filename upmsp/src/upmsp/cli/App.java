@@ -10,7 +10,14 @@ import java.util.concurrent.Callable;
  */
 @Command(subcommands = {
         Optimize.class,
-        Analyze.class
+        Analyze.class,
+        Coordinate.class,
+        Work.class,
+        Serve.class,
+        Batch.class,
+        DumpCsv.class,
+        Benchmark.class,
+        Replay.class
 })
 public class App implements Callable<Void> {
 
@@ -0,0 +1,137 @@
+package upmsp.cli;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+import upmsp.batch.Job;
+import upmsp.batch.Manifest;
+import upmsp.batch.ResultWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command to run a batch of optimization runs in parallel.
+ *
+ * @author Andre L. Maravilha
+ */
+@Command(description = "Run a batch of optimization runs on a pool of threads.",
+        name = "batch", mixinStandardHelpOptions = true)
+public class Batch implements Callable<Void> {
+
+    @Option(names = {"--verbose"}, description = "Show progress.")
+    private boolean verbose = false;
+
+    @Option(names = {"--threads"}, description = "Number of threads used to run the batch.")
+    private int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+    @Option(names = {"--repetitions"}, description = "Number of seeds each instance of the directory is run with.")
+    private int repetitions = 1;
+
+    @Option(names = {"--parameters"}, description = "Path of a file with one set of parameters per line. Each instance of the directory is run with each set.")
+    private File parametersFile;
+
+    @Option(names = {"--resume"}, description = "Keep the results already in the output file and run only the remaining jobs.")
+    private boolean resume = false;
+
+    @Parameters(index = "0", description = "Path of the directory with input problem files or of a manifest file (one job per line).", arity = "1..1")
+    private File input;
+
+    @Parameters(index = "1", description = "Path of the (output) CSV file.", arity = "1..1")
+    private File output;
+
+    private int totalJobs;
+    private int finishedJobs;
+
+    @Override
+    public Void call() throws Exception {
+
+        // List of jobs
+        List<Job> jobs;
+        try {
+            if (input.isDirectory()) {
+                List<String> parameterSets = (parametersFile != null ?
+                        Manifest.readParameterSets(parametersFile.toPath()) : Collections.singletonList(""));
+                jobs = Manifest.expand(input, repetitions, parameterSets);
+            } else {
+                jobs = Manifest.read(input.toPath());
+            }
+        } catch (IOException e) {
+            System.err.printf("ERROR: %s\n", e.getMessage());
+            System.exit(-1);
+            return null;
+        }
+
+        try (ResultWriter writer = new ResultWriter(output.toPath(), resume)) {
+
+            // Longest jobs first (jobs whose instance could not be read are left to the end, to fail there)
+            Map<Job, Long> expectedRuntime = new HashMap<>();
+            List<Job> remaining = new ArrayList<>();
+            for (Job job : jobs) {
+                if (!writer.isCompleted(job.id)) {
+                    try {
+                        expectedRuntime.put(job, job.getExpectedRuntimeNano());
+                    } catch (IOException | RuntimeException e) {
+                        expectedRuntime.put(job, -1L);
+                    }
+                    remaining.add(job);
+                }
+            }
+            remaining.sort(Comparator.comparing((Job job) -> expectedRuntime.get(job)).reversed()
+                    .thenComparing(job -> job.id));
+
+            // Number of jobs to run
+            totalJobs = remaining.size();
+            finishedJobs = 0;
+            logProgress();
+
+            // Run jobs (the pool takes the jobs in the order they are submitted)
+            ExecutorService executor = Executors.newWorkStealingPool(threads);
+            for (Job job : remaining) {
+                executor.submit(() -> {
+                    try {
+                        writer.write(job, job.run());
+                    } catch (Exception e) {
+                        onJobFailed(job, e);
+                    }
+                    onJobFinished();
+                });
+            }
+
+            // Wait all threads to finish
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+
+        // Log
+        if (verbose) {
+            System.out.println();
+        }
+
+        return null;
+    }
+
+    private synchronized void onJobFailed(Job job, Exception e) {
+        System.err.printf("\nERROR: Job %d (%s) failed: %s\n", job.id, job.spec, e.getMessage());
+    }
+
+    private synchronized void onJobFinished() {
+        ++finishedJobs;
+        logProgress();
+    }
+
+    private synchronized void logProgress() {
+        if (verbose) {
+            System.out.printf("\rProgress: %d of %d (%.2f%%)",
+                    finishedJobs,
+                    totalJobs,
+                    (totalJobs > 0 ? 100.0 * (finishedJobs / (double) totalJobs) : 100.0));
+        }
+    }
+
+}
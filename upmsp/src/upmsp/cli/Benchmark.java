@@ -0,0 +1,220 @@
+package upmsp.cli;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+import upmsp.batch.Job;
+import upmsp.batch.Manifest;
+import upmsp.benchmark.BenchmarkReport;
+import upmsp.benchmark.Trace;
+import upmsp.model.Problem;
+import upmsp.util.SimpleTokenizer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.Callable;
+
+/**
+ * Command to benchmark the solver on a set of instances with fixed seeds.
+ *
+ * @author Andre L. Maravilha
+ */
+@Command(description = "Benchmark the solver on a set of instances with fixed seeds.",
+        name = "benchmark", mixinStandardHelpOptions = true)
+public class Benchmark implements Callable<Void> {
+
+    @Option(names = {"--verbose"}, description = "Show progress.")
+    private boolean verbose = false;
+
+    @Option(names = {"--repetitions"}, description = "Number of seeds (from 1 to this number) each instance is run with.")
+    private int repetitions = 1;
+
+    @Option(names = {"--warmup"}, description = "Number of runs (of the first instance and seed) before the benchmark, which are not reported, so the JIT compiler warms up.")
+    private int warmup = 1;
+
+    @Option(names = {"--parameters"}, description = "Options of the solver (the same of the optimize command, except the seed), e.g., \"--algorithm adaptive-sa --coefficients-file coefficients.csv\".")
+    private String parameters = "";
+
+    @Option(names = {"--targets"}, split = ",", description = "Gaps to the reference makespan whose time to target is reported (e.g., 0.05 stands for a makespan at most 5% larger than the reference).")
+    private double[] targets = { 0.10, 0.05, 0.02, 0.01 };
+
+    @Option(names = {"--reference"}, description = "Path of a file with the reference makespan of the instances (one instance per line: name of the instance and makespan).")
+    private File referenceFile;
+
+    @Option(names = {"--baseline"}, description = "Path of the report of a previous benchmark to compare with.")
+    private File baselineFile;
+
+    @Option(names = {"--threshold"}, description = "Maximum relative worsening (compared to the baseline) of the mean iterations per second, makespan and time to target of an instance.")
+    private double threshold = 0.05;
+
+    @Parameters(index = "0", description = "Path of the directory with input problem files.", arity = "1..1")
+    private File input;
+
+    @Parameters(index = "1", description = "Path of the (output) CSV file with the report.", arity = "1..1")
+    private File output;
+
+    @Override
+    public Void call() throws Exception {
+
+        // List of jobs (each instance with each seed)
+        List<Job> jobs;
+        BenchmarkReport baseline = null;
+        Map<String, Long> references = new HashMap<>();
+        try {
+            jobs = Manifest.expand(input, repetitions, Collections.singletonList(parameters));
+            if (baselineFile != null) {
+                baseline = BenchmarkReport.read(baselineFile.toPath());
+                references.putAll(baseline.getReferences());
+            }
+            if (referenceFile != null) {
+                references.putAll(readReferences(referenceFile));
+            }
+        } catch (IOException e) {
+            System.err.printf("ERROR: %s\n", e.getMessage());
+            System.exit(-1);
+            return null;
+        }
+
+        // Warm up
+        if (!jobs.isEmpty()) {
+            for (int i = 0; i < warmup; ++i) {
+                try {
+                    jobs.get(0).run();
+                } catch (Exception e) {
+                    // The failure is reported when the job is run
+                    break;
+                }
+            }
+        }
+
+        // Run jobs one at a time, so they do not compete for processors
+        List<Job> completed = new ArrayList<>();
+        List<Job.Result> results = new ArrayList<>();
+        List<Trace> traces = new ArrayList<>();
+        Map<String, Long> best = new HashMap<>();
+        Problem problem = null;
+        File problemFile = null;
+        for (Job job : jobs) {
+            if (verbose) {
+                System.out.printf("\rProgress: %d of %d (%.2f%%)", completed.size(), jobs.size(),
+                        100.0 * (completed.size() / (double) jobs.size()));
+            }
+
+            try {
+                if (!job.getInstance().equals(problemFile)) {
+                    problemFile = job.getInstance();
+                    problem = new Problem(problemFile.getAbsolutePath());
+                }
+
+                Trace trace = new Trace();
+                Job.Result result = job.run(problem, trace);
+                completed.add(job);
+                results.add(result);
+                traces.add(trace);
+                best.merge(job.getInstanceName(), result.makespan, Math::min);
+            } catch (Exception e) {
+                problemFile = null;
+                System.err.printf("\nERROR: Job %d (%s) failed: %s\n", job.id, job.spec, e.getMessage());
+            }
+        }
+
+        if (verbose) {
+            System.out.printf("\rProgress: %d of %d (%.2f%%)\n\n", jobs.size(), jobs.size(), 100.0);
+        }
+
+        // Report (instances without reference makespan are compared to the best makespan found)
+        BenchmarkReport report = new BenchmarkReport(targets);
+        for (int i = 0; i < completed.size(); ++i) {
+            Job job = completed.get(i);
+            Job.Result result = results.get(i);
+            long reference = references.getOrDefault(job.getInstanceName(), best.get(job.getInstanceName()));
+
+            long[] timesToTarget = new long[targets.length];
+            for (int t = 0; t < targets.length; ++t) {
+                timesToTarget[t] = traces.get(i).getTimeToTarget((long) Math.floor(reference * (1.0 + targets[t])));
+            }
+
+            report.add(new BenchmarkReport.Entry(job.getInstanceName(), result.nJobs, result.nMachines,
+                    job.getSolver().getSeed(), reference, result.makespan, result.iterations, result.runtime,
+                    timesToTarget));
+        }
+
+        try {
+            report.write(output.toPath());
+        } catch (IOException e) {
+            System.err.printf("ERROR: Could not write to %s: %s\n", output, e.getMessage());
+            System.exit(-1);
+            return null;
+        }
+
+        // Summary of each instance
+        System.out.printf("%-24s %6s %16s %14s %10s", "INSTANCE", "RUNS", "ITERATIONS/SEC", "MAKESPAN", "GAP");
+        for (double target : targets) {
+            System.out.printf(" %18s", String.format("TTT(%.2f%%) (s)", 100.0 * target));
+        }
+        System.out.printf("\n");
+
+        for (BenchmarkReport.Summary summary : report.summarize().values()) {
+            System.out.printf("%-24s %6d %16.0f %14.1f %9.2f%%", summary.instance, summary.runs,
+                    summary.iterationsPerSecond, summary.makespan, 100.0 * summary.gap);
+            for (int t = 0; t < targets.length; ++t) {
+                System.out.printf(" %18s", String.format("%.3f (%.0f%%)", summary.timeToTarget[t] / 1e9,
+                        100.0 * summary.reached[t]));
+            }
+            System.out.printf("\n");
+        }
+
+        // Comparison with the baseline
+        if (baseline != null) {
+            List<BenchmarkReport.Comparison> comparisons = report.compare(baseline, threshold);
+            int regressions = 0;
+
+            System.out.printf("\n%-24s %-20s %16s %16s %10s\n", "INSTANCE", "METRIC", "BASELINE", "CURRENT", "CHANGE");
+            for (BenchmarkReport.Comparison comparison : comparisons) {
+                System.out.printf("%-24s %-20s %16.2f %16.2f %9.2f%%%s\n", comparison.instance, comparison.metric,
+                        comparison.baseline, comparison.current, 100.0 * comparison.getChange(),
+                        (comparison.regression ? "  REGRESSION" : ""));
+                regressions += (comparison.regression ? 1 : 0);
+            }
+
+            if (regressions > 0) {
+                System.out.printf("\n%d of %d metrics regressed more than %.2f%% compared to the baseline.\n",
+                        regressions, comparisons.size(), 100.0 * threshold);
+                System.exit(1);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Read the reference makespan of the instances from a file with one instance per line (name of the instance, with
+     * or without the ".txt" extension, and makespan). Empty lines and lines starting with '#' are ignored.
+     * @param file The file.
+     * @return The reference makespan of each instance.
+     * @throws IOException If the file could not be read or if it has an invalid line.
+     */
+    private static Map<String, Long> readReferences(File file) throws IOException {
+        Map<String, Long> references = new HashMap<>();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(file.toPath())) {
+            ++lineNumber;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            try {
+                SimpleTokenizer token = new SimpleTokenizer(line);
+                String instance = token.nextToken().replace(".txt", "");
+                references.put(instance, Long.parseLong(token.nextToken()));
+            } catch (RuntimeException e) {
+                throw new IOException(String.format("Invalid reference at line %d of %s.", lineNumber, file));
+            }
+        }
+        return references;
+    }
+
+}
@@ -0,0 +1,89 @@
+package upmsp.cli;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+import upmsp.batch.Coordinator;
+import upmsp.batch.Job;
+import upmsp.batch.Manifest;
+import upmsp.batch.ResultWriter;
+import upmsp.batch.Worker;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Command to coordinate a batch of optimization runs executed by worker processes.
+ *
+ * @author Andre L. Maravilha
+ */
+@Command(description = "Hand out the jobs of a manifest to workers and collect their results.",
+        name = "coordinator", mixinStandardHelpOptions = true)
+public class Coordinate implements Callable<Void> {
+
+    @Option(names = {"--verbose"}, description = "Show progress.")
+    private boolean verbose = false;
+
+    @Option(names = {"--bind"}, description = "Address the coordinator is bound to. Use 0.0.0.0 to accept remote workers.", defaultValue = "127.0.0.1")
+    private String bind;
+
+    @Option(names = {"--port"}, description = "Port the coordinator listens to.", defaultValue = "7077")
+    private int port;
+
+    @Option(names = {"--local-workers"}, description = "Number of workers started within the coordinator process.", defaultValue = "0")
+    private int localWorkers;
+
+    @Option(names = {"--resume"}, description = "Keep the results already in the output file and run only the remaining jobs.")
+    private boolean resume = false;
+
+    @Parameters(index = "0", description = "Path of the manifest file (one job per line).", arity = "1..1")
+    private File manifest;
+
+    @Parameters(index = "1", description = "Path of the (output) CSV file.", arity = "1..1")
+    private File output;
+
+    @Override
+    public Void call() throws Exception {
+
+        // Read the manifest
+        List<Job> jobs;
+        try {
+            jobs = Manifest.read(manifest.toPath());
+        } catch (IOException e) {
+            System.err.printf("ERROR: %s\n", e.getMessage());
+            System.exit(-1);
+            return null;
+        }
+
+        InetAddress address = InetAddress.getByName(bind);
+        try (ResultWriter writer = new ResultWriter(output.toPath(), resume);
+             Coordinator coordinator = new Coordinator(jobs, writer, address, port)) {
+
+            // Start local workers, if any
+            String host = (address.isAnyLocalAddress() ? InetAddress.getLoopbackAddress() : address).getHostAddress();
+            for (int i = 0; i < localWorkers; ++i) {
+                Thread worker = new Thread(new Worker(host, coordinator.getPort()), "worker-" + i);
+                worker.setDaemon(true);
+                worker.start();
+            }
+
+            // Wait all jobs to finish
+            coordinator.run(verbose ? System.out : null);
+
+            // Log
+            if (verbose) {
+                System.out.println();
+            }
+
+            if (coordinator.getNFailedJobs() > 0) {
+                System.err.printf("ERROR: %d job(s) failed.\n", coordinator.getNFailedJobs());
+            }
+        }
+
+        return null;
+    }
+
+}
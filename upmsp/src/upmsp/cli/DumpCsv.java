@@ -0,0 +1,48 @@
+package upmsp.cli;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Parameters;
+import upmsp.analysis.output.AnalysisRecord;
+import upmsp.analysis.output.BinaryAnalysisReader;
+import upmsp.analysis.output.CsvAnalysisWriter;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.concurrent.Callable;
+
+/**
+ * Command to convert the output of the neighborhood analysis from binary format to CSV.
+ *
+ * @author Andre L. Maravilha
+ */
+@Command(description = "Convert the output of the neighborhood analysis from binary format to CSV.",
+        name = "dump-csv", mixinStandardHelpOptions = true)
+public class DumpCsv implements Callable<Void> {
+
+    @Parameters(index = "0", description = "Path of the (input) binary file.", arity = "1..1")
+    private File input;
+
+    @Parameters(index = "1", description = "Path of the (output) CSV file. If not set, the CSV is written to the standard output.", arity = "0..1")
+    private File output;
+
+    @Override
+    public Void call() throws Exception {
+        try (BinaryAnalysisReader reader = new BinaryAnalysisReader(new BufferedInputStream(Files.newInputStream(input.toPath())));
+             CsvAnalysisWriter writer = new CsvAnalysisWriter(output != null ?
+                     Files.newBufferedWriter(output.toPath()) :
+                     new BufferedWriter(new OutputStreamWriter(System.out)), reader.isSampled())) {
+
+            AnalysisRecord record;
+            while ((record = reader.read()) != null) {
+                writer.write(record);
+            }
+
+        } catch (IOException e) {
+            System.err.printf("ERROR: %s\n", e.getMessage());
+            System.exit(-1);
+        }
+
+        return null;
+    }
+
+}
@@ -1,18 +1,22 @@
 package upmsp.cli;
 
+import picocli.CommandLine.Mixin;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
 import picocli.CommandLine.Command;
 import upmsp.algorithm.constructive.SimpleConstructive;
-import upmsp.algorithm.heuristic.AdaptiveSA;
 import upmsp.algorithm.heuristic.Heuristic;
-import upmsp.algorithm.heuristic.SA;
+import upmsp.algorithm.heuristic.VND;
 import upmsp.algorithm.neighborhood.*;
-import upmsp.algorithm.utility.StandardUtilityModel;
+import upmsp.metrics.Metrics;
+import upmsp.metrics.SearchMetrics;
 import upmsp.model.Problem;
 import upmsp.model.solution.Solution;
+import upmsp.trace.TraceWriter;
 import upmsp.util.Util;
 
+import javax.management.JMException;
+import javax.management.ObjectName;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -36,42 +40,24 @@ public class Optimize implements Callable<Void> {
     @Option(names = {"--stats"}, description = "Show some statistics about the optimization process.")
     private boolean showStats = false;
 
-    @Option(names = {"--algorithm"}, description = "sa, adaptive-sa", defaultValue = "sa")
-    private String algorithm;
+    @Option(names = {"--timing"}, description = "Measure the time of the calls to doMove and reject of each move (shown with --stats).")
+    private boolean timing = false;
 
-    @Option(names = {"--seed"}, description = "Seed for pseudo-random number generator.", defaultValue = "0")
-    private long seed;
+    @Option(names = {"--jmx"}, description = "Publish the live state of the heuristic as the MBean upmsp:type=Search,name=optimize (e.g., to be read with JConsole).")
+    private boolean jmx = false;
 
-    @Option(names = {"--initial-temperature"}, description = "Initial temperature for the Simulated Annealing.", defaultValue = "1.0")
-    private double initialTemperature;
-
-    @Option(names = {"--cooling-rate"}, description = "Cooling rate", defaultValue = "0.96")
-    private double coolingRate;
-
-    @Option(names = {"--iterations-per-temperature"}, description = "Iterations before update temperature", defaultValue = "1176628")
-    private int iterationsPerTemperature;
-
-    @Option(names = {"--coefficients-file"}, description = "Path of the coefficients of the utility model.")
-    private File utilityCoefficientsFile;
-
-    @Option(names = {"--update-frequency"}, description = "Iterations before update utility values.", defaultValue = "1")
-    private long updateFrequency;
-
-    @Option(names = {"--max-probability"}, description = "Maximum probability of choosing a move.", defaultValue = "1.0")
-    private double maxProbability;
-
-    @Option(names = {"--time-limit"}, description = "Maximum runtime (in milliseconds). If negative, it is set according to the problem size.", defaultValue = "-1")
-    private long timeLimit;
-
-    @Option(names = {"--iterations-limit"}, description = "Maximum number of iterations the algorithm can perform.")
-    private long iterationsLimit = Long.MAX_VALUE;
-
-    @Option(names = {"--disable"}, description = "shift, direct-swap, swap, switch, task-move, two-shift")
-    private String[] disabledMoves = new String[0];
+    @Mixin
+    private SolverOptions solver = new SolverOptions();
 
     @Option(names = {"--track"}, description = "Path to the (optional) output file in which makespan of incumbent solutions are tracked.")
     private File trackFile;
 
+    @Option(names = {"--track-windows"}, description = "Path to the (optional) output file in which the windowed stats of the moves are tracked.")
+    private File trackWindowsFile;
+
+    @Option(names = {"--trace"}, description = "Path to the (optional) output file in which every iteration is recorded in a compact binary trace (see command replay).")
+    private File traceFile;
+
     @Parameters(index = "0", description = "Path of the problem input file.", arity = "1..1")
     private File input;
 
@@ -82,94 +68,89 @@ public class Optimize implements Callable<Void> {
     public Void call() throws Exception {
 
         // Instantiate a random number generator
-        Random random = new Random(seed);
+        Random random = new Random(solver.getSeed());
 
         // Load problem data from file
         Problem problem = new Problem(input.getAbsolutePath());
 
-        // Instantiate the chosen heuristic
+        // Instantiate the chosen heuristic (and its moves)
         Heuristic heuristic = null;
-        switch (algorithm.toLowerCase()) {
-
-            case "sa":
-                heuristic = new SA(problem, random, coolingRate, initialTemperature, iterationsPerTemperature);
-                break;
-
-            case "adaptive-sa":
-                try {
-                    heuristic = new AdaptiveSA(problem, random, coolingRate, initialTemperature, iterationsPerTemperature,
-                            new StandardUtilityModel(utilityCoefficientsFile.toPath().toAbsolutePath()), updateFrequency, maxProbability);
-                } catch (IOException e) {
-                    System.err.println("ERROR: Could not read file of coefficients of the utility model.");
-                    System.exit(-1);
-                    return null;
-                }
-                break;
+        try {
+            heuristic = solver.createHeuristic(problem, random);
+        } catch (IOException e) {
+            System.err.println("ERROR: Could not read file of coefficients of the utility model: " + e.getMessage());
+            System.exit(-1);
+            return null;
+        } catch (IllegalArgumentException e) {
+            System.err.println("ERROR: Invalid algorithm (or strategy of the local search, or move to enable).");
+            System.exit(-1);
+            return null;
+        }
 
-            default:
-                System.err.println("ERROR: Invalid algorithm.");
+        // Timing of the moves, if enabled
+        heuristic.setTiming(timing);
+
+        // Live state of the heuristic, if enabled
+        ObjectName metricsName = null;
+        if (jmx) {
+            SearchMetrics metrics = new SearchMetrics(heuristic.getMoves());
+            try {
+                metricsName = Metrics.register("Search", "optimize", metrics);
+                heuristic.setMetrics(metrics);
+            } catch (JMException e) {
+                System.err.printf("ERROR: Could not register the metrics: %s\n", e.getMessage());
                 System.exit(-1);
                 return null;
-        }
-
-        // Add moves (neighborhoods)
-        List<String> enabledMoves = new ArrayList<>(Arrays.asList("shift", "direct-swap", "swap", "switch", "task-move", "two-shift"));
-        enabledMoves.removeAll(Arrays.asList(disabledMoves));
-
-        for (String move : enabledMoves) {
-            switch (move) {
-
-                case "shift":
-                    heuristic.addMove(new Shift(problem, random));
-                    break;
-
-                case "direct-swap":
-                    heuristic.addMove(new SimpleSwap(problem, random));
-                    break;
-
-                case "swap":
-                    heuristic.addMove(new Swap(problem, random));
-                    break;
-
-                case "switch":
-                    heuristic.addMove(new Switch(problem, random));
-                    break;
-
-                case "task-move":
-                    heuristic.addMove(new TaskMove(problem, random));
-                    break;
-
-                case "two-shift":
-                    heuristic.addMove(new TwoShift(problem, random));
-                    break;
             }
         }
 
         // Time limit (in nanoseconds)
-        if (timeLimit < 0L) {
-            timeLimit = (long) ((problem.nJobs * (problem.nMachines / 2.0) * 30) * 1000000L);
-        } else {
-            timeLimit = timeLimit * 1000000L;
-        }
+        long timeLimit = solver.getTimeLimitNano(problem);
 
         // Callback, if enabled
         Callback callback = null;
-        if (trackFile != null) {
-            callback = new Callback(problem, input.toPath(), seed);
+        if (trackFile != null || trackWindowsFile != null) {
+            callback = new Callback(problem, input.toPath(), solver.getSeed(), heuristic.getMoves());
         }
 
         // Create initial solution
         long initialSolutionRuntime = System.nanoTime();
         Solution solution = SimpleConstructive.randomSolution(problem, random);
+        try {
+            solution = solver.prepareSolution(solution);
+        } catch (IllegalArgumentException e) {
+            System.err.println("ERROR: Invalid representation of the sequences.");
+            System.exit(-1);
+            return null;
+        }
         initialSolutionRuntime = System.nanoTime() - initialSolutionRuntime;
 
+        // Trace of the iterations, if enabled
+        TraceWriter trace = null;
+        if (traceFile != null && heuristic instanceof VND) {
+            System.err.println("ERROR: The trace is not supported by algorithm vnd.");
+            System.exit(-1);
+            return null;
+        }
+        if (traceFile != null) {
+            try {
+                trace = new TraceWriter(new BufferedOutputStream(new FileOutputStream(traceFile)), input.getName(),
+                        solver.getSeed(), solver.getAlgorithm(), heuristic.getMoves(), solution);
+                heuristic.setTrace(trace);
+            } catch (IOException e) {
+                System.err.printf("ERROR: Could not write to %s: %s\n", traceFile, e.getMessage());
+                System.exit(-1);
+                return null;
+            }
+        }
+
         // Log (if verbose)
         if (verbose) {
 
             System.out.printf("\n");
             System.out.printf("Instance......: %s\n", input.getName());
             System.out.printf("Algorithm.....: %s\n", heuristic);
-            System.out.printf("Other params..: seed=%d, iterations-limit=%s, time-limit=%.2fs\n\n", seed, Util.longToString(iterationsLimit), timeLimit / 1e9);
+            System.out.printf("Other params..: seed=%d, iterations-limit=%s, time-limit=%.2fs\n\n", solver.getSeed(), Util.longToString(solver.getIterationsLimit()), timeLimit / 1e9);
 
             System.out.printf("+-------------------------------------------------------------+\n");
             System.out.printf("|                    Optimization progress                    |\n");
@@ -184,15 +165,39 @@ public class Optimize implements Callable<Void> {
         long runtime = 0L;
         if (heuristic.getMoves().size() > 0) {
             runtime = System.nanoTime();
-            solution = heuristic.run(solution, timeLimit - initialSolutionRuntime, iterationsLimit,
+            solution = heuristic.run(solution, timeLimit - initialSolutionRuntime, solver.getIterationsLimit(),
                     callback, (verbose ? System.out : null));
+
+            // Polish the solution, if enabled
+            Solution polished = solver.polish(solution, heuristic.getMoves());
+            if (polished.getCost() < solution.getCost()) {
+                Util.safePrintStatus((verbose ? System.out : null), solution, polished, polished, heuristic.getNIters(),
+                        System.nanoTime() - runtime, "+");
+            }
+            solution = polished;
             runtime = System.nanoTime() - runtime;
         }
+        Metrics.unregister(metricsName);
+
+        // Close the trace, if enabled
+        if (trace != null) {
+            try {
+                trace.close();
+            } catch (IOException e) {
+                System.err.printf("ERROR: Could not write to %s: %s\n", traceFile, e.getMessage());
+                System.exit(-1);
+                return null;
+            }
+        }
 
         // Export callback data, if set
-        if (callback != null) {
+        if (trackFile != null) {
             callback.exportToCSV(trackFile.toPath());
         }
+        if (trackWindowsFile != null) {
+            callback.collectWindows(timeLimit);
+            callback.exportWindowsToCSV(trackWindowsFile.toPath());
+        }
 
         // Check feasibility
         ByteArrayOutputStream feasibilityInfo = new ByteArrayOutputStream();
@@ -216,6 +221,20 @@ public class Optimize implements Callable<Void> {
                 }
 
                 System.out.printf("+-----------------------+------------------------+----------+----------+----------+----------+----------+\n\n");
+
+                // Timing of the moves
+                if (timing) {
+                    long totalTimeNano = 0L;
+                    for (Move move : heuristic.getMoves()) {
+                        totalTimeNano += move.getStats().getDoMoveTime().getSum() + move.getStats().getRejectTime().getSum();
+                    }
+
+                    Util.safePrintMoveTimingsHeader(System.out);
+                    for (Move move : heuristic.getMoves()) {
+                        Util.safePrintMoveTimings(System.out, move, totalTimeNano);
+                    }
+                    Util.safePrintMoveTimingsFooter(System.out);
+                }
             }
 
             // Feasibility info
@@ -238,8 +257,15 @@ public class Optimize implements Callable<Void> {
             if (showStats) {
                 for (Move move : heuristic.getMoves()) {
                     Move.Stats stats = move.getStats();
-                    System.out.printf("%s %d %d %d %d %d %d\n", move.name,  stats.getCalls(), stats.getImprovements(),
+                    System.out.printf("%s %d %d %d %d %d %d", move.name,  stats.getCalls(), stats.getImprovements(),
                             stats.getSideways(), stats.getWorsens(), stats.getAccepts(), stats.getRejects());
+                    if (timing) {
+                        System.out.printf(" %d %d %d %d %d %d", stats.getDoMoveTime().getSum(),
+                                stats.getDoMoveTime().getPercentile(50.0), stats.getDoMoveTime().getPercentile(99.0),
+                                stats.getDoMoveTime().getMax(), stats.getRejectTime().getSum(),
+                                stats.getRejectTime().getPercentile(99.0));
+                    }
+                    System.out.printf("\n");
                 }
             }
         }
@@ -274,18 +300,49 @@ public class Optimize implements Callable<Void> {
             }
         }
 
+        /**
+         * Keep the stats of a move in a window.
+         */
+        private static class WindowEntry {
+
+            public long window, iteration, timeNano, calls, accepts, improvements, sideways, worsens;
+            public double timePerc, temperature;
+            public String move;
+
+            public WindowEntry(long window, WindowedStats stats, int age, double timePerc, String move) {
+                this.window = window;
+                this.iteration = stats.getIteration(age);
+                this.timeNano = stats.getRuntime(age);
+                this.timePerc = timePerc;
+                this.temperature = stats.getTemperature(age);
+                this.move = move;
+                this.calls = stats.getCalls(age);
+                this.accepts = stats.getAccepts(age);
+                this.improvements = stats.getImprovements(age);
+                this.sideways = stats.getSideways(age);
+                this.worsens = stats.getWorsens(age);
+            }
+        }
+
         private String instance;
         private long n, m, seed;
         private List<Entry> entries;
+        private List<Move> moves;
+        private long nWindows;
+        private List<WindowEntry> windowEntries;
 
         /**
          * Constructor.
          * @param problem Reference to the problem.
          * @param instance Path to the instance file.
          * @param seed Seed used by the heuristic.
+         * @param moves Moves of the heuristic (whose windowed stats are tracked).
          */
-        public Callback(Problem problem, Path instance, long seed) {
+        public Callback(Problem problem, Path instance, long seed, List<Move> moves) {
             this.entries = new LinkedList<>();
+            this.moves = moves;
+            this.nWindows = 0L;
+            this.windowEntries = new ArrayList<>();
             this.instance = instance.getFileName().toString().replace(".txt", "");
             this.seed = seed;
             this.n = problem.nJobs;
@@ -299,7 +356,32 @@ public class Optimize implements Callable<Void> {
 
         @Override
         public void onIteration(Solution incumbent, long runtimeNano, long timeLimitNano, long iteration, long iterationLimit) {
-            // Do nothing.
+            if (!moves.isEmpty() && moves.get(0).getWindowedStats().getNClosed() > nWindows) {
+                collectWindows(timeLimitNano);
+            }
+        }
+
+        /**
+         * Keep the windows closed since the last call (windows already overwritten in the ring are lost).
+         * @param timeLimitNano Time limit (in nanoseconds).
+         */
+        public void collectWindows(long timeLimitNano) {
+            if (moves.isEmpty()) {
+                return;
+            }
+
+            long nClosed = moves.get(0).getWindowedStats().getNClosed();
+            for (long window = nWindows + 1; window <= nClosed; ++window) {
+                int age = (int) (nClosed - window);
+                for (Move move : moves) {
+                    WindowedStats stats = move.getWindowedStats();
+                    if (age < stats.getSize()) {
+                        windowEntries.add(new WindowEntry(window, stats, age,
+                                stats.getRuntime(age) / (double) timeLimitNano, move.name));
+                    }
+                }
+            }
+            nWindows = nClosed;
         }
 
         /**
@@ -329,6 +411,41 @@ public class Optimize implements Callable<Void> {
                 }
             }
         }
+
+        /**
+         * Export the windowed stats of the moves to CSV file (one row per window and move).
+         * @param output Path to file in which data should be written.
+         * @throws IOException
+         */
+        public void exportWindowsToCSV(Path output) throws IOException {
+
+            // Creates the directory hierarchy, if necessary
+            output = output.toAbsolutePath();
+            Files.createDirectories(output.getParent());
+
+            // Write data to file
+            try (BufferedWriter buffer = Files.newBufferedWriter(output); PrintWriter writer = new PrintWriter(buffer)) {
+                writer.printf("INSTANCE,N,M,SEED,WINDOW,ITERATION,TIME.NANO,TIME.PERC,TEMPERATURE,MOVE,CALLS,ACCEPTS,IMPROVEMENTS,SIDEWAYS,WORSENS\n");
+                for (WindowEntry entry : windowEntries) {
+                    writer.printf("%s,%d,%d,%d,%d,%d,%d,%.6f,%.6f,%s,%d,%d,%d,%d,%d\n",
+                            instance,
+                            n,
+                            m,
+                            seed,
+                            entry.window,
+                            entry.iteration,
+                            entry.timeNano,
+                            entry.timePerc,
+                            entry.temperature,
+                            entry.move,
+                            entry.calls,
+                            entry.accepts,
+                            entry.improvements,
+                            entry.sideways,
+                            entry.worsens);
+                }
+            }
+        }
     }
 
 }
@@ -0,0 +1,153 @@
+package upmsp.cli;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+import upmsp.algorithm.neighborhood.Move;
+import upmsp.model.Problem;
+import upmsp.model.solution.CompactSolution;
+import upmsp.model.solution.Solution;
+import upmsp.trace.TraceReader;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Command to replay the trace of a search (recorded by the command optimize), without drawing random numbers, in order
+ * to verify its result or to profile the moves.
+ *
+ * @author Andre L. Maravilha
+ */
+@Command(description = "Replay the trace of a search (recorded with option --trace of command optimize) to verify its result.",
+        name = "replay", mixinStandardHelpOptions = true)
+public class Replay implements Callable<Void> {
+
+    @Option(names = {"--verbose"}, description = "Show details about the trace and the replay.")
+    private boolean verbose = false;
+
+    @Option(names = {"--stats"}, description = "Show some statistics about the moves replayed.")
+    private boolean showStats = false;
+
+    @Parameters(index = "0", description = "Path of the problem input file.", arity = "1..1")
+    private File input;
+
+    @Parameters(index = "1", description = "Path of the trace file.", arity = "1..1")
+    private File traceFile;
+
+    @Parameters(index = "2", description = "Path of the (output) file of the best solution replayed.", arity = "0..1")
+    private File output;
+
+    @Override
+    public Void call() throws Exception {
+
+        // Load problem data from file
+        Problem problem = new Problem(input.getAbsolutePath());
+
+        try (TraceReader reader = new TraceReader(new BufferedInputStream(Files.newInputStream(traceFile.toPath())))) {
+
+            // Moves of the search (no random number is drawn while replaying)
+            List<String> moveNames = reader.getMoveNames();
+            Move[] moves = new Move[moveNames.size()];
+            for (int m = 0; m < moves.length; ++m) {
+                try {
+                    moves[m] = SolverOptions.createMove(moveNames.get(m), problem, null);
+                } catch (IllegalArgumentException e) {
+                    System.err.printf("ERROR: Invalid move in the trace: %s\n", moveNames.get(m));
+                    System.exit(-1);
+                    return null;
+                }
+            }
+
+            Solution solution = reader.getInitialSolution(problem);
+            CompactSolution bestSolution = new CompactSolution(solution);
+            int bestCost = solution.getCost();
+
+            // Log (if verbose)
+            if (verbose) {
+                System.out.printf("\n");
+                System.out.printf("Instance......: %s (traced: %s)\n", input.getName(), reader.getInstance());
+                System.out.printf("Algorithm.....: %s\n", reader.getAlgorithm());
+                System.out.printf("Seed..........: %d\n", reader.getSeed());
+                System.out.printf("Moves.........: %s\n\n", String.join(", ", moveNames));
+            }
+
+            // Replay the iterations
+            long iterations = 0L;
+            long runtime = System.nanoTime();
+            while (reader.next()) {
+                Move move = moves[reader.getMove()];
+                int delta = move.replayMove(solution, reader.getParameters(), reader.isIntensificationPolicy(),
+                        reader.isMakespanMachine());
+                ++iterations;
+
+                if (delta != reader.getDeltaCost()) {
+                    System.err.printf("ERROR: Iteration %d (%s) has delta cost %d in the replay and %d in the trace.\n",
+                            iterations, move.name, delta, reader.getDeltaCost());
+                    System.exit(-1);
+                    return null;
+                }
+
+                if (reader.isAccepted()) {
+                    move.accept();
+                    if (solution.getCost() < bestCost) {
+                        bestCost = solution.getCost();
+                        if (output != null) {
+                            bestSolution.copyFrom(solution);
+                        }
+                    }
+                } else {
+                    move.reject();
+                }
+            }
+            runtime = System.nanoTime() - runtime;
+
+            // Check the end of the search
+            boolean matches = (iterations == reader.getIterations() && solution.getCost() == reader.getCurrentCost()
+                    && bestCost == reader.getBestCost());
+
+            // Log (if verbose)
+            if (verbose) {
+                System.out.printf("%-20s %16s %16s\n", "", "TRACE", "REPLAY");
+                System.out.printf("%-20s %16d %16d\n", "Iterations", reader.getIterations(), iterations);
+                System.out.printf("%-20s %16d %16d\n", "Current makespan", reader.getCurrentCost(), solution.getCost());
+                System.out.printf("%-20s %16d %16d\n\n", "Best makespan", reader.getBestCost(), bestCost);
+                System.out.printf("Replay runtime (s)..: %.4fs\n", runtime / 1e9);
+                System.out.printf("Iterations per sec..: %.0f\n\n", iterations / (runtime / 1e9));
+            } else {
+                System.out.printf("%d %d %d\n", bestCost, iterations, runtime);
+            }
+
+            if (showStats) {
+                for (Move move : moves) {
+                    Move.Stats stats = move.getStats();
+                    System.out.printf("%s %d %d %d %d %d %d\n", move.name,  stats.getCalls(), stats.getImprovements(),
+                            stats.getSideways(), stats.getWorsens(), stats.getAccepts(), stats.getRejects());
+                }
+            }
+
+            if (!matches) {
+                System.err.printf("ERROR: The replay does not match the end of the search recorded in the trace.\n");
+                System.exit(-1);
+                return null;
+            }
+
+            // Save best solution replayed
+            if (output != null) {
+                bestSolution.write(Paths.get(output.getAbsolutePath()));
+            }
+
+        } catch (IOException e) {
+            System.err.printf("ERROR: Could not replay %s: %s\n", traceFile, e.getMessage());
+            System.exit(-1);
+        } catch (RuntimeException e) {
+            System.err.printf("ERROR: Invalid move in the trace %s: %s\n", traceFile, e);
+            System.exit(-1);
+        }
+
+        return null;
+    }
+
+}
@@ -0,0 +1,71 @@
+package upmsp.cli;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import upmsp.batch.Service;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+
+/**
+ * Command to keep a resident solver that answers requests (JSON lines) read from the standard input or from local
+ * TCP connections.
+ *
+ * @author Andre L. Maravilha
+ */
+@Command(description = "Keep a resident solver that answers requests written as JSON lines.",
+        name = "serve", mixinStandardHelpOptions = true)
+public class Serve implements Callable<Void> {
+
+    @Option(names = {"--threads"}, description = "Number of requests solved simultaneously.")
+    private int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+    @Option(names = {"--queue"}, description = "Maximum number of requests waiting for a thread.", defaultValue = "64")
+    private int queueCapacity;
+
+    @Option(names = {"--port"}, description = "If set, requests are read from TCP connections on this port instead of the standard input.", defaultValue = "-1")
+    private int port;
+
+    @Option(names = {"--bind"}, description = "Address the solver is bound to when requests are read from TCP connections.", defaultValue = "127.0.0.1")
+    private String bind;
+
+    @Override
+    public Void call() throws Exception {
+        try (Service service = new Service(threads, queueCapacity)) {
+
+            // Requests from the standard input
+            if (port < 0) {
+                BufferedReader input = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+                PrintWriter output = new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+                service.serve(input, output);
+                return null;
+            }
+
+            // Requests from TCP connections (one thread per connection)
+            try (ServerSocket server = new ServerSocket(port, 50, InetAddress.getByName(bind))) {
+                System.err.printf("Listening on %s:%d\n", bind, server.getLocalPort());
+                while (true) {
+                    Socket socket = server.accept();
+                    Thread connection = new Thread(() -> {
+                        try (Socket s = socket;
+                             BufferedReader input = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+                             PrintWriter output = new PrintWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8))) {
+                            service.serve(input, output);
+                        } catch (IOException e) {
+                            // Client is gone
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }, "serve-connection");
+                    connection.setDaemon(true);
+                    connection.start();
+                }
+            }
+        }
+    }
+
+}
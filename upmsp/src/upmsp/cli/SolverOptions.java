@@ -0,0 +1,335 @@
+package upmsp.cli;
+
+import picocli.CommandLine.Option;
+import upmsp.algorithm.heuristic.AdaptiveSA;
+import upmsp.algorithm.heuristic.FusedSA;
+import upmsp.algorithm.heuristic.Heuristic;
+import upmsp.algorithm.heuristic.SA;
+import upmsp.algorithm.heuristic.VND;
+import upmsp.algorithm.localsearch.LocalSearch;
+import upmsp.algorithm.localsearch.ParallelEvaluator;
+import upmsp.algorithm.neighborhood.*;
+import upmsp.algorithm.utility.StandardUtilityModel;
+import upmsp.model.Problem;
+import upmsp.model.solution.SequenceType;
+import upmsp.model.solution.Solution;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Options shared by the commands that run a heuristic on an instance of the problem.
+ *
+ * @author Andre L. Maravilha
+ */
+public class SolverOptions {
+
+    /**
+     * Moves that are not used unless enabled (see option --enable).
+     */
+    public static final List<String> OPTIONAL_MOVES = Collections.singletonList("or-opt");
+
+    @Option(names = {"--algorithm"}, description = "sa, adaptive-sa, vnd", defaultValue = "sa")
+    private String algorithm;
+
+    @Option(names = {"--fused"}, description = "Run the Simulated Annealing (algorithm sa) with a specialized engine for the built-in moves, which gives the same results with more iterations per second.")
+    private boolean fused = false;
+
+    @Option(names = {"--improvement"}, description = "Strategy of a step of the local search (algorithm vnd, and option --polish): best, or first (improvement).", defaultValue = "best")
+    private String improvement;
+
+    @Option(names = {"--polish"}, description = "Polish the solution of the heuristic with a local search (a VND over the neighborhoods of the moves).")
+    private boolean polish = false;
+
+    @Option(names = {"--local-search-threads"}, description = "Number of threads that scan the neighborhoods in the best-improvement steps of the local search (algorithm vnd, and option --polish). It gives the same results of a single thread.", defaultValue = "1")
+    private int localSearchThreads;
+
+    @Option(names = {"--seed"}, description = "Seed for pseudo-random number generator.", defaultValue = "0")
+    private long seed;
+
+    @Option(names = {"--initial-temperature"}, description = "Initial temperature for the Simulated Annealing.", defaultValue = "1.0")
+    private double initialTemperature;
+
+    @Option(names = {"--cooling-rate"}, description = "Cooling rate", defaultValue = "0.96")
+    private double coolingRate;
+
+    @Option(names = {"--iterations-per-temperature"}, description = "Iterations before update temperature", defaultValue = "1176628")
+    private int iterationsPerTemperature;
+
+    @Option(names = {"--coefficients-file"}, description = "Path of the coefficients of the utility model.")
+    private File utilityCoefficientsFile;
+
+    @Option(names = {"--update-frequency"}, description = "Iterations before update utility values.", defaultValue = "1")
+    private long updateFrequency;
+
+    @Option(names = {"--max-probability"}, description = "Maximum probability of choosing a move.", defaultValue = "1.0")
+    private double maxProbability;
+
+    @Option(names = {"--time-limit"}, description = "Maximum runtime (in milliseconds). If negative, it is set according to the problem size.", defaultValue = "-1")
+    private long timeLimit;
+
+    @Option(names = {"--iterations-limit"}, description = "Maximum number of iterations the algorithm can perform.")
+    private long iterationsLimit = Long.MAX_VALUE;
+
+    @Option(names = {"--window-size"}, description = "Iterations of a window of the windowed stats of the moves. If not positive, a window is closed at each temperature step.", defaultValue = "100000")
+    private long windowSize;
+
+    @Option(names = {"--sequence"}, description = "Representation of the sequences of jobs of the machines: array, tree (balanced tree, for machines with very long sequences), or compact (a single array shared by the machines).", defaultValue = "array")
+    private String sequence;
+
+    @Option(names = {"--disable"}, description = "shift, direct-swap, swap, switch, task-move, two-shift, or-opt")
+    private String[] disabledMoves = new String[0];
+
+    @Option(names = {"--enable"}, description = "Enable a move that is not used by default: or-opt")
+    private String[] enabledOptionalMoves = new String[0];
+
+    /**
+     * Instantiates the chosen heuristic and adds to it the default moves that were not disabled and the optional moves
+     * that were enabled.
+     * @param problem Instance of the problem.
+     * @param random Random number generator used by the heuristic and its moves.
+     * @return The heuristic.
+     * @throws IOException If the file of coefficients of the utility model could not be read (or it has no
+     * coefficients for an enabled move).
+     * @throws IllegalArgumentException If the algorithm (or the strategy of the local search, or a move) is not valid.
+     */
+    public Heuristic createHeuristic(Problem problem, Random random) throws IOException {
+
+        // Strategy of the local search (checked here, since with --polish it is only used at the end of the search)
+        LocalSearch.Improvement strategy = getImprovement();
+
+        // Instantiate the chosen heuristic
+        Heuristic heuristic;
+        StandardUtilityModel utilityModel = null;
+        switch (algorithm.toLowerCase()) {
+
+            case "sa":
+                heuristic = (fused ?
+                        new FusedSA(problem, random, coolingRate, initialTemperature, iterationsPerTemperature) :
+                        new SA(problem, random, coolingRate, initialTemperature, iterationsPerTemperature));
+                break;
+
+            case "adaptive-sa":
+                if (utilityCoefficientsFile == null) {
+                    throw new IOException("File of coefficients of the utility model was not set.");
+                }
+                utilityModel = new StandardUtilityModel(utilityCoefficientsFile.toPath().toAbsolutePath());
+                heuristic = new AdaptiveSA(problem, random, coolingRate, initialTemperature, iterationsPerTemperature,
+                        utilityModel, updateFrequency, maxProbability);
+                break;
+
+            case "vnd":
+                heuristic = new VND(problem, random, strategy);
+                ((VND) heuristic).setEvaluator(getEvaluator());
+                break;
+
+            default:
+                throw new IllegalArgumentException("Invalid algorithm: " + algorithm);
+        }
+
+        // Windows of the stats of the moves
+        heuristic.setWindowIterations(windowSize);
+
+        // Add moves (neighborhoods): the optional ones are not used by default, so that the runs of the original set of
+        // moves keep their results for a given seed
+        List<String> enabledMoves = new ArrayList<>(Arrays.asList("shift", "direct-swap", "swap", "switch", "task-move", "two-shift"));
+        for (String move : enabledOptionalMoves) {
+            if (!OPTIONAL_MOVES.contains(move)) {
+                throw new IllegalArgumentException("Invalid optional move: " + move);
+            }
+            if (!enabledMoves.contains(move)) {
+                enabledMoves.add(move);
+            }
+        }
+        enabledMoves.removeAll(Arrays.asList(disabledMoves));
+
+        for (String move : enabledMoves) {
+            Move instance = createMove(move, problem, random);
+            if (utilityModel != null && !utilityModel.hasCoefficients(instance.getClass())) {
+                throw new IOException("File of coefficients of the utility model has no coefficients for the move " + move + ".");
+            }
+            heuristic.addMove(instance);
+        }
+
+        return heuristic;
+    }
+
+    /**
+     * Instantiates a move (neighborhood) from its name.
+     * @param move Name of the move (shift, direct-swap, swap, switch, task-move, two-shift or or-opt).
+     * @param problem Instance of the problem.
+     * @param random Random number generator used by the move.
+     * @return The move.
+     * @throws IllegalArgumentException If the name of the move is not valid.
+     */
+    public static Move createMove(String move, Problem problem, Random random) {
+        switch (move) {
+
+            case "shift":
+                return new Shift(problem, random);
+
+            case "direct-swap":
+                return new SimpleSwap(problem, random);
+
+            case "swap":
+                return new Swap(problem, random);
+
+            case "switch":
+                return new Switch(problem, random);
+
+            case "task-move":
+                return new TaskMove(problem, random);
+
+            case "two-shift":
+                return new TwoShift(problem, random);
+
+            case "or-opt":
+                return new OrOpt(problem, random);
+
+            default:
+                throw new IllegalArgumentException("Invalid move: " + move);
+        }
+    }
+
+    /**
+     * Polish the solution of the heuristic with a local search over the neighborhoods of its moves (see
+     * {@link LocalSearch}), if enabled.
+     * @param solution The solution of the heuristic (it is not modified).
+     * @param moves The moves of the heuristic.
+     * @return The polished solution (or the solution itself, if polishing is not enabled).
+     * @throws IllegalArgumentException If the strategy of the local search is not valid.
+     */
+    public Solution polish(Solution solution, List<Move> moves) {
+        if (!polish) {
+            return solution;
+        }
+
+        Solution polished = solution.clone();
+        LocalSearch localSearch = new LocalSearch(LocalSearch.createNeighborhoods(moves), getImprovement());
+        localSearch.setEvaluator(getEvaluator());
+        localSearch.run(polished, Long.MAX_VALUE);
+        return polished;
+    }
+
+    /**
+     * Return the evaluator that scans the neighborhoods of the local search concurrently (the one shared by the
+     * process with the chosen number of threads, see {@link ParallelEvaluator#shared(int)}).
+     * @return The evaluator, or null if the neighborhoods are scanned by a single thread.
+     */
+    public ParallelEvaluator getEvaluator() {
+        return (localSearchThreads > 1 ? ParallelEvaluator.shared(localSearchThreads) : null);
+    }
+
+    /**
+     * Return the strategy of a step of the local search.
+     * @return The strategy of a step of the local search.
+     * @throws IllegalArgumentException If the strategy is not valid.
+     */
+    public LocalSearch.Improvement getImprovement() {
+        switch (improvement.toLowerCase()) {
+
+            case "best":
+                return LocalSearch.Improvement.BEST;
+
+            case "first":
+                return LocalSearch.Improvement.FIRST;
+
+            default:
+                throw new IllegalArgumentException("Invalid improvement: " + improvement);
+        }
+    }
+
+    /**
+     * Return the initial solution with the chosen representation of the sequences of jobs (a copy of it, if the
+     * representation is not the same).
+     * @param solution The initial solution.
+     * @return The initial solution with the chosen representation.
+     * @throws IllegalArgumentException If the representation is not valid.
+     */
+    public Solution prepareSolution(Solution solution) {
+        SequenceType type;
+        switch (sequence.toLowerCase()) {
+
+            case "array":
+                type = SequenceType.ARRAY;
+                break;
+
+            case "tree":
+                type = SequenceType.TREE;
+                break;
+
+            case "compact":
+                type = SequenceType.COMPACT;
+                break;
+
+            default:
+                throw new IllegalArgumentException("Invalid sequence: " + sequence);
+        }
+
+        return (solution.getSequenceType() == type ? solution : solution.clone(type));
+    }
+
+    /**
+     * Return the time limit (in nanoseconds). If no time limit was set, it is calculated according to the problem
+     * size.
+     * @param problem Instance of the problem.
+     * @return The time limit (in nanoseconds).
+     */
+    public long getTimeLimitNano(Problem problem) {
+        return getTimeLimitNano(problem.nJobs, problem.nMachines);
+    }
+
+    /**
+     * Return the time limit (in nanoseconds). If no time limit was set, it is calculated according to the problem
+     * size.
+     * @param nJobs Number of jobs.
+     * @param nMachines Number of machines.
+     * @return The time limit (in nanoseconds).
+     */
+    public long getTimeLimitNano(int nJobs, int nMachines) {
+        if (timeLimit < 0L) {
+            return defaultTimeLimitNano(nJobs, nMachines);
+        }
+        return timeLimit * 1000000L;
+    }
+
+    /**
+     * Return the default time limit (in nanoseconds) for a problem of the given size.
+     * @param nJobs Number of jobs.
+     * @param nMachines Number of machines.
+     * @return The time limit (in nanoseconds).
+     */
+    public static long defaultTimeLimitNano(int nJobs, int nMachines) {
+        return (long) ((nJobs * (nMachines / 2.0) * 30) * 1000000L);
+    }
+
+    /**
+     * Return the name of the algorithm.
+     * @return The name of the algorithm.
+     */
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Return the seed for the pseudo-random number generator.
+     * @return The seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Return the maximum number of iterations the algorithm can perform.
+     * @return The maximum number of iterations.
+     */
+    public long getIterationsLimit() {
+        return iterationsLimit;
+    }
+
+}
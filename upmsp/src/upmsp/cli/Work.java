@@ -0,0 +1,46 @@
+package upmsp.cli;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import upmsp.batch.Worker;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command to run the jobs handed out by a coordinator.
+ *
+ * @author Andre L. Maravilha
+ */
+@Command(description = "Run the jobs handed out by a coordinator.",
+        name = "worker", mixinStandardHelpOptions = true)
+public class Work implements Callable<Void> {
+
+    @Option(names = {"--host"}, description = "Host name of the coordinator.", defaultValue = "127.0.0.1")
+    private String host;
+
+    @Option(names = {"--port"}, description = "Port of the coordinator.", defaultValue = "7077")
+    private int port;
+
+    @Option(names = {"--threads"}, description = "Number of jobs run simultaneously.")
+    private int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+    @Override
+    public Void call() throws Exception {
+
+        // Each thread keeps its own connection to the coordinator
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; ++i) {
+            executor.submit(new Worker(host, port));
+        }
+
+        // Wait all threads to finish
+        executor.shutdown();
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+
+        return null;
+    }
+
+}
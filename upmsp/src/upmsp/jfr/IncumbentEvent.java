@@ -0,0 +1,36 @@
+package upmsp.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Event emitted when the heuristic finds a new incumbent solution.
+ *
+ * @author Andre L. Maravilha
+ */
+@Name("upmsp.Incumbent")
+@Label("New Incumbent")
+@Category({"UPMSP", "Search"})
+@Description("A new incumbent solution was found.")
+@StackTrace(false)
+class IncumbentEvent extends Event {
+
+    @Label("Heuristic")
+    String heuristic;
+
+    @Label("Move")
+    String move;
+
+    @Label("Iteration")
+    long iteration;
+
+    @Label("Runtime")
+    @Timespan(Timespan.NANOSECONDS)
+    long runtime;
+
+    @Label("Makespan")
+    long makespan;
+
+    @Label("Sum of Machine Times")
+    long sumMachineTimes;
+
+}
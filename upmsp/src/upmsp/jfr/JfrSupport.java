@@ -0,0 +1,86 @@
+package upmsp.jfr;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * Access to the Java Flight Recorder. This is the only class (besides the events) that refers to the JFR API, and it
+ * is only loaded if the API is available (see {@link SearchEvents}).
+ *
+ * @author Andre L. Maravilha
+ */
+class JfrSupport {
+
+    /**
+     * Keep {@link SearchEvents#recording} updated with the state of the recordings. The Flight Recorder is not
+     * initialized by this method.
+     */
+    static void register() {
+        FlightRecorder.addListener(new FlightRecorderListener() {
+
+            @Override
+            public void recorderInitialized(FlightRecorder recorder) {
+                update(recorder);
+            }
+
+            @Override
+            public void recordingStateChanged(Recording recording) {
+                update(FlightRecorder.getFlightRecorder());
+            }
+        });
+    }
+
+    private static void update(FlightRecorder recorder) {
+        boolean running = false;
+        for (Recording recording : recorder.getRecordings()) {
+            running |= (recording.getState() == RecordingState.RUNNING);
+        }
+        SearchEvents.recording = running;
+    }
+
+    static void incumbent(String heuristic, String move, long iteration, long runtimeNano, long makespan, long sumMachineTimes) {
+        IncumbentEvent event = new IncumbentEvent();
+        event.heuristic = heuristic;
+        event.move = move;
+        event.iteration = iteration;
+        event.runtime = runtimeNano;
+        event.makespan = makespan;
+        event.sumMachineTimes = sumMachineTimes;
+        event.commit();
+    }
+
+    static void temperature(String heuristic, long iteration, double temperature, boolean reheat) {
+        TemperatureEvent event = new TemperatureEvent();
+        event.heuristic = heuristic;
+        event.iteration = iteration;
+        event.temperature = temperature;
+        event.reheat = reheat;
+        event.commit();
+    }
+
+    static void probabilities(String heuristic, long iteration, double runtime, String probabilities) {
+        ProbabilitiesEvent event = new ProbabilitiesEvent();
+        event.heuristic = heuristic;
+        event.iteration = iteration;
+        event.runtime = runtime;
+        event.probabilities = probabilities;
+        event.commit();
+    }
+
+    static void throughput(String heuristic, long iteration, long iterations, long periodNano, double temperature,
+                           long incumbentMakespan, long currentMakespan) {
+        ThroughputEvent event = new ThroughputEvent();
+        event.heuristic = heuristic;
+        event.iteration = iteration;
+        event.iterations = iterations;
+        event.period = periodNano;
+        event.iterationsPerSecond = iterations / (periodNano / 1e9);
+        event.temperature = temperature;
+        event.incumbentMakespan = incumbentMakespan;
+        event.currentMakespan = currentMakespan;
+        event.commit();
+    }
+
+}
@@ -0,0 +1,32 @@
+package upmsp.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Event emitted (sampled) when the probabilities of selection of the moves are updated by the Adaptive Simulated
+ * Annealing.
+ *
+ * @author Andre L. Maravilha
+ */
+@Name("upmsp.Probabilities")
+@Label("Move Probabilities")
+@Category({"UPMSP", "Search"})
+@Description("The probabilities of selection of the moves were updated (sampled).")
+@StackTrace(false)
+class ProbabilitiesEvent extends Event {
+
+    @Label("Heuristic")
+    String heuristic;
+
+    @Label("Iteration")
+    long iteration;
+
+    @Label("Normalized Runtime")
+    @Description("Runtime divided by the time limit.")
+    double runtime;
+
+    @Label("Probabilities")
+    @Description("Probability of selection of each move (name=probability).")
+    String probabilities;
+
+}
@@ -0,0 +1,153 @@
+package upmsp.jfr;
+
+import upmsp.algorithm.neighborhood.Move;
+import upmsp.model.solution.Solution;
+
+import java.util.List;
+
+/**
+ * Emits Java Flight Recorder (JFR) events about the progress of a heuristic: new incumbent solutions, temperature
+ * changes and reheats, updates of the probabilities of selection of the moves and periodic throughput summaries.
+ * Each run of a heuristic has its own instance.
+ *
+ * Events are only emitted while a recording is running, so the cost is a single check of a flag otherwise. The JFR API
+ * is only available in Java 8 from update 262 (and in Java 11 or later); with older versions, no event is emitted.
+ * Frequent events are sampled: temperature changes (except reheats) and probability updates are emitted at most once
+ * every {@value #SAMPLING_PERIOD_NANO} nanoseconds and throughput summaries once every
+ * {@value #THROUGHPUT_PERIOD_NANO} nanoseconds (checked every {@value #THROUGHPUT_CHECK_ITERATIONS} iterations).
+ *
+ * @author Andre L. Maravilha
+ */
+public class SearchEvents {
+
+    /**
+     * Minimum time (in nanoseconds) between two events of temperature change (or of update of probabilities).
+     */
+    public static final long SAMPLING_PERIOD_NANO = 100000000L;
+
+    /**
+     * Time (in nanoseconds) between two throughput summaries.
+     */
+    public static final long THROUGHPUT_PERIOD_NANO = 1000000000L;
+
+    /**
+     * Number of iterations between two checks of the time of the next throughput summary (a power of 2).
+     */
+    public static final long THROUGHPUT_CHECK_ITERATIONS = 1024L;
+
+    /**
+     * Whether a recording is running (updated by {@link JfrSupport}).
+     */
+    static volatile boolean recording = false;
+
+    static {
+        try {
+            Class.forName("jdk.jfr.FlightRecorder");
+            JfrSupport.register();
+        } catch (ClassNotFoundException | LinkageError | SecurityException e) {
+            // The JFR API is not available (no event is emitted)
+        }
+    }
+
+    private final String heuristic;
+    private long lastTemperatureNano;
+    private long lastProbabilitiesNano;
+    private long lastThroughputNano;
+    private long lastThroughputIteration;
+
+    /**
+     * Constructor.
+     * @param heuristic name of the heuristic (written in the events).
+     */
+    public SearchEvents(String heuristic) {
+        this.heuristic = heuristic;
+        this.lastTemperatureNano = Long.MIN_VALUE;
+        this.lastProbabilitiesNano = Long.MIN_VALUE;
+        this.lastThroughputNano = Long.MIN_VALUE;
+        this.lastThroughputIteration = 0L;
+    }
+
+    /**
+     * Whether a recording is running (i.e., whether events are emitted).
+     * @return true if a recording is running, false otherwise.
+     */
+    public static boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * Emit the event of a new incumbent solution.
+     * @param incumbent the incumbent solution.
+     * @param move the move that returned the incumbent solution (or null).
+     * @param iteration the iteration.
+     * @param runtimeNano the runtime (in nanoseconds).
+     */
+    public void incumbent(Solution incumbent, Class<? extends Move> move, long iteration, long runtimeNano) {
+        if (recording) {
+            JfrSupport.incumbent(heuristic, (move != null ? move.getSimpleName() : null), iteration, runtimeNano,
+                    incumbent.getCost(), incumbent.getSumMachineTimes());
+        }
+    }
+
+    /**
+     * Emit the event of a temperature change (sampled, except reheats).
+     * @param iteration the iteration.
+     * @param temperature the new temperature.
+     * @param reheat whether the temperature was reset to the initial temperature.
+     */
+    public void temperature(long iteration, double temperature, boolean reheat) {
+        if (recording) {
+            long now = System.nanoTime();
+            if (reheat || lastTemperatureNano == Long.MIN_VALUE || now - lastTemperatureNano >= SAMPLING_PERIOD_NANO) {
+                lastTemperatureNano = now;
+                JfrSupport.temperature(heuristic, iteration, temperature, reheat);
+            }
+        }
+    }
+
+    /**
+     * Emit the event of an update of the probabilities of selection of the moves (sampled).
+     * @param iteration the iteration.
+     * @param runtime the runtime divided by the time limit.
+     * @param moves the moves.
+     * @param probabilities the probability of selection of each move.
+     */
+    public void probabilities(long iteration, double runtime, List<Move> moves, double[] probabilities) {
+        if (recording) {
+            long now = System.nanoTime();
+            if (lastProbabilitiesNano == Long.MIN_VALUE || now - lastProbabilitiesNano >= SAMPLING_PERIOD_NANO) {
+                lastProbabilitiesNano = now;
+
+                StringBuilder sb = new StringBuilder();
+                for (int i = 0; i < probabilities.length; ++i) {
+                    sb.append(i > 0 ? "," : "").append(moves.get(i).name).append('=')
+                            .append(String.format("%.4f", probabilities[i]));
+                }
+                JfrSupport.probabilities(heuristic, iteration, runtime, sb.toString());
+            }
+        }
+    }
+
+    /**
+     * Emit the throughput summary if its period has elapsed (called at the end of each iteration).
+     * @param iteration the number of iterations performed.
+     * @param temperature the current temperature.
+     * @param incumbent the incumbent solution.
+     * @param current the current solution.
+     */
+    public void iteration(long iteration, double temperature, Solution incumbent, Solution current) {
+        if (recording && (iteration & (THROUGHPUT_CHECK_ITERATIONS - 1)) == 0L) {
+            long now = System.nanoTime();
+            if (lastThroughputNano == Long.MIN_VALUE) {
+                lastThroughputNano = now;
+                lastThroughputIteration = iteration;
+            } else if (now - lastThroughputNano >= THROUGHPUT_PERIOD_NANO) {
+                JfrSupport.throughput(heuristic, iteration, iteration - lastThroughputIteration,
+                        now - lastThroughputNano, temperature, incumbent.getCost(), current.getCost());
+                lastThroughputNano = now;
+                lastThroughputIteration = iteration;
+            }
+        }
+    }
+
+}
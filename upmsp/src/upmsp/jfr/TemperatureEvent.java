@@ -0,0 +1,30 @@
+package upmsp.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Event emitted when the temperature of the Simulated Annealing is updated (or reheated).
+ *
+ * @author Andre L. Maravilha
+ */
+@Name("upmsp.Temperature")
+@Label("Temperature Change")
+@Category({"UPMSP", "Search"})
+@Description("The temperature of the Simulated Annealing was updated.")
+@StackTrace(false)
+class TemperatureEvent extends Event {
+
+    @Label("Heuristic")
+    String heuristic;
+
+    @Label("Iteration")
+    long iteration;
+
+    @Label("Temperature")
+    double temperature;
+
+    @Label("Reheat")
+    @Description("Whether the temperature was reset to the initial temperature.")
+    boolean reheat;
+
+}
@@ -0,0 +1,42 @@
+package upmsp.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Event emitted periodically by a running heuristic with the iterations performed since the previous one.
+ *
+ * @author Andre L. Maravilha
+ */
+@Name("upmsp.Throughput")
+@Label("Search Throughput")
+@Category({"UPMSP", "Search"})
+@Description("Iterations performed by the heuristic since the previous throughput event.")
+@StackTrace(false)
+class ThroughputEvent extends Event {
+
+    @Label("Heuristic")
+    String heuristic;
+
+    @Label("Iteration")
+    long iteration;
+
+    @Label("Iterations")
+    long iterations;
+
+    @Label("Period")
+    @Timespan(Timespan.NANOSECONDS)
+    long period;
+
+    @Label("Iterations per Second")
+    double iterationsPerSecond;
+
+    @Label("Temperature")
+    double temperature;
+
+    @Label("Incumbent Makespan")
+    long incumbentMakespan;
+
+    @Label("Current Makespan")
+    long currentMakespan;
+
+}
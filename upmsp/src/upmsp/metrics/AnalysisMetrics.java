@@ -0,0 +1,48 @@
+package upmsp.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of a neighborhood analysis. The counters are updated without locks by the threads of the analysis.
+ *
+ * @author Andre L. Maravilha
+ */
+public class AnalysisMetrics implements AnalysisMetricsMXBean {
+
+    private final AtomicLong completedEntries = new AtomicLong(0L);
+    private final AtomicLong totalEntries = new AtomicLong(0L);
+
+    /**
+     * Set the number of entries to run (and reset the number of entries completed).
+     * @param total the number of entries to run.
+     */
+    public void start(long total) {
+        completedEntries.set(0L);
+        totalEntries.set(total);
+    }
+
+    /**
+     * Count an entry as completed.
+     * @return the number of entries completed.
+     */
+    public long complete() {
+        return completedEntries.incrementAndGet();
+    }
+
+    @Override
+    public long getCompletedEntries() {
+        return completedEntries.get();
+    }
+
+    @Override
+    public long getTotalEntries() {
+        return totalEntries.get();
+    }
+
+    @Override
+    public double getProgress() {
+        long total = totalEntries.get();
+        return (total > 0L ? 100.0 * (completedEntries.get() / (double) total) : 100.0);
+    }
+
+}
@@ -0,0 +1,28 @@
+package upmsp.metrics;
+
+/**
+ * Management interface of the progress of a neighborhood analysis (see {@link AnalysisMetrics}).
+ *
+ * @author Andre L. Maravilha
+ */
+public interface AnalysisMetricsMXBean {
+
+    /**
+     * Number of entries (instance, repetition and move) completed.
+     * @return the number of entries completed.
+     */
+    long getCompletedEntries();
+
+    /**
+     * Number of entries to run.
+     * @return the number of entries to run.
+     */
+    long getTotalEntries();
+
+    /**
+     * Percentage of the entries completed.
+     * @return the percentage of the entries completed (from 0 to 100).
+     */
+    double getProgress();
+
+}
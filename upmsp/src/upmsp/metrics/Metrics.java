@@ -0,0 +1,54 @@
+package upmsp.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Registration of metrics in the platform MBean server, so they can be read through JMX (e.g., with JConsole or a
+ * JMX exporter) while the process runs.
+ *
+ * @author Andre L. Maravilha
+ */
+public class Metrics {
+
+    /**
+     * Domain of the names of the MBeans.
+     */
+    public static final String DOMAIN = "upmsp";
+
+    /**
+     * Register a metrics bean in the platform MBean server.
+     * @param type type of the metrics (e.g., "Search").
+     * @param name name of the metrics (e.g., the name of the command).
+     * @param bean the bean.
+     * @return the name of the bean.
+     * @throws JMException if the bean could not be registered.
+     */
+    public static ObjectName register(String type, String name, Object bean) throws JMException {
+        ObjectName objectName = new ObjectName(String.format("%s:type=%s,name=%s", DOMAIN, type, ObjectName.quote(name)));
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        if (server.isRegistered(objectName)) {
+            server.unregisterMBean(objectName);
+        }
+        server.registerMBean(bean, objectName);
+        return objectName;
+    }
+
+    /**
+     * Unregister a bean from the platform MBean server (if it is registered).
+     * @param objectName the name of the bean.
+     */
+    public static void unregister(ObjectName objectName) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (objectName != null && server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            // Already unregistered
+        }
+    }
+
+}
@@ -0,0 +1,190 @@
+package upmsp.metrics;
+
+import upmsp.algorithm.neighborhood.Move;
+import upmsp.model.solution.Solution;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Live state of a running heuristic. The search thread publishes its state every
+ * {@value #PUBLISH_ITERATIONS} iterations (see {@link #isPublishIteration(long)}) with ordered writes (lazySet), so
+ * it never blocks and does not pay for a memory fence, and the state can be read at any time by other threads (e.g.,
+ * through JMX). A reader may see values of two consecutive publications mixed.
+ *
+ * @author Andre L. Maravilha
+ */
+public class SearchMetrics implements SearchMetricsMXBean {
+
+    /**
+     * Number of iterations between two publications of the state (a power of 2).
+     */
+    public static final long PUBLISH_ITERATIONS = 1024L;
+
+    /**
+     * Minimum time (in nanoseconds) over which the iterations per second are measured.
+     */
+    public static final long RATE_PERIOD_NANO = 1000000000L;
+
+    private final String[] moveNames;
+
+    private final AtomicLong iteration = new AtomicLong(0L);
+    private final AtomicLong runtimeNano = new AtomicLong(0L);
+    private final AtomicLong iterationsPerSecond = new AtomicLong(Double.doubleToRawLongBits(0.0));
+    private final AtomicLong temperature = new AtomicLong(Double.doubleToRawLongBits(0.0));
+    private final AtomicLong incumbentMakespan = new AtomicLong(0L);
+    private final AtomicLong currentMakespan = new AtomicLong(0L);
+
+    private final AtomicLongArray calls;
+    private final AtomicLongArray accepts;
+    private final AtomicLongArray rejects;
+    private final AtomicLongArray improvements;
+    private final AtomicLongArray sideways;
+    private final AtomicLongArray worsens;
+
+    // Only accessed by the search thread
+    private long rateStartNano = Long.MIN_VALUE;
+    private long rateStartIteration = 0L;
+
+    /**
+     * Constructor.
+     * @param moves the moves of the heuristic.
+     */
+    public SearchMetrics(List<Move> moves) {
+        this.moveNames = new String[moves.size()];
+        for (int i = 0; i < moveNames.length; ++i) {
+            moveNames[i] = moves.get(i).name;
+        }
+
+        this.calls = new AtomicLongArray(moveNames.length);
+        this.accepts = new AtomicLongArray(moveNames.length);
+        this.rejects = new AtomicLongArray(moveNames.length);
+        this.improvements = new AtomicLongArray(moveNames.length);
+        this.sideways = new AtomicLongArray(moveNames.length);
+        this.worsens = new AtomicLongArray(moveNames.length);
+    }
+
+    /**
+     * Whether the state should be published at an iteration.
+     * @param iteration the iteration.
+     * @return true if the state should be published, false otherwise.
+     */
+    public static boolean isPublishIteration(long iteration) {
+        return (iteration & (PUBLISH_ITERATIONS - 1)) == 0L;
+    }
+
+    /**
+     * Publish the state of the heuristic. It must be called by the search thread only.
+     * @param iteration the current iteration.
+     * @param runtimeNano the runtime (in nanoseconds) since the beginning of the heuristic.
+     * @param temperature the current temperature.
+     * @param incumbent the incumbent (best) solution.
+     * @param current the current solution.
+     * @param moves the moves of the heuristic (in the same order as in the constructor).
+     */
+    public void publish(long iteration, long runtimeNano, double temperature, Solution incumbent, Solution current,
+                        List<Move> moves) {
+
+        // Iterations per second
+        if (rateStartNano == Long.MIN_VALUE || iteration < rateStartIteration) {
+            rateStartNano = runtimeNano;
+            rateStartIteration = iteration;
+        } else if (runtimeNano - rateStartNano >= RATE_PERIOD_NANO) {
+            double rate = (iteration - rateStartIteration) / ((runtimeNano - rateStartNano) / 1e9);
+            this.iterationsPerSecond.lazySet(Double.doubleToRawLongBits(rate));
+            rateStartNano = runtimeNano;
+            rateStartIteration = iteration;
+        }
+
+        this.iteration.lazySet(iteration);
+        this.runtimeNano.lazySet(runtimeNano);
+        this.temperature.lazySet(Double.doubleToRawLongBits(temperature));
+        this.incumbentMakespan.lazySet(incumbent.getCost());
+        this.currentMakespan.lazySet(current.getCost());
+
+        for (int i = 0; i < moveNames.length; ++i) {
+            Move.Stats stats = moves.get(i).getStats();
+            calls.lazySet(i, stats.getCalls());
+            accepts.lazySet(i, stats.getAccepts());
+            rejects.lazySet(i, stats.getRejects());
+            improvements.lazySet(i, stats.getImprovements());
+            sideways.lazySet(i, stats.getSideways());
+            worsens.lazySet(i, stats.getWorsens());
+        }
+    }
+
+    @Override
+    public long getIteration() {
+        return iteration.get();
+    }
+
+    @Override
+    public double getIterationsPerSecond() {
+        return Double.longBitsToDouble(iterationsPerSecond.get());
+    }
+
+    @Override
+    public double getRuntimeSeconds() {
+        return runtimeNano.get() / 1e9;
+    }
+
+    @Override
+    public double getTemperature() {
+        return Double.longBitsToDouble(temperature.get());
+    }
+
+    @Override
+    public long getIncumbentMakespan() {
+        return incumbentMakespan.get();
+    }
+
+    @Override
+    public long getCurrentMakespan() {
+        return currentMakespan.get();
+    }
+
+    @Override
+    public String[] getMoveNames() {
+        return moveNames.clone();
+    }
+
+    @Override
+    public long[] getMoveCalls() {
+        return toArray(calls);
+    }
+
+    @Override
+    public long[] getMoveAccepts() {
+        return toArray(accepts);
+    }
+
+    @Override
+    public long[] getMoveRejects() {
+        return toArray(rejects);
+    }
+
+    @Override
+    public long[] getMoveImprovements() {
+        return toArray(improvements);
+    }
+
+    @Override
+    public long[] getMoveSideways() {
+        return toArray(sideways);
+    }
+
+    @Override
+    public long[] getMoveWorsens() {
+        return toArray(worsens);
+    }
+
+    private static long[] toArray(AtomicLongArray values) {
+        long[] array = new long[values.length()];
+        for (int i = 0; i < array.length; ++i) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+
+}
@@ -0,0 +1,88 @@
+package upmsp.metrics;
+
+/**
+ * Management interface of the live state of a running heuristic (see {@link SearchMetrics}).
+ *
+ * @author Andre L. Maravilha
+ */
+public interface SearchMetricsMXBean {
+
+    /**
+     * Current iteration.
+     * @return the current iteration.
+     */
+    long getIteration();
+
+    /**
+     * Iterations per second (measured in the last second, approximately).
+     * @return the iterations per second.
+     */
+    double getIterationsPerSecond();
+
+    /**
+     * Runtime (in seconds) since the beginning of the heuristic.
+     * @return the runtime.
+     */
+    double getRuntimeSeconds();
+
+    /**
+     * Current temperature.
+     * @return the current temperature.
+     */
+    double getTemperature();
+
+    /**
+     * Makespan of the incumbent (best) solution.
+     * @return the makespan of the incumbent solution.
+     */
+    long getIncumbentMakespan();
+
+    /**
+     * Makespan of the current solution.
+     * @return the makespan of the current solution.
+     */
+    long getCurrentMakespan();
+
+    /**
+     * Names of the moves (in the same order of the counters of the moves).
+     * @return the names of the moves.
+     */
+    String[] getMoveNames();
+
+    /**
+     * Number of calls to each move.
+     * @return the number of calls to each move.
+     */
+    long[] getMoveCalls();
+
+    /**
+     * Number of accepts of each move.
+     * @return the number of accepts of each move.
+     */
+    long[] getMoveAccepts();
+
+    /**
+     * Number of rejects of each move.
+     * @return the number of rejects of each move.
+     */
+    long[] getMoveRejects();
+
+    /**
+     * Number of improvements of each move.
+     * @return the number of improvements of each move.
+     */
+    long[] getMoveImprovements();
+
+    /**
+     * Number of sideways of each move.
+     * @return the number of sideways of each move.
+     */
+    long[] getMoveSideways();
+
+    /**
+     * Number of worsens of each move.
+     * @return the number of worsens of each move.
+     */
+    long[] getMoveWorsens();
+
+}
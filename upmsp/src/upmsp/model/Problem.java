@@ -53,8 +53,16 @@ public class Problem {
      * @param instancePath the instance file path
      */
     public Problem(String instancePath) throws IOException {
-        BufferedReader reader = Files.newBufferedReader(Paths.get(instancePath));
+        this(Files.newBufferedReader(Paths.get(instancePath)));
+    }
 
+    /**
+     * Instantiates a new Problem from a reader with the instance data (in the
+     * same format of the instance files). The reader is closed at the end.
+     *
+     * @param reader the reader with the instance data
+     */
+    public Problem(BufferedReader reader) throws IOException {
         SimpleTokenizer token = new SimpleTokenizer(reader.readLine());
 
         // reading number of jobs (nJobs) and number of machines (nMachines)
@@ -0,0 +1,246 @@
+package upmsp.model.solution;
+
+/**
+ * This class represents a Machine whose sequence of jobs is kept in a region
+ * of an array shared by all machines of the solution (see
+ * {@link CompactSequences}), instead of an array of its own. A solution
+ * therefore takes memory proportional to the number of jobs (plus some free
+ * room per machine), however the jobs are spread over the machines, and a
+ * copy of the solution copies a single array. Getting a job takes constant
+ * time and inserting or removing a job shifts the following jobs of the
+ * machine, as in {@link Machine}. It is a subclass for the same reason as
+ * {@link TreeMachine}.
+ *
+ * @author Andre L. Maravilha
+ */
+public class CompactMachine extends Machine {
+
+    private final CompactSequences sequences;
+
+    /**
+     * Instantiates a new CompactMachine (of a Solution), whose jobs are kept
+     * in the shared sequences of the solution.
+     *
+     * @param solution the solution
+     * @param id       the id
+     */
+    public CompactMachine(Solution solution, int id) {
+        super(solution, id, null);
+        this.sequences = solution.sequences;
+    }
+
+    @Override
+    void updatePositions() {
+        int positions[] = solution.jobPosition;
+        for (int idx = nPositions; idx < nJobs; idx++) {
+            positions[sequences.get(id, idx)] = idx;
+        }
+        nPositions = nJobs;
+    }
+
+    @Override
+    public void addJob(int job, int index) {
+        assert index <= nJobs : "adding job to an invalid index in machine" + id;
+
+        makespan += getDeltaCostAddJob(job, index);
+        sequences.insert(id, index, job);
+
+        if (++nJobs == 1)
+            solution.nMachines++;
+
+        solution.jobMachine[job] = id;
+        invalidatePositions(index);
+        invalidatePrefix(index);
+
+        assert validate(System.err);
+    }
+
+    @Override
+    public Machine clone(Solution solution) {
+        CompactMachine machine = new CompactMachine(solution, id);
+        machine.nJobs = nJobs;
+        machine.makespan = makespan;
+        machine.nPositions = nPositions;
+
+        return machine;
+    }
+
+    @Override
+    void load(int sequence[], int offset, int length, int makespan) {
+        sequences.load(id, sequence, offset, length);
+        this.nJobs = length;
+        this.makespan = makespan;
+
+        for (int idx = 0; idx < length; idx++) {
+            solution.jobMachine[sequence[offset + idx]] = id;
+        }
+        nPositions = 0;
+        invalidatePositions(0);
+        nPrefix = 0;
+
+        assert validate(System.err);
+    }
+
+    @Override
+    public void delJob(int index) {
+        assert index < nJobs : "deleting job from an invalid index in machine" + id;
+
+        makespan += getDeltaCostDelJob(index);
+        int job = sequences.get(id, index);
+        if (solution.jobMachine[job] == id)
+            solution.jobMachine[job] = -1;
+        sequences.remove(id, index);
+
+        if (--nJobs == 0)
+            solution.nMachines--;
+
+        invalidatePositions(index);
+        invalidatePrefix(index);
+
+        assert validate(System.err);
+    }
+
+    @Override
+    public int getJob(int index) {
+        return sequences.get(id, index);
+    }
+
+    @Override
+    public void getJobs(int jobs[], int offset) {
+        sequences.copyTo(id, jobs, offset);
+    }
+
+    @Override
+    public SequenceType getSequenceType() {
+        return SequenceType.COMPACT;
+    }
+
+    @Override
+    public void setJob(int job, int index) {
+        assert index < nJobs : "setting job of an invalid index in machine" + id;
+
+        makespan += getDeltaCostSetJob(job, index);
+        sequences.set(id, index, job);
+
+        solution.jobMachine[job] = id;
+        if (index < nPositions)
+            solution.jobPosition[job] = index;
+        invalidatePrefix(index);
+
+        assert validate(System.err);
+    }
+
+    @Override
+    protected int computeMakespan() {
+        if (nJobs == 0)
+            return 0;
+
+        int prev = sequences.get(id, 0);
+        int makespanValue = initialSetup[prev] + process[prev];
+        for (int i = 1; i < nJobs; i++) {
+            int job = sequences.get(id, i);
+            makespanValue += setup[prev][job] + process[job];
+            prev = job;
+        }
+        return makespanValue;
+    }
+
+
+    // region delta cost calculation
+
+    @Override
+    public int getDeltaCostAddJob(int job, int index) {
+        assert index <= nJobs : "adding job to an invalid index in machine" + id;
+
+        if (nJobs == 0) {
+            return initialSetup[job] + process[job];
+        }
+        else if (index == 0) {
+            int next = sequences.get(id, index);
+            return -initialSetup[next]
+                    + initialSetup[job] + process[job] + setup[job][next];
+        }
+        else if (index == nJobs) {
+            return setup[sequences.get(id, index - 1)][job] + process[job];
+        }
+        else {
+            int prev = sequences.get(id, index - 1), next = sequences.get(id, index);
+            return -setup[prev][next]
+                    + setup[prev][job] + process[job] + setup[job][next];
+        }
+    }
+
+    @Override
+    public int getDeltaCostDelJob(int index) {
+        assert index < nJobs : "deleting job from an invalid index in machine" + id;
+
+        int cur = sequences.get(id, index);
+        if (nJobs == 1) {
+            return -makespan;
+        }
+        else if (index == 0) {
+            int next = sequences.get(id, index + 1);
+            return -(initialSetup[cur] + process[cur] + setup[cur][next])
+                    + initialSetup[next];
+        }
+        else if (index == nJobs - 1) {
+            return -(setup[sequences.get(id, index - 1)][cur] + process[cur]);
+        }
+        else {
+            int prev = sequences.get(id, index - 1), next = sequences.get(id, index + 1);
+            return -(setup[prev][cur] + process[cur] + setup[cur][next])
+                    + setup[prev][next];
+        }
+    }
+
+    @Override
+    public int getDeltaCostSetJob(int job, int index) {
+        assert index < nJobs : "setting job of an invalid index in machine" + id;
+
+        int cur = sequences.get(id, index);
+        if (nJobs == 1) {
+            return -(initialSetup[cur] + process[cur])
+                    + initialSetup[job] + process[job];
+        }
+        else if (index == 0) {
+            int next = sequences.get(id, index + 1);
+            return -(initialSetup[cur] + process[cur] + setup[cur][next])
+                    + (initialSetup[job] + process[job] + setup[job][next]);
+        }
+        else if (index == nJobs - 1) {
+            int prev = sequences.get(id, index - 1);
+            return -(setup[prev][cur] + process[cur])
+                    + (setup[prev][job] + process[job]);
+        }
+        else {
+            int prev = sequences.get(id, index - 1), next = sequences.get(id, index + 1);
+            return -(setup[prev][cur] + process[cur] + setup[cur][next])
+                    + (setup[prev][job] + process[job] + setup[job][next]);
+        }
+    }
+
+    @Override
+    public int getDeltaCostSwitchJobs(int index1, int index2) {
+        assert index1 < nJobs && index2 < nJobs : "switching jobs of an invalid index in machine" + id;
+
+        if (index1 == index2) {
+            return 0;
+        }
+        else if (index1 > index2) {
+            return getDeltaCostSwitchJobs(index2, index1);
+        }
+        else if (index2 > index1 + 1) {
+            return getDeltaCostSetJob(sequences.get(id, index2), index1) + getDeltaCostSetJob(sequences.get(id, index1), index2);
+        }
+        else {
+            int prev = (index1 > 0 ? sequences.get(id, index1 - 1) : -1);
+            int job1 = sequences.get(id, index1);
+            int job2 = sequences.get(id, index2);
+            int next = (index2 < nJobs - 1 ? sequences.get(id, index2 + 1) : -1);
+            return -(getSetupTime(prev, job1) + setup[job1][job2] + getSetupTime(job2, next))
+                    + (getSetupTime(prev, job2) + setup[job2][job1] + getSetupTime(job1, next));
+        }
+    }
+
+    // endregion
+}
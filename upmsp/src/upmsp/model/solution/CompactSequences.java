@@ -0,0 +1,209 @@
+package upmsp.model.solution;
+
+import upmsp.model.*;
+
+import java.util.*;
+
+/**
+ * This class keeps the sequences of jobs of all machines of a solution in a
+ * single array (see {@link CompactMachine}): the jobs of machine m are in
+ * positions offset[m] to offset[m] + length[m] - 1, and the region of the
+ * machine ends at offset[m + 1]. The regions are kept in the order of the
+ * machines, each one with some free room (the slack) to insert jobs without
+ * moving the others. When a machine runs out of room, the regions are
+ * repacked, giving the slack back to every machine. The array takes memory
+ * proportional to the number of jobs plus the number of machines times the
+ * slack, whatever the number of jobs of each machine.
+ *
+ * @author Andre L. Maravilha
+ */
+public class CompactSequences {
+
+    /**
+     * Minimum number of free positions of the region of each machine after
+     * a repack.
+     */
+    public static final int MIN_SLACK = 4;
+
+    private final int nJobs;
+    private final int slack;
+
+    private int jobs[];
+    private final int offset[];
+    private final int length[];
+
+    /**
+     * Instantiates a new (empty) CompactSequences for the machines of a
+     * problem, whose regions start with the same size.
+     *
+     * @param problem problem considered.
+     */
+    public CompactSequences(Problem problem) {
+        this.nJobs = problem.nJobs;
+        this.slack = Math.max(MIN_SLACK, problem.nJobs / (4 * problem.nMachines));
+
+        jobs = new int[nJobs + (problem.nMachines + 1) * slack];
+        offset = new int[problem.nMachines + 1];
+        length = new int[problem.nMachines];
+        for (int m = 0; m <= problem.nMachines; m++) {
+            offset[m] = (int) ((long) m * jobs.length / problem.nMachines);
+        }
+    }
+
+    /**
+     * Private constructor used for copying.
+     *
+     * @param sequences sequences to copy from.
+     */
+    private CompactSequences(CompactSequences sequences) {
+        this.nJobs = sequences.nJobs;
+        this.slack = sequences.slack;
+
+        jobs = sequences.jobs.clone();
+        offset = sequences.offset.clone();
+        length = sequences.length.clone();
+    }
+
+    /**
+     * Creates and returns a copy of the sequences.
+     *
+     * @return the copy.
+     */
+    public CompactSequences copy() {
+        return new CompactSequences(this);
+    }
+
+    /**
+     * Gets the job in position {@param index} of machine {@param machine}.
+     *
+     * @param machine the machine.
+     * @param index   index (position) of the job.
+     * @return the job
+     */
+    public int get(int machine, int index) {
+        return jobs[offset[machine] + index];
+    }
+
+    /**
+     * Sets the job in position {@param index} of machine {@param machine}.
+     *
+     * @param machine the machine.
+     * @param index   index (position) of the job.
+     * @param job     the job.
+     */
+    public void set(int machine, int index, int job) {
+        jobs[offset[machine] + index] = job;
+    }
+
+    /**
+     * Inserts a job in position {@param index} of machine {@param machine},
+     * shifting the following jobs of the machine.
+     *
+     * @param machine the machine.
+     * @param index   index (position) of the job.
+     * @param job     the job.
+     */
+    public void insert(int machine, int index, int job) {
+        if (offset[machine] + length[machine] == offset[machine + 1])
+            repack(machine, length[machine] + 1);
+
+        int start = offset[machine];
+        System.arraycopy(jobs, start + index, jobs, start + index + 1, length[machine] - index);
+        jobs[start + index] = job;
+        length[machine]++;
+    }
+
+    /**
+     * Removes the job in position {@param index} of machine {@param machine},
+     * shifting the following jobs of the machine.
+     *
+     * @param machine the machine.
+     * @param index   index (position) of the job.
+     */
+    public void remove(int machine, int index) {
+        int start = offset[machine];
+        System.arraycopy(jobs, start + index + 1, jobs, start + index, length[machine] - index - 1);
+        length[machine]--;
+    }
+
+    /**
+     * Replaces the jobs of machine {@param machine} by the {@param length}
+     * jobs starting at position {@param offset} of {@param sequence}.
+     *
+     * @param machine  the machine.
+     * @param sequence array with the jobs.
+     * @param offset   position of the first job in {@param sequence}.
+     * @param length   number of jobs.
+     */
+    public void load(int machine, int sequence[], int offset, int length) {
+        if (this.offset[machine] + length > this.offset[machine + 1])
+            repack(machine, length);
+
+        System.arraycopy(sequence, offset, jobs, this.offset[machine], length);
+        this.length[machine] = length;
+    }
+
+    /**
+     * Copies the jobs of machine {@param machine}, in their order, to
+     * {@param jobs} starting at position {@param offset}.
+     *
+     * @param machine the machine.
+     * @param jobs    array to copy the jobs to.
+     * @param offset  position of the first job in {@param jobs}.
+     */
+    public void copyTo(int machine, int jobs[], int offset) {
+        System.arraycopy(this.jobs, this.offset[machine], jobs, offset, length[machine]);
+    }
+
+    /**
+     * Gets the number of positions of the array (used or free).
+     *
+     * @return the capacity
+     */
+    public int capacity() {
+        return jobs.length;
+    }
+
+    /**
+     * Repacks the regions of the machines so that each one has as many free
+     * positions as the slack, the region of machine {@param machine} having
+     * room for at least {@param required} jobs. The array is only replaced if
+     * its size changes (e.g., if the machines are loaded one by one and hold
+     * more than the number of jobs meanwhile), otherwise the regions are
+     * moved in place: the ones moving to the left from the first to the last,
+     * then the ones moving to the right from the last to the first, so that
+     * no region overwrites another one before it is moved.
+     *
+     * @param machine  machine that needs room.
+     * @param required number of jobs the region of the machine must hold.
+     */
+    private void repack(int machine, int required) {
+        int nMachines = length.length;
+        int total = 0;
+        for (int m = 0; m < nMachines; m++) {
+            total += (m == machine ? Math.max(required, length[m]) : length[m]);
+        }
+
+        int size = Math.max(nJobs, total) + (nMachines + 1) * slack;
+        int target[] = (size == jobs.length ? jobs : new int[size]);
+
+        int start[] = new int[nMachines + 1];
+        for (int m = 0; m < nMachines; m++) {
+            int room = (m == machine ? Math.max(required, length[m]) : length[m]) + slack;
+            start[m + 1] = start[m] + room;
+        }
+        start[nMachines] = size;
+
+        for (int m = 0; m < nMachines; m++) {
+            if (start[m] <= offset[m])
+                System.arraycopy(jobs, offset[m], target, start[m], length[m]);
+        }
+        for (int m = nMachines - 1; m >= 0; m--) {
+            if (start[m] > offset[m])
+                System.arraycopy(jobs, offset[m], target, start[m], length[m]);
+        }
+
+        jobs = target;
+        System.arraycopy(start, 0, offset, 0, nMachines + 1);
+    }
+}
@@ -0,0 +1,228 @@
+package upmsp.model.solution;
+
+import upmsp.model.*;
+
+import java.io.*;
+import java.nio.file.*;
+
+/**
+ * This class is a compact (struct of arrays) representation of a Solution.
+ * The jobs of all machines are kept in a single array, in which machine m
+ * takes the positions from offset(m) to offset(m + 1) - 1, and the makespan
+ * of the machines and the machine and position of each job are kept in
+ * primitive arrays. It takes memory proportional to the number of jobs and
+ * is meant to keep snapshots of solutions (e.g., the best solution found),
+ * since it can be copied from and to a {@link Solution} without allocations.
+ *
+ * @author Andre L. Maravilha
+ */
+public class CompactSolution {
+
+    public final Problem problem;
+
+    private final int sequence[];
+    private final int offsets[];
+    private final int makespans[];
+    private final int jobMachine[];
+    private final int jobPosition[];
+
+    private int nMachines;
+    private int makespan;
+    private int sumMachineTimes;
+    private int makespanMachine;
+
+    /**
+     * Instantiates a new CompactSolution (a copy of a solution).
+     *
+     * @param solution solution to copy from.
+     */
+    public CompactSolution(Solution solution) {
+        this.problem = solution.problem;
+
+        sequence = new int[problem.nJobs];
+        offsets = new int[problem.nMachines + 1];
+        makespans = new int[problem.nMachines];
+        jobMachine = new int[problem.nJobs];
+        jobPosition = new int[problem.nJobs];
+
+        copyFrom(solution);
+    }
+
+    /**
+     * Copies a solution to this one (it must be a solution of the same
+     * problem).
+     *
+     * @param solution solution to copy from.
+     */
+    public void copyFrom(Solution solution) {
+        assert solution.problem == problem : "copying a solution of another problem";
+
+        int offset = 0;
+        for (Machine machine : solution.machines) {
+            offsets[machine.id] = offset;
+            makespans[machine.id] = machine.getMakespan();
+            machine.getJobs(sequence, offset);
+            for (int idx = 0; idx < machine.getNJobs(); idx++) {
+                jobMachine[sequence[offset + idx]] = machine.id;
+                jobPosition[sequence[offset + idx]] = idx;
+            }
+            offset += machine.getNJobs();
+        }
+        offsets[problem.nMachines] = offset;
+
+        nMachines = solution.nMachines;
+        makespan = solution.makespan;
+        sumMachineTimes = solution.sumMachineTimes;
+        makespanMachine = solution.makespanMachine.id;
+    }
+
+    /**
+     * Copies this solution to another one (it must be a solution of the same
+     * problem).
+     *
+     * @param solution solution to copy to.
+     */
+    public void copyTo(Solution solution) {
+        assert solution.problem == problem : "copying to a solution of another problem";
+
+        for (Machine machine : solution.machines) {
+            machine.load(sequence, offsets[machine.id], getNJobs(machine.id), makespans[machine.id]);
+        }
+
+        solution.nMachines = nMachines;
+        solution.makespan = makespan;
+        solution.sumMachineTimes = sumMachineTimes;
+        solution.makespanMachine = solution.machines[makespanMachine];
+    }
+
+    /**
+     * Creates and returns a {@link Solution} equal to this one.
+     *
+     * @return the solution.
+     */
+    public Solution toSolution() {
+        Solution solution = new Solution(problem);
+        copyTo(solution);
+        return solution;
+    }
+
+    /**
+     * Gets the solution makespan.
+     *
+     * @return the solution cost.
+     */
+    public int getCost() {
+        return makespan;
+    }
+
+    /**
+     * Return the sum of machine completion times.
+     *
+     * @return the sum of machine completion times.
+     */
+    public int getSumMachineTimes() {
+        return sumMachineTimes;
+    }
+
+    /**
+     * Gets the number of machines used in this solution.
+     *
+     * @return number of machines used in this solution.
+     */
+    public int getNMachines() {
+        return nMachines;
+    }
+
+    /**
+     * Gets the id of the machine with the largest makespan.
+     *
+     * @return the id of the makespan machine.
+     */
+    public int getMakespanMachine() {
+        return makespanMachine;
+    }
+
+    /**
+     * Gets the makespan of machine {@param machine}.
+     *
+     * @param machine id of the machine.
+     * @return the makespan of the machine.
+     */
+    public int getMakespan(int machine) {
+        return makespans[machine];
+    }
+
+    /**
+     * Gets the number of jobs in machine {@param machine}.
+     *
+     * @param machine id of the machine.
+     * @return the number of jobs.
+     */
+    public int getNJobs(int machine) {
+        return offsets[machine + 1] - offsets[machine];
+    }
+
+    /**
+     * Gets the job in position {@param index} of machine {@param machine}.
+     *
+     * @param machine id of the machine.
+     * @param index   index (position) of the job in the machine.
+     * @return the job.
+     */
+    public int getJob(int machine, int index) {
+        assert index < getNJobs(machine) : "getting job of an invalid index in machine" + machine;
+        return sequence[offsets[machine] + index];
+    }
+
+    /**
+     * Gets the machine to which job {@param job} is allocated.
+     *
+     * @param job the job.
+     * @return the id of the machine.
+     */
+    public int getMachine(int job) {
+        return jobMachine[job];
+    }
+
+    /**
+     * Gets the position (index) of job {@param job} in its machine.
+     *
+     * @param job the job.
+     * @return the index of the job in its machine.
+     */
+    public int getPosition(int job) {
+        return jobPosition[job];
+    }
+
+    /**
+     * Writes the solution to a file (in the same format of
+     * {@link Solution#write(Path)}).
+     *
+     * @param path the output file path.
+     * @throws IOException in case any IO error occurs.
+     */
+    public void write(Path path) throws IOException {
+
+        // Creates the directory hierarchy, if necessary
+        path = path.toAbsolutePath();
+        Files.createDirectories(path.getParent());
+
+        // Open file for writing
+        PrintWriter writer = new PrintWriter(Files.newBufferedWriter(path));
+
+        // Write solution data
+        writer.printf("%d\n", problem.nMachines);
+        for (int m = 0; m < problem.nMachines; m++) {
+            writer.printf("%d", getNJobs(m));
+            for (int idx = offsets[m]; idx < offsets[m + 1]; idx++) {
+                writer.printf(" %d", sequence[idx]);
+            }
+            writer.printf("\n");
+        }
+        writer.printf("\n");
+        writer.printf("Total makespan: %d\n", getCost());
+
+        // Close file
+        writer.close();
+    }
+}
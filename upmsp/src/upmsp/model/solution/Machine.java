@@ -3,9 +3,12 @@ package upmsp.model.solution;
 import upmsp.util.*;
 
 import java.io.*;
+import java.util.*;
 
 /**
- * This class represents a Machine.
+ * This class represents a Machine, whose sequence of jobs is kept in an
+ * array (see {@link TreeMachine} for a machine whose sequence is kept in a
+ * balanced tree).
  *
  * @author Tulio Toffolo
  * @author Andre L. Maravilha
@@ -15,14 +18,32 @@ public class Machine {
     public final Solution solution;
     public final int id;
 
-    public int jobs[];
+    /**
+     * Jobs of the machine, in their order (only the first {@link #getNJobs()}
+     * positions are used). The capacity of the array grows as jobs are added
+     * and shrinks as they are removed (see {@link #shrink()}), so that a
+     * solution takes memory proportional to the number of jobs.
+     */
+    protected int jobs[];
+
+    protected int nJobs;
+    protected int makespan;
+    protected int nPositions;
 
-    private int nJobs;
-    private int makespan;
+    /**
+     * Prefix sums of the sequence of jobs (see {@link #getSegmentCost(int, int)}):
+     * position i of {@link #forward} keeps the processing times of the jobs
+     * in positions 0 to i plus the setup times between them, and position i
+     * of {@link #backward} keeps the same for the jobs in reverse order. Only
+     * the first {@link #nPrefix} positions are up to date, and they are
+     * updated (from the first outdated position on) when a segment is queried.
+     */
+    protected int forward[], backward[];
+    protected int nPrefix;
 
-    private final int process[];
-    private final int initialSetup[];
-    private final int setup[][];
+    protected final int process[];
+    protected final int initialSetup[];
+    protected final int setup[][];
 
 
     /**
@@ -39,11 +60,187 @@ public class Machine {
         initialSetup = solution.problem.initialSetupTimes[id];
         setup = solution.problem.setupTimes[id];
 
-        jobs = new int[solution.problem.nJobs];
+        jobs = new int[initialCapacity(solution.problem.nJobs, solution.problem.nMachines)];
         nJobs = 0;
         makespan = 0;
     }
 
+    /**
+     * Constructor used for cloning and by subclasses.
+     *
+     * @param solution the solution
+     * @param id       the id
+     * @param jobs     the array of jobs (used as is)
+     */
+    protected Machine(Solution solution, int id, int jobs[]) {
+        this.solution = solution;
+        this.id = id;
+
+        process = solution.problem.processTimes[id];
+        initialSetup = solution.problem.initialSetupTimes[id];
+        setup = solution.problem.setupTimes[id];
+
+        this.jobs = jobs;
+    }
+
+    // region index of jobs
+
+    /**
+     * Updates the positions of the jobs of this machine in the index of the
+     * solution (see {@link Solution#getPosition(int)}), if they are outdated.
+     */
+    void updatePositions() {
+        int positions[] = solution.jobPosition;
+        for (int idx = nPositions; idx < nJobs; idx++) {
+            positions[jobs[idx]] = idx;
+        }
+        nPositions = nJobs;
+    }
+
+    /**
+     * Marks the positions of the jobs from position {@param index} on as
+     * outdated in the index of the solution. They are updated at once, unless
+     * the solution tracks the positions lazily.
+     *
+     * @param index first position changed.
+     */
+    protected void invalidatePositions(int index) {
+        if (index < nPositions)
+            nPositions = index;
+        if (!solution.lazyPositions)
+            updatePositions();
+    }
+
+    // endregion
+
+
+    // region prefix sums of the sequence
+
+    /**
+     * Updates the prefix sums of the sequence of jobs, if they are outdated.
+     * They are updated when a segment is queried, so updating them beforehand
+     * makes the queries read-only (e.g., when the machine is read by several
+     * threads at once).
+     */
+    public void updatePrefix() {
+        if (nPrefix >= nJobs)
+            return;
+
+        if (forward == null || forward.length < nJobs) {
+            int capacity = Math.min(2 * nJobs + 1, solution.problem.nJobs);
+            forward = (forward == null ? new int[capacity] : Arrays.copyOf(forward, capacity));
+            backward = (backward == null ? new int[capacity] : Arrays.copyOf(backward, capacity));
+        }
+
+        int idx = nPrefix, prev;
+        if (idx == 0) {
+            prev = getJob(0);
+            forward[0] = backward[0] = process[prev];
+            idx++;
+        }
+        else {
+            prev = getJob(idx - 1);
+        }
+
+        for (; idx < nJobs; idx++) {
+            int job = getJob(idx);
+            forward[idx] = forward[idx - 1] + setup[prev][job] + process[job];
+            backward[idx] = backward[idx - 1] + setup[job][prev] + process[job];
+            prev = job;
+        }
+        nPrefix = nJobs;
+    }
+
+    /**
+     * Marks the prefix sums from position {@param index} on as outdated.
+     *
+     * @param index first position changed.
+     */
+    protected void invalidatePrefix(int index) {
+        if (index < nPrefix)
+            nPrefix = index;
+    }
+
+    /**
+     * Gets the completion time of the job in position {@param index}.
+     *
+     * @param index index (position) of the job.
+     * @return the completion time
+     */
+    public int getCompletionTime(int index) {
+        assert index < nJobs : "getting completion time of an invalid index in machine" + id;
+
+        updatePrefix();
+        return initialSetup[getJob(0)] + forward[index];
+    }
+
+    /**
+     * Gets the time to process the jobs in positions {@param from} to
+     * {@param to} - 1 in their order, including the setup times between them
+     * but not the setup time of the first one.
+     *
+     * @param from index (position) of the first job of the segment.
+     * @param to   index (position) after the last job of the segment.
+     * @return the time to process the segment
+     */
+    public int getSegmentCost(int from, int to) {
+        assert from < to && to <= nJobs : "getting cost of an invalid segment in machine" + id;
+
+        updatePrefix();
+        return forward[to - 1] - forward[from] + process[getJob(from)];
+    }
+
+    /**
+     * Gets the time to process the jobs in positions {@param from} to
+     * {@param to} - 1 in reverse order, including the setup times between
+     * them but not the setup time of the first one (the job in position
+     * {@param to} - 1).
+     *
+     * @param from index (position) of the first job of the segment.
+     * @param to   index (position) after the last job of the segment.
+     * @return the time to process the reversed segment
+     */
+    public int getReversedSegmentCost(int from, int to) {
+        assert from < to && to <= nJobs : "getting cost of an invalid segment in machine" + id;
+
+        updatePrefix();
+        return backward[to - 1] - backward[from] + process[getJob(from)];
+    }
+
+    /**
+     * Gets the time this machine takes to process the jobs in positions
+     * {@param from} to {@param to} - 1 of machine {@param source} (in their
+     * order or reversed), including the setup times between them but not the
+     * setup time of the first one. It takes constant time if the source is
+     * this machine, and time proportional to the length of the segment
+     * otherwise.
+     *
+     * @param source   machine with the segment.
+     * @param from     index (position) of the first job of the segment.
+     * @param to       index (position) after the last job of the segment.
+     * @param reversed whether the jobs of the segment are processed in
+     *                 reverse order.
+     * @return the time to process the segment
+     */
+    public int getSegmentCost(Machine source, int from, int to, boolean reversed) {
+        if (source == this) {
+            return (reversed ? getReversedSegmentCost(from, to) : getSegmentCost(from, to));
+        }
+
+        assert from < to && to <= source.nJobs : "getting cost of an invalid segment in machine" + source.id;
+
+        int prev = source.getJob(reversed ? to - 1 : from);
+        int cost = process[prev];
+        for (int k = 1; k < to - from; k++) {
+            int job = source.getJob(reversed ? to - 1 - k : from + k);
+            cost += setup[prev][job] + process[job];
+            prev = job;
+        }
+        return cost;
+    }
+
+    // endregion
+
 
     /**
      * Adds a job to the last position of the machine.
@@ -65,12 +262,18 @@ public class Machine {
         assert index <= nJobs : "adding job to an invalid index in machine" + id;
 
         makespan += getDeltaCostAddJob(job, index);
+        if (nJobs == jobs.length)
+            jobs = Arrays.copyOf(jobs, Math.min(2 * nJobs + 1, solution.problem.nJobs));
         System.arraycopy(jobs, index, jobs, index + 1, nJobs - index);
 
         jobs[index] = job;
         if (++nJobs == 1)
             solution.nMachines++;
 
+        solution.jobMachine[job] = id;
+        invalidatePositions(index);
+        invalidatePrefix(index);
+
         assert validate(System.err);
     }
 
@@ -81,14 +284,42 @@ public class Machine {
      * @return a copy of this machine.
      */
     public Machine clone(Solution solution) {
-        Machine machine = new Machine(solution, id);
-        System.arraycopy(jobs, 0, machine.jobs, 0, nJobs);
+        Machine machine = new Machine(solution, id, Arrays.copyOf(jobs, nJobs + 1));
         machine.nJobs = nJobs;
         machine.makespan = makespan;
+        machine.nPositions = nPositions;
 
         return machine;
     }
 
+    /**
+     * Replaces the jobs of the machine by the {@param length} jobs starting
+     * at position {@param offset} of {@param sequence}, whose makespan is
+     * {@param makespan} (the number of machines used by the solution is not
+     * updated).
+     *
+     * @param sequence array with the jobs.
+     * @param offset   position of the first job in {@param sequence}.
+     * @param length   number of jobs.
+     * @param makespan makespan of the jobs in this machine.
+     */
+    void load(int sequence[], int offset, int length, int makespan) {
+        if (jobs.length < length)
+            jobs = new int[length + 1];
+        System.arraycopy(sequence, offset, jobs, 0, length);
+        this.nJobs = length;
+        this.makespan = makespan;
+
+        for (int idx = 0; idx < length; idx++) {
+            solution.jobMachine[jobs[idx]] = id;
+        }
+        nPositions = 0;
+        invalidatePositions(0);
+        nPrefix = 0;
+
+        assert validate(System.err);
+    }
+
     /**
      * Deletes the job from the position {@param index}.
      *
@@ -98,14 +329,38 @@ public class Machine {
         assert index < nJobs : "deleting job from an invalid index in machine" + id;
 
         makespan += getDeltaCostDelJob(index);
+        if (solution.jobMachine[jobs[index]] == id)
+            solution.jobMachine[jobs[index]] = -1;
         System.arraycopy(jobs, index + 1, jobs, index, nJobs - index - 1);
 
         if (--nJobs == 0)
             solution.nMachines--;
 
+        invalidatePositions(index);
+        invalidatePrefix(index);
+        if (4 * nJobs < jobs.length)
+            shrink();
+
         assert validate(System.err);
     }
 
+    /**
+     * Shrinks the array of jobs (and the arrays of prefix sums) to about
+     * twice the number of jobs, when a quarter of it or less is used, so that
+     * a machine that once had many jobs does not keep their room. As the
+     * array only grows when it is full, it is copied at most once every
+     * (about) as many additions or removals as its capacity.
+     */
+    private void shrink() {
+        int capacity = Math.max(2 * nJobs + 1, initialCapacity(solution.problem.nJobs, solution.problem.nMachines));
+        if (capacity < jobs.length)
+            jobs = Arrays.copyOf(jobs, capacity);
+        if (forward != null && capacity < forward.length) {
+            forward = Arrays.copyOf(forward, capacity);
+            backward = Arrays.copyOf(backward, capacity);
+        }
+    }
+
     /**
      * Gets the makespan of this machine.
      *
@@ -115,6 +370,47 @@ public class Machine {
         return makespan;
     }
 
+    /**
+     * Gets the job in the position {@param index}.
+     *
+     * @param index index (position) of the job.
+     * @return the job
+     */
+    public int getJob(int index) {
+        return jobs[index];
+    }
+
+    /**
+     * Gets the jobs of this machine, in their order.
+     *
+     * @return a new array with the jobs
+     */
+    public int[] getJobs() {
+        int jobs[] = new int[nJobs];
+        getJobs(jobs, 0);
+        return jobs;
+    }
+
+    /**
+     * Copies the jobs of this machine, in their order, to {@param jobs}
+     * starting at position {@param offset}.
+     *
+     * @param jobs   array to copy the jobs to.
+     * @param offset position of the first job in {@param jobs}.
+     */
+    public void getJobs(int jobs[], int offset) {
+        System.arraycopy(this.jobs, 0, jobs, offset, nJobs);
+    }
+
+    /**
+     * Gets the representation of the sequence of jobs of this machine.
+     *
+     * @return the representation of the sequence
+     */
+    public SequenceType getSequenceType() {
+        return SequenceType.ARRAY;
+    }
+
     /**
      * Gets the number of jobs in this machine.
      *
@@ -136,6 +432,11 @@ public class Machine {
         makespan += getDeltaCostSetJob(job, index);
         jobs[index] = job;
 
+        solution.jobMachine[job] = id;
+        if (index < nPositions)
+            solution.jobPosition[job] = index;
+        invalidatePrefix(index);
+
         assert validate(System.err);
     }
 
@@ -150,10 +451,7 @@ public class Machine {
         boolean valid = true;
 
         if (nJobs > 0) {
-            int makespanValue = initialSetup[jobs[0]] + process[jobs[0]];
-            for (int i = 1; i < nJobs; i++)
-                makespanValue += setup[jobs[i - 1]][jobs[i]] + process[jobs[i]];
-
+            int makespanValue = computeMakespan();
             if (makespanValue != makespan) {
                 valid = false;
                 Util.safePrintf(output, "Makespan is wrong in machine %d: %d vs %d (expected value)\n", id, makespanValue, makespan);
@@ -172,6 +470,34 @@ public class Machine {
     }
 
 
+    /**
+     * Computes the makespan of the jobs of this machine (from scratch).
+     *
+     * @return the makespan
+     */
+    protected int computeMakespan() {
+        if (nJobs == 0)
+            return 0;
+
+        int makespanValue = initialSetup[jobs[0]] + process[jobs[0]];
+        for (int i = 1; i < nJobs; i++)
+            makespanValue += setup[jobs[i - 1]][jobs[i]] + process[jobs[i]];
+        return makespanValue;
+    }
+
+    /**
+     * Gets the initial capacity of the array of jobs of a machine (the
+     * average number of jobs per machine).
+     *
+     * @param nJobs     number of jobs of the problem.
+     * @param nMachines number of machines of the problem.
+     * @return the initial capacity
+     */
+    private static int initialCapacity(int nJobs, int nMachines) {
+        return Math.min(nJobs, (nJobs + nMachines - 1) / nMachines + 1);
+    }
+
+
     // region delta cost calculation
 
     /**
@@ -257,5 +583,167 @@ public class Machine {
         }
     }
 
+    /**
+     * Gets the (delta) change in the makespan if the job in position
+     * {@param index} is removed and job {@param job} is then added to position
+     * {@param target} (i.e., the same as calling delJob(index) followed by
+     * addJob(job, target), without modifying the machine). The job added may
+     * be the job removed.
+     *
+     * @param index  index (position) of the job to remove.
+     * @param job    job to add.
+     * @param target position (index) to which the job will be added, after
+     *               the removal.
+     * @return the delta makespan
+     */
+    public int getDeltaCostDelAddJob(int index, int job, int target) {
+        assert index < nJobs : "deleting job from an invalid index in machine" + id;
+        assert target < nJobs : "adding job to an invalid index in machine" + id;
+
+        if (target == index) {
+            return getDeltaCostSetJob(job, index);
+        }
+        else if (target < index) {
+            return getDeltaCostDelJob(index) + getDeltaCostAddJob(job, target);
+        }
+        else {
+            return getDeltaCostDelJob(index) + getDeltaCostAddJob(job, target + 1);
+        }
+    }
+
+    /**
+     * Gets the (delta) change in the makespan if the jobs in positions
+     * {@param index1} and {@param index2} switch their positions.
+     *
+     * @param index1 index (position) of the first job.
+     * @param index2 index (position) of the second job.
+     * @return the delta makespan
+     */
+    public int getDeltaCostSwitchJobs(int index1, int index2) {
+        assert index1 < nJobs && index2 < nJobs : "switching jobs of an invalid index in machine" + id;
+
+        if (index1 == index2) {
+            return 0;
+        }
+        else if (index1 > index2) {
+            return getDeltaCostSwitchJobs(index2, index1);
+        }
+        else if (index2 > index1 + 1) {
+            return getDeltaCostSetJob(jobs[index2], index1) + getDeltaCostSetJob(jobs[index1], index2);
+        }
+        else {
+            int job1 = jobs[index1];
+            int job2 = jobs[index2];
+            int prev = (index1 > 0 ? jobs[index1 - 1] : -1);
+            int next = (index2 < nJobs - 1 ? jobs[index2 + 1] : -1);
+            return -(getSetupTime(prev, job1) + setup[job1][job2] + getSetupTime(job2, next))
+              + (getSetupTime(prev, job2) + setup[job2][job1] + getSetupTime(job1, next));
+        }
+    }
+
+    /**
+     * Gets the (delta) change in the makespan if the jobs in positions
+     * {@param from} to {@param to} - 1 are removed. It takes constant
+     * (amortized) time.
+     *
+     * @param from index (position) of the first job of the segment.
+     * @param to   index (position) after the last job of the segment.
+     * @return the delta makespan
+     */
+    public int getDeltaCostDelSegment(int from, int to) {
+        assert from < to && to <= nJobs : "deleting an invalid segment in machine" + id;
+
+        int prev = (from > 0 ? getJob(from - 1) : -1);
+        int next = (to < nJobs ? getJob(to) : -1);
+        return -(getSetupTime(prev, getJob(from)) + getSegmentCost(from, to) + getSetupTime(getJob(to - 1), next))
+                + getSetupTime(prev, next);
+    }
+
+    /**
+     * Gets the (delta) change in the makespan if a segment of jobs starting
+     * with job {@param first}, ending with job {@param last} and whose time to
+     * process in this machine is {@param cost} (see
+     * {@link #getSegmentCost(Machine, int, int, boolean)}) is added to
+     * position {@param index}. It takes constant time.
+     *
+     * @param first first job of the segment.
+     * @param last  last job of the segment.
+     * @param cost  time to process the segment in this machine.
+     * @param index position (index) to which the segment will be added.
+     * @return the delta makespan
+     */
+    public int getDeltaCostAddSegment(int first, int last, int cost, int index) {
+        assert index <= nJobs : "adding segment to an invalid index in machine" + id;
+
+        int prev = (index > 0 ? getJob(index - 1) : -1);
+        int next = (index < nJobs ? getJob(index) : -1);
+        return getSetupTime(prev, first) + cost + getSetupTime(last, next) - getSetupTime(prev, next);
+    }
+
+    /**
+     * Gets the (delta) change in the makespan if the jobs in positions
+     * {@param from} to {@param to} - 1 are removed and then added (in their
+     * order or reversed) to position {@param target} of the remaining
+     * sequence. It takes constant (amortized) time.
+     *
+     * @param from     index (position) of the first job of the segment.
+     * @param to       index (position) after the last job of the segment.
+     * @param target   position (index) to which the segment will be added,
+     *                 after the removal.
+     * @param reversed whether the segment is added in reverse order.
+     * @return the delta makespan
+     */
+    public int getDeltaCostMoveSegment(int from, int to, int target, boolean reversed) {
+        assert from < to && to <= nJobs : "moving an invalid segment in machine" + id;
+        assert target <= nJobs - (to - from) : "moving segment to an invalid index in machine" + id;
+
+        int length = to - from;
+        int head = getJob(from), tail = getJob(to - 1);
+        int prev = (from > 0 ? getJob(from - 1) : -1);
+        int next = (to < nJobs ? getJob(to) : -1);
+
+        int targetPrev = (target == 0 ? -1 : getJob(target - 1 < from ? target - 1 : target - 1 + length));
+        int targetNext = (target == nJobs - length ? -1 : getJob(target < from ? target : target + length));
+
+        int first = (reversed ? tail : head), last = (reversed ? head : tail);
+        int delta = (reversed ? getReversedSegmentCost(from, to) - getSegmentCost(from, to) : 0);
+
+        return -(getSetupTime(prev, head) + getSetupTime(tail, next)) + getSetupTime(prev, next)
+                + getSetupTime(targetPrev, first) + getSetupTime(last, targetNext) - getSetupTime(targetPrev, targetNext)
+                + delta;
+    }
+
+    /**
+     * Gets the (delta) change in the makespan if job {@param job} is placed
+     * between jobs {@param prev} and {@param next}, which are consecutive in a
+     * sequence of this machine (not necessarily the current one). A negative
+     * value for {@param prev} (or {@param next}) stands for the beginning (or
+     * the end) of the sequence.
+     *
+     * @param prev job preceding the position.
+     * @param job  job to add.
+     * @param next job following the position.
+     * @return the delta makespan
+     */
+    public int getDeltaCostLinkJob(int prev, int job, int next) {
+        return getSetupTime(prev, job) + process[job] + getSetupTime(job, next) - getSetupTime(prev, next);
+    }
+
+    /**
+     * Gets the setup time of job {@param next} when it follows job
+     * {@param prev}. A negative value for {@param prev} (or {@param next})
+     * stands for the beginning (or the end) of the sequence.
+     *
+     * @param prev preceding job.
+     * @param next following job.
+     * @return the setup time
+     */
+    protected int getSetupTime(int prev, int next) {
+        if (next < 0) {
+            return 0;
+        }
+        return (prev < 0 ? initialSetup[next] : setup[prev][next]);
+    }
+
     // endregion
 }
@@ -0,0 +1,106 @@
+package upmsp.model.solution;
+
+/**
+ * Makespan of the machines of a reference solution. It is used to evaluate neighbors of the reference solution from the
+ * new makespan of the (one or two) machines modified by a move, without modifying the solution (e.g., by the analysis of
+ * the moves and by the local search).
+ *
+ * @author Andre L. Maravilha
+ */
+public class Reference {
+
+    public final Solution solution;
+    public final long makespan;
+    public final long sumMachineTimes;
+
+    private final int[] machineMakespan;
+    private final int[] top = { -1, -1, -1 };
+
+    public Reference(Solution solution) {
+        this.solution = solution;
+        this.machineMakespan = new int[solution.machines.length];
+
+        long sum = 0L;
+        for (int m = 0; m < machineMakespan.length; ++m) {
+            machineMakespan[m] = solution.machines[m].getMakespan();
+            sum += machineMakespan[m];
+
+            // Segment costs may be read concurrently by the scans of the neighbors, so they must be up to date
+            solution.machines[m].updatePrefix();
+
+            // Keep the three machines with the largest makespan
+            for (int k = 0; k < top.length; ++k) {
+                if (top[k] < 0 || machineMakespan[m] > machineMakespan[top[k]]) {
+                    System.arraycopy(top, k, top, k + 1, top.length - k - 1);
+                    top[k] = m;
+                    break;
+                }
+            }
+        }
+
+        this.makespan = solution.getCost();
+        this.sumMachineTimes = sum;
+    }
+
+    /**
+     * Return the makespan of a machine in the reference solution.
+     * @param machine Index of the machine.
+     * @return The makespan of the machine.
+     */
+    public int getMakespan(int machine) {
+        return machineMakespan[machine];
+    }
+
+    /**
+     * Return the makespan of the neighbor solution in which a single machine was modified.
+     * @param machine Index of the machine modified.
+     * @param newMakespan New makespan of the machine.
+     * @return The makespan of the neighbor solution.
+     */
+    public long makespan(int machine, long newMakespan) {
+        return Math.max(maxMakespanExcluding(machine, machine), newMakespan);
+    }
+
+    /**
+     * Return the makespan of the neighbor solution in which two machines were modified.
+     * @param machine1 Index of the first machine modified.
+     * @param newMakespan1 New makespan of the first machine.
+     * @param machine2 Index of the second machine modified.
+     * @param newMakespan2 New makespan of the second machine.
+     * @return The makespan of the neighbor solution.
+     */
+    public long makespan(int machine1, long newMakespan1, int machine2, long newMakespan2) {
+        return Math.max(maxMakespanExcluding(machine1, machine2), Math.max(newMakespan1, newMakespan2));
+    }
+
+    /**
+     * Return the sum of machine completion times of the neighbor solution in which a single machine was modified.
+     * @param machine Index of the machine modified.
+     * @param newMakespan New makespan of the machine.
+     * @return The sum of machine completion times of the neighbor solution.
+     */
+    public long sumMachineTimes(int machine, long newMakespan) {
+        return sumMachineTimes - machineMakespan[machine] + newMakespan;
+    }
+
+    /**
+     * Return the sum of machine completion times of the neighbor solution in which two machines were modified.
+     * @param machine1 Index of the first machine modified.
+     * @param newMakespan1 New makespan of the first machine.
+     * @param machine2 Index of the second machine modified.
+     * @param newMakespan2 New makespan of the second machine.
+     * @return The sum of machine completion times of the neighbor solution.
+     */
+    public long sumMachineTimes(int machine1, long newMakespan1, int machine2, long newMakespan2) {
+        return sumMachineTimes - machineMakespan[machine1] - machineMakespan[machine2] + newMakespan1 + newMakespan2;
+    }
+
+    private long maxMakespanExcluding(int machine1, int machine2) {
+        for (int m : top) {
+            if (m >= 0 && m != machine1 && m != machine2) {
+                return machineMakespan[m];
+            }
+        }
+        return 0L;
+    }
+}
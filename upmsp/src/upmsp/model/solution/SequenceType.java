@@ -0,0 +1,28 @@
+package upmsp.model.solution;
+
+/**
+ * Representations of the sequence of jobs of a Machine.
+ *
+ * @author Andre L. Maravilha
+ */
+public enum SequenceType {
+
+    /**
+     * Array of jobs, with constant time access and linear time insertion and
+     * removal.
+     */
+    ARRAY,
+
+    /**
+     * Balanced tree of jobs, with logarithmic time access, insertion and
+     * removal (see {@link TreeSequence}).
+     */
+    TREE,
+
+    /**
+     * Regions of a single array shared by all machines, with constant time
+     * access and linear time insertion and removal (see
+     * {@link CompactSequences}).
+     */
+    COMPACT
+}
@@ -5,6 +5,7 @@ import upmsp.util.*;
 
 import java.io.*;
 import java.nio.file.*;
+import java.util.*;
 
 /**
  * This class represents a Solution of the Unrelated Parallel Machine Scheduling
@@ -23,17 +24,51 @@ public class Solution {
     protected int sumMachineTimes;
     public Machine makespanMachine;
 
+    final SequenceType sequenceType;
+    final CompactSequences sequences;
+    final int jobMachine[];
+    final int jobPosition[];
+    boolean lazyPositions;
+
     /**
      * Instantiates a new Solution.
      *
      * @param problem problem considered.
      */
     public Solution(Problem problem) {
+        this(problem, SequenceType.ARRAY);
+    }
+
+    /**
+     * Instantiates a new Solution whose machines keep their sequences of
+     * jobs with a given representation.
+     *
+     * @param problem      problem considered.
+     * @param sequenceType representation of the sequences of jobs.
+     */
+    public Solution(Problem problem, SequenceType sequenceType) {
         this.problem = problem;
+        this.sequenceType = sequenceType;
+        this.sequences = (sequenceType == SequenceType.COMPACT ? new CompactSequences(problem) : null);
+
+        jobMachine = new int[problem.nJobs];
+        jobPosition = new int[problem.nJobs];
+        Arrays.fill(jobMachine, -1);
+        Arrays.fill(jobPosition, -1);
+        lazyPositions = true;
 
         machines = new Machine[problem.nMachines];
         for (int m = 0; m < problem.nMachines; m++) {
-            machines[m] = new Machine(this, m);
+            switch (sequenceType) {
+                case TREE:
+                    machines[m] = new TreeMachine(this, m);
+                    break;
+                case COMPACT:
+                    machines[m] = new CompactMachine(this, m);
+                    break;
+                default:
+                    machines[m] = new Machine(this, m);
+            }
         }
 
         nMachines = 0;
@@ -49,6 +84,12 @@ public class Solution {
      */
     private Solution(Solution solution) {
         this.problem = solution.problem;
+        this.sequenceType = solution.sequenceType;
+        this.sequences = (solution.sequences == null ? null : solution.sequences.copy());
+
+        jobMachine = solution.jobMachine.clone();
+        jobPosition = solution.jobPosition.clone();
+        lazyPositions = solution.lazyPositions;
 
         machines = new Machine[problem.nMachines];
         for (int m = 0; m < problem.nMachines; m++) {
@@ -68,6 +109,40 @@ public class Solution {
         return new Solution(this);
     }
 
+    /**
+     * Creates and returns a copy of this solution whose machines keep their
+     * sequences of jobs with a given representation.
+     *
+     * @param sequenceType representation of the sequences of jobs.
+     * @return the copy.
+     */
+    public Solution clone(SequenceType sequenceType) {
+        if (sequenceType == this.sequenceType) {
+            return clone();
+        }
+
+        Solution solution = new Solution(problem, sequenceType);
+        solution.lazyPositions = lazyPositions;
+        for (Machine machine : machines) {
+            solution.machines[machine.id].load(machine.getJobs(), 0, machine.getNJobs(), machine.getMakespan());
+        }
+
+        solution.nMachines = nMachines;
+        solution.makespan = makespan;
+        solution.sumMachineTimes = sumMachineTimes;
+        solution.makespanMachine = solution.machines[makespanMachine.id];
+        return solution;
+    }
+
+    /**
+     * Gets the representation of the sequences of jobs of the machines.
+     *
+     * @return the representation of the sequences.
+     */
+    public SequenceType getSequenceType() {
+        return sequenceType;
+    }
+
     /**
      * Gets the solution makespan. Note the the makespan may be outdated if the
      * solution was modified. To ensure that it is updated, call {@link
@@ -96,6 +171,69 @@ public class Solution {
         return nMachines;
     }
 
+    /**
+     * Gets the machine to which job {@param job} is allocated, in constant
+     * time. While a move is being done, a job may be (temporarily) in two
+     * machines; in such case the machine returned is the last one to which
+     * it was added.
+     *
+     * @param job the job.
+     * @return the machine of the job, or null if the job is not allocated.
+     */
+    public Machine getMachine(int job) {
+        return (jobMachine[job] < 0 ? null : machines[jobMachine[job]]);
+    }
+
+    /**
+     * Gets the position (index) of job {@param job} in its machine. If the
+     * positions are tracked lazily (see {@link #setLazyPositions(boolean)}),
+     * the positions of the jobs of its machine are updated first when they
+     * are outdated; otherwise, it takes constant time.
+     *
+     * @param job the job.
+     * @return the index of the job in its machine, or -1 if the job is not
+     * allocated.
+     */
+    public int getPosition(int job) {
+        if (jobMachine[job] < 0) {
+            return -1;
+        }
+        machines[jobMachine[job]].updatePositions();
+        return jobPosition[job];
+    }
+
+    /**
+     * Sets whether the positions of the jobs are tracked lazily. If so,
+     * adding or removing a job only marks the positions of the following
+     * jobs of the machine as outdated, and they are updated by the next call
+     * to {@link #getPosition(int)} with a job of that machine (hence, the
+     * solution must not be shared by threads calling it). Otherwise, they
+     * are updated by each change of a machine. The machines of the jobs are
+     * always updated by each change. By default, positions are tracked
+     * lazily.
+     *
+     * @param lazyPositions true to track the positions lazily, false to
+     *                      update them with each change.
+     */
+    public void setLazyPositions(boolean lazyPositions) {
+        this.lazyPositions = lazyPositions;
+        if (!lazyPositions) {
+            for (Machine machine : machines) {
+                machine.updatePositions();
+            }
+        }
+    }
+
+    /**
+     * Returns whether the positions of the jobs are tracked lazily (see
+     * {@link #setLazyPositions(boolean)}).
+     *
+     * @return true if the positions are tracked lazily, false otherwise.
+     */
+    public boolean isLazyPositions() {
+        return lazyPositions;
+    }
+
     /**
      * Updates (and returns) the makespan of the solution.
      *
@@ -124,15 +262,25 @@ public class Solution {
     public boolean validate(PrintStream output) {
         boolean valid = true;
 
-        // checking jobs allocations
+        // checking jobs allocations (and the index of the jobs; the positions are read as they are, so the solution
+        // is not modified, and only those that are up to date are checked)
         boolean allocs[] = new boolean[problem.nJobs];
         for (Machine machine : machines) {
             for (int idx = 0; idx < machine.getNJobs(); idx++) {
-                if (allocs[machine.jobs[idx]]) {
+                int job = machine.getJob(idx);
+                if (allocs[job]) {
+                    valid = false;
+                    Util.safePrintf(output, "Job %d is allocated twice\n", job);
+                }
+                allocs[job] |= true;
+
+                if (jobMachine[job] != machine.id) {
+                    valid = false;
+                    Util.safePrintf(output, "Index of job %d is wrong: machine %d vs %d (expected value)\n", job, jobMachine[job], machine.id);
+                } else if (idx < machine.nPositions && jobPosition[job] != idx) {
                     valid = false;
-                    Util.safePrintf(output, "Job %d is allocated twice\n", machine.jobs[idx]);
+                    Util.safePrintf(output, "Index of job %d is wrong: position %d vs %d (expected value)\n", job, jobPosition[job], idx);
                 }
-                allocs[machine.jobs[idx]] |= true;
             }
         }
 
@@ -148,9 +296,9 @@ public class Solution {
         int makespanValue = 0, makespanMachineId = 0;
         for (Machine machine : machines) {
             if (machine.getNJobs() > 0) {
-                int machineMakespanValue = problem.initialSetupTimes[machine.id][machine.jobs[0]] + problem.processTimes[machine.id][machine.jobs[0]];
+                int machineMakespanValue = problem.initialSetupTimes[machine.id][machine.getJob(0)] + problem.processTimes[machine.id][machine.getJob(0)];
                 for (int i = 1; i < machine.getNJobs(); i++)
-                    machineMakespanValue += problem.setupTimes[machine.id][machine.jobs[i - 1]][machine.jobs[i]] + problem.processTimes[machine.id][machine.jobs[i]];
+                    machineMakespanValue += problem.setupTimes[machine.id][machine.getJob(i - 1)][machine.getJob(i)] + problem.processTimes[machine.id][machine.getJob(i)];
 
                 if (machineMakespanValue != machine.getMakespan()) {
                     valid = false;
@@ -198,7 +346,7 @@ public class Solution {
         for (Machine machine : machines) {
             writer.printf("%d", machine.getNJobs());
             for (int j = 0; j < machine.getNJobs(); j++) {
-                writer.printf(" %d", machine.jobs[j]);
+                writer.printf(" %d", machine.getJob(j));
             }
             writer.printf("\n");
         }
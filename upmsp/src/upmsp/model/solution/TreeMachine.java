@@ -0,0 +1,244 @@
+package upmsp.model.solution;
+
+/**
+ * This class represents a Machine whose sequence of jobs is kept in a
+ * balanced tree (see {@link TreeSequence}), in which getting, inserting and
+ * removing a job take logarithmic time instead of the linear time of the
+ * shifts of an array. It is only worth it for very long sequences. It is a
+ * subclass (instead of an option of {@link Machine}) so that the code of the
+ * machines kept in arrays is not changed: this class is only loaded if a
+ * solution uses it.
+ *
+ * @author Andre L. Maravilha
+ */
+public class TreeMachine extends Machine {
+
+    private final TreeSequence tree;
+
+    /**
+     * Instantiates a new TreeMachine (of a Solution).
+     *
+     * @param solution the solution
+     * @param id       the id
+     */
+    public TreeMachine(Solution solution, int id) {
+        this(solution, id, new TreeSequence(solution.problem, id));
+    }
+
+    /**
+     * Private constructor used for cloning.
+     *
+     * @param solution the solution
+     * @param id       the id
+     * @param tree     the tree of jobs (used as is)
+     */
+    private TreeMachine(Solution solution, int id, TreeSequence tree) {
+        super(solution, id, null);
+        this.tree = tree;
+    }
+
+    @Override
+    void updatePositions() {
+        int positions[] = solution.jobPosition;
+        for (int idx = nPositions; idx < nJobs; idx++) {
+            positions[tree.get(idx)] = idx;
+        }
+        nPositions = nJobs;
+    }
+
+    @Override
+    public void addJob(int job, int index) {
+        assert index <= nJobs : "adding job to an invalid index in machine" + id;
+
+        makespan += getDeltaCostAddJob(job, index);
+        tree.insert(index, job);
+
+        if (++nJobs == 1)
+            solution.nMachines++;
+
+        solution.jobMachine[job] = id;
+        invalidatePositions(index);
+        invalidatePrefix(index);
+
+        assert validate(System.err);
+    }
+
+    @Override
+    public Machine clone(Solution solution) {
+        TreeMachine machine = new TreeMachine(solution, id, tree.copy());
+        machine.nJobs = nJobs;
+        machine.makespan = makespan;
+        machine.nPositions = nPositions;
+
+        return machine;
+    }
+
+    @Override
+    void load(int sequence[], int offset, int length, int makespan) {
+        tree.load(sequence, offset, length);
+        this.nJobs = length;
+        this.makespan = makespan;
+
+        for (int idx = 0; idx < length; idx++) {
+            solution.jobMachine[sequence[offset + idx]] = id;
+        }
+        nPositions = 0;
+        invalidatePositions(0);
+        nPrefix = 0;
+
+        assert validate(System.err);
+    }
+
+    @Override
+    public void delJob(int index) {
+        assert index < nJobs : "deleting job from an invalid index in machine" + id;
+
+        makespan += getDeltaCostDelJob(index);
+        int job = tree.get(index);
+        if (solution.jobMachine[job] == id)
+            solution.jobMachine[job] = -1;
+        tree.remove(index);
+
+        if (--nJobs == 0)
+            solution.nMachines--;
+
+        invalidatePositions(index);
+        invalidatePrefix(index);
+
+        assert validate(System.err);
+    }
+
+    @Override
+    public int getJob(int index) {
+        return tree.get(index);
+    }
+
+    @Override
+    public void getJobs(int jobs[], int offset) {
+        tree.copyTo(jobs, offset);
+    }
+
+    @Override
+    public SequenceType getSequenceType() {
+        return SequenceType.TREE;
+    }
+
+    @Override
+    public void setJob(int job, int index) {
+        assert index < nJobs : "setting job of an invalid index in machine" + id;
+
+        makespan += getDeltaCostSetJob(job, index);
+        tree.set(index, job);
+
+        solution.jobMachine[job] = id;
+        if (index < nPositions)
+            solution.jobPosition[job] = index;
+        invalidatePrefix(index);
+
+        assert validate(System.err);
+    }
+
+    @Override
+    protected int computeMakespan() {
+        return tree.getMakespan();
+    }
+
+
+    // region delta cost calculation (each job is got from the tree only once)
+
+    @Override
+    public int getDeltaCostAddJob(int job, int index) {
+        assert index <= nJobs : "adding job to an invalid index in machine" + id;
+
+        if (nJobs == 0) {
+            return initialSetup[job] + process[job];
+        }
+        else if (index == 0) {
+            int next = tree.get(index);
+            return -initialSetup[next]
+                    + initialSetup[job] + process[job] + setup[job][next];
+        }
+        else if (index == nJobs) {
+            return setup[tree.get(index - 1)][job] + process[job];
+        }
+        else {
+            int prev = tree.get(index - 1), next = tree.get(index);
+            return -setup[prev][next]
+                    + setup[prev][job] + process[job] + setup[job][next];
+        }
+    }
+
+    @Override
+    public int getDeltaCostDelJob(int index) {
+        assert index < nJobs : "deleting job from an invalid index in machine" + id;
+
+        int cur = tree.get(index);
+        if (nJobs == 1) {
+            return -makespan;
+        }
+        else if (index == 0) {
+            int next = tree.get(index + 1);
+            return -(initialSetup[cur] + process[cur] + setup[cur][next])
+                    + initialSetup[next];
+        }
+        else if (index == nJobs - 1) {
+            return -(setup[tree.get(index - 1)][cur] + process[cur]);
+        }
+        else {
+            int prev = tree.get(index - 1), next = tree.get(index + 1);
+            return -(setup[prev][cur] + process[cur] + setup[cur][next])
+                    + setup[prev][next];
+        }
+    }
+
+    @Override
+    public int getDeltaCostSetJob(int job, int index) {
+        assert index < nJobs : "setting job of an invalid index in machine" + id;
+
+        int cur = tree.get(index);
+        if (nJobs == 1) {
+            return -(initialSetup[cur] + process[cur])
+                    + initialSetup[job] + process[job];
+        }
+        else if (index == 0) {
+            int next = tree.get(index + 1);
+            return -(initialSetup[cur] + process[cur] + setup[cur][next])
+                    + (initialSetup[job] + process[job] + setup[job][next]);
+        }
+        else if (index == nJobs - 1) {
+            int prev = tree.get(index - 1);
+            return -(setup[prev][cur] + process[cur])
+                    + (setup[prev][job] + process[job]);
+        }
+        else {
+            int prev = tree.get(index - 1), next = tree.get(index + 1);
+            return -(setup[prev][cur] + process[cur] + setup[cur][next])
+                    + (setup[prev][job] + process[job] + setup[job][next]);
+        }
+    }
+
+    @Override
+    public int getDeltaCostSwitchJobs(int index1, int index2) {
+        assert index1 < nJobs && index2 < nJobs : "switching jobs of an invalid index in machine" + id;
+
+        if (index1 == index2) {
+            return 0;
+        }
+        else if (index1 > index2) {
+            return getDeltaCostSwitchJobs(index2, index1);
+        }
+        else if (index2 > index1 + 1) {
+            return getDeltaCostSetJob(tree.get(index2), index1) + getDeltaCostSetJob(tree.get(index1), index2);
+        }
+        else {
+            int prev = (index1 > 0 ? tree.get(index1 - 1) : -1);
+            int job1 = tree.get(index1);
+            int job2 = tree.get(index2);
+            int next = (index2 < nJobs - 1 ? tree.get(index2 + 1) : -1);
+            return -(getSetupTime(prev, job1) + setup[job1][job2] + getSetupTime(job2, next))
+                    + (getSetupTime(prev, job2) + setup[job2][job1] + getSetupTime(job1, next));
+        }
+    }
+
+    // endregion
+}
@@ -0,0 +1,467 @@
+package upmsp.model.solution;
+
+import upmsp.model.*;
+
+import java.util.*;
+
+/**
+ * This class is a sequence of jobs of a Machine kept in an implicit treap (a randomized
+ * balanced binary tree ordered by the position of the jobs). Access,
+ * insertion and removal take logarithmic (expected) time, which pays off for
+ * machines with very long sequences. Each node keeps the size of its
+ * subtree, its first and last jobs and its makespan without the initial
+ * setup time. The makespan of a subtree is only marked as outdated when the
+ * subtree changes, and it is recomputed (from the makespans of its subtrees)
+ * when the makespan of the sequence is needed. This way, the operations do
+ * not read the setup times, and the makespan takes time proportional to the
+ * number of nodes changed since it was last computed. The path to the job of
+ * the last access is kept, so that accessing the previous or the next
+ * position (as when the positions of a machine are scanned in order) takes
+ * constant amortized time.
+ *
+ * The fields of the nodes are interleaved in a single primitive array (so a
+ * node is read from a single cache line), node 0 stands for the empty tree
+ * and the nodes removed are reused. The priorities of the nodes are drawn
+ * from a generator of its own, so the random number generator of the search
+ * is not affected.
+ *
+ * @author Andre L. Maravilha
+ */
+public class TreeSequence {
+
+    // Fields of a node (offsets in the array of nodes)
+    private static final int LEFT = 0;
+    private static final int RIGHT = 1;
+    private static final int PRIORITY = 2;
+    private static final int SIZE = 3;
+    private static final int JOB = 4;
+    private static final int FIRST = 5;
+    private static final int LAST = 6;
+    private static final int COST = 7;
+    private static final int NODE = 8;
+
+    private final int process[];
+    private final int initialSetup[];
+    private final int setup[][];
+
+    private int nodes[];
+
+    private int root;
+    private int nNodes;
+    private int free;
+    private int seed;
+
+    // Path from the root to the node of the last access (if depth > 0) and its position
+    private int path[];
+    private int depth;
+    private int pathIndex;
+
+    // Result of split()
+    private int splitLeft;
+    private int splitRight;
+
+    /**
+     * Instantiates a new (empty) TreeSequence of jobs of a machine.
+     *
+     * @param problem problem considered.
+     * @param machine id of the machine.
+     */
+    public TreeSequence(Problem problem, int machine) {
+        process = problem.processTimes[machine];
+        initialSetup = problem.initialSetupTimes[machine];
+        setup = problem.setupTimes[machine];
+
+        nodes = new int[((problem.nJobs + problem.nMachines - 1) / problem.nMachines + 2) * NODE];
+        root = 0;
+        nNodes = 1;
+        free = 0;
+        seed = 0x9E3779B9 ^ machine;
+        path = new int[64];
+        depth = 0;
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param sequence sequence to copy from.
+     */
+    private TreeSequence(TreeSequence sequence) {
+        process = sequence.process;
+        initialSetup = sequence.initialSetup;
+        setup = sequence.setup;
+
+        nodes = Arrays.copyOf(sequence.nodes, (sequence.nNodes + 1) * NODE);
+        root = sequence.root;
+        nNodes = sequence.nNodes;
+        free = sequence.free;
+        seed = sequence.seed;
+        path = new int[sequence.path.length];
+        depth = 0;
+    }
+
+    /**
+     * Gets the number of jobs in this sequence.
+     *
+     * @return the number of jobs.
+     */
+    public int size() {
+        return nodes[root + SIZE];
+    }
+
+    /**
+     * Gets the job in position {@param index}.
+     *
+     * @param index index (position) of the job.
+     * @return the job.
+     */
+    public int get(int index) {
+        int nodes[] = this.nodes;
+
+        // Same, next or previous position of the last access
+        if (depth > 0) {
+            if (index == pathIndex) {
+                return nodes[path[depth - 1] + JOB];
+            } else if (index == pathIndex + 1 && index < nodes[root + SIZE]) {
+                pathIndex = index;
+                return nodes[next() + JOB];
+            } else if (index == pathIndex - 1 && index >= 0) {
+                pathIndex = index;
+                return nodes[previous() + JOB];
+            }
+        }
+
+        pathIndex = index;
+        depth = 0;
+        int node = root;
+        while (true) {
+            push(node);
+            int leftSize = nodes[nodes[node + LEFT] + SIZE];
+            if (index < leftSize) {
+                node = nodes[node + LEFT];
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = nodes[node + RIGHT];
+            } else {
+                return nodes[node + JOB];
+            }
+        }
+    }
+
+    /**
+     * Sets the job in position {@param index}.
+     *
+     * @param index index (position) of the job to change.
+     * @param job   job to set the position to.
+     */
+    public void set(int index, int job) {
+        set(root, index, job);
+    }
+
+    /**
+     * Inserts job {@param job} in position {@param index}.
+     *
+     * @param index position (index) to which the job will be added.
+     * @param job   job to add.
+     */
+    public void insert(int index, int job) {
+        depth = 0;
+        root = insert(root, index, newNode(job));
+    }
+
+    /**
+     * Removes the job in position {@param index}.
+     *
+     * @param index index (position) of the job to remove.
+     */
+    public void remove(int index) {
+        depth = 0;
+        root = remove(root, index);
+    }
+
+    /**
+     * Replaces the jobs of this sequence by the {@param length} jobs starting
+     * at position {@param offset} of {@param jobs}.
+     *
+     * @param jobs   array with the jobs.
+     * @param offset position of the first job in {@param jobs}.
+     * @param length number of jobs.
+     */
+    public void load(int jobs[], int offset, int length) {
+        root = 0;
+        nNodes = 1;
+        free = 0;
+        depth = 0;
+        if (nodes.length < (length + 1) * NODE)
+            nodes = new int[(length + 1) * NODE];
+
+        for (int i = 0; i < length; i++)
+            root = merge(root, newNode(jobs[offset + i]));
+    }
+
+    /**
+     * Copies the jobs of this sequence to {@param jobs}, starting at position
+     * {@param offset}.
+     *
+     * @param jobs   array to copy the jobs to.
+     * @param offset position of the first job in {@param jobs}.
+     */
+    public void copyTo(int jobs[], int offset) {
+        copyTo(root, jobs, offset);
+    }
+
+    /**
+     * Computes the makespan of the jobs of this sequence in the machine.
+     *
+     * @return the makespan.
+     */
+    public int getMakespan() {
+        return (root == 0 ? 0 : initialSetup[nodes[root + FIRST]] + cost(root));
+    }
+
+    /**
+     * Creates and returns a copy of this sequence.
+     *
+     * @return the copy.
+     */
+    public TreeSequence copy() {
+        return new TreeSequence(this);
+    }
+
+    // region treap operations (a node is identified by its offset in the array of nodes)
+
+    /**
+     * Moves the path of the last access to the next node (in order), which
+     * must exist.
+     *
+     * @return the next node.
+     */
+    private int next() {
+        int node = nodes[path[depth - 1] + RIGHT];
+        if (node != 0) {
+            do {
+                push(node);
+                node = nodes[node + LEFT];
+            } while (node != 0);
+        } else {
+            int child;
+            do {
+                child = path[--depth];
+            } while (nodes[path[depth - 1] + RIGHT] == child);
+        }
+        return path[depth - 1];
+    }
+
+    /**
+     * Moves the path of the last access to the previous node (in order),
+     * which must exist.
+     *
+     * @return the previous node.
+     */
+    private int previous() {
+        int node = nodes[path[depth - 1] + LEFT];
+        if (node != 0) {
+            do {
+                push(node);
+                node = nodes[node + RIGHT];
+            } while (node != 0);
+        } else {
+            int child;
+            do {
+                child = path[--depth];
+            } while (nodes[path[depth - 1] + LEFT] == child);
+        }
+        return path[depth - 1];
+    }
+
+    private void push(int node) {
+        if (depth == path.length)
+            path = Arrays.copyOf(path, 2 * depth);
+        path[depth++] = node;
+    }
+
+    /**
+     * Updates the size and the first and last jobs of a node from its
+     * children, and marks its makespan as outdated.
+     *
+     * @param node the node.
+     */
+    private void update(int node) {
+        int nodes[] = this.nodes;
+        int l = nodes[node + LEFT], r = nodes[node + RIGHT];
+
+        nodes[node + SIZE] = 1 + nodes[l + SIZE] + nodes[r + SIZE];
+        nodes[node + FIRST] = (l != 0 ? nodes[l + FIRST] : nodes[node + JOB]);
+        nodes[node + LAST] = (r != 0 ? nodes[r + LAST] : nodes[node + JOB]);
+        nodes[node + COST] = -1;
+    }
+
+    /**
+     * Gets the makespan of a subtree without the initial setup time,
+     * recomputing it if it is outdated (only the subtrees changed are
+     * outdated).
+     *
+     * @param node root of the subtree.
+     * @return the makespan of the subtree.
+     */
+    private int cost(int node) {
+        int value = nodes[node + COST];
+        if (value < 0) {
+            int l = nodes[node + LEFT], r = nodes[node + RIGHT], j = nodes[node + JOB];
+            value = process[j];
+            if (l != 0)
+                value += cost(l) + setup[nodes[l + LAST]][j];
+            if (r != 0)
+                value += setup[j][nodes[r + FIRST]] + cost(r);
+            nodes[node + COST] = value;
+        }
+        return value;
+    }
+
+    /**
+     * Splits a tree in the tree with its first {@param k} jobs (splitLeft)
+     * and the tree with the remaining ones (splitRight).
+     *
+     * @param node root of the tree.
+     * @param k    number of jobs of the first tree.
+     */
+    private void split(int node, int k) {
+        if (node == 0) {
+            splitLeft = 0;
+            splitRight = 0;
+        } else if (nodes[nodes[node + LEFT] + SIZE] < k) {
+            split(nodes[node + RIGHT], k - nodes[nodes[node + LEFT] + SIZE] - 1);
+            nodes[node + RIGHT] = splitLeft;
+            update(node);
+            splitLeft = node;
+        } else {
+            split(nodes[node + LEFT], k);
+            nodes[node + LEFT] = splitRight;
+            update(node);
+            splitRight = node;
+        }
+    }
+
+    /**
+     * Merges two trees (the jobs of the first one precede the jobs of the
+     * second one).
+     *
+     * @param a root of the first tree.
+     * @param b root of the second tree.
+     * @return the root of the merged tree.
+     */
+    private int merge(int a, int b) {
+        if (a == 0) {
+            return b;
+        } else if (b == 0) {
+            return a;
+        } else if (nodes[a + PRIORITY] > nodes[b + PRIORITY]) {
+            nodes[a + RIGHT] = merge(nodes[a + RIGHT], b);
+            update(a);
+            return a;
+        } else {
+            nodes[b + LEFT] = merge(a, nodes[b + LEFT]);
+            update(b);
+            return b;
+        }
+    }
+
+    /**
+     * Inserts a node in position {@param index} of a tree. The tree is only
+     * split below the position given by the priority of the new node.
+     *
+     * @param node    root of the tree.
+     * @param index   position (index) to which the node will be added.
+     * @param newNode node to insert.
+     * @return the root of the tree.
+     */
+    private int insert(int node, int index, int newNode) {
+        if (node == 0) {
+            return newNode;
+        } else if (nodes[newNode + PRIORITY] > nodes[node + PRIORITY]) {
+            split(node, index);
+            nodes[newNode + LEFT] = splitLeft;
+            nodes[newNode + RIGHT] = splitRight;
+            update(newNode);
+            return newNode;
+        }
+
+        int leftSize = nodes[nodes[node + LEFT] + SIZE];
+        if (index <= leftSize) {
+            nodes[node + LEFT] = insert(nodes[node + LEFT], index, newNode);
+        } else {
+            nodes[node + RIGHT] = insert(nodes[node + RIGHT], index - leftSize - 1, newNode);
+        }
+        update(node);
+        return node;
+    }
+
+    private void set(int node, int index, int job) {
+        int leftSize = nodes[nodes[node + LEFT] + SIZE];
+        if (index < leftSize) {
+            set(nodes[node + LEFT], index, job);
+        } else if (index > leftSize) {
+            set(nodes[node + RIGHT], index - leftSize - 1, job);
+        } else {
+            nodes[node + JOB] = job;
+        }
+        update(node);
+    }
+
+    private int remove(int node, int index) {
+        int leftSize = nodes[nodes[node + LEFT] + SIZE];
+        if (index < leftSize) {
+            nodes[node + LEFT] = remove(nodes[node + LEFT], index);
+        } else if (index > leftSize) {
+            nodes[node + RIGHT] = remove(nodes[node + RIGHT], index - leftSize - 1);
+        } else {
+            int merged = merge(nodes[node + LEFT], nodes[node + RIGHT]);
+            nodes[node + LEFT] = free;
+            free = node;
+            return merged;
+        }
+        update(node);
+        return node;
+    }
+
+    private int copyTo(int node, int jobs[], int offset) {
+        if (node == 0) {
+            return offset;
+        }
+        offset = copyTo(nodes[node + LEFT], jobs, offset);
+        jobs[offset++] = nodes[node + JOB];
+        return copyTo(nodes[node + RIGHT], jobs, offset);
+    }
+
+    /**
+     * Creates a node (a leaf) with job {@param job}, reusing a node removed,
+     * if any.
+     *
+     * @param job the job.
+     * @return the node.
+     */
+    private int newNode(int job) {
+        int node;
+        if (free != 0) {
+            node = free;
+            free = nodes[node + LEFT];
+        } else {
+            if ((nNodes + 1) * NODE > nodes.length)
+                nodes = Arrays.copyOf(nodes, 2 * nNodes * NODE);
+            node = nNodes++ * NODE;
+        }
+
+        // Xorshift generator for the priorities
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+
+        nodes[node + LEFT] = 0;
+        nodes[node + RIGHT] = 0;
+        nodes[node + PRIORITY] = seed;
+        nodes[node + JOB] = job;
+        update(node);
+        return node;
+    }
+
+    // endregion
+}
@@ -0,0 +1,51 @@
+package upmsp.trace;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Constants of the binary trace of a search.
+ *
+ * The file starts with the magic bytes "UPMSPTR1" and a header with the name of the instance, the seed, the name of the
+ * algorithm, the number of machines and jobs, the moves (name and number of parameters of each one) and the initial
+ * solution (number of jobs and jobs of each machine). Then there is a record per iteration:
+ * <ul>
+ * <li>a byte with the index of the move (bits 0 to 4) and the flags of the iteration (see {@link #FLAG_INTENSIFICATION},
+ * {@link #FLAG_MAKESPAN_MACHINE} and {@link #FLAG_ACCEPTED});</li>
+ * <li>the parameters of the move (machines and positions) as variable-length integers;</li>
+ * <li>the impact (delta cost) of the move, zigzag encoded as a variable-length integer.</li>
+ * </ul>
+ * The trace ends with the byte {@link #END}, followed by the number of iterations, the cost of the current solution
+ * and the cost of the best solution (as variable-length integers). Strings of the header are written as by
+ * {@link java.io.DataOutput#writeUTF(String)}.
+ *
+ * @author Andre L. Maravilha
+ */
+class TraceFormat {
+
+    static final byte[] MAGIC = "UPMSPTR1".getBytes(StandardCharsets.US_ASCII);
+
+    static final int MOVE_MASK = 0x1F;
+    static final int FLAG_INTENSIFICATION = 0x20;
+    static final int FLAG_MAKESPAN_MACHINE = 0x40;
+    static final int FLAG_ACCEPTED = 0x80;
+    static final int END = 0xFF;
+
+    /**
+     * Maximum number of moves (the index {@link #MOVE_MASK} is reserved for the end of the trace).
+     */
+    static final int MAX_MOVES = MOVE_MASK;
+
+    /**
+     * Maximum number of parameters of a move.
+     */
+    static final int MAX_PARAMETERS = 8;
+
+    static long encodeZigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long decodeZigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+}
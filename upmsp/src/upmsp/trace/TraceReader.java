@@ -0,0 +1,301 @@
+package upmsp.trace;
+
+import upmsp.model.Problem;
+import upmsp.model.solution.Solution;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Read a trace written by {@link TraceWriter}, one iteration at a time (see {@link #next()}).
+ *
+ * @author Andre L. Maravilha
+ */
+public class TraceReader implements Closeable {
+
+    private final InputStream input;
+    private final byte[] buffer = new byte[TraceWriter.BUFFER_SIZE];
+    private int position = 0;
+    private int limit = 0;
+
+    // Header
+    private final String instance;
+    private final long seed;
+    private final String algorithm;
+    private final int nMachines;
+    private final int nJobs;
+    private final List<String> moveNames;
+    private final int[][] initialSolution;
+
+    // Current record
+    private final int[][] parameters;
+    private int move;
+    private int flags;
+    private int deltaCost;
+
+    // End of the trace
+    private boolean ended = false;
+    private long iterations;
+    private int currentCost;
+    private int bestCost;
+
+    /**
+     * Constructor. The header of the trace is read.
+     * @param input Stream to the trace file.
+     * @throws IOException If an error occurs while reading or if the stream is not a trace.
+     */
+    public TraceReader(InputStream input) throws IOException {
+        this.input = input;
+
+        // The header is read through the buffer of the records
+        DataInputStream header = new DataInputStream(new InputStream() {
+            @Override
+            public int read() throws IOException {
+                return TraceReader.this.read();
+            }
+        });
+
+        byte[] magic = new byte[TraceFormat.MAGIC.length];
+        try {
+            header.readFully(magic);
+        } catch (EOFException e) {
+            throw new IOException("Not a trace file.");
+        }
+        if (!Arrays.equals(magic, TraceFormat.MAGIC)) {
+            throw new IOException("Not a trace file.");
+        }
+
+        instance = header.readUTF();
+        seed = header.readLong();
+        algorithm = header.readUTF();
+        nMachines = header.readInt();
+        nJobs = header.readInt();
+
+        int nMoves = header.readInt();
+        if (nMoves < 0 || nMoves > TraceFormat.MAX_MOVES) {
+            throw new IOException("Invalid number of moves in the trace: " + nMoves);
+        }
+        moveNames = new ArrayList<>(nMoves);
+        parameters = new int[nMoves][];
+        for (int m = 0; m < nMoves; ++m) {
+            moveNames.add(header.readUTF());
+            int nParameters = header.readInt();
+            if (nParameters < 0 || nParameters > TraceFormat.MAX_PARAMETERS) {
+                throw new IOException("Invalid number of parameters in the trace: " + nParameters);
+            }
+            parameters[m] = new int[nParameters];
+        }
+
+        initialSolution = new int[nMachines][];
+        for (int m = 0; m < nMachines; ++m) {
+            initialSolution[m] = new int[header.readInt()];
+            for (int i = 0; i < initialSolution[m].length; ++i) {
+                initialSolution[m][i] = header.readInt();
+            }
+        }
+    }
+
+    /**
+     * Read the next iteration.
+     * @return true if an iteration was read, false if the end of the trace was reached.
+     * @throws IOException If an error occurs while reading or if the trace is truncated or malformed.
+     */
+    public boolean next() throws IOException {
+        if (ended) {
+            return false;
+        }
+
+        int header = read();
+        if (header < 0) {
+            throw new IOException("The trace is truncated (the end of the search was not recorded).");
+        }
+
+        if (header == TraceFormat.END) {
+            iterations = readVarLong();
+            currentCost = (int) readVarLong();
+            bestCost = (int) readVarLong();
+            ended = true;
+            return false;
+        }
+
+        move = header & TraceFormat.MOVE_MASK;
+        flags = header;
+        if (move >= parameters.length) {
+            throw new IOException("Invalid move in the trace: " + move);
+        }
+
+        int[] moveParameters = parameters[move];
+        for (int i = 0; i < moveParameters.length; ++i) {
+            moveParameters[i] = (int) readVarLong();
+        }
+        deltaCost = (int) TraceFormat.decodeZigzag(readVarLong());
+        return true;
+    }
+
+    /**
+     * Return the name of the instance.
+     * @return The name of the instance.
+     */
+    public String getInstance() {
+        return instance;
+    }
+
+    /**
+     * Return the seed of the search.
+     * @return The seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Return the name of the algorithm.
+     * @return The name of the algorithm.
+     */
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Return the names of the moves (a move is identified by its index in this list).
+     * @return The names of the moves.
+     */
+    public List<String> getMoveNames() {
+        return Collections.unmodifiableList(moveNames);
+    }
+
+    /**
+     * Create the initial solution of the search.
+     * @param problem The instance of the problem.
+     * @return The initial solution.
+     * @throws IOException If the trace is not of an instance with the size of the problem or if the initial solution
+     *                     is not valid.
+     */
+    public Solution getInitialSolution(Problem problem) throws IOException {
+        if (problem.nMachines != nMachines || problem.nJobs != nJobs) {
+            throw new IOException(String.format("The trace is of an instance with %d jobs and %d machines.",
+                    nJobs, nMachines));
+        }
+
+        Solution solution = new Solution(problem);
+        for (int m = 0; m < nMachines; ++m) {
+            for (int job : initialSolution[m]) {
+                if (job < 0 || job >= nJobs) {
+                    throw new IOException("Invalid job in the initial solution of the trace: " + job);
+                }
+                solution.machines[m].addJob(job);
+            }
+        }
+        solution.updateCost();
+        return solution;
+    }
+
+    /**
+     * Return the index of the move of the current iteration.
+     * @return The index of the move.
+     */
+    public int getMove() {
+        return move;
+    }
+
+    /**
+     * Return the parameters of the move of the current iteration (see
+     * {@link upmsp.algorithm.neighborhood.Move#getParameters(int[])}). The array is reused by the next iterations.
+     * @return The parameters of the move.
+     */
+    public int[] getParameters() {
+        return parameters[move];
+    }
+
+    /**
+     * Return whether the intensification policy was used in the current iteration.
+     * @return true if the intensification policy was used, false otherwise.
+     */
+    public boolean isIntensificationPolicy() {
+        return (flags & TraceFormat.FLAG_INTENSIFICATION) != 0;
+    }
+
+    /**
+     * Return whether the makespan machine was used in the current iteration.
+     * @return true if the makespan machine was used, false otherwise.
+     */
+    public boolean isMakespanMachine() {
+        return (flags & TraceFormat.FLAG_MAKESPAN_MACHINE) != 0;
+    }
+
+    /**
+     * Return whether the move of the current iteration was accepted.
+     * @return true if the move was accepted, false otherwise.
+     */
+    public boolean isAccepted() {
+        return (flags & TraceFormat.FLAG_ACCEPTED) != 0;
+    }
+
+    /**
+     * Return the impact (delta cost) of the move of the current iteration.
+     * @return The impact (delta cost) of the move.
+     */
+    public int getDeltaCost() {
+        return deltaCost;
+    }
+
+    /**
+     * Return the number of iterations of the search (available at the end of the trace).
+     * @return The number of iterations.
+     */
+    public long getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Return the cost of the current solution at the end of the search (available at the end of the trace).
+     * @return The cost of the current solution.
+     */
+    public int getCurrentCost() {
+        return currentCost;
+    }
+
+    /**
+     * Return the cost of the best solution of the search (available at the end of the trace).
+     * @return The cost of the best solution.
+     */
+    public int getBestCost() {
+        return bestCost;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = input.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0L;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = read();
+            if (b < 0) {
+                throw new IOException("The trace is truncated.");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length integer.");
+    }
+
+}
@@ -0,0 +1,176 @@
+package upmsp.trace;
+
+import upmsp.algorithm.neighborhood.Move;
+import upmsp.model.solution.Machine;
+import upmsp.model.solution.Solution;
+
+import java.io.*;
+import java.util.List;
+
+/**
+ * Record the iterations of a search in a compact binary trace (see {@link TraceFormat} for the layout of the file),
+ * which can be replayed by {@link TraceReader}. Records are encoded in a buffer that is written to the output stream
+ * only when full, so recording an iteration costs a few bytes of memory writes. An error while writing does not
+ * interrupt the search: the following records are discarded and the error is thrown by {@link #close()}.
+ *
+ * @author Andre L. Maravilha
+ */
+public class TraceWriter implements Closeable {
+
+    /**
+     * Size (in bytes) of the buffer of records.
+     */
+    public static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Maximum size (in bytes) of a record: the header, the parameters and the delta cost (at most 10 bytes for each
+     * variable-length integer).
+     */
+    private static final int MAX_RECORD_SIZE = 1 + (TraceFormat.MAX_PARAMETERS + 1) * 10;
+
+    private final OutputStream output;
+    private final List<Move> moves;
+    private final int[] parameters;
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int size = 0;
+
+    private IOException error = null;
+
+    /**
+     * Constructor. The header of the trace is written.
+     * @param output Stream to the trace file.
+     * @param instance Name of the instance.
+     * @param seed Seed of the search.
+     * @param algorithm Name of the algorithm.
+     * @param moves Moves of the heuristic (a move is identified in the records by its index in this list).
+     * @param initialSolution Initial solution of the search.
+     * @throws IOException If an error occurs while writing.
+     */
+    public TraceWriter(OutputStream output, String instance, long seed, String algorithm, List<Move> moves,
+                       Solution initialSolution) throws IOException {
+
+        if (moves.size() > TraceFormat.MAX_MOVES) {
+            throw new IllegalArgumentException("Too many moves to trace: " + moves.size());
+        }
+
+        this.output = output;
+        this.moves = moves;
+
+        int maxParameters = 0;
+        for (Move move : moves) {
+            maxParameters = Math.max(maxParameters, move.getNParameters());
+        }
+        if (maxParameters > TraceFormat.MAX_PARAMETERS) {
+            throw new IllegalArgumentException("Too many parameters to trace: " + maxParameters);
+        }
+        this.parameters = new int[maxParameters];
+
+        // Header
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream header = new DataOutputStream(bytes);
+        header.write(TraceFormat.MAGIC);
+        header.writeUTF(instance);
+        header.writeLong(seed);
+        header.writeUTF(algorithm);
+        header.writeInt(initialSolution.problem.nMachines);
+        header.writeInt(initialSolution.problem.nJobs);
+        header.writeInt(moves.size());
+        for (Move move : moves) {
+            header.writeUTF(move.name);
+            header.writeInt(move.getNParameters());
+        }
+        for (Machine machine : initialSolution.machines) {
+            header.writeInt(machine.getNJobs());
+            for (int i = 0; i < machine.getNJobs(); ++i) {
+                header.writeInt(machine.getJob(i));
+            }
+        }
+        header.flush();
+        output.write(bytes.toByteArray());
+    }
+
+    /**
+     * Record an iteration. It must be called after doMove() and before accept() or reject() of the move.
+     * @param move The move done in the iteration.
+     * @param useIntensificationPolicy The strategy of the move (intensification policy or not).
+     * @param useMakespanMachine The strategy of the move (makespan machine or random machine).
+     * @param accepted Whether the move is accepted.
+     */
+    public void record(Move move, boolean useIntensificationPolicy, boolean useMakespanMachine, boolean accepted) {
+        if (size > BUFFER_SIZE - MAX_RECORD_SIZE) {
+            flushBuffer();
+        }
+
+        int header = moves.indexOf(move);
+        if (useIntensificationPolicy) {
+            header |= TraceFormat.FLAG_INTENSIFICATION;
+        }
+        if (useMakespanMachine) {
+            header |= TraceFormat.FLAG_MAKESPAN_MACHINE;
+        }
+        if (accepted) {
+            header |= TraceFormat.FLAG_ACCEPTED;
+        }
+        buffer[size++] = (byte) header;
+
+        int nParameters = move.getNParameters();
+        move.getParameters(parameters);
+        for (int i = 0; i < nParameters; ++i) {
+            writeVarLong(parameters[i]);
+        }
+        writeVarLong(TraceFormat.encodeZigzag(move.getDeltaCost()));
+    }
+
+    /**
+     * Record the end of the search.
+     * @param iterations Number of iterations.
+     * @param currentCost Cost of the current solution.
+     * @param bestCost Cost of the best solution.
+     */
+    public void end(long iterations, int currentCost, int bestCost) {
+        if (size > BUFFER_SIZE - MAX_RECORD_SIZE) {
+            flushBuffer();
+        }
+        buffer[size++] = (byte) TraceFormat.END;
+        writeVarLong(iterations);
+        writeVarLong(currentCost);
+        writeVarLong(bestCost);
+    }
+
+    /**
+     * Write the records in the buffer and close the stream.
+     * @throws IOException If an error occurred while writing (now or while recording).
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBuffer();
+            if (error != null) {
+                throw error;
+            }
+        } finally {
+            output.close();
+        }
+    }
+
+    private void writeVarLong(long value) {
+        while ((value & ~0x7FL) != 0L) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    private void flushBuffer() {
+        if (error == null) {
+            try {
+                output.write(buffer, 0, size);
+            } catch (IOException e) {
+                error = e;
+            }
+        }
+        size = 0;
+    }
+
+}
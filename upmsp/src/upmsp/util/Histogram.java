@@ -0,0 +1,187 @@
+package upmsp.util;
+
+/**
+ * Histogram of non-negative values (e.g., durations in nanoseconds) with fixed buckets in log scale. Each power of two
+ * is split into four buckets, so the relative error of a value taken from its bucket is at most 25%. Recording a value
+ * does not allocate memory.
+ *
+ * @author Andre L. Maravilha
+ */
+public class Histogram {
+
+    /**
+     * Number of bits of a value (besides the most significant one) that select its bucket within its power of two.
+     */
+    private static final int SUB_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    /**
+     * Number of buckets (enough for any non-negative long).
+     */
+    public static final int N_BUCKETS = SUB_BUCKETS + (63 - SUB_BITS) * SUB_BUCKETS;
+
+    private final long[] counts = new long[N_BUCKETS];
+    private long count = 0L;
+    private long sum = 0L;
+    private long min = Long.MAX_VALUE;
+    private long max = 0L;
+
+    /**
+     * Record a value. Negative values are recorded as zero.
+     * @param value The value.
+     */
+    public void record(long value) {
+        if (value < 0L) {
+            value = 0L;
+        }
+        counts[getBucket(value)]++;
+        count++;
+        sum += value;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * Add the values recorded by another histogram to this one.
+     * @param other The other histogram.
+     */
+    public void merge(Histogram other) {
+        for (int i = 0; i < N_BUCKETS; ++i) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Remove all values recorded.
+     */
+    public void reset() {
+        for (int i = 0; i < N_BUCKETS; ++i) {
+            counts[i] = 0L;
+        }
+        count = 0L;
+        sum = 0L;
+        min = Long.MAX_VALUE;
+        max = 0L;
+    }
+
+    /**
+     * Number of values recorded.
+     * @return number of values recorded.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Sum of the values recorded.
+     * @return sum of the values recorded.
+     */
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * Smallest value recorded.
+     * @return smallest value recorded (or zero if no value was recorded).
+     */
+    public long getMin() {
+        return (count > 0L ? min : 0L);
+    }
+
+    /**
+     * Largest value recorded.
+     * @return largest value recorded (or zero if no value was recorded).
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Mean of the values recorded.
+     * @return mean of the values recorded (or zero if no value was recorded).
+     */
+    public double getMean() {
+        return (count > 0L ? sum / (double) count : 0.0);
+    }
+
+    /**
+     * Estimate a percentile of the values recorded. The estimate is the largest value of the bucket of the
+     * percentile (limited to the largest value recorded).
+     * @param percentile The percentile (from 0 to 100).
+     * @return the estimate of the percentile (or zero if no value was recorded).
+     */
+    public long getPercentile(double percentile) {
+        if (count == 0L) {
+            return 0L;
+        }
+
+        long rank = Math.max(1L, (long) Math.ceil(count * Math.min(100.0, Math.max(0.0, percentile)) / 100.0));
+        long cumulative = 0L;
+        for (int i = 0; i < N_BUCKETS; ++i) {
+            cumulative += counts[i];
+            if (cumulative >= rank) {
+                return Math.max(getMin(), Math.min(max, getBucketUpperBound(i)));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Number of values recorded in a bucket.
+     * @param bucket The index of the bucket.
+     * @return number of values recorded in the bucket.
+     */
+    public long getBucketCount(int bucket) {
+        return counts[bucket];
+    }
+
+    /**
+     * Return the index of the bucket of a value.
+     * @param value The value (non-negative).
+     * @return the index of the bucket.
+     */
+    public static int getBucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + (exponent - SUB_BITS) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Return the smallest value of a bucket.
+     * @param bucket The index of the bucket.
+     * @return the smallest value of the bucket.
+     */
+    public static long getBucketLowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = (bucket - SUB_BUCKETS) / SUB_BUCKETS + SUB_BITS;
+        int sub = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub)) << (exponent - SUB_BITS);
+    }
+
+    /**
+     * Return the largest value of a bucket.
+     * @param bucket The index of the bucket.
+     * @return the largest value of the bucket.
+     */
+    public static long getBucketUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = (bucket - SUB_BUCKETS) / SUB_BUCKETS + SUB_BITS;
+        return getBucketLowerBound(bucket) + (1L << (exponent - SUB_BITS)) - 1L;
+    }
+
+}
@@ -0,0 +1,260 @@
+package upmsp.util;
+
+import java.util.*;
+
+/**
+ * This class is a Simple JSON implementation, enough to read and write the
+ * small messages exchanged with the solver service. Objects are read as
+ * {@link Map}s, arrays as {@link List}s, numbers as {@link Long}s or
+ * {@link Double}s, and strings, booleans and null as the corresponding Java
+ * values.
+ *
+ * @author Andre L. Maravilha
+ */
+public class SimpleJson {
+
+    private final String str;
+    private int pos;
+
+
+    private SimpleJson(String str) {
+        this.str = str;
+        this.pos = 0;
+    }
+
+    /**
+     * Parses a JSON value.
+     *
+     * @param str the String to parse.
+     * @return the value.
+     * @throws IllegalArgumentException if the String is not a valid JSON value.
+     */
+    public static Object parse(String str) {
+        SimpleJson json = new SimpleJson(str);
+        Object value = json.readValue();
+        json.skipWhitespaces();
+        if (json.pos < str.length()) {
+            throw json.error("unexpected character");
+        }
+        return value;
+    }
+
+    /**
+     * Parses a JSON object.
+     *
+     * @param str the String to parse.
+     * @return the object as a map (keys keep their order).
+     * @throws IllegalArgumentException if the String is not a valid JSON object.
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> parseObject(String str) {
+        Object value = parse(str);
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException("JSON object expected");
+        }
+        return (Map<String, Object>) value;
+    }
+
+    /**
+     * Writes a value as JSON. Maps, iterables, int arrays, numbers, booleans,
+     * null and Strings are supported (any other object is written as a
+     * String).
+     *
+     * @param value the value.
+     * @return the JSON representation of the value.
+     */
+    public static String toString(Object value) {
+        StringBuilder builder = new StringBuilder();
+        write(builder, value);
+        return builder.toString();
+    }
+
+    /**
+     * Writes a value as JSON.
+     *
+     * @param builder the builder the value is appended to.
+     * @param value   the value.
+     */
+    public static void write(StringBuilder builder, Object value) {
+        if (value == null) {
+            builder.append("null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            builder.append(value);
+        } else if (value instanceof Map) {
+            builder.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (!first) builder.append(',');
+                first = false;
+                quote(builder, String.valueOf(entry.getKey()));
+                builder.append(':');
+                write(builder, entry.getValue());
+            }
+            builder.append('}');
+        } else if (value instanceof Iterable) {
+            builder.append('[');
+            boolean first = true;
+            for (Object item : (Iterable<?>) value) {
+                if (!first) builder.append(',');
+                first = false;
+                write(builder, item);
+            }
+            builder.append(']');
+        } else if (value instanceof int[]) {
+            int[] array = (int[]) value;
+            builder.append('[');
+            for (int i = 0; i < array.length; i++) {
+                if (i > 0) builder.append(',');
+                builder.append(array[i]);
+            }
+            builder.append(']');
+        } else {
+            quote(builder, value.toString());
+        }
+    }
+
+
+    private static void quote(StringBuilder builder, String str) {
+        builder.append('"');
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            switch (c) {
+                case '"':  builder.append("\\\""); break;
+                case '\\': builder.append("\\\\"); break;
+                case '\n': builder.append("\\n"); break;
+                case '\r': builder.append("\\r"); break;
+                case '\t': builder.append("\\t"); break;
+                default:
+                    if (c < 0x20) builder.append(String.format("\\u%04x", (int) c));
+                    else builder.append(c);
+            }
+        }
+        builder.append('"');
+    }
+
+    private Object readValue() {
+        skipWhitespaces();
+        if (pos >= str.length()) throw error("unexpected end");
+
+        char c = str.charAt(pos);
+        switch (c) {
+            case '{': return readObject();
+            case '[': return readArray();
+            case '"': return readString();
+            case 't': return readLiteral("true", Boolean.TRUE);
+            case 'f': return readLiteral("false", Boolean.FALSE);
+            case 'n': return readLiteral("null", null);
+            default:  return readNumber();
+        }
+    }
+
+    private Map<String, Object> readObject() {
+        Map<String, Object> object = new LinkedHashMap<>();
+        pos++;
+        skipWhitespaces();
+        if (pos < str.length() && str.charAt(pos) == '}') {
+            pos++;
+            return object;
+        }
+        while (true) {
+            skipWhitespaces();
+            if (pos >= str.length() || str.charAt(pos) != '"') throw error("string expected");
+            String key = readString();
+            expect(':');
+            object.put(key, readValue());
+            skipWhitespaces();
+            if (pos < str.length() && str.charAt(pos) == ',') {
+                pos++;
+            } else {
+                expect('}');
+                return object;
+            }
+        }
+    }
+
+    private List<Object> readArray() {
+        List<Object> array = new ArrayList<>();
+        pos++;
+        skipWhitespaces();
+        if (pos < str.length() && str.charAt(pos) == ']') {
+            pos++;
+            return array;
+        }
+        while (true) {
+            array.add(readValue());
+            skipWhitespaces();
+            if (pos < str.length() && str.charAt(pos) == ',') {
+                pos++;
+            } else {
+                expect(']');
+                return array;
+            }
+        }
+    }
+
+    private String readString() {
+        StringBuilder builder = new StringBuilder();
+        pos++;
+        while (pos < str.length()) {
+            char c = str.charAt(pos++);
+            if (c == '"') {
+                return builder.toString();
+            } else if (c == '\\') {
+                if (pos >= str.length()) break;
+                char e = str.charAt(pos++);
+                switch (e) {
+                    case 'n': builder.append('\n'); break;
+                    case 'r': builder.append('\r'); break;
+                    case 't': builder.append('\t'); break;
+                    case 'b': builder.append('\b'); break;
+                    case 'f': builder.append('\f'); break;
+                    case 'u':
+                        if (pos + 4 > str.length()) throw error("invalid escape");
+                        builder.append((char) Integer.parseInt(str.substring(pos, pos + 4), 16));
+                        pos += 4;
+                        break;
+                    default: builder.append(e);
+                }
+            } else {
+                builder.append(c);
+            }
+        }
+        throw error("unterminated string");
+    }
+
+    private Object readLiteral(String literal, Object value) {
+        if (!str.startsWith(literal, pos)) throw error("unexpected character");
+        pos += literal.length();
+        return value;
+    }
+
+    private Number readNumber() {
+        int start = pos;
+        boolean integer = true;
+        while (pos < str.length() && "+-0123456789.eE".indexOf(str.charAt(pos)) >= 0) {
+            integer &= "0123456789-".indexOf(str.charAt(pos)) >= 0;
+            pos++;
+        }
+        if (start == pos) throw error("unexpected character");
+        try {
+            String token = str.substring(start, pos);
+            return integer ? (Number) Long.parseLong(token) : (Number) Double.parseDouble(token);
+        } catch (NumberFormatException e) {
+            throw error("invalid number");
+        }
+    }
+
+    private void expect(char c) {
+        skipWhitespaces();
+        if (pos >= str.length() || str.charAt(pos) != c) throw error("'" + c + "' expected");
+        pos++;
+    }
+
+    private void skipWhitespaces() {
+        while (pos < str.length() && Character.isWhitespace(str.charAt(pos))) pos++;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(String.format("Invalid JSON (%s at position %d)", message, pos));
+    }
+}
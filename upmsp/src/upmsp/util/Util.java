@@ -63,6 +63,78 @@ public class Util {
     }
 
 
+    /**
+     * Prints the header of the table of timing of the moves (see {@link #safePrintMoveTimings(PrintStream, Move, long)}),
+     * after checking that the PrintStream is not null.
+     *
+     * @param output the output stream.
+     */
+    public static void safePrintMoveTimingsHeader(PrintStream output) {
+        if (output != null) {
+            output.printf("+------------------------------------------------------------------------------------------------------------------------------------+\n");
+            output.printf("|                                                 Neighborhoods timing (nanoseconds)                                                 |\n");
+            output.printf("+-----------------------+------------------+------------+----------+----------+----------+----------+----------+----------+----------+\n");
+            output.printf("|          Move         |     Strategy     |  Time (s)  |  Time %%  |   Mean   |   p50    |   p99    |   Max    | Rej. avg | Rej. p99 |\n");
+            output.printf("+-----------------------+------------------+------------+----------+----------+----------+----------+----------+----------+----------+\n");
+        }
+    }
+
+    /**
+     * Prints the footer of the table of timing of the moves, after checking that the PrintStream is not null.
+     *
+     * @param output the output stream.
+     */
+    public static void safePrintMoveTimingsFooter(PrintStream output) {
+        if (output != null) {
+            output.printf("+-----------------------+------------------+------------+----------+----------+----------+----------+----------+----------+----------+\n\n");
+        }
+    }
+
+    /**
+     * Prints the timing of the calls to doMove and reject of a Move (overall and of each strategy) using the table
+     * style, after checking that the PrintStream is not null. The time column is the time of the calls to doMove and
+     * reject, and its percentage is relative to the total time of the moves.
+     *
+     * @param output        the output stream.
+     * @param move          the Move considered.
+     * @param totalTimeNano total time (in nanoseconds) of the calls to doMove and reject of all moves.
+     */
+    public static void safePrintMoveTimings(PrintStream output, Move move, long totalTimeNano) {
+        if (output != null) {
+            safePrintMoveTimings(output, move.name, "all", move.getStats(), totalTimeNano);
+            safePrintMoveTimings(output, "", "regular/random", move.getStats(false, false), totalTimeNano);
+            safePrintMoveTimings(output, "", "regular/makespan", move.getStats(false, true), totalTimeNano);
+            safePrintMoveTimings(output, "", "intens./random", move.getStats(true, false), totalTimeNano);
+            safePrintMoveTimings(output, "", "intens./makespan", move.getStats(true, true), totalTimeNano);
+        }
+    }
+
+    /**
+     * Prints a row of the table of timing of the moves.
+     *
+     * @param output        the output stream.
+     * @param name          name of the move (or empty).
+     * @param strategy      name of the strategy.
+     * @param stats         stats of the move in the strategy.
+     * @param totalTimeNano total time (in nanoseconds) of the calls to doMove and reject of all moves.
+     */
+    private static void safePrintMoveTimings(PrintStream output, String name, String strategy, Move.Stats stats, long totalTimeNano) {
+        Histogram doMoveTime = stats.getDoMoveTime();
+        Histogram rejectTime = stats.getRejectTime();
+        long timeNano = doMoveTime.getSum() + rejectTime.getSum();
+        output.printf("| %-21s | %-16s | %10.3f | %7.2f%% | %8s | %8s | %8s | %8s | %8s | %8s |\n",
+                name,
+                strategy,
+                timeNano / 1e9,
+                100.0 * (timeNano / (double) Math.max(1L, totalTimeNano)),
+                longToString(Math.round(doMoveTime.getMean())),
+                longToString(doMoveTime.getPercentile(50.0)),
+                longToString(doMoveTime.getPercentile(99.0)),
+                longToString(doMoveTime.getMax()),
+                longToString(Math.round(rejectTime.getMean())),
+                longToString(rejectTime.getPercentile(99.0)));
+    }
+
     /**
      * Prints the current solution status after checking that the PrintStream is not null.
      *